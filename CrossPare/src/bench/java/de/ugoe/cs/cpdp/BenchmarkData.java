@@ -0,0 +1,246 @@
+// Copyright 2015 Georg-August-Universität Göttingen, Germany
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+package de.ugoe.cs.cpdp;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import de.ugoe.cs.cpdp.loader.CSVFolderLoader;
+import de.ugoe.cs.cpdp.util.WekaUtils;
+import de.ugoe.cs.cpdp.versions.SoftwareVersion;
+import weka.core.Attribute;
+import weka.core.DenseInstance;
+import weka.core.Instances;
+
+/**
+ * <p>
+ * Data for the benchmarks. The data is either synthetic, or sampled from the JURECZKO data in
+ * <code>testdata/JURECZKO</code>. The location of the JURECZKO data can be changed with the system
+ * property <code>crosspare.bench.jureczko</code>. The synthetic data has the same attributes as
+ * the JURECZKO data, i.e., 20 software metrics and a binary class attribute <code>bug</code>.
+ * </p>
+ * 
+ * @author Steffen Herbold
+ */
+public class BenchmarkData {
+
+    /**
+     * source of synthetic data
+     */
+    public static final String SYNTHETIC = "synthetic";
+
+    /**
+     * source of data sampled from the JURECZKO data
+     */
+    public static final String JURECZKO = "jureczko";
+
+    /**
+     * names of the metrics of the JURECZKO data
+     */
+    private static final List<String> METRICS =
+        Arrays.asList("wmc", "dit", "noc", "cbo", "rfc", "lcom", "ca", "ce", "npm", "lcom3", "loc",
+                      "dam", "moa", "mfa", "cam", "ic", "cbm", "amc", "max_cc", "avg_cc");
+
+    /**
+     * all instances of the JURECZKO data, loaded on demand
+     */
+    private static Instances jureczkoData = null;
+
+    /**
+     * <p>
+     * Creates data for a benchmark.
+     * </p>
+     *
+     * @param source
+     *            source of the data, i.e., {@link #SYNTHETIC} or {@link #JURECZKO}
+     * @param numInstances
+     *            number of instances; the JURECZKO data is sampled with replacement if it has less
+     *            instances
+     * @param seed
+     *            seed for the random generation or sampling
+     * @return the data
+     */
+    public static Instances create(String source, int numInstances, long seed) {
+        if (SYNTHETIC.equals(source)) {
+            return synthetic(numInstances, seed);
+        }
+        if (JURECZKO.equals(source)) {
+            return jureczko(numInstances, seed);
+        }
+        throw new IllegalArgumentException("unknown source of benchmark data: " + source);
+    }
+
+    /**
+     * <p>
+     * Splits data into a number of data sets of the same size, e.g., to simulate the training data
+     * of multiple products.
+     * </p>
+     *
+     * @param data
+     *            the data
+     * @param numParts
+     *            number of data sets
+     * @return the data sets
+     */
+    public static List<Instances> split(Instances data, int numParts) {
+        List<Instances> parts = new ArrayList<>(numParts);
+        int partSize = data.numInstances() / numParts;
+        for (int i = 0; i < numParts; i++) {
+            int end = i == numParts - 1 ? data.numInstances() : (i + 1) * partSize;
+            parts.add(new Instances(data, i * partSize, end - i * partSize));
+        }
+        return parts;
+    }
+
+    /**
+     * <p>
+     * Returns the efforts of the instances, i.e., the values of the attribute <code>loc</code>.
+     * </p>
+     *
+     * @param data
+     *            the data
+     * @return the efforts
+     */
+    @SuppressWarnings("boxing")
+    public static List<Double> efforts(Instances data) {
+        Attribute loc = data.attribute("loc");
+        List<Double> efforts = new ArrayList<>(data.numInstances());
+        for (int i = 0; i < data.numInstances(); i++) {
+            efforts.add(data.instance(i).value(loc));
+        }
+        return efforts;
+    }
+
+    /**
+     * <p>
+     * Returns the bug counts of the instances, i.e., the values of the class attribute.
+     * </p>
+     *
+     * @param data
+     *            the data
+     * @return the bug counts
+     */
+    @SuppressWarnings("boxing")
+    public static List<Double> numBugs(Instances data) {
+        List<Double> numBugs = new ArrayList<>(data.numInstances());
+        for (int i = 0; i < data.numInstances(); i++) {
+            numBugs.add(data.instance(i).classValue());
+        }
+        return numBugs;
+    }
+
+    /**
+     * <p>
+     * Creates synthetic data. The metrics follow log-normal distributions, which are typical for
+     * software metrics. The probability that an instance is defective grows with its size.
+     * </p>
+     *
+     * @param numInstances
+     *            number of instances
+     * @param seed
+     *            seed for the random generation
+     * @return the data
+     */
+    public static Instances synthetic(int numInstances, long seed) {
+        Random random = new Random(seed);
+        Instances data = new Instances(SYNTHETIC, createAttributes(), numInstances);
+        data.setClassIndex(METRICS.size());
+        int locIndex = METRICS.indexOf("loc");
+        for (int i = 0; i < numInstances; i++) {
+            double[] values = new double[METRICS.size() + 1];
+            for (int j = 0; j < METRICS.size(); j++) {
+                values[j] = Math.round(Math.exp(random.nextGaussian() + 2.0));
+            }
+            values[locIndex] = Math.round(Math.exp(random.nextGaussian() + 5.0));
+            double defectProbability = 1.0 / (1.0 + Math.exp(5.0 - Math.log(values[locIndex])));
+            values[METRICS.size()] = random.nextDouble() < defectProbability ? 1.0 : 0.0;
+            data.add(new DenseInstance(1.0, values));
+        }
+        return data;
+    }
+
+    /**
+     * <p>
+     * Samples data from the JURECZKO data.
+     * </p>
+     *
+     * @param numInstances
+     *            number of instances
+     * @param seed
+     *            seed for the sampling
+     * @return the data
+     */
+    public static Instances jureczko(int numInstances, long seed) {
+        Instances all = loadJureczko();
+        Random random = new Random(seed);
+        Instances data = new Instances(all, numInstances);
+        if (numInstances <= all.numInstances()) {
+            Instances shuffled = new Instances(all);
+            shuffled.randomize(random);
+            for (int i = 0; i < numInstances; i++) {
+                data.add(shuffled.instance(i));
+            }
+        }
+        else {
+            for (int i = 0; i < numInstances; i++) {
+                data.add(all.instance(random.nextInt(all.numInstances())));
+            }
+        }
+        return data;
+    }
+
+    /**
+     * <p>
+     * Helper method that loads all versions of the JURECZKO data into one data set.
+     * </p>
+     *
+     * @return the JURECZKO data
+     */
+    private static synchronized Instances loadJureczko() {
+        if (jureczkoData == null) {
+            CSVFolderLoader loader = new CSVFolderLoader();
+            loader.setLocation(System.getProperty("crosspare.bench.jureczko", "testdata/JURECZKO"));
+            loader.setClassType("binary");
+            List<Instances> versions = new ArrayList<>();
+            for (SoftwareVersion version : loader.load()) {
+                versions.add(version.getReadOnlyInstances());
+            }
+            if (versions.isEmpty()) {
+                throw new RuntimeException("JURECZKO data not found; set the system property " +
+                    "crosspare.bench.jureczko to its location");
+            }
+            jureczkoData = WekaUtils.concatenate(versions);
+        }
+        return jureczkoData;
+    }
+
+    /**
+     * <p>
+     * Helper method that creates the attributes of the JURECZKO data.
+     * </p>
+     *
+     * @return the attributes
+     */
+    private static ArrayList<Attribute> createAttributes() {
+        ArrayList<Attribute> attributes = new ArrayList<>();
+        for (String metric : METRICS) {
+            attributes.add(new Attribute(metric));
+        }
+        attributes.add(new Attribute("bug", Arrays.asList("0", "1")));
+        return attributes;
+    }
+}
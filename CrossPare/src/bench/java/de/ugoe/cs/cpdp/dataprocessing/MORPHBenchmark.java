@@ -0,0 +1,98 @@
+// Copyright 2015 Georg-August-Universität Göttingen, Germany
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+package de.ugoe.cs.cpdp.dataprocessing;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.ugoe.cs.cpdp.BenchmarkData;
+import weka.core.Instance;
+import weka.core.Instances;
+
+/**
+ * <p>
+ * Benchmarks of {@link MORPH#getNearestUnlikeNeighbor(Instance, Instances)}. Each invocation
+ * determines the nearest unlike neighbor of the next instance of the data.
+ * </p>
+ * 
+ * @author Steffen Herbold
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MORPHBenchmark {
+
+    /**
+     * source of the data, see {@link BenchmarkData}
+     */
+    @Param(
+        { BenchmarkData.SYNTHETIC, BenchmarkData.JURECZKO })
+    public String source;
+
+    /**
+     * number of instances
+     */
+    @Param(
+        { "500", "2000", "8000" })
+    public int size;
+
+    /**
+     * the data
+     */
+    private Instances data;
+
+    /**
+     * index of the next instance
+     */
+    private int next = 0;
+
+    /**
+     * <p>
+     * Creates the data.
+     * </p>
+     */
+    @Setup
+    public void setup() {
+        this.data = BenchmarkData.create(this.source, this.size, 1);
+    }
+
+    /**
+     * <p>
+     * Benchmark of {@link MORPH#getNearestUnlikeNeighbor(Instance, Instances)}.
+     * </p>
+     *
+     * @return the nearest unlike neighbor
+     */
+    @Benchmark
+    public Instance getNearestUnlikeNeighbor() {
+        Instance instance = this.data.instance(this.next);
+        this.next = (this.next + 1) % this.data.numInstances();
+        return MORPH.getNearestUnlikeNeighbor(instance, this.data);
+    }
+}
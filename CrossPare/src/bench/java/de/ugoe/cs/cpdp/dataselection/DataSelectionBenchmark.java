@@ -0,0 +1,124 @@
+// Copyright 2015 Georg-August-Universität Göttingen, Germany
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+package de.ugoe.cs.cpdp.dataselection;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.ugoe.cs.cpdp.BenchmarkData;
+import weka.core.Instances;
+
+/**
+ * <p>
+ * Benchmarks of the relevancy filters {@link TurhanFilter} and {@link PetersFilter}. The test data
+ * has a quarter of the size of the training data. The {@link PetersFilter} is deprecated, but
+ * still benchmarked, because it is used in published experiments.
+ * </p>
+ * 
+ * @author Steffen Herbold
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@SuppressWarnings("deprecation")
+public class DataSelectionBenchmark {
+
+    /**
+     * source of the data, see {@link BenchmarkData}
+     */
+    @Param(
+        { BenchmarkData.SYNTHETIC, BenchmarkData.JURECZKO })
+    public String source;
+
+    /**
+     * number of training instances
+     */
+    @Param(
+        { "500", "2000", "8000" })
+    public int size;
+
+    /**
+     * test data
+     */
+    private Instances testdata;
+
+    /**
+     * training data
+     */
+    private Instances traindata;
+
+    /**
+     * the Turhan filter
+     */
+    private TurhanFilter turhanFilter;
+
+    /**
+     * the Peters filter
+     */
+    private PetersFilter petersFilter;
+
+    /**
+     * <p>
+     * Creates the data and the filters.
+     * </p>
+     */
+    @Setup
+    public void setup() {
+        this.testdata = BenchmarkData.create(this.source, this.size / 4, 1);
+        this.traindata = BenchmarkData.create(this.source, this.size, 2);
+        this.turhanFilter = new TurhanFilter();
+        this.turhanFilter.setParameter("10");
+        this.petersFilter = new PetersFilter();
+        this.petersFilter.setParameter("");
+    }
+
+    /**
+     * <p>
+     * Benchmark of {@link TurhanFilter#apply(Instances, Instances)} with 10 neighbors.
+     * </p>
+     *
+     * @return the selected training data
+     */
+    @Benchmark
+    public Instances turhanFilter() {
+        return this.turhanFilter.apply(this.testdata, this.traindata);
+    }
+
+    /**
+     * <p>
+     * Benchmark of {@link PetersFilter#apply(Instances, Instances)}.
+     * </p>
+     *
+     * @return the selected training data
+     */
+    @Benchmark
+    public Instances petersFilter() {
+        return this.petersFilter.apply(this.testdata, this.traindata);
+    }
+}
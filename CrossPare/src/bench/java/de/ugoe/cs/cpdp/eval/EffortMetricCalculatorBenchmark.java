@@ -0,0 +1,123 @@
+// Copyright 2015 Georg-August-Universität Göttingen, Germany
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+package de.ugoe.cs.cpdp.eval;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.ugoe.cs.cpdp.BenchmarkData;
+import weka.classifiers.Classifier;
+import weka.classifiers.bayes.NaiveBayes;
+import weka.core.Instances;
+
+/**
+ * <p>
+ * Benchmarks of the {@link EffortMetricCalculator}, i.e., the prediction of the test data, the
+ * ranking of the predictions, and the calculation of all effort-aware metrics. The classifier is
+ * a naive Bayes classifier that is trained on separate training data of the same size.
+ * </p>
+ * 
+ * @author Steffen Herbold
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EffortMetricCalculatorBenchmark {
+
+    /**
+     * source of the data, see {@link BenchmarkData}
+     */
+    @Param(
+        { BenchmarkData.SYNTHETIC, BenchmarkData.JURECZKO })
+    public String source;
+
+    /**
+     * number of test instances
+     */
+    @Param(
+        { "500", "2000", "8000" })
+    public int size;
+
+    /**
+     * test data
+     */
+    private Instances testdata;
+
+    /**
+     * efforts of the test data
+     */
+    private List<Double> efforts;
+
+    /**
+     * bug counts of the test data
+     */
+    private List<Double> numBugs;
+
+    /**
+     * trained classifier
+     */
+    private Classifier classifier;
+
+    /**
+     * <p>
+     * Creates the data and trains the classifier.
+     * </p>
+     * 
+     * @throws Exception
+     *             if the classifier cannot be trained
+     */
+    @Setup
+    public void setup() throws Exception {
+        this.testdata = BenchmarkData.create(this.source, this.size, 1);
+        this.efforts = BenchmarkData.efforts(this.testdata);
+        this.numBugs = BenchmarkData.numBugs(this.testdata);
+        this.classifier = new NaiveBayes();
+        this.classifier.buildClassifier(BenchmarkData.create(this.source, this.size, 2));
+    }
+
+    /**
+     * <p>
+     * Benchmark of the creation of the {@link EffortMetricCalculator} and the calculation of all
+     * metrics.
+     * </p>
+     *
+     * @return sum of all metrics
+     */
+    @Benchmark
+    public double effortMetrics() {
+        EffortMetricCalculator calculator = new EffortMetricCalculator(this.testdata,
+                                                                       this.classifier,
+                                                                       this.efforts,
+                                                                       this.numBugs);
+        return calculator.getAUCEC() + calculator.getNofb20() + calculator.getRelb20() +
+            calculator.getNofi80() + calculator.getReli80() + calculator.getRele80() +
+            calculator.getNofBPredicted() + calculator.getNofBMissed();
+    }
+}
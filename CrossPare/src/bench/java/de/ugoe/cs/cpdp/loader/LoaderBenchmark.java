@@ -0,0 +1,281 @@
+// Copyright 2015 Georg-August-Universität Göttingen, Germany
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+package de.ugoe.cs.cpdp.loader;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.ugoe.cs.cpdp.BenchmarkData;
+import de.ugoe.cs.cpdp.versions.SoftwareVersion;
+import weka.core.Instance;
+import weka.core.Instances;
+
+/**
+ * <p>
+ * Benchmarks of the loaders for CSV files in the format of the JURECZKO data and ARFF files. The
+ * data is written into a temporary folder with one project and five versions, in both formats.
+ * The folder loaders are measured without the {@link VersionCache}.
+ * </p>
+ * 
+ * @author Steffen Herbold
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoaderBenchmark {
+
+    /**
+     * number of versions that are written
+     */
+    private static final int NUM_VERSIONS = 5;
+
+    /**
+     * source of the data, see {@link BenchmarkData}
+     */
+    @Param(
+        { BenchmarkData.SYNTHETIC, BenchmarkData.JURECZKO })
+    public String source;
+
+    /**
+     * number of instances of all versions
+     */
+    @Param(
+        { "500", "2000", "8000" })
+    public int size;
+
+    /**
+     * temporary folder with the data
+     */
+    private File folder;
+
+    /**
+     * folder with the data as CSV files
+     */
+    private File csvFolder;
+
+    /**
+     * folder with the data as ARFF files
+     */
+    private File arffFolder;
+
+    /**
+     * the CSV files
+     */
+    private final List<File> csvFiles = new ArrayList<>();
+
+    /**
+     * the ARFF files
+     */
+    private final List<File> arffFiles = new ArrayList<>();
+
+    /**
+     * <p>
+     * Writes the data to the temporary folder.
+     * </p>
+     * 
+     * @throws IOException
+     *             if the data cannot be written
+     */
+    @Setup
+    public void setup() throws IOException {
+        this.folder = Files.createTempDirectory("crosspare-bench").toFile();
+        this.csvFolder = new File(this.folder, "csv");
+        this.arffFolder = new File(this.folder, "arff");
+        File csvProject = new File(this.csvFolder, "bench");
+        File arffProject = new File(this.arffFolder, "bench");
+        csvProject.mkdirs();
+        arffProject.mkdirs();
+        Instances data = BenchmarkData.create(this.source, this.size, 1);
+        List<Instances> versions = BenchmarkData.split(data, NUM_VERSIONS);
+        for (int i = 0; i < versions.size(); i++) {
+            File csvFile = new File(csvProject, "bench-" + i + ".csv");
+            writeCSV(versions.get(i), i, csvFile);
+            this.csvFiles.add(csvFile);
+            File arffFile = new File(arffProject, "bench-" + i + ".arff");
+            writeARFF(versions.get(i), arffFile);
+            this.arffFiles.add(arffFile);
+        }
+    }
+
+    /**
+     * <p>
+     * Deletes the temporary folder.
+     * </p>
+     * 
+     * @throws IOException
+     *             if the folder cannot be deleted
+     */
+    @TearDown
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(this.folder);
+        VersionCache.clear();
+    }
+
+    /**
+     * <p>
+     * Benchmark of {@link CSVDataLoader#load(File, boolean)}.
+     * </p>
+     *
+     * @return the loaded data
+     */
+    @Benchmark
+    public List<Instances> csvDataLoader() {
+        List<Instances> loaded = new ArrayList<>();
+        CSVDataLoader loader = new CSVDataLoader();
+        for (File file : this.csvFiles) {
+            loaded.add(loader.load(file, true));
+        }
+        return loaded;
+    }
+
+    /**
+     * <p>
+     * Benchmark of {@link ARFFLoader#load(File, boolean)}.
+     * </p>
+     *
+     * @return the loaded data
+     */
+    @Benchmark
+    public List<Instances> arffLoader() {
+        List<Instances> loaded = new ArrayList<>();
+        ARFFLoader loader = new ARFFLoader();
+        for (File file : this.arffFiles) {
+            loaded.add(loader.load(file, true));
+        }
+        return loaded;
+    }
+
+    /**
+     * <p>
+     * Benchmark of the {@link CSVFolderLoader}, without the {@link VersionCache}.
+     * </p>
+     *
+     * @return the loaded versions
+     */
+    @Benchmark
+    public List<SoftwareVersion> csvFolderLoader() {
+        VersionCache.clear();
+        CSVFolderLoader loader = new CSVFolderLoader();
+        loader.setLocation(this.csvFolder.getPath());
+        loader.setClassType("binary");
+        return loader.load();
+    }
+
+    /**
+     * <p>
+     * Benchmark of the {@link ARFFFolderLoader}, without the {@link VersionCache}.
+     * </p>
+     *
+     * @return the loaded versions
+     */
+    @Benchmark
+    public List<SoftwareVersion> arffFolderLoader() {
+        VersionCache.clear();
+        ARFFFolderLoader loader = new ARFFFolderLoader();
+        loader.setLocation(this.arffFolder.getPath());
+        loader.setClassType("binary");
+        return loader.load();
+    }
+
+    /**
+     * <p>
+     * Helper method that writes data as CSV file in the format of the JURECZKO data.
+     * </p>
+     *
+     * @param data
+     *            the data
+     * @param version
+     *            number of the version
+     * @param file
+     *            the file
+     * @throws IOException
+     *             if the file cannot be written
+     */
+    private static void writeCSV(Instances data, int version, File file) throws IOException {
+        try (PrintWriter writer = new PrintWriter(file)) {
+            writer.print("name,version,name");
+            for (int j = 0; j < data.numAttributes(); j++) {
+                writer.print("," + data.attribute(j).name());
+            }
+            writer.println();
+            for (int i = 0; i < data.numInstances(); i++) {
+                Instance instance = data.instance(i);
+                writer.print("bench," + version + ",Class" + i);
+                for (int j = 0; j < data.numAttributes(); j++) {
+                    writer.print("," + instance.value(j));
+                }
+                writer.println();
+            }
+        }
+    }
+
+    /**
+     * <p>
+     * Helper method that writes data as ARFF file with a numeric class attribute, like most ARFF
+     * files of defect prediction data.
+     * </p>
+     *
+     * @param data
+     *            the data
+     * @param file
+     *            the file
+     * @throws IOException
+     *             if the file cannot be written
+     */
+    private static void writeARFF(Instances data, File file) throws IOException {
+        try (PrintWriter writer = new PrintWriter(file)) {
+            writer.println("@relation " + file.getName());
+            writer.println();
+            for (int j = 0; j < data.numAttributes(); j++) {
+                writer.println("@attribute " + data.attribute(j).name() + " numeric");
+            }
+            writer.println();
+            writer.println("@data");
+            for (int i = 0; i < data.numInstances(); i++) {
+                Instance instance = data.instance(i);
+                StringBuilder line = new StringBuilder();
+                for (int j = 0; j < data.numAttributes(); j++) {
+                    if (j > 0) {
+                        line.append(',');
+                    }
+                    line.append(instance.value(j));
+                }
+                writer.println(line);
+            }
+        }
+    }
+}
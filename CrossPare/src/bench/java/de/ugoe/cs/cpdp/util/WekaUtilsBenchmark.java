@@ -0,0 +1,163 @@
+// Copyright 2015 Georg-August-Universität Göttingen, Germany
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+package de.ugoe.cs.cpdp.util;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.ugoe.cs.cpdp.BenchmarkData;
+import de.ugoe.cs.cpdp.util.WekaUtils.DistChar;
+import weka.core.Instances;
+
+/**
+ * <p>
+ * Benchmarks of {@link WekaUtils#datasetDistance(Instances)} and of the combination of the
+ * training data of multiple products into a single training set, i.e., the two implementations of
+ * {@link de.ugoe.cs.cpdp.execution.ExecutionUtils#makeSingleTrainingSet}:
+ * {@link WekaUtils#concatenate(java.util.Collection)} and
+ * {@link WekaUtils#merge(java.util.Collection)}. The training data consists of ten products.
+ * </p>
+ * 
+ * @author Steffen Herbold
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WekaUtilsBenchmark {
+
+    /**
+     * number of products of the training data
+     */
+    private static final int NUM_PRODUCTS = 10;
+
+    /**
+     * source of the data, see {@link BenchmarkData}
+     */
+    @Param(
+        { BenchmarkData.SYNTHETIC, BenchmarkData.JURECZKO })
+    public String source;
+
+    /**
+     * number of instances
+     */
+    @Param(
+        { "500", "2000", "8000" })
+    public int size;
+
+    /**
+     * the data
+     */
+    private Instances data;
+
+    /**
+     * the data, split into products
+     */
+    private List<Instances> products;
+
+    /**
+     * <p>
+     * Products for {@link WekaUtils#merge(java.util.Collection)}, which must not be used after the
+     * merge. Therefore, the products are created before each invocation.
+     * </p>
+     * 
+     * @author Steffen Herbold
+     */
+    @State(Scope.Thread)
+    public static class MergedProducts {
+
+        /**
+         * the products
+         */
+        private List<Instances> products;
+
+        /**
+         * <p>
+         * Creates the products from a copy of the data.
+         * </p>
+         *
+         * @param benchmark
+         *            the benchmark state with the data
+         */
+        @Setup(Level.Invocation)
+        public void setup(WekaUtilsBenchmark benchmark) {
+            this.products = BenchmarkData.split(new Instances(benchmark.data), NUM_PRODUCTS);
+        }
+    }
+
+    /**
+     * <p>
+     * Creates the data.
+     * </p>
+     */
+    @Setup
+    public void setup() {
+        this.data = BenchmarkData.create(this.source, this.size, 1);
+        this.products = BenchmarkData.split(this.data, NUM_PRODUCTS);
+    }
+
+    /**
+     * <p>
+     * Benchmark of {@link WekaUtils#datasetDistance(Instances)}.
+     * </p>
+     *
+     * @return the distributional characteristics of the distances
+     */
+    @Benchmark
+    public DistChar datasetDistance() {
+        return WekaUtils.datasetDistance(this.data);
+    }
+
+    /**
+     * <p>
+     * Benchmark of {@link WekaUtils#concatenate(java.util.Collection)}.
+     * </p>
+     *
+     * @return the single training set
+     */
+    @Benchmark
+    public Instances concatenate() {
+        return WekaUtils.concatenate(this.products);
+    }
+
+    /**
+     * <p>
+     * Benchmark of {@link WekaUtils#merge(java.util.Collection)}.
+     * </p>
+     *
+     * @param mergedProducts
+     *            products that are merged
+     * @return the single training set
+     */
+    @Benchmark
+    public Instances merge(MergedProducts mergedProducts) {
+        return WekaUtils.merge(mergedProducts.products);
+    }
+}
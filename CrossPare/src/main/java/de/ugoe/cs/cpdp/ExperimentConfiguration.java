@@ -14,15 +14,17 @@
 
 package de.ugoe.cs.cpdp;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.UnsupportedEncodingException;
 import java.lang.reflect.InvocationTargetException;
+import java.nio.file.Files;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 
 import javax.xml.parsers.ParserConfigurationException;
@@ -39,6 +41,7 @@ import de.ugoe.cs.cpdp.dataprocessing.ISetWiseProcessingStrategy;
 import de.ugoe.cs.cpdp.dataselection.IPointWiseDataselectionStrategy;
 import de.ugoe.cs.cpdp.dataselection.ISetWiseDataselectionStrategy;
 import de.ugoe.cs.cpdp.eval.IEvaluationStrategy;
+import de.ugoe.cs.cpdp.eval.IFileResultStorage;
 import de.ugoe.cs.cpdp.eval.IResultStorage;
 import de.ugoe.cs.cpdp.loader.IVersionLoader;
 import de.ugoe.cs.cpdp.training.ISetWiseTestdataAwareTrainingStrategy;
@@ -157,6 +160,12 @@ public class ExperimentConfiguration extends DefaultHandler {
      */
     private List<IResultStorage> resultStorages;
 
+    /**
+     * file-based result storages without a location of their own; they are located in the results
+     * path, once the configuration is parsed
+     */
+    private List<IFileResultStorage> fileResultStorages;
+
     /**
      * indicates, if the classifier should be saved
      */
@@ -178,6 +187,17 @@ public class ExperimentConfiguration extends DefaultHandler {
      */
     private String executionStrategyParameters = null;
 
+    /**
+     * indicates, if the result storages defined in the configuration file are instantiated
+     */
+    private final boolean initResultStorages;
+
+    /**
+     * contents of the configuration file and the partial configuration files, read once such that
+     * copies of the configuration are created without reading the files again
+     */
+    private final Map<String, byte[]> contents;
+
     /**
      * Constructor. Creates a new configuration from a given file.
      * 
@@ -199,6 +219,30 @@ public class ExperimentConfiguration extends DefaultHandler {
      *             thrown if there is an error creating the configuration
      */
     public ExperimentConfiguration(File file) throws ExperimentConfigurationException {
+        this(file, true, new ConcurrentHashMap<>());
+    }
+
+    /**
+     * Constructor. Creates a new configuration from a given file.
+     * 
+     * @param file
+     *            handle of the file from the configuration is loaded.
+     * @param initResultStorages
+     *            if false, the result storages defined in the file are not instantiated
+     * @param contents
+     *            contents of the configuration files that are already read; the files that are
+     *            not yet read are added
+     * @throws ExperimentConfigurationException
+     *             thrown if there is an error creating the configuration
+     */
+    @SuppressWarnings("hiding")
+    private ExperimentConfiguration(File file,
+                                    boolean initResultStorages,
+                                    Map<String, byte[]> contents)
+        throws ExperimentConfigurationException
+    {
+        this.initResultStorages = initResultStorages;
+        this.contents = contents;
         this.loaders = new LinkedList<>();
         this.versionFilters = new LinkedList<>();
         this.testVersionFilters = new LinkedList<>();
@@ -215,6 +259,7 @@ public class ExperimentConfiguration extends DefaultHandler {
         this.testAwareTrainers = new LinkedList<>();
         this.evaluators = new LinkedList<>();
         this.resultStorages = new LinkedList<>();
+        this.fileResultStorages = new LinkedList<>();
 
         if (file == null) {
             throw new IllegalArgumentException("file must not be null");
@@ -238,12 +283,12 @@ public class ExperimentConfiguration extends DefaultHandler {
             throw new ExperimentConfigurationException(e);
         }
 
-        try( InputStreamReader reader = new InputStreamReader(new FileInputStream(file), "UTF-8"); ) {
+        try( InputStreamReader reader = new InputStreamReader(new ByteArrayInputStream(readContent(file)), "UTF-8"); ) {
             inputSource = new InputSource(reader);
             inputSource.setSystemId("file://" + file.getAbsolutePath());
             saxParser.parse(inputSource, this);
         }
-        catch (UnsupportedEncodingException | FileNotFoundException e) {
+        catch (UnsupportedEncodingException e) {
             throw new ExperimentConfigurationException("Could not open configuration file.", e);
         }
         catch (SAXException | IOException e) {
@@ -251,6 +296,34 @@ public class ExperimentConfiguration extends DefaultHandler {
         }
     }
 
+    /**
+     * <p>
+     * Returns the content of a configuration file. The file is only read, if it was not read
+     * before for this configuration or the configuration this is a copy of.
+     * </p>
+     * 
+     * @param file
+     *            the configuration file
+     * @return content of the file
+     * @throws ExperimentConfigurationException
+     *             thrown if the file cannot be read
+     */
+    private byte[] readContent(File file) throws ExperimentConfigurationException {
+        final String path = file.getAbsolutePath();
+        byte[] content = this.contents.get(path);
+        if (content == null) {
+            try {
+                content = Files.readAllBytes(file.toPath());
+            }
+            catch (IOException e) {
+                throw new ExperimentConfigurationException("Could not open configuration file.",
+                                                           e);
+            }
+            this.contents.put(path, content);
+        }
+        return content;
+    }
+
     /**
      * returns the name of the experiment
      * 
@@ -451,6 +524,28 @@ public class ExperimentConfiguration extends DefaultHandler {
         return this.executionStrategyParameters;
     }
 
+    /**
+     * <p>
+     * Creates a copy of the configuration with new instances of all components of the experiment,
+     * i.e., loaders, filters, processors, selectors, trainers, and evaluators. This allows the
+     * concurrent execution of parts of an experiment without shared state in the components. The
+     * result storages are not instantiated again, the copy uses the same storages as this
+     * configuration. The copy is created from the contents of the configuration files that were
+     * read when this configuration was created, i.e., the files are not read again and later
+     * changes of the files do not affect the copies.
+     * </p>
+     *
+     * @return copy of the configuration
+     * @throws ExperimentConfigurationException
+     *             thrown if there is an error parsing the configuration again
+     */
+    public ExperimentConfiguration createCopy() throws ExperimentConfigurationException {
+        ExperimentConfiguration copy =
+            new ExperimentConfiguration(this.configFile, false, this.contents);
+        copy.resultStorages = this.resultStorages;
+        return copy;
+    }
+
     /*
      * (non-Javadoc)
      * 
@@ -579,9 +674,18 @@ public class ExperimentConfiguration extends DefaultHandler {
             else if (qName.equals("eval")) {
                 final IEvaluationStrategy evaluator = (IEvaluationStrategy) Class
                     .forName("de.ugoe.cs.cpdp.eval." + attributes.getValue("name")).newInstance();
+                String param = attributes.getValue("param");
+                if (param != null && !param.isEmpty()) {
+                    // e.g., the seed of the CVWekaEvaluation; the output is defined by the experiments
+                    evaluator.setParameter(param);
+                }
                 this.evaluators.add(evaluator);
             }
             else if (qName.equals("storage")) {
+                if (!this.initResultStorages) {
+                    // storages are shared with the configuration this is a copy of
+                    return;
+                }
                 IResultStorage resultStorage;
                 String param = attributes.getValue("param");
                 if (param != null && !param.isEmpty()) {
@@ -595,6 +699,10 @@ public class ExperimentConfiguration extends DefaultHandler {
                     resultStorage = (IResultStorage) Class
                         .forName("de.ugoe.cs.cpdp.eval." + attributes.getValue("name"))
                         .newInstance();
+                    if (resultStorage instanceof IFileResultStorage) {
+                        // the results path may still be changed by later elements
+                        this.fileResultStorages.add((IFileResultStorage) resultStorage);
+                    }
                 }
                 this.resultStorages.add(resultStorage);
 
@@ -621,7 +729,9 @@ public class ExperimentConfiguration extends DefaultHandler {
                     if (relative) {
                         path = this.configFile.getParentFile().getPath() + "/" + path;
                     }
-                    addConfigurations(new ExperimentConfiguration(path));
+                    addConfigurations(new ExperimentConfiguration(new File(path),
+                                                                  this.initResultStorages,
+                                                                  this.contents));
                 }
                 catch (ExperimentConfigurationException e) {
                     throw new SAXException("Could not load partial configuration: " + path, e);
@@ -640,6 +750,19 @@ public class ExperimentConfiguration extends DefaultHandler {
         }
     }
 
+    /*
+     * (non-Javadoc)
+     * 
+     * @see org.xml.sax.helpers.DefaultHandler#endDocument()
+     */
+    @Override
+    public void endDocument() throws SAXException {
+        // file-based storages are located in the results path by default
+        for (IFileResultStorage resultStorage : this.fileResultStorages) {
+            resultStorage.setResultsPath(this.resultsPath);
+        }
+    }
+
     /**
      * Adds the information of another experiment configuration to this configuration. This
      * mechanism allows the usage of partial configuration files. The name of the other
@@ -0,0 +1,44 @@
+// Copyright 2015 Georg-August-Universität Göttingen, Germany
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+package de.ugoe.cs.cpdp;
+
+/**
+ * <p>
+ * Interface for components of an experiment that need a lot of memory in comparison to the size
+ * of the data, e.g., because they build dense matrices over all instances. The estimate of the
+ * memory footprint is used by the {@link Runner} to avoid that several of these components are
+ * executed at the same time (see {@link de.ugoe.cs.cpdp.execution.MemoryBudget}).
+ * </p>
+ * 
+ * @author Steffen Herbold
+ */
+public interface IMemoryFootprint {
+
+    /**
+     * <p>
+     * Estimates the memory that is additionally allocated by one application of the component,
+     * i.e., without the memory of the data itself.
+     * </p>
+     *
+     * @param numTrainingInstances
+     *            number of training instances
+     * @param numTestInstances
+     *            number of test instances
+     * @param numAttributes
+     *            number of attributes of the data
+     * @return estimated memory footprint in bytes
+     */
+    long estimateFootprint(int numTrainingInstances, int numTestInstances, int numAttributes);
+}
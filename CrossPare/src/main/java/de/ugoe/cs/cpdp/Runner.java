@@ -17,12 +17,26 @@ package de.ugoe.cs.cpdp;
 import java.io.File;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 
+import de.ugoe.cs.cpdp.execution.DataSize;
+import de.ugoe.cs.cpdp.execution.ExecutionStrategyParameters;
+import de.ugoe.cs.cpdp.execution.ExecutionUtils;
+import de.ugoe.cs.cpdp.execution.ExperimentMonitor;
 import de.ugoe.cs.cpdp.execution.IExecutionStrategy;
+import de.ugoe.cs.cpdp.execution.IShardableExecutionStrategy;
+import de.ugoe.cs.cpdp.execution.MemoryBudget;
+import de.ugoe.cs.cpdp.execution.RunnerMonitor;
+import de.ugoe.cs.cpdp.execution.Shard;
+import de.ugoe.cs.cpdp.execution.ShardResults;
+import de.ugoe.cs.cpdp.execution.TimingHistory;
 import de.ugoe.cs.util.console.Console;
 import de.ugoe.cs.util.console.TextConsole;
 
@@ -34,33 +48,260 @@ import de.ugoe.cs.util.console.TextConsole;
  */
 public class Runner {
 
+    /**
+     * option for splitting the experiments into fine-grained work units
+     */
+    public static final String PARALLEL_OPTION = "-parallel";
+
+    /**
+     * option for executing only a shard of the experiments, followed by the shard in the form
+     * <code>i/n</code>
+     */
+    public static final String SHARD_OPTION = "-shard";
+
+    /**
+     * option for merging the results of shards, followed by the number of shards
+     */
+    public static final String MERGE_OPTION = "-merge";
+
+    /**
+     * option for storing the execution times of the experiments, followed by the file of the
+     * timing history
+     */
+    public static final String TIMINGS_OPTION = "-timings";
+
+    /**
+     * option for the share of the maximal heap that the experiments may use at the same time,
+     * followed by the share as number between 0 and 1
+     */
+    public static final String MEMORY_SHARE_OPTION = "-memoryshare";
+
+    /**
+     * default share of the maximal heap that the experiments may use at the same time
+     */
+    public static final double DEFAULT_MEMORY_SHARE = 0.8;
+
+    /**
+     * history of the execution times of the experiments that are started with
+     * {@link #createConfig(ExecutorService, String)}; the history is not stored
+     */
+    private static final TimingHistory SHARED_TIMINGS = new TimingHistory(null);
+
+    /**
+     * memory budget of the experiments that are started with
+     * {@link #createConfig(ExecutorService, String)}
+     */
+    private static final MemoryBudget SHARED_BUDGET = MemoryBudget
+        .ofMaxHeap(DEFAULT_MEMORY_SHARE, Runtime.getRuntime().availableProcessors());
+
+    /**
+     * experiments that are started with {@link #createConfig(ExecutorService, String)} and wait
+     * until they fit into the shared memory budget
+     */
+    private static final List<PlannedExperiment> SHARED_PENDING = new LinkedList<>();
+
+    /**
+     * <p>
+     * Experiment that is created, but not yet started.
+     * </p>
+     * 
+     * @author Steffen Herbold
+     */
+    private static class PlannedExperiment {
+
+        /**
+         * configuration of the experiment
+         */
+        private final ExperimentConfiguration config;
+
+        /**
+         * the experiment
+         */
+        private final IExecutionStrategy experiment;
+
+        /**
+         * signature of the experiment, see
+         * {@link TimingHistory#getSignature(ExperimentConfiguration)}
+         */
+        private String signature;
+
+        /**
+         * work of the experiment, see
+         * {@link TimingHistory#getWork(ExperimentConfiguration, DataSize)}
+         */
+        private double work;
+
+        /**
+         * estimated cost of the experiment
+         */
+        private double estimatedCost;
+
+        /**
+         * estimated memory footprint of the experiment in bytes, see
+         * {@link MemoryBudget#estimateFootprint(ExperimentConfiguration, DataSize, int)}
+         */
+        private long footprint;
+
+        /**
+         * <p>
+         * Creates a new planned experiment.
+         * </p>
+         *
+         * @param config
+         *            configuration of the experiment
+         * @param experiment
+         *            the experiment
+         */
+        @SuppressWarnings("hiding")
+        private PlannedExperiment(ExperimentConfiguration config, IExecutionStrategy experiment) {
+            this.config = config;
+            this.experiment = experiment;
+        }
+    }
+
     /**
      * Main class. The arguments are {@link ExperimentConfiguration} files. Each experiment is
-     * started in a separate thread. The number of concurrently running threads is the number of
-     * logical processors of the host system.
+     * started as a task of a work-stealing thread pool. The number of threads of the pool is the
+     * number of logical processors of the host system.
+     * <p>
+     * With the option <code>-parallel</code>, the experiments are split into fine-grained work
+     * units, i.e., test versions and trainers, that are executed as sub-tasks in the same pool. Idle
+     * threads steal these units, such that the remaining work of long-running experiments is
+     * distributed over all threads once the other experiments are finished. The option is passed to
+     * all execution strategies that implement {@link IParameterizable}.
+     * </p>
+     * <p>
+     * With the option <code>-shard i/n</code>, the experiments are executed by <code>n</code>
+     * processes, possibly on different machines, that write into the same results paths. The
+     * process executes only the i-th shard of the work (see {@link Shard}). Once all shards are
+     * finished, the option <code>-merge n</code> combines the results of the shards into the same
+     * files that a single process creates. All processes must be called with the same experiment
+     * configurations.
+     * </p>
+     * <p>
+     * The experiments are started in the order of their estimated cost, the most expensive
+     * experiments first (see {@link TimingHistory}). With the option <code>-timings file</code>,
+     * the execution times of the experiments are stored in the file and used for the estimates of
+     * later executions. Otherwise, the estimates are only based on the size of the data. The
+     * experiments are planned one after another and started as soon as they are admitted, i.e.,
+     * the order only applies to the experiments that are planned when a thread becomes free.
+     * </p>
+     * <p>
+     * Experiments are only started while the sum of their estimated memory footprints stays
+     * within a share of the maximal heap (see {@link MemoryBudget}). The share is 0.8, unless it
+     * is defined with the option <code>-memoryshare share</code>.
+     * </p>
+     * <p>
+     * The progress of the execution is exposed through JMX, with one MBean for all experiments
+     * (see {@link RunnerMonitor}) and one MBean for each experiment (see
+     * {@link ExperimentMonitor}).
+     * </p>
      * 
      * @param args
-     *            experiment configuration files
+     *            options and experiment configuration files
      */
     @SuppressWarnings("unused")
     public static void main(String[] args) {
         new TextConsole(Level.FINE);
         final int concurrentThreads = Runtime.getRuntime().availableProcessors();
         Console.traceln(Level.FINE, "exuection max " + concurrentThreads + " at the same time");
-        final ExecutorService threadPool = Executors.newFixedThreadPool(concurrentThreads);
-        for (String arg : args) {
-            File file = new File(arg);
-            if (file.isFile()) {
-                createConfig(threadPool, file.getAbsolutePath());
-            }
-            else if (file.isDirectory() && file.listFiles() != null) {
-                for (File subfile : file.listFiles()) {
-                    if (subfile.isFile()) {
-                        createConfig(threadPool, subfile.getAbsolutePath());
+        boolean parallel = false;
+        Shard shard = null;
+        int mergedShards = 0;
+        String timingsFile = null;
+        double memoryShare = DEFAULT_MEMORY_SHARE;
+        final List<String> configFiles = new LinkedList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (PARALLEL_OPTION.equals(args[i])) {
+                parallel = true;
+            }
+            else if (SHARD_OPTION.equals(args[i]) && i + 1 < args.length) {
+                shard = Shard.parse(args[++i]);
+            }
+            else if (MERGE_OPTION.equals(args[i]) && i + 1 < args.length) {
+                mergedShards = Integer.parseInt(args[++i]);
+            }
+            else if (TIMINGS_OPTION.equals(args[i]) && i + 1 < args.length) {
+                timingsFile = args[++i];
+            }
+            else if (MEMORY_SHARE_OPTION.equals(args[i]) && i + 1 < args.length) {
+                memoryShare = Double.parseDouble(args[++i]);
+            }
+            else if (!args[i].startsWith("-")) {
+                File file = new File(args[i]);
+                if (file.isFile()) {
+                    configFiles.add(file.getAbsolutePath());
+                }
+                else if (file.isDirectory() && file.listFiles() != null) {
+                    for (File subfile : file.listFiles()) {
+                        if (subfile.isFile()) {
+                            configFiles.add(subfile.getAbsolutePath());
+                        }
                     }
                 }
             }
         }
+        if (mergedShards > 0) {
+            for (String configFile : configFiles) {
+                mergeShards(configFile, mergedShards);
+            }
+            return;
+        }
+        final TimingHistory timings =
+            new TimingHistory(timingsFile == null ? null : new File(timingsFile));
+        final ForkJoinPool threadPool = new ForkJoinPool(concurrentThreads);
+        final RunnerMonitor runnerMonitor = new RunnerMonitor(threadPool);
+        runnerMonitor.register();
+        final MemoryBudget memoryBudget = MemoryBudget.ofMaxHeap(memoryShare, concurrentThreads);
+        final List<PlannedExperiment> pendingExperiments = new LinkedList<>();
+        final List<Future<?>> experiments = new LinkedList<>();
+        final int concurrentTestVersions = parallel ? concurrentThreads : 1;
+        for (String configFile : configFiles) {
+            PlannedExperiment plannedExperiment =
+                planExperiment(configFile, parallel, shard, timings, concurrentTestVersions);
+            if (plannedExperiment != null) {
+                runnerMonitor.addExperiment(plannedExperiment.config.getExperimentName(),
+                                            plannedExperiment.estimatedCost);
+                pendingExperiments.add(plannedExperiment);
+                // start the most expensive experiments first, such that they do not delay the end
+                pendingExperiments
+                    .sort((e1, e2) -> Double.compare(e2.estimatedCost, e1.estimatedCost));
+                // the admitted experiments already run while the remaining ones are planned
+                PlannedExperiment admittedExperiment;
+                while ((admittedExperiment =
+                    memoryBudget.tryAdmit(pendingExperiments, e -> e.footprint)) != null)
+                {
+                    experiments.add(startExperiment(threadPool, admittedExperiment, shard,
+                                                    timings, memoryBudget));
+                }
+            }
+        }
+        while (!pendingExperiments.isEmpty()) {
+            final PlannedExperiment plannedExperiment;
+            try {
+                plannedExperiment = memoryBudget.admit(pendingExperiments, e -> e.footprint);
+            }
+            catch (InterruptedException e) {
+                e.printStackTrace();
+                break;
+            }
+            experiments.add(startExperiment(threadPool, plannedExperiment, shard, timings,
+                                            memoryBudget));
+        }
+        for (Future<?> experiment : experiments) {
+            if (experiment != null) {
+                try {
+                    experiment.get();
+                }
+                catch (ExecutionException e) {
+                    Console.printerrln("Failure executing an experiment");
+                    e.getCause().printStackTrace();
+                }
+                catch (InterruptedException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
         threadPool.shutdown();
         try {
             threadPool.awaitTermination(Long.MAX_VALUE, TimeUnit.SECONDS);
@@ -68,10 +309,18 @@ public class Runner {
         catch (InterruptedException e) {
             e.printStackTrace();
         }
+        timings.save();
+        runnerMonitor.unregister();
     }
 
     /**
-     * Creates the config and starts the corresponding experiment
+     * Creates the config and starts the corresponding experiment. The method returns right away;
+     * the config is created and the experiment is planned by a thread of the thread pool. Like
+     * the experiments of {@link #main(String[])}, the experiment is only executed once it fits
+     * into the memory budget. The budget is the default share of the maximal heap and is shared
+     * by all experiments that are started with this method. The threads of the pool do not wait
+     * for the budget: an experiment that does not fit is left pending and is executed by the
+     * thread of the next experiment that finishes.
      * 
      * @param threadPool
      *            thread pool in which the configurations are executed
@@ -79,6 +328,176 @@ public class Runner {
      *            location of the config file
      */
     public static void createConfig(ExecutorService threadPool, String configFile) {
+        threadPool.execute(() -> {
+            PlannedExperiment plannedExperiment =
+                planExperiment(configFile, false, null, SHARED_TIMINGS, 1);
+            if (plannedExperiment != null) {
+                synchronized (SHARED_PENDING) {
+                    SHARED_PENDING.add(plannedExperiment);
+                }
+                runSharedExperiments();
+            }
+        });
+    }
+
+    /**
+     * Executes the pending experiments of {@link #createConfig(ExecutorService, String)} one
+     * after the other as long as they fit into the shared memory budget. Since each thread that
+     * finishes an experiment checks the pending experiments again, no experiment remains pending
+     * once the budget is released.
+     */
+    private static void runSharedExperiments() {
+        PlannedExperiment admitted;
+        while (true) {
+            synchronized (SHARED_PENDING) {
+                admitted = SHARED_BUDGET.tryAdmit(SHARED_PENDING, e -> e.footprint);
+            }
+            if (admitted == null) {
+                return;
+            }
+            try {
+                runExperiment(admitted, null, SHARED_TIMINGS, SHARED_BUDGET);
+            }
+            catch (RuntimeException e) {
+                Console.printerrln("Failure executing an experiment");
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Creates the config and the corresponding experiment and estimates its cost and memory
+     * footprint, without starting it. The data of the experiment are loaded once for both
+     * estimates.
+     * 
+     * @param configFile
+     *            location of the config file
+     * @param parallel
+     *            if true, the experiment is split into work units that are executed concurrently
+     * @param shard
+     *            shard that is executed; null if all work is executed
+     * @param timings
+     *            history of the execution times that is used for the estimated cost
+     * @param concurrentTestVersions
+     *            maximal number of concurrently executed test versions of the experiment
+     * @return the experiment; null if the experiment could not be created or is not executed by
+     *         the shard
+     */
+    private static PlannedExperiment planExperiment(String configFile,
+                                                    boolean parallel,
+                                                    Shard shard,
+                                                    TimingHistory timings,
+                                                    int concurrentTestVersions)
+    {
+        PlannedExperiment plannedExperiment = createExperiment(configFile, parallel, shard);
+        if (plannedExperiment != null) {
+            ExperimentConfiguration config = plannedExperiment.config;
+            DataSize dataSize = DataSize.of(config);
+            plannedExperiment.signature = TimingHistory.getSignature(config);
+            plannedExperiment.work = TimingHistory.getWork(config, dataSize);
+            plannedExperiment.estimatedCost =
+                timings.estimate(plannedExperiment.signature, plannedExperiment.work);
+            plannedExperiment.footprint =
+                MemoryBudget.estimateFootprint(config, dataSize, concurrentTestVersions);
+            Console.traceln(Level.FINE, String
+                .format("[%s] estimated cost: %.1f, estimated memory: %d MB",
+                        config.getExperimentName(), plannedExperiment.estimatedCost,
+                        plannedExperiment.footprint >> 20));
+        }
+        return plannedExperiment;
+    }
+
+    /**
+     * Starts an experiment that is admitted by the memory budget as task of the thread pool
+     * 
+     * @param threadPool
+     *            thread pool in which the experiment is executed
+     * @param plannedExperiment
+     *            the experiment
+     * @param shard
+     *            shard that is executed; null if all work is executed
+     * @param timings
+     *            history in which the execution time is recorded
+     * @param memoryBudget
+     *            budget that admitted the experiment
+     * @return the started experiment
+     */
+    private static Future<?> startExperiment(ExecutorService threadPool,
+                                             PlannedExperiment plannedExperiment,
+                                             Shard shard,
+                                             TimingHistory timings,
+                                             MemoryBudget memoryBudget)
+    {
+        return threadPool
+            .submit(() -> runExperiment(plannedExperiment, shard, timings, memoryBudget));
+    }
+
+    /**
+     * Executes an experiment that is admitted by the memory budget. Afterwards, the results are
+     * stored, the footprint is released, and the execution time is recorded.
+     * 
+     * @param plannedExperiment
+     *            the experiment
+     * @param shard
+     *            shard that is executed; null if all work is executed
+     * @param timings
+     *            history in which the execution time is recorded
+     * @param memoryBudget
+     *            budget that admitted the experiment
+     */
+    private static void runExperiment(PlannedExperiment plannedExperiment,
+                                      Shard shard,
+                                      TimingHistory timings,
+                                      MemoryBudget memoryBudget)
+    {
+        // sharded experiments are only partially executed, i.e., their times are not stored
+        final boolean recordTime = shard == null ||
+            !(plannedExperiment.experiment instanceof IShardableExecutionStrategy);
+        final ExperimentMonitor monitor =
+            ExperimentMonitor.forExperiment(plannedExperiment.config.getExperimentName());
+        long start = System.nanoTime();
+        monitor.started(0);
+        boolean success = false;
+        try {
+            plannedExperiment.experiment.run();
+            success = true;
+        }
+        finally {
+            try {
+                ExecutionUtils.flushResultStorages(plannedExperiment.config.getResultStorages());
+            }
+            catch (RuntimeException e) {
+                Console.printerrln(String.format("[%s] not all results stored: %s",
+                                                 plannedExperiment.config.getExperimentName(),
+                                                 e.getMessage()));
+                success = false;
+            }
+            ExecutionUtils.closeResultStorages(plannedExperiment.config.getResultStorages());
+            monitor.finished(success);
+            memoryBudget.release(plannedExperiment.footprint);
+        }
+        if (recordTime) {
+            timings.record(plannedExperiment.signature, plannedExperiment.work,
+                           (System.nanoTime() - start) / 1e9);
+        }
+    }
+
+    /**
+     * Creates the config and the corresponding experiment, without starting it
+     * 
+     * @param configFile
+     *            location of the config file
+     * @param parallel
+     *            if true, the experiment is split into work units that are executed concurrently
+     * @param shard
+     *            shard that is executed; null if all work is executed
+     * @return the experiment; null if the experiment could not be created or is not executed by
+     *         the shard
+     */
+    private static PlannedExperiment createExperiment(String configFile,
+                                                      boolean parallel,
+                                                      Shard shard)
+    {
         ExperimentConfiguration config = null;
         try {
             config = new ExperimentConfiguration(configFile);
@@ -105,10 +524,28 @@ public class Runner {
                     (IExecutionStrategy) executionStrategyConstructor.newInstance(config);
                 
                 if( experiment instanceof IParameterizable ) {
-                    ((IParameterizable) experiment).setParameter(config.getExecutionStrategyParameters());
+                    String parameters = config.getExecutionStrategyParameters();
+                    if (parallel) {
+                        parameters = parameters == null ? ExecutionStrategyParameters.PARALLEL
+                            : parameters + " " + ExecutionStrategyParameters.PARALLEL;
+                    }
+                    ((IParameterizable) experiment).setParameter(parameters);
+                }
+
+                if (shard != null) {
+                    if (experiment instanceof IShardableExecutionStrategy) {
+                        ((IShardableExecutionStrategy) experiment).setShard(shard);
+                    }
+                    else if (!shard.isAssigned(config.getExperimentName(), 0)) {
+                        // the experiment is a single unit that is executed by another shard
+                        Console.traceln(Level.INFO, String
+                            .format("[%s] skipped, executed by another shard",
+                                    config.getExperimentName()));
+                        return null;
+                    }
                 }
                 
-                threadPool.execute(experiment);
+                return new PlannedExperiment(config, experiment);
             }
             catch (NoSuchMethodException e) {
                 Console.printerrln("Class \"" + config.getExecutionStrategy() +
@@ -144,6 +581,36 @@ public class Runner {
             }
 
         }
+        return null;
+    }
 
+    /**
+     * Merges the results of the shards of an experiment (see {@link ShardResults}).
+     * 
+     * @param configFile
+     *            location of the config file
+     * @param numShards
+     *            number of shards
+     */
+    public static void mergeShards(String configFile, int numShards) {
+        try {
+            ExperimentConfiguration config = new ExperimentConfiguration(configFile);
+            try {
+                if (!ShardResults.merge(config.getResultsPath(), config.getExperimentName(),
+                                        numShards, config.getResultStorages()))
+                {
+                    Console.traceln(Level.INFO, String
+                        .format("[%s] no results of shards found", config.getExperimentName()));
+                }
+            }
+            finally {
+                ExecutionUtils.closeResultStorages(config.getResultStorages());
+            }
+        }
+        catch (Exception e) {
+            Console.printerrln("Failure merging the results of the shards for configuration file " +
+                configFile);
+            e.printStackTrace();
+        }
     }
 }
@@ -28,7 +28,9 @@ import weka.core.Instances;
  * 
  * @author Steffen Herbold
  */
-public class BiasedWeights implements IProcessesingStrategy, ISetWiseProcessingStrategy {
+public class BiasedWeights
+    implements IProcessesingStrategy, ISetWiseTestdataIndependentProcessingStrategy
+{
 
     /**
      * bias used for the weighting
@@ -61,11 +63,34 @@ public class BiasedWeights implements IProcessesingStrategy, ISetWiseProcessingS
      */
     @Override
     public void apply(Instances testdata, SetUniqueList<Instances> traindataSet) {
+        applyToTestdata(testdata);
         for (Instances traindata : traindataSet) {
-            setBiasedWeights(traindata);
+            applyToTraindata(traindata);
         }
     }
 
+    /*
+     * (non-Javadoc)
+     * 
+     * @see de.ugoe.cs.cpdp.dataprocessing.ISetWiseTestdataIndependentProcessingStrategy#
+     * applyToTestdata(weka.core.Instances)
+     */
+    @Override
+    public void applyToTestdata(Instances testdata) {
+        // the test data is not modified
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see de.ugoe.cs.cpdp.dataprocessing.ISetWiseTestdataIndependentProcessingStrategy#
+     * applyToTraindata(weka.core.Instances)
+     */
+    @Override
+    public void applyToTraindata(Instances traindata) {
+        setBiasedWeights(traindata);
+    }
+
     /**
      * Helper method that sets the weights for a given data set.
      * 
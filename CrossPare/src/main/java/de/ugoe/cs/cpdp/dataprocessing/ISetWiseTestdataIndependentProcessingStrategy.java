@@ -0,0 +1,49 @@
+// Copyright 2015 Georg-August-Universität Göttingen, Germany
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+package de.ugoe.cs.cpdp.dataprocessing;
+
+import weka.core.Instances;
+
+/**
+ * <p>
+ * A setwise data processing strategy that processes the test data and each set of training data
+ * independently of each other, i.e., the result for a training data set depends neither on the
+ * test data nor on the other training data sets. Applying the strategy to the test data and a
+ * set of training data is the same as calling {@link #applyToTestdata(Instances)} for the test
+ * data and {@link #applyToTraindata(Instances)} for each training data set. Hence, the processed
+ * training data can be reused for different test data.
+ * </p>
+ * 
+ * @author Steffen Herbold
+ */
+public interface ISetWiseTestdataIndependentProcessingStrategy extends ISetWiseProcessingStrategy {
+
+    /**
+     * Applies the processing strategy to the test data.
+     * 
+     * @param testdata
+     *            test data
+     */
+    void applyToTestdata(Instances testdata);
+
+    /**
+     * Applies the processing strategy to a single set of training data.
+     * 
+     * @param traindata
+     *            training data
+     */
+    void applyToTraindata(Instances traindata);
+
+}
@@ -13,7 +13,9 @@ import weka.core.Instances;
  * 
  * @author Steffen Herbold
  */
-public class MakeClassBinary implements ISetWiseProcessingStrategy, IProcessesingStrategy {
+public class MakeClassBinary
+    implements ISetWiseTestdataIndependentProcessingStrategy, IProcessesingStrategy
+{
 
     /*
      * (non-Javadoc)
@@ -45,10 +47,32 @@ public class MakeClassBinary implements ISetWiseProcessingStrategy, IProcessesin
      */
     @Override
     public void apply(Instances testdata, SetUniqueList<Instances> traindataSet) {
-        WekaUtils.makeClassBinary(testdata);
+        applyToTestdata(testdata);
         for (Instances traindata : traindataSet) {
-            WekaUtils.makeClassBinary(traindata);
+            applyToTraindata(traindata);
         }
     }
 
+    /*
+     * (non-Javadoc)
+     * 
+     * @see de.ugoe.cs.cpdp.dataprocessing.ISetWiseTestdataIndependentProcessingStrategy#
+     * applyToTestdata(weka.core.Instances)
+     */
+    @Override
+    public void applyToTestdata(Instances testdata) {
+        WekaUtils.makeClassBinary(testdata);
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see de.ugoe.cs.cpdp.dataprocessing.ISetWiseTestdataIndependentProcessingStrategy#
+     * applyToTraindata(weka.core.Instances)
+     */
+    @Override
+    public void applyToTraindata(Instances traindata) {
+        WekaUtils.makeClassBinary(traindata);
+    }
+
 }
@@ -23,7 +23,9 @@ import weka.core.Instances;
  * 
  * @author Steffen Herbold
  */
-public class Normalization implements ISetWiseProcessingStrategy, IProcessesingStrategy {
+public class Normalization
+    implements ISetWiseTestdataIndependentProcessingStrategy, IProcessesingStrategy
+{
 
     /**
      * @see ISetWiseProcessingStrategy#apply(weka.core.Instances,
@@ -31,12 +33,34 @@ public class Normalization implements ISetWiseProcessingStrategy, IProcessesingS
      */
     @Override
     public void apply(Instances testdata, SetUniqueList<Instances> traindataSet) {
-        NormalizationUtil.minMax(testdata);
-        for (Instances instances : traindataSet) {
-            NormalizationUtil.minMax(instances);
+        applyToTestdata(testdata);
+        for (Instances traindata : traindataSet) {
+            applyToTraindata(traindata);
         }
     }
 
+    /*
+     * (non-Javadoc)
+     * 
+     * @see de.ugoe.cs.cpdp.dataprocessing.ISetWiseTestdataIndependentProcessingStrategy#
+     * applyToTestdata(weka.core.Instances)
+     */
+    @Override
+    public void applyToTestdata(Instances testdata) {
+        NormalizationUtil.minMax(testdata);
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see de.ugoe.cs.cpdp.dataprocessing.ISetWiseTestdataIndependentProcessingStrategy#
+     * applyToTraindata(weka.core.Instances)
+     */
+    @Override
+    public void applyToTraindata(Instances traindata) {
+        NormalizationUtil.minMax(traindata);
+    }
+
     /**
      * @see IProcessesingStrategy#apply(weka.core.Instances, weka.core.Instances)
      */
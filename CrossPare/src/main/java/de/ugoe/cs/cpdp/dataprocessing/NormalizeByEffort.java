@@ -26,7 +26,9 @@ import weka.core.Instances;
  * 
  * @author Steffen Herbold
  */
-public class NormalizeByEffort implements ISetWiseProcessingStrategy, IProcessesingStrategy {
+public class NormalizeByEffort
+    implements ISetWiseTestdataIndependentProcessingStrategy, IProcessesingStrategy
+{
 
     /**
      * @see ISetWiseProcessingStrategy#apply(weka.core.Instances,
@@ -34,12 +36,34 @@ public class NormalizeByEffort implements ISetWiseProcessingStrategy, IProcesses
      */
     @Override
     public void apply(Instances testdata, SetUniqueList<Instances> traindataSet) {
-        normalizeByEffort(testdata);
+        applyToTestdata(testdata);
         for (Instances traindata : traindataSet) {
-            normalizeByEffort(traindata);
+            applyToTraindata(traindata);
         }
     }
 
+    /*
+     * (non-Javadoc)
+     * 
+     * @see de.ugoe.cs.cpdp.dataprocessing.ISetWiseTestdataIndependentProcessingStrategy#
+     * applyToTestdata(weka.core.Instances)
+     */
+    @Override
+    public void applyToTestdata(Instances testdata) {
+        normalizeByEffort(testdata);
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see de.ugoe.cs.cpdp.dataprocessing.ISetWiseTestdataIndependentProcessingStrategy#
+     * applyToTraindata(weka.core.Instances)
+     */
+    @Override
+    public void applyToTraindata(Instances traindata) {
+        normalizeByEffort(traindata);
+    }
+
     /**
      * @see IProcessesingStrategy#apply(weka.core.Instances, weka.core.Instances)
      */
@@ -27,7 +27,9 @@ import weka.core.Instances;
  * 
  * @author Steffen Herbold
  */
-public class NormalizeByLogEffort implements ISetWiseProcessingStrategy, IProcessesingStrategy {
+public class NormalizeByLogEffort
+    implements ISetWiseTestdataIndependentProcessingStrategy, IProcessesingStrategy
+{
 
     /**
      * @see ISetWiseProcessingStrategy#apply(weka.core.Instances,
@@ -35,12 +37,34 @@ public class NormalizeByLogEffort implements ISetWiseProcessingStrategy, IProces
      */
     @Override
     public void apply(Instances testdata, SetUniqueList<Instances> traindataSet) {
-        normalizeByLogEffort(testdata);
+        applyToTestdata(testdata);
         for (Instances traindata : traindataSet) {
-            normalizeByLogEffort(traindata);
+            applyToTraindata(traindata);
         }
     }
 
+    /*
+     * (non-Javadoc)
+     * 
+     * @see de.ugoe.cs.cpdp.dataprocessing.ISetWiseTestdataIndependentProcessingStrategy#
+     * applyToTestdata(weka.core.Instances)
+     */
+    @Override
+    public void applyToTestdata(Instances testdata) {
+        normalizeByLogEffort(testdata);
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see de.ugoe.cs.cpdp.dataprocessing.ISetWiseTestdataIndependentProcessingStrategy#
+     * applyToTraindata(weka.core.Instances)
+     */
+    @Override
+    public void applyToTraindata(Instances traindata) {
+        normalizeByLogEffort(traindata);
+    }
+
     /**
      * @see IProcessesingStrategy#apply(weka.core.Instances, weka.core.Instances)
      */
@@ -24,6 +24,7 @@ import org.ojalgo.scalar.ComplexNumber;
 import org.ojalgo.access.Access2D.Builder;
 import org.ojalgo.array.Array1D;
 
+import de.ugoe.cs.cpdp.IMemoryFootprint;
 import de.ugoe.cs.cpdp.util.SortUtils;
 import de.ugoe.cs.util.console.Console;
 import weka.core.Attribute;
@@ -38,7 +39,7 @@ import weka.core.Instances;
  * 
  * @author Steffen Herbold
  */
-public class TransferComponentAnalysis implements IProcessesingStrategy {
+public class TransferComponentAnalysis implements IProcessesingStrategy, IMemoryFootprint {
 
     /**
      * Dimension of the reduced data.
@@ -66,6 +67,24 @@ public class TransferComponentAnalysis implements IProcessesingStrategy {
         applyTCA(testdata, traindata);
     }
 
+    /**
+     * <p>
+     * TCA builds several dense matrices over the test and training data, i.e., the kernel matrix,
+     * the matrices L, H, and mu, intermediate products of the optimization problem, and the
+     * eigenvectors.
+     * </p>
+     * 
+     * @see de.ugoe.cs.cpdp.IMemoryFootprint#estimateFootprint(int, int, int)
+     */
+    @Override
+    public long estimateFootprint(int numTrainingInstances,
+                                  int numTestInstances,
+                                  int numAttributes)
+    {
+        long size = (long) numTrainingInstances + numTestInstances;
+        return 8L * 8L * size * size;
+    }
+
     /**
      * <p>
      * calculates the linear kernel function between two instances
@@ -15,7 +15,9 @@ import weka.core.Instances;
  * 
  * @author Steffen Herbold
  */
-public class WeightByNumBugs implements ISetWiseProcessingStrategy, IProcessesingStrategy {
+public class WeightByNumBugs
+    implements ISetWiseTestdataIndependentProcessingStrategy, IProcessesingStrategy
+{
 
     /**
      * Does not have parameters. String is ignored.
@@ -34,11 +36,34 @@ public class WeightByNumBugs implements ISetWiseProcessingStrategy, IProcessesin
      */
     @Override
     public void apply(Instances testdata, SetUniqueList<Instances> traindataSet) {
+        applyToTestdata(testdata);
         for (Instances traindata : traindataSet) {
-            createWeights(traindata);
+            applyToTraindata(traindata);
         }
     }
 
+    /*
+     * (non-Javadoc)
+     * 
+     * @see de.ugoe.cs.cpdp.dataprocessing.ISetWiseTestdataIndependentProcessingStrategy#
+     * applyToTestdata(weka.core.Instances)
+     */
+    @Override
+    public void applyToTestdata(Instances testdata) {
+        // the test data is not modified
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see de.ugoe.cs.cpdp.dataprocessing.ISetWiseTestdataIndependentProcessingStrategy#
+     * applyToTraindata(weka.core.Instances)
+     */
+    @Override
+    public void applyToTraindata(Instances traindata) {
+        createWeights(traindata);
+    }
+
     /**
      * @see IProcessesingStrategy#apply(weka.core.Instances, weka.core.Instances)
      */
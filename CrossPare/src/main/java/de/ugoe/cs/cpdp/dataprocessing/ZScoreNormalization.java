@@ -23,7 +23,9 @@ import weka.core.Instances;
  * 
  * @author Steffen Herbold
  */
-public class ZScoreNormalization implements ISetWiseProcessingStrategy, IProcessesingStrategy {
+public class ZScoreNormalization
+    implements ISetWiseTestdataIndependentProcessingStrategy, IProcessesingStrategy
+{
 
     /**
      * Does not have parameters. String is ignored.
@@ -42,12 +44,34 @@ public class ZScoreNormalization implements ISetWiseProcessingStrategy, IProcess
      */
     @Override
     public void apply(Instances testdata, SetUniqueList<Instances> traindataSet) {
-        NormalizationUtil.zScore(testdata);
-        for (Instances instances : traindataSet) {
-            NormalizationUtil.zScore(instances);
+        applyToTestdata(testdata);
+        for (Instances traindata : traindataSet) {
+            applyToTraindata(traindata);
         }
     }
 
+    /*
+     * (non-Javadoc)
+     * 
+     * @see de.ugoe.cs.cpdp.dataprocessing.ISetWiseTestdataIndependentProcessingStrategy#
+     * applyToTestdata(weka.core.Instances)
+     */
+    @Override
+    public void applyToTestdata(Instances testdata) {
+        NormalizationUtil.zScore(testdata);
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see de.ugoe.cs.cpdp.dataprocessing.ISetWiseTestdataIndependentProcessingStrategy#
+     * applyToTraindata(weka.core.Instances)
+     */
+    @Override
+    public void applyToTraindata(Instances traindata) {
+        NormalizationUtil.zScore(traindata);
+    }
+
     /**
      * @see IProcessesingStrategy#apply(weka.core.Instances, weka.core.Instances)
      */
@@ -20,9 +20,11 @@ import java.io.PrintWriter;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.Callable;
 
 import de.ugoe.cs.cpdp.training.ITrainer;
 import de.ugoe.cs.cpdp.training.IWekaCompatibleTrainer;
+import de.ugoe.cs.cpdp.util.ConcurrencyUtils;
 import de.ugoe.cs.util.StringTools;
 import weka.classifiers.Classifier;
 import weka.classifiers.Evaluation;
@@ -58,10 +60,17 @@ import weka.core.Instances;
  * <li>tn: true negatives</li>
  * <li>fn: false negatives</li>
  * </ul>
+ * <p>
+ * If the concurrent evaluation is enabled, the classifiers are evaluated concurrently on the shared
+ * test data. The columns of the results file are still written in the order of the classifiers.
+ * The results are handed to the result storages in the same order by the calling thread as soon
+ * as they are available, i.e., the storages are written while the remaining classifiers are still
+ * evaluated.
+ * </p>
  * 
  * @author Steffen Herbold
  */
-public abstract class AbstractWekaEvaluation implements IEvaluationStrategy {
+public abstract class AbstractWekaEvaluation implements IConcurrentEvaluationStrategy {
 
     /**
      * writer for the evaluation results
@@ -78,6 +87,16 @@ public abstract class AbstractWekaEvaluation implements IEvaluationStrategy {
      */
     private String configurationName = "default";
 
+    /**
+     * flag that defines if the classifiers are evaluated concurrently
+     */
+    private boolean concurrent = false;
+
+    /**
+     * number of threads for the concurrent evaluation, in case a new pool is created
+     */
+    private int numThreads = 0;
+
     /**
      * Creates the Weka evaluator. Allows the creation of the evaluator in different ways, e.g., for
      * cross-validation or evaluation on the test data.
@@ -90,6 +109,28 @@ public abstract class AbstractWekaEvaluation implements IEvaluationStrategy {
      */
     protected abstract Evaluation createEvaluator(Instances testdata, Classifier classifier);
 
+    /**
+     * Creates the Weka evaluator with access to the cached predictions of the classifier for the
+     * test data. By default, the predictions are ignored and
+     * {@link #createEvaluator(Instances, Classifier)} is used. Evaluators that evaluate the
+     * classifier on the test data should override this method to avoid scoring the test data
+     * twice.
+     * 
+     * @param testdata
+     *            test data
+     * @param classifier
+     *            classifier used
+     * @param predictions
+     *            cached predictions of the classifier for the test data
+     * @return evaluator
+     */
+    protected Evaluation createEvaluator(Instances testdata,
+                                         Classifier classifier,
+                                         PredictionCache predictions)
+    {
+        return createEvaluator(testdata, classifier);
+    }
+
     /*
      * (non-Javadoc)
      * 
@@ -149,94 +190,153 @@ public abstract class AbstractWekaEvaluation implements IEvaluationStrategy {
         this.output.append("," + testdata.numInstances());
         this.output.append("," + traindata.numInstances());
 
-        Evaluation eval = null;
-        EffortMetricCalculator effortEval = null;
         Iterator<Classifier> classifierIter = classifiers.iterator();
         Iterator<ExperimentResult> resultIter = experimentResults.iterator();
-        while (classifierIter.hasNext()) {
-            Classifier classifier = classifierIter.next();
-            eval = createEvaluator(testdata, classifier);
-            effortEval = new EffortMetricCalculator(testdata, classifier, efforts, numBugs);
-            
-            double pf =
-                eval.numFalsePositives(1) / (eval.numFalsePositives(1) + eval.numTrueNegatives(1));
-            double gmeasure;
-            if( eval.recall(1)==0.0 && pf==1.0 ) {
-                gmeasure = 0.0;
-            } else {
-                gmeasure = 2 * eval.recall(1) * (1.0 - pf) / (eval.recall(1) + (1.0 - pf));
+        if (!this.concurrent) {
+            while (classifierIter.hasNext()) {
+                Classifier classifier = classifierIter.next();
+                ExperimentResult result = resultIter.next();
+                this.output.append(evaluate(testdata, traindata, classifier, efforts, numBugs,
+                                            result));
+                for (IResultStorage storage : storages) {
+                    storage.addResult(result);
+                }
             }
-            double balance = 1.0-Math.sqrt(Math.pow(1-eval.recall(1),2)+Math.pow(pf,2))/Math.sqrt(2);
-            double aucec = effortEval.getAUCEC();
-            double nofb20 = effortEval.getNofb20();
-            double relb20 = effortEval.getRelb20();
-            double nofi80 = effortEval.getNofi80();
-            double reli80 = effortEval.getReli80();
-            double rele80 = effortEval.getRele80();
-            
-            double necm15 = getNECM(eval, 15.0);
-            double necm20 = getNECM(eval, 20.0);
-            double necm25 = getNECM(eval, 25.0);
-            
-            double nofbPredicted = effortEval.getNofBPredicted();
-            double nofbMissed = effortEval.getNofBMissed();
-            
-            this.output.append("," + eval.errorRate());
-            this.output.append("," + eval.recall(1));
-            this.output.append("," + eval.precision(1));
-            this.output.append("," + eval.fMeasure(1));
-            this.output.append("," + gmeasure);
-            this.output.append("," + eval.matthewsCorrelationCoefficient(1));
-            this.output.append("," + eval.areaUnderROC(1));
-            this.output.append("," + aucec);
-            this.output.append("," + eval.truePositiveRate(1));
-            this.output.append("," + eval.trueNegativeRate(1));
-            this.output.append("," + eval.falsePositiveRate(1));
-            this.output.append("," + eval.falseNegativeRate(1));
-            this.output.append("," + eval.numTruePositives(1));
-            this.output.append("," + eval.numFalseNegatives(1));
-            this.output.append("," + eval.numTrueNegatives(1));
-            this.output.append("," + eval.numFalsePositives(1));
-
-            ExperimentResult result = resultIter.next();
-            result.setSizeTestData(testdata.numInstances());
-            result.setSizeTrainingData(traindata.numInstances());
-            result.setError(eval.errorRate());
-            result.setRecall(eval.recall(1));
-            result.setPrecision(eval.precision(1));
-            result.setFscore(eval.fMeasure(1));
-            result.setGscore(gmeasure);
-            result.setMcc(eval.matthewsCorrelationCoefficient(1));
-            result.setAuc(eval.areaUnderROC(1));
-            result.setBalance(balance);
-            result.setAucec(aucec);
-            result.setNofb20(nofb20);
-            result.setRelb20(relb20);
-            result.setNofi80(nofi80);
-            result.setReli80(reli80);
-            result.setRele80(rele80);
-            result.setNecm15(necm15);
-            result.setNecm20(necm20);
-            result.setNecm25(necm25);
-            result.setNofbPredicted(nofbPredicted);
-            result.setNofbMissed(nofbMissed);
-            result.setTpr(eval.truePositiveRate(1));
-            result.setTnr(eval.trueNegativeRate(1));
-            result.setFpr(eval.falsePositiveRate(1));
-            result.setFnr(eval.falseNegativeRate(1));
-            result.setTp(eval.numTruePositives(1));
-            result.setFn(eval.numFalseNegatives(1));
-            result.setTn(eval.numTrueNegatives(1));
-            result.setFp(eval.numFalsePositives(1));
-            for (IResultStorage storage : storages) {
-                storage.addResult(result);
+        }
+        else {
+            final List<Callable<ExperimentResult>> tasks = new LinkedList<>();
+            final List<StringBuilder> rows = new LinkedList<>();
+            while (classifierIter.hasNext()) {
+                final Classifier classifier = classifierIter.next();
+                final ExperimentResult result = resultIter.next();
+                final StringBuilder row = new StringBuilder();
+                rows.add(row);
+                tasks.add(() -> {
+                    row.append(evaluate(testdata, traindata, classifier, efforts, numBugs,
+                                        result));
+                    return result;
+                });
             }
+            final Iterator<StringBuilder> rowIter = rows.iterator();
+            // the rows are appended in the order of the classifiers; the results are handed to the
+            // storages by the calling thread while the remaining classifiers are still evaluated
+            ConcurrencyUtils.invokeOrdered(tasks, this.numThreads, result -> {
+                this.output.append(rowIter.next());
+                for (IResultStorage storage : storages) {
+                    storage.addResult(result);
+                }
+            });
         }
 
         this.output.append(StringTools.ENDLINE);
         this.output.flush();
     }
 
+    /**
+     * <p>
+     * Evaluates a classifier on the test data. The test data and the training data are only read,
+     * i.e., multiple classifiers can be evaluated concurrently.
+     * </p>
+     *
+     * @param testdata
+     *            test data
+     * @param traindata
+     *            training data
+     * @param classifier
+     *            classifier that is evaluated
+     * @param efforts
+     *            review efforts for each instance of the test data
+     * @param numBugs
+     *            number of bugs for each instance of the test data
+     * @param result
+     *            experiment result that is filled with the metrics
+     * @return the columns of the classifier for the results file
+     */
+    private String evaluate(Instances testdata,
+                            Instances traindata,
+                            Classifier classifier,
+                            List<Double> efforts,
+                            List<Double> numBugs,
+                            ExperimentResult result)
+    {
+        final StringBuilder row = new StringBuilder();
+        final PredictionCache predictions = new PredictionCache(testdata, classifier);
+        final Evaluation eval = createEvaluator(testdata, classifier, predictions);
+        final EffortMetricCalculator effortEval =
+            new EffortMetricCalculator(predictions, efforts, numBugs);
+
+        double pf =
+            eval.numFalsePositives(1) / (eval.numFalsePositives(1) + eval.numTrueNegatives(1));
+        double gmeasure;
+        if( eval.recall(1)==0.0 && pf==1.0 ) {
+            gmeasure = 0.0;
+        } else {
+            gmeasure = 2 * eval.recall(1) * (1.0 - pf) / (eval.recall(1) + (1.0 - pf));
+        }
+        double balance = 1.0-Math.sqrt(Math.pow(1-eval.recall(1),2)+Math.pow(pf,2))/Math.sqrt(2);
+        double aucec = effortEval.getAUCEC();
+        double nofb20 = effortEval.getNofb20();
+        double relb20 = effortEval.getRelb20();
+        double nofi80 = effortEval.getNofi80();
+        double reli80 = effortEval.getReli80();
+        double rele80 = effortEval.getRele80();
+
+        double necm15 = getNECM(eval, 15.0);
+        double necm20 = getNECM(eval, 20.0);
+        double necm25 = getNECM(eval, 25.0);
+
+        double nofbPredicted = effortEval.getNofBPredicted();
+        double nofbMissed = effortEval.getNofBMissed();
+
+        row.append("," + eval.errorRate());
+        row.append("," + eval.recall(1));
+        row.append("," + eval.precision(1));
+        row.append("," + eval.fMeasure(1));
+        row.append("," + gmeasure);
+        row.append("," + eval.matthewsCorrelationCoefficient(1));
+        row.append("," + eval.areaUnderROC(1));
+        row.append("," + aucec);
+        row.append("," + eval.truePositiveRate(1));
+        row.append("," + eval.trueNegativeRate(1));
+        row.append("," + eval.falsePositiveRate(1));
+        row.append("," + eval.falseNegativeRate(1));
+        row.append("," + eval.numTruePositives(1));
+        row.append("," + eval.numFalseNegatives(1));
+        row.append("," + eval.numTrueNegatives(1));
+        row.append("," + eval.numFalsePositives(1));
+
+        result.setSizeTestData(testdata.numInstances());
+        result.setSizeTrainingData(traindata.numInstances());
+        result.setError(eval.errorRate());
+        result.setRecall(eval.recall(1));
+        result.setPrecision(eval.precision(1));
+        result.setFscore(eval.fMeasure(1));
+        result.setGscore(gmeasure);
+        result.setMcc(eval.matthewsCorrelationCoefficient(1));
+        result.setAuc(eval.areaUnderROC(1));
+        result.setBalance(balance);
+        result.setAucec(aucec);
+        result.setNofb20(nofb20);
+        result.setRelb20(relb20);
+        result.setNofi80(nofi80);
+        result.setReli80(reli80);
+        result.setRele80(rele80);
+        result.setNecm15(necm15);
+        result.setNecm20(necm20);
+        result.setNecm25(necm25);
+        result.setNofbPredicted(nofbPredicted);
+        result.setNofbMissed(nofbMissed);
+        result.setTpr(eval.truePositiveRate(1));
+        result.setTnr(eval.trueNegativeRate(1));
+        result.setFpr(eval.falsePositiveRate(1));
+        result.setFnr(eval.falseNegativeRate(1));
+        result.setTp(eval.numTruePositives(1));
+        result.setFn(eval.numFalseNegatives(1));
+        result.setTn(eval.numTrueNegatives(1));
+        result.setFp(eval.numFalsePositives(1));
+        return row.toString();
+    }
+
     /*
      * (non-Javadoc)
      * 
@@ -265,6 +365,35 @@ public abstract class AbstractWekaEvaluation implements IEvaluationStrategy {
         }
     }
     
+    /*
+     * (non-Javadoc)
+     * 
+     * @see de.ugoe.cs.cpdp.eval.IEvaluationStrategy#setOutput(java.io.PrintWriter,
+     * java.lang.String)
+     */
+    @SuppressWarnings("hiding")
+    @Override
+    public void setOutput(PrintWriter output, String configurationName) {
+        if (this.output != null && this.output != output && !this.outputIsSystemOut) {
+            this.output.close();
+        }
+        this.output = output;
+        this.outputIsSystemOut = false;
+        this.configurationName = configurationName;
+    }
+    
+    /*
+     * (non-Javadoc)
+     * 
+     * @see de.ugoe.cs.cpdp.eval.IConcurrentEvaluationStrategy#setConcurrent(boolean, int)
+     */
+    @SuppressWarnings("hiding")
+    @Override
+    public void setConcurrent(boolean concurrent, int numThreads) {
+        this.concurrent = concurrent;
+        this.numThreads = numThreads;
+    }
+
     /**
      * <p>
      * Calculates the normalized expected cost of misclassification through a ratio
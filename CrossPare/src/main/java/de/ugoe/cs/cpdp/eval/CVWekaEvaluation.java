@@ -14,43 +14,164 @@
 
 package de.ugoe.cs.cpdp.eval;
 
-import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Random;
+import java.util.concurrent.Callable;
 
-import org.apache.commons.io.output.NullOutputStream;
-
+import de.ugoe.cs.cpdp.util.ConcurrencyUtils;
+import weka.classifiers.AbstractClassifier;
+import weka.classifiers.AggregateableEvaluation;
 import weka.classifiers.Classifier;
 import weka.classifiers.Evaluation;
 import weka.core.Instances;
 
 /**
- * Implements the {@link AbstractWekaEvaluation} for 10-fold cross validation.
+ * <p>
+ * Implements the {@link AbstractWekaEvaluation} for 10-fold cross validation. The folds are
+ * trained and evaluated concurrently. The assignment of the instances to the folds is the same as
+ * by {@link Evaluation#crossValidateModel(Classifier, Instances, int, Random, Object...)} with a
+ * random number generator that is initialized with the seed of the evaluation.
+ * </p>
+ * <p>
+ * The seed can be defined in the configuration through the parameter <code>seed=&lt;n&gt;</code>,
+ * e.g., <code>&lt;eval name="CVWekaEvaluation" param="seed=42" /&gt;</code>. Without this
+ * parameter, the {@link #DEFAULT_SEED} is used.
+ * </p>
  * 
  * @author Steffen Herbold
  */
 public class CVWekaEvaluation extends AbstractWekaEvaluation {
 
+    /**
+     * default seed for the assignment of the instances to the folds
+     */
+    public static final long DEFAULT_SEED = 1;
+
+    /**
+     * number of folds
+     */
+    private static final int NUM_FOLDS = 10;
+
+    /**
+     * prefix of the parameter that defines the seed
+     */
+    private static final String SEED_PARAMETER = "seed=";
+
+    /**
+     * seed for the assignment of the instances to the folds
+     */
+    private long seed = DEFAULT_SEED;
+
+    /**
+     * <p>
+     * Sets the seed for the assignment of the instances to the folds.
+     * </p>
+     *
+     * @param seed
+     *            the seed
+     */
+    @SuppressWarnings("hiding")
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * <p>
+     * Sets the parameters of the evaluation. If the parameters start with <code>seed=&lt;n&gt;</code>,
+     * the seed for the assignment of the instances to the folds is set. The remaining parameters
+     * are handled by the {@link AbstractWekaEvaluation}.
+     * </p>
+     * 
+     * @see de.ugoe.cs.cpdp.eval.AbstractWekaEvaluation#setParameter(java.lang.String)
+     */
+    @Override
+    public void setParameter(String parameters) {
+        String remaining = parameters;
+        if (remaining != null && remaining.startsWith(SEED_PARAMETER)) {
+            int seedEnd = remaining.indexOf(' ');
+            if (seedEnd < 0) {
+                seedEnd = remaining.length();
+            }
+            try {
+                setSeed(Long.parseLong(remaining.substring(SEED_PARAMETER.length(), seedEnd)));
+            }
+            catch (NumberFormatException e) {
+                throw new RuntimeException("invalid seed for the cross-validation: " +
+                    remaining.substring(0, seedEnd), e);
+            }
+            remaining = remaining.substring(seedEnd).trim();
+        }
+        super.setParameter(remaining);
+    }
+
     /*
      * @see de.ugoe.cs.cpdp.eval.AbstractWekaEvaluation#createEvaluator(weka.core.Instances,
      * weka.classifiers.Classifier)
      */
     @Override
     protected Evaluation createEvaluator(Instances testdata, Classifier classifier) {
-        PrintStream errStr = System.err;
-        try(PrintStream nullStream = new PrintStream(new NullOutputStream());) {
-            System.setErr(nullStream);
-            try {
-                final Evaluation eval = new Evaluation(testdata);
-                eval.crossValidateModel(classifier, testdata, 10, new Random());
-                return eval;
-            }
-            catch (Exception e) {
-                throw new RuntimeException(e);
-            }
-            finally {
-                System.setErr(errStr);
-            }
+        try {
+            return crossValidateModel(classifier, testdata, NUM_FOLDS, new Random(this.seed));
+        }
+        catch (Exception e) {
+            throw new RuntimeException(e);
         }
     }
 
+    /**
+     * <p>
+     * Cross-validates a classifier. The folds are created in the same way as by
+     * {@link Evaluation#crossValidateModel(Classifier, Instances, int, Random, Object...)}, i.e.,
+     * the random number generator is used in the same way. Afterwards, the copies of the
+     * classifier are trained and evaluated concurrently and the evaluations of the folds are
+     * aggregated in the order of the folds.
+     * </p>
+     *
+     * @param classifier
+     *            classifier that is cross-validated; it is not modified
+     * @param data
+     *            data used for the cross-validation; it is not modified
+     * @param numFolds
+     *            number of folds
+     * @param random
+     *            random number generator for the assignment of the instances to the folds
+     * @return evaluation with the predictions of all folds
+     * @throws Exception
+     *             thrown if the classifier cannot be copied or the evaluation cannot be created
+     */
+    public static Evaluation crossValidateModel(Classifier classifier,
+                                                Instances data,
+                                                int numFolds,
+                                                Random random)
+        throws Exception
+    {
+        final Instances randData = new Instances(data);
+        randData.randomize(random);
+        if (randData.classAttribute().isNominal()) {
+            randData.stratify(numFolds);
+        }
+
+        final Classifier[] copiedClassifiers = AbstractClassifier.makeCopies(classifier, numFolds);
+        final List<Callable<Evaluation>> tasks = new ArrayList<>(numFolds);
+        for (int fold = 0; fold < numFolds; fold++) {
+            // the folds are created here, because trainCV draws from the random number generator
+            final Instances train = randData.trainCV(numFolds, fold, random);
+            final Instances test = randData.testCV(numFolds, fold);
+            final Classifier copiedClassifier = copiedClassifiers[fold];
+            final Evaluation foldEval = new Evaluation(randData);
+            tasks.add(() -> {
+                foldEval.setPriors(train);
+                copiedClassifier.buildClassifier(train);
+                foldEval.evaluateModel(copiedClassifier, test);
+                return foldEval;
+            });
+        }
+
+        final AggregateableEvaluation eval = new AggregateableEvaluation(randData);
+        for (Evaluation foldEval : ConcurrencyUtils.invokeAll(tasks, numFolds)) {
+            eval.aggregate(foldEval);
+        }
+        return eval;
+    }
 }
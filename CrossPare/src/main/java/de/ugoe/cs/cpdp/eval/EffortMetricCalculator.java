@@ -12,19 +12,26 @@
 //   See the License for the specific language governing permissions and
 //   limitations under the License.
 
+
 package de.ugoe.cs.cpdp.eval;
 
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
 
-import weka.classifiers.AbstractClassifier;
 import weka.classifiers.Classifier;
 import weka.core.Instances;
 
 /**
  * <p>
- * Implements a template method for effort metric calculations
+ * Calculates the effort-aware metrics for the predictions of a classifier. The instances are
+ * ranked by their defect prediction score (descending), in case of equal scores by their effort
+ * (ascending). All metrics are calculated in a single sweep over the ranking. The scores, efforts,
+ * and bug counts are stored in primitive arrays and the ranking is a sorted index into these
+ * arrays, i.e., no objects are created per instance.
+ * </p>
+ * <p>
+ * Besides the default cut-offs, i.e., 20% of the effort for NofB and RelB and 80% of the bugs for
+ * NofI, RelI, and RelE, arbitrary additional cut-offs can be calculated within the same sweep.
  * </p>
  * 
  * @author Steffen Herbold
@@ -32,19 +39,69 @@ import weka.core.Instances;
 public class EffortMetricCalculator {
 
     /**
-     * sorted scores for the test data
+     * default effort cut-off for NofB and RelB
      */
-    final ScoreEffortPair[] scores;
+    public static final double DEFAULT_EFFORT_CUTOFF = 0.2;
 
     /**
-     * total sum of effort of the test data
+     * default bug cut-off for NofI, RelI, and RelE
      */
-    final double totalEffort;
+    public static final double DEFAULT_BUG_CUTOFF = 0.8;
 
     /**
-     * total sum of bugs of the test data
+     * true if the effort metrics are defined, i.e., efforts are available
      */
-    final double totalBugs;
+    private final boolean defined;
+
+    /**
+     * sorted effort cut-offs
+     */
+    private final double[] effortCutoffs;
+
+    /**
+     * sorted bug cut-offs
+     */
+    private final double[] bugCutoffs;
+
+    /**
+     * AUCEC value
+     */
+    private double aucec = -1;
+
+    /**
+     * NofB values, one per effort cut-off
+     */
+    private final double[] nofb;
+
+    /**
+     * RelB values, one per effort cut-off
+     */
+    private final double[] relb;
+
+    /**
+     * NofI values, one per bug cut-off
+     */
+    private final double[] nofi;
+
+    /**
+     * RelI values, one per bug cut-off
+     */
+    private final double[] reli;
+
+    /**
+     * RelE values, one per bug cut-off
+     */
+    private final double[] rele;
+
+    /**
+     * number of bugs in instances that are predicted as defect-prone
+     */
+    private double nofbPredicted = -1;
+
+    /**
+     * number of bugs in instances that are not predicted as defect-prone
+     */
+    private double nofbMissed = -1;
 
     /**
      * <p>
@@ -59,45 +116,188 @@ public class EffortMetricCalculator {
      *            the effort information for each instance in the test data
      * @param numBugs
      *            the bug counts for each instance in the test data
-     * @return value of the effort metric if efforts defined, -1 otherwise
      */
     public EffortMetricCalculator(Instances testdata,
                                   Classifier classifier,
                                   List<Double> efforts,
                                   List<Double> numBugs)
     {
+        this(new PredictionCache(testdata, classifier), efforts, numBugs);
+    }
+
+    /**
+     * <p>
+     * Creates a new instance. The scores are taken from the prediction cache, i.e., the test data
+     * is only scored if the predictions were not yet calculated.
+     * </p>
+     *
+     * @param predictions
+     *            the cached predictions of the classifier for the test data
+     * @param efforts
+     *            the effort information for each instance in the test data
+     * @param numBugs
+     *            the bug counts for each instance in the test data
+     */
+    public EffortMetricCalculator(PredictionCache predictions,
+                                  List<Double> efforts,
+                                  List<Double> numBugs)
+    {
+        this(predictions, efforts, numBugs, new double[0], new double[0]);
+    }
+
+    /**
+     * <p>
+     * Creates a new instance that calculates the metrics for additional cut-offs. The default
+     * cut-offs are always calculated.
+     * </p>
+     *
+     * @param predictions
+     *            the cached predictions of the classifier for the test data
+     * @param efforts
+     *            the effort information for each instance in the test data
+     * @param numBugs
+     *            the bug counts for each instance in the test data
+     * @param effortCutoffs
+     *            additional relative effort cut-offs for NofB and RelB, e.g., 0.1 for 10% effort
+     * @param bugCutoffs
+     *            additional relative bug cut-offs for NofI, RelI, and RelE, e.g., 0.5 for 50% of
+     *            the bugs
+     */
+    @SuppressWarnings("hiding")
+    public EffortMetricCalculator(PredictionCache predictions,
+                                  List<Double> efforts,
+                                  List<Double> numBugs,
+                                  double[] effortCutoffs,
+                                  double[] bugCutoffs)
+    {
+        this.effortCutoffs = withDefault(effortCutoffs, DEFAULT_EFFORT_CUTOFF);
+        this.bugCutoffs = withDefault(bugCutoffs, DEFAULT_BUG_CUTOFF);
+        this.nofb = new double[this.effortCutoffs.length];
+        this.relb = new double[this.effortCutoffs.length];
+        this.nofi = new double[this.bugCutoffs.length];
+        this.reli = new double[this.bugCutoffs.length];
+        this.rele = new double[this.bugCutoffs.length];
         if (efforts == null) {
             // do not initialize
-            scores = null;
-            totalEffort = -1;
-            totalBugs = -1;
+            this.defined = false;
+            Arrays.fill(this.nofb, -1);
+            Arrays.fill(this.relb, -1);
+            Arrays.fill(this.nofi, -1);
+            Arrays.fill(this.reli, -1);
+            Arrays.fill(this.rele, -1);
         }
         else {
-            this.scores = new ScoreEffortPair[testdata.size()];
-            double tmpTotalEffort = 0.0d;
-            double tmpTotalBugs = 0;
-            double[][] distributions;
-            try {
-                distributions = ((AbstractClassifier) classifier).distributionsForInstances(testdata);
+            this.defined = true;
+            final double[][] distributions = predictions.getDistributions();
+            final int numInstances = predictions.getTestdata().numInstances();
+            final double[] scores = new double[numInstances];
+            final boolean[] classifications = new boolean[numInstances];
+            final double[] effortValues = new double[numInstances];
+            final double[] bugValues = new double[numInstances];
+            for (int i = 0; i < numInstances; i++) {
+                scores[i] = distributions[i][1];
+                classifications[i] = distributions[i][1] > distributions[i][0];
+                effortValues[i] = efforts.get(i);
+                bugValues[i] = numBugs.get(i);
+            }
+            sweep(rank(scores, effortValues), classifications, effortValues, bugValues);
+        }
+    }
+
+    /**
+     * <p>
+     * Calculates all metrics in a single sweep over the ranking of the instances.
+     * </p>
+     *
+     * @param ranking
+     *            indices of the instances in the order in which they are reviewed
+     * @param classifications
+     *            true for instances that are predicted as defect-prone
+     * @param efforts
+     *            effort of each instance
+     * @param bugs
+     *            bug count of each instance
+     */
+    private void sweep(int[] ranking, boolean[] classifications, double[] efforts, double[] bugs) {
+        double totalEffort = 0.0d;
+        double totalBugs = 0.0d;
+        for (int i = 0; i < efforts.length; i++) {
+            totalEffort += efforts[i];
+            totalBugs += bugs[i];
+        }
+
+        double relativeEffort = 0.0;
+        double relativeBugsFound = 0.0;
+        double bugsFound = 0.0;
+        double tmpAucec = 0.0;
+        double tmpNofbPredicted = 0.0;
+        double tmpNofbMissed = 0.0;
+        int nextEffortCutoff = 0;
+        int nextBugCutoff = 0;
+        for (int rank = 0; rank < ranking.length; rank++) {
+            final int i = ranking[rank];
+            // bug cut-offs are checked before the instance is reviewed
+            while (nextBugCutoff < this.bugCutoffs.length &&
+                relativeBugsFound > this.bugCutoffs[nextBugCutoff])
+            {
+                setBugCutoffMetrics(nextBugCutoff++, rank, relativeEffort, ranking.length);
+            }
+            final double curRelativeEffort = efforts[i] / totalEffort;
+            final double curRelativeBugsFound = bugs[i] / totalBugs;
+            relativeEffort += curRelativeEffort;
+            // effort cut-offs are reached if the next instance would exceed them
+            while (nextEffortCutoff < this.effortCutoffs.length &&
+                relativeEffort + curRelativeEffort > this.effortCutoffs[nextEffortCutoff])
+            {
+                this.nofb[nextEffortCutoff] = bugsFound;
+                this.relb[nextEffortCutoff] = relativeBugsFound;
+                nextEffortCutoff++;
             }
-            catch (Exception e) {
-                throw new RuntimeException("unexpected error during the evaluation of the review effort",
-                                           e);
+            bugsFound += bugs[i];
+            relativeBugsFound += curRelativeBugsFound;
+            tmpAucec += curRelativeEffort * relativeBugsFound; // simple Riemann integral
+            if (classifications[i]) {
+                tmpNofbPredicted += bugs[i];
             }
-            for (int i = 0; i < testdata.numInstances(); i++) {
-                double curEffort = efforts.get(i);
-                double curScore = distributions[i][1];
-                double curClass = distributions[i][1]>distributions[i][0] ? 1.0 : 0.0;
-                double curBugCount = numBugs.get(i);
-                this.scores[i] = new ScoreEffortPair(curScore, curClass, curEffort, curBugCount);
-                tmpTotalEffort += curEffort;
-                tmpTotalBugs += curBugCount;
+            else {
+                tmpNofbMissed += bugs[i];
             }
-            this.totalEffort = tmpTotalEffort;
-            this.totalBugs = tmpTotalBugs;
-            // sort by score (descending), in case of equal scores use size (ascending)
-            Arrays.sort(scores, Collections.reverseOrder());
         }
+        while (nextBugCutoff < this.bugCutoffs.length) {
+            setBugCutoffMetrics(nextBugCutoff++, ranking.length, relativeEffort, ranking.length);
+        }
+        while (nextEffortCutoff < this.effortCutoffs.length) {
+            this.nofb[nextEffortCutoff] = bugsFound;
+            this.relb[nextEffortCutoff] = relativeBugsFound;
+            nextEffortCutoff++;
+        }
+        this.aucec = tmpAucec;
+        this.nofbPredicted = tmpNofbPredicted;
+        this.nofbMissed = tmpNofbMissed;
+    }
+
+    /**
+     * <p>
+     * Sets the metrics of a bug cut-off.
+     * </p>
+     *
+     * @param cutoffIndex
+     *            index of the bug cut-off
+     * @param numInstances
+     *            number of instances reviewed until the cut-off is reached
+     * @param relativeEffort
+     *            relative effort invested until the cut-off is reached
+     * @param totalInstances
+     *            total number of instances
+     */
+    private void setBugCutoffMetrics(int cutoffIndex,
+                                     int numInstances,
+                                     double relativeEffort,
+                                     int totalInstances)
+    {
+        this.nofi[cutoffIndex] = numInstances;
+        this.reli[cutoffIndex] = numInstances / (double) totalInstances;
+        this.rele[cutoffIndex] = relativeEffort;
     }
 
     /**
@@ -106,21 +306,7 @@ public class EffortMetricCalculator {
      * @return AUCEC value
      */
     public double getAUCEC() {
-        if( scores==null ) {
-            return -1;
-        }
-        // Calculate the Riemann integral
-        // y-axis = relative number of bugs found
-        // x-axis = relative effort related overall project size
-        double aucec = 0.0;
-        double relativeBugsFound = 0.0;
-        for (ScoreEffortPair score : scores) {
-            double curRelativeEffort = score.getEffort() / totalEffort;
-            double curRelativeBugsFound = score.getBugCount() / totalBugs;
-            relativeBugsFound += curRelativeBugsFound;
-            aucec += curRelativeEffort * relativeBugsFound; // simple Riemann integral
-        }
-        return aucec;
+        return this.aucec;
     }
 
     /**
@@ -129,21 +315,7 @@ public class EffortMetricCalculator {
      * @return NofB20 value
      */
     public double getNofb20() {
-        if( scores==null ) {
-            return -1;
-        }
-        double bugsFound = 0.0;
-        double relativeEffort = 0.0;
-        for (ScoreEffortPair score : scores) {
-            double curRelativeEffort = score.getEffort() / totalEffort;
-            relativeEffort += curRelativeEffort;
-            if (relativeEffort + curRelativeEffort > 0.2) {
-                // if this next instance is taken into account, the effort will be greater than 20%
-                break;
-            }
-            bugsFound += score.getBugCount();
-        }
-        return bugsFound;
+        return getNofb(DEFAULT_EFFORT_CUTOFF);
     }
 
     /**
@@ -152,23 +324,7 @@ public class EffortMetricCalculator {
      * @return RelB20 value
      */
     public double getRelb20() {
-        if( scores==null ) {
-            return -1;
-        }
-        double relativeBugsFound = 0.0;
-        double relativeEffort = 0.0;
-        for (ScoreEffortPair score : scores) {
-            double curRelativeEffort = score.getEffort() / totalEffort;
-            double curRelativeBugsFound = score.getBugCount() / totalBugs;
-            relativeEffort += curRelativeEffort;
-            if (relativeEffort + curRelativeEffort > 0.2) {
-                // if this next instance is taken into account, the effort will be greater than 20%
-                break;
-            }
-            relativeBugsFound += curRelativeBugsFound;
-
-        }
-        return relativeBugsFound;
+        return getRelb(DEFAULT_EFFORT_CUTOFF);
     }
 
     /**
@@ -177,22 +333,7 @@ public class EffortMetricCalculator {
      * @return NofI80 value
      */
     public double getNofi80() {
-        if( scores==null ) {
-            return -1;
-        }
-        double relativeBugsFound = 0.0;
-        int numInstances = 0;
-        for (ScoreEffortPair score : scores) {
-            if (relativeBugsFound > 0.8) {
-                // already found 80% of bugs
-                break;
-            }
-            double curRelativeBugsFound = score.getBugCount() / totalBugs;
-            relativeBugsFound += curRelativeBugsFound;
-
-            numInstances++;
-        }
-        return numInstances;
+        return getNofi(DEFAULT_BUG_CUTOFF);
     }
 
     /**
@@ -201,162 +342,216 @@ public class EffortMetricCalculator {
      * @return RelI80 value
      */
     public double getReli80() {
-        if( scores==null ) {
-            return -1;
-        }
-        double relativeBugsFound = 0.0;
-        int numInstances = 0;
-        for (ScoreEffortPair score : scores) {
-            if (relativeBugsFound > 0.8) {
-                // already found 80% of bugs
-                break;
-            }
-            double curRelativeBugsFound = score.getBugCount() / totalBugs;
-            relativeBugsFound += curRelativeBugsFound;
-
-            numInstances++;
-        }
-        return numInstances / (double) scores.length;
+        return getReli(DEFAULT_BUG_CUTOFF);
     }
 
     /**
      * Calculate the percentage of effort invested until 80 percent of the bugs are found.
      * 
-     * @return
+     * @return RelE80 value
      */
     public double getRele80() {
-        if( scores==null ) {
-            return -1;
-        }
-        double relativeBugsFound = 0.0;
-        double relativeEffort = 0.0;
-        for (ScoreEffortPair score : scores) {
-            if (relativeBugsFound > 0.8) {
-                // already found 80% of bugs
-                break;
-            }
-            double curRelativeEffort = score.getEffort() / totalEffort;
-            double curRelativeBugsFound = score.getBugCount() / totalBugs;
-            relativeBugsFound += curRelativeBugsFound;
-            relativeEffort += curRelativeEffort;
-        }
-        return relativeEffort;
+        return getRele(DEFAULT_BUG_CUTOFF);
+    }
+
+    /**
+     * Number of bugs found if the given share of the source code is reviewed.
+     *
+     * @param effortCutoff
+     *            relative effort; must be a default or additional effort cut-off
+     * @return NofB value
+     */
+    public double getNofb(double effortCutoff) {
+        return this.nofb[indexOf(this.effortCutoffs, effortCutoff)];
+    }
+
+    /**
+     * Percentage of bugs found if the given share of the source code is reviewed.
+     *
+     * @param effortCutoff
+     *            relative effort; must be a default or additional effort cut-off
+     * @return RelB value
+     */
+    public double getRelb(double effortCutoff) {
+        return this.relb[indexOf(this.effortCutoffs, effortCutoff)];
+    }
+
+    /**
+     * Number of instances visited until the given share of the bugs is found.
+     *
+     * @param bugCutoff
+     *            relative number of bugs; must be a default or additional bug cut-off
+     * @return NofI value
+     */
+    public double getNofi(double bugCutoff) {
+        return this.nofi[indexOf(this.bugCutoffs, bugCutoff)];
+    }
+
+    /**
+     * Percentage of instances visited until the given share of the bugs is found.
+     *
+     * @param bugCutoff
+     *            relative number of bugs; must be a default or additional bug cut-off
+     * @return RelI value
+     */
+    public double getReli(double bugCutoff) {
+        return this.reli[indexOf(this.bugCutoffs, bugCutoff)];
     }
-    
+
+    /**
+     * Percentage of effort invested until the given share of the bugs is found.
+     *
+     * @param bugCutoff
+     *            relative number of bugs; must be a default or additional bug cut-off
+     * @return RelE value
+     */
+    public double getRele(double bugCutoff) {
+        return this.rele[indexOf(this.bugCutoffs, bugCutoff)];
+    }
+
     /**
      * <p>
-     * Number of bugs that are found if the classification is used, i.e., all instances are reviewed that are predicted as defect-prone.
+     * Number of bugs that are found if the classification is used, i.e., all instances are reviewed
+     * that are predicted as defect-prone.
      * </p>
      *
-     * @return
+     * @return NofB of the classification, -1 if no efforts are defined
      */
     public double getNofBPredicted() {
-        double nofbPredicted = 0.0;
-        for( ScoreEffortPair score : scores ) {
-            if(score.getClassification()==1.0) {
-                nofbPredicted += score.getBugCount();
-            }
-        }
-        return nofbPredicted;
+        return this.nofbPredicted;
     }
-    
+
     /**
      * <p>
-     * Number of bugs that are missed if the classification is used, i.e., all instances are reviewed that are predicted as defect-prone.
+     * Number of bugs that are missed if the classification is used, i.e., all instances are
+     * reviewed that are predicted as defect-prone.
      * </p>
      *
-     * @return
+     * @return number of missed bugs, -1 if no efforts are defined
      */
     public double getNofBMissed() {
-        double nofbMissed = 0.0;
-        for( ScoreEffortPair score : scores ) {
-            if(score.getClassification()!=1.0) {
-                nofbMissed += score.getBugCount();
-            }
-        }
-        return nofbMissed;
+        return this.nofbMissed;
     }
 
     /**
      * <p>
-     * Helper class for effort metric calculation
+     * Returns true if the effort metrics are defined, i.e., efforts are available for the test
+     * data. Otherwise, all metrics are -1.
      * </p>
-     * 
-     * @author Steffen Herbold
-     */
-    private static class ScoreEffortPair implements Comparable<ScoreEffortPair> {
-
-        /**
-         * Defect prediction score of the pair
-         */
-        private final double score;
-        
-        /**
-         * Classification of the pair
-         */
-        private final double classification;
-
-        /**
-         * Associated review effort
-         */
-        private final double effort;
-
-        /**
-         * Class of the instance
-         */
-        private final double bugCount;
-
-        @SuppressWarnings("hiding")
-        public ScoreEffortPair(double score, double classification, double effort, double bugCount) {
-            this.score = score;
-            this.classification = classification;
-            this.effort = effort;
-            this.bugCount = bugCount;
-        }
+     *
+     * @return true if the effort metrics are defined
+     */
+    public boolean isDefined() {
+        return this.defined;
+    }
 
-        public double getClassification() {
-            return classification;
+    /**
+     * <p>
+     * Ranks the instances by their score (descending). In case of equal scores, the instances are
+     * ranked by their effort (ascending). In case of equal scores and efforts, the order of the
+     * instances is kept.
+     * </p>
+     *
+     * @param scores
+     *            scores of the instances
+     * @param efforts
+     *            efforts of the instances
+     * @return indices of the instances in the order of the ranking
+     */
+    static int[] rank(double[] scores, double[] efforts) {
+        int[] ranking = new int[scores.length];
+        for (int i = 0; i < ranking.length; i++) {
+            ranking[i] = i;
         }
-        
-        /**
-         * @return the effort
-         */
-        public double getEffort() {
-            return effort;
+        // bottom-up merge sort, which is stable and does not box the indices
+        int[] buffer = new int[ranking.length];
+        for (int width = 1; width < ranking.length; width *= 2) {
+            for (int left = 0; left < ranking.length - width; left += 2 * width) {
+                final int middle = left + width;
+                final int right = Math.min(left + 2 * width, ranking.length);
+                int i = left;
+                int j = middle;
+                int k = left;
+                while (i < middle && j < right) {
+                    if (isRankedBefore(ranking[j], ranking[i], scores, efforts)) {
+                        buffer[k++] = ranking[j++];
+                    }
+                    else {
+                        buffer[k++] = ranking[i++];
+                    }
+                }
+                while (i < middle) {
+                    buffer[k++] = ranking[i++];
+                }
+                while (j < right) {
+                    buffer[k++] = ranking[j++];
+                }
+                System.arraycopy(buffer, left, ranking, left, right - left);
+            }
         }
+        return ranking;
+    }
 
-        /**
-         * @return the actual class
-         */
-        public double getBugCount() {
-            return bugCount;
-        }
+    /**
+     * <p>
+     * Checks if an instance is strictly ranked before another instance.
+     * </p>
+     *
+     * @param first
+     *            index of the first instance
+     * @param second
+     *            index of the second instance
+     * @param scores
+     *            scores of the instances
+     * @param efforts
+     *            efforts of the instances
+     * @return true if the first instance is ranked before the second instance
+     */
+    private static boolean isRankedBefore(int first,
+                                          int second,
+                                          double[] scores,
+                                          double[] efforts)
+    {
+        return scores[first] > scores[second] ||
+            (scores[first] == scores[second] && efforts[first] < efforts[second]);
+    }
 
-        /*
-         * (non-Javadoc)
-         * 
-         * @see java.lang.Comparable#compareTo(java.lang.Object)
-         */
-        @Override
-        public int compareTo(ScoreEffortPair other) {
-            if (score > other.score || (score == other.score && effort < other.effort)) {
-                return 1;
-            }
-            if (score < other.score || (score == other.score && effort > other.effort)) {
-                return -1;
-            }
-            return 0;
-        }
+    /**
+     * <p>
+     * Creates a sorted array of cut-offs without duplicates that contains the default cut-off.
+     * </p>
+     *
+     * @param cutoffs
+     *            additional cut-offs
+     * @param defaultCutoff
+     *            default cut-off
+     * @return sorted cut-offs
+     */
+    private static double[] withDefault(double[] cutoffs, double defaultCutoff) {
+        double[] result = Arrays.copyOf(cutoffs, cutoffs.length + 1);
+        result[cutoffs.length] = defaultCutoff;
+        return Arrays.stream(result).sorted().distinct().toArray();
+    }
 
-        /*
-         * (non-Javadoc)
-         * 
-         * @see java.lang.Object#toString()
-         */
-        @Override
-        public String toString() {
-            return "score=" + score + ", effort=" + effort + ", bugCount=" + bugCount;
+    /**
+     * <p>
+     * Determines the index of a cut-off.
+     * </p>
+     *
+     * @param cutoffs
+     *            sorted cut-offs
+     * @param cutoff
+     *            cut-off that is searched
+     * @return index of the cut-off
+     * @throws IllegalArgumentException
+     *             thrown if the cut-off was not calculated
+     */
+    private static int indexOf(double[] cutoffs, double cutoff) {
+        int index = Arrays.binarySearch(cutoffs, cutoff);
+        if (index < 0) {
+            throw new IllegalArgumentException("metrics for the cut-off " + cutoff +
+                " were not calculated");
         }
-
+        return index;
     }
 }
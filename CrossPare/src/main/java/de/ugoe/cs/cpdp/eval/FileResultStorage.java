@@ -0,0 +1,912 @@
+// Copyright 2015 Georg-August-Universität Göttingen, Germany
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+
+package de.ugoe.cs.cpdp.eval;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.zip.CRC32;
+
+import com.google.common.collect.HashBasedTable;
+import com.google.common.collect.Table;
+
+import de.ugoe.cs.util.console.Console;
+
+/**
+ * <p>
+ * Implements a storage of experiment results in local files, i.e., without a database server. The
+ * results of each configuration are appended to a binary log <code>&lt;configurationName&gt;.results</code>
+ * in the directory of the storage. By default, the directory is the results path of the
+ * configuration, i.e., the storage is a drop-in replacement for the {@link MySQLResultStorage}:
+ * </p>
+ * 
+ * <pre>
+ * &lt;storage name="FileResultStorage" /&gt;
+ * </pre>
+ * <p>
+ * The log consists of frames, each with a type, the length of the payload, the payload, and a
+ * CRC32 checksum. Incomplete or corrupt frames at the end of the log, e.g., because of a crash, are
+ * dropped when the log is opened. Appended results contain their names as strings. On
+ * {@link #close()}, the log is compacted: the names are stored once in a dictionary and the
+ * results only refer to the dictionary.
+ * </p>
+ * <p>
+ * The number of results per product and classifier is kept in an in-memory index that is loaded
+ * once per configuration, i.e., {@link #containsResult(String, String, String)} and
+ * {@link #containsHeterogeneousResult(String, String, String, String)} do not read the log.
+ * </p>
+ * <p>
+ * The log must not be written by multiple processes. If a shard of an experiment is executed
+ * (see {@link #setShard(String)}), the results are appended to a separate log
+ * <code>&lt;configurationName&gt;.&lt;shard&gt;.results</code> and the log of the configuration
+ * is only read. Because each shard executes other work units, the index contains the results of
+ * the configuration and of the shard, but not of the other shards. Once all shards are finished,
+ * {@link #mergeShards(String, List)} appends the results of the shards to the log of the
+ * configuration.
+ * </p>
+ * 
+ * @author Steffen Herbold
+ */
+public class FileResultStorage implements IFileResultStorage, IShardableResultStorage, Closeable {
+
+    /**
+     * file extension of the logs
+     */
+    public static final String FILE_EXTENSION = ".results";
+
+    /**
+     * magic number at the beginning of the logs
+     */
+    private static final int MAGIC = 0x43505253;
+
+    /**
+     * version of the file format
+     */
+    private static final short VERSION = 1;
+
+    /**
+     * size of the header of the logs in bytes
+     */
+    private static final int HEADER_SIZE = 6;
+
+    /**
+     * maximal size of the payload of a frame; larger sizes indicate a corrupt frame
+     */
+    private static final int MAX_PAYLOAD_SIZE = 1 << 20;
+
+    /**
+     * frame with a result that contains the names as strings
+     */
+    private static final byte RESULT_FRAME = 'R';
+
+    /**
+     * frame with a result that refers to the dictionary for the names
+     */
+    private static final byte COMPACT_RESULT_FRAME = 'C';
+
+    /**
+     * frame with an entry of the dictionary
+     */
+    private static final byte DICTIONARY_FRAME = 'D';
+
+    /**
+     * directory of the logs
+     */
+    private File directory;
+
+    /**
+     * name of the shard that is executed; null if all shards are executed
+     */
+    private String shardName = null;
+
+    /**
+     * opened logs, one per configuration
+     */
+    private final Map<String, ResultLog> logs = new HashMap<>();
+
+    /**
+     * <p>
+     * Creates a new storage in the default results path <code>results</code>.
+     * </p>
+     */
+    public FileResultStorage() {
+        this("results");
+    }
+
+    /**
+     * <p>
+     * Creates a new storage.
+     * </p>
+     *
+     * @param directory
+     *            directory of the logs; created if it does not exist
+     */
+    public FileResultStorage(String directory) {
+        this.directory = new File(directory);
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see de.ugoe.cs.cpdp.eval.IFileResultStorage#setResultsPath(java.lang.String)
+     */
+    @Override
+    public synchronized void setResultsPath(String resultsPath) {
+        close();
+        this.directory = new File(resultsPath);
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see de.ugoe.cs.cpdp.eval.IShardableResultStorage#setShard(java.lang.String)
+     */
+    @SuppressWarnings("hiding")
+    @Override
+    public synchronized void setShard(String shardName) {
+        close();
+        this.shardName = shardName;
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see de.ugoe.cs.cpdp.eval.IShardableResultStorage#mergeShards(java.lang.String,
+     * java.util.List)
+     */
+    @Override
+    public synchronized void mergeShards(String experimentName, List<String> shardNames) {
+        close();
+        final File file = getFile(experimentName, null);
+        final File mergedFile = new File(file.getPath() + ".merge");
+        final List<File> shardFiles = new LinkedList<>();
+        try {
+            // the log is only replaced once all results of the shards are appended
+            if (file.exists()) {
+                Files.copy(file.toPath(), mergedFile.toPath(),
+                           StandardCopyOption.REPLACE_EXISTING);
+            }
+            else {
+                Files.deleteIfExists(mergedFile.toPath());
+            }
+            final ResultLog mergedLog = new ResultLog(mergedFile, experimentName);
+            for (String name : shardNames) {
+                File shardFile = getFile(experimentName, name);
+                if (shardFile.exists()) {
+                    readLog(shardFile, experimentName, mergedLog::append, null);
+                    shardFiles.add(shardFile);
+                }
+            }
+            mergedLog.close();
+            if (mergedFile.exists()) {
+                Files.move(mergedFile.toPath(), file.toPath(),
+                           StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+        }
+        catch (IOException e) {
+            throw new RuntimeException("could not merge result logs of the shards of " +
+                experimentName, e);
+        }
+        for (File shardFile : shardFiles) {
+            shardFile.delete();
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see de.ugoe.cs.cpdp.eval.IResultStorage#addResult(de.ugoe.cs.cpdp.eval.ExperimentResult)
+     */
+    @Override
+    public synchronized void addResult(ExperimentResult result) {
+        getLog(result.getConfigurationName()).append(result);
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see de.ugoe.cs.cpdp.eval.IResultStorage#containsResult(java.lang.String, java.lang.String,
+     * java.lang.String)
+     */
+    @Override
+    public synchronized int containsResult(String experimentName,
+                                           String productName,
+                                           String classifierName)
+    {
+        Integer count = getLog(experimentName).counts.get(productName, classifierName);
+        return count == null ? 0 : count;
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see de.ugoe.cs.cpdp.eval.IResultStorage#containsHeterogeneousResult(java.lang.String,
+     * java.lang.String, java.lang.String, java.lang.String)
+     */
+    @Override
+    public synchronized int containsHeterogeneousResult(String experimentName,
+                                                        String productName,
+                                                        String classifierName,
+                                                        String trainProductName)
+    {
+        Table<String, String, Integer> counts =
+            getLog(experimentName).heterogeneousCounts.get(classifierName);
+        if (counts == null) {
+            return 0;
+        }
+        Integer count = counts.get(productName, trainProductName);
+        return count == null ? 0 : count;
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see de.ugoe.cs.cpdp.eval.IResultStorage#getResultCounts(java.lang.String)
+     */
+    @Override
+    public synchronized Table<String, String, Integer> getResultCounts(String experimentName) {
+        return HashBasedTable.create(getLog(experimentName).counts);
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see de.ugoe.cs.cpdp.eval.IResultStorage#getHeterogeneousResultCounts(java.lang.String,
+     * java.lang.String)
+     */
+    @Override
+    public synchronized Table<String, String, Integer> getHeterogeneousResultCounts(String experimentName,
+                                                                                    String classifierName)
+    {
+        Table<String, String, Integer> counts =
+            getLog(experimentName).heterogeneousCounts.get(classifierName);
+        return counts == null ? HashBasedTable.create() : HashBasedTable.create(counts);
+    }
+
+    /**
+     * <p>
+     * Reads all results of a configuration from the log. If a shard is executed, the results of
+     * the shard follow the results of the configuration.
+     * </p>
+     *
+     * @param experimentName
+     *            name of the configuration
+     * @return the results in the order in which they were added
+     */
+    public synchronized List<ExperimentResult> getResults(String experimentName) {
+        final List<ExperimentResult> results = new LinkedList<>();
+        final ResultLog log = getLog(experimentName);
+        log.flush();
+        final File file = getFile(experimentName, null);
+        try {
+            if (!file.equals(log.file)) {
+                readLog(file, experimentName, results::add, null);
+            }
+            readLog(log.file, experimentName, results::add, null);
+        }
+        catch (IOException e) {
+            throw new RuntimeException("could not read result log " + log.file, e);
+        }
+        return results;
+    }
+
+    /**
+     * <p>
+     * Closes and compacts all opened logs. The storage can still be used afterwards, the logs are
+     * opened again if required.
+     * </p>
+     * 
+     * @see java.io.Closeable#close()
+     */
+    @Override
+    public synchronized void close() {
+        for (ResultLog log : this.logs.values()) {
+            log.close();
+        }
+        this.logs.clear();
+    }
+
+    /**
+     * <p>
+     * Returns the log of a configuration. The log is opened and its index is loaded, if this is
+     * not yet the case. If a shard is executed, the log of the shard is returned and the results
+     * of the configuration are added to its index.
+     * </p>
+     *
+     * @param experimentName
+     *            name of the configuration
+     * @return the log
+     */
+    private ResultLog getLog(String experimentName) {
+        ResultLog log = this.logs.get(experimentName);
+        if (log == null) {
+            log = new ResultLog(getFile(experimentName, this.shardName), experimentName);
+            if (this.shardName != null) {
+                File file = getFile(experimentName, null);
+                try {
+                    readLog(file, experimentName, log::index, null);
+                }
+                catch (IOException e) {
+                    throw new RuntimeException("could not read result log " + file, e);
+                }
+            }
+            this.logs.put(experimentName, log);
+        }
+        return log;
+    }
+
+    /**
+     * <p>
+     * Returns the file of the log of a configuration or of a shard of a configuration.
+     * </p>
+     *
+     * @param experimentName
+     *            name of the configuration
+     * @param shard
+     *            name of the shard; null for the log of the configuration
+     * @return file of the log
+     */
+    private File getFile(String experimentName, String shard) {
+        return new File(this.directory, shard == null ? experimentName + FILE_EXTENSION
+            : experimentName + "." + shard + FILE_EXTENSION);
+    }
+
+    /**
+     * <p>
+     * Log of the results of one configuration, together with the index of the results.
+     * </p>
+     * 
+     * @author Steffen Herbold
+     */
+    private static class ResultLog {
+
+        /**
+         * file of the log
+         */
+        private final File file;
+
+        /**
+         * name of the configuration
+         */
+        private final String experimentName;
+
+        /**
+         * number of results; the rows are the product names, the columns the classifier names
+         */
+        private final Table<String, String, Integer> counts = HashBasedTable.create();
+
+        /**
+         * number of results per classifier; the rows are the product names, the columns the names
+         * of the training products
+         */
+        private final Map<String, Table<String, String, Integer>> heterogeneousCounts =
+            new HashMap<>();
+
+        /**
+         * true if the log contains frames that are not compacted
+         */
+        private boolean compactable = false;
+
+        /**
+         * stream for appending results; null if not yet opened
+         */
+        private DataOutputStream output = null;
+
+        /**
+         * <p>
+         * Opens a log and loads the index. Incomplete or corrupt frames at the end of the log are
+         * removed.
+         * </p>
+         *
+         * @param file
+         *            file of the log
+         * @param experimentName
+         *            name of the configuration
+         */
+        @SuppressWarnings("hiding")
+        private ResultLog(File file, String experimentName) {
+            this.file = file;
+            this.experimentName = experimentName;
+            if (file.exists()) {
+                try {
+                    final boolean[] uncompacted = new boolean[1];
+                    long validLength = readLog(file, experimentName, this::index, uncompacted);
+                    this.compactable = uncompacted[0];
+                    if (validLength < file.length()) {
+                        Console.traceln(Level.WARNING, "dropping " +
+                            (file.length() - validLength) + " corrupt bytes at the end of " + file);
+                        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+                            raf.setLength(validLength);
+                        }
+                    }
+                }
+                catch (IOException e) {
+                    throw new RuntimeException("could not read result log " + file, e);
+                }
+            }
+        }
+
+        /**
+         * <p>
+         * Adds a result to the index.
+         * </p>
+         *
+         * @param result
+         *            the result
+         */
+        private void index(ExperimentResult result) {
+            Integer count = this.counts.get(result.getProductName(), result.getClassifier());
+            this.counts.put(result.getProductName(), result.getClassifier(),
+                            count == null ? 1 : count + 1);
+            Table<String, String, Integer> classifierCounts =
+                this.heterogeneousCounts.get(result.getClassifier());
+            if (classifierCounts == null) {
+                classifierCounts = HashBasedTable.create();
+                this.heterogeneousCounts.put(result.getClassifier(), classifierCounts);
+            }
+            count = classifierCounts.get(result.getProductName(), result.getTrainProductName());
+            classifierCounts.put(result.getProductName(), result.getTrainProductName(),
+                                 count == null ? 1 : count + 1);
+        }
+
+        /**
+         * <p>
+         * Appends a result to the log and adds it to the index. The result is passed to the
+         * operating system before the method returns.
+         * </p>
+         *
+         * @param result
+         *            the result
+         */
+        private void append(ExperimentResult result) {
+            try {
+                if (this.output == null) {
+                    this.output = openForAppend(this.file);
+                }
+                ByteArrayOutputStream payload = new ByteArrayOutputStream();
+                try (DataOutputStream payloadStream = new DataOutputStream(payload)) {
+                    payloadStream.writeUTF(result.getProductName());
+                    payloadStream.writeUTF(result.getTrainProductName());
+                    payloadStream.writeUTF(result.getClassifier());
+                    writeValues(payloadStream, result);
+                }
+                writeFrame(this.output, RESULT_FRAME, payload.toByteArray());
+                this.output.flush();
+            }
+            catch (IOException e) {
+                throw new RuntimeException("could not write result log " + this.file, e);
+            }
+            this.compactable = true;
+            index(result);
+        }
+
+        /**
+         * <p>
+         * Passes the appended results to the operating system.
+         * </p>
+         */
+        private void flush() {
+            if (this.output != null) {
+                try {
+                    this.output.flush();
+                }
+                catch (IOException e) {
+                    throw new RuntimeException("could not write result log " + this.file, e);
+                }
+            }
+        }
+
+        /**
+         * <p>
+         * Closes the log and compacts it, if it contains frames that are not compacted.
+         * </p>
+         */
+        private void close() {
+            if (this.output != null) {
+                try {
+                    this.output.close();
+                }
+                catch (IOException e) {
+                    Console.traceln(Level.WARNING, "could not close result log " + this.file +
+                        ": " + e.getMessage());
+                }
+                this.output = null;
+            }
+            if (this.compactable) {
+                try {
+                    compact(this.file, this.experimentName);
+                    this.compactable = false;
+                }
+                catch (IOException e) {
+                    Console.traceln(Level.WARNING, "could not compact result log " + this.file +
+                        ": " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * <p>
+     * Opens a log for appending. The log and its directory are created if they do not exist.
+     * </p>
+     *
+     * @param file
+     *            file of the log
+     * @return stream for appending frames
+     * @throws IOException
+     *             thrown if the log cannot be opened
+     */
+    private static DataOutputStream openForAppend(File file) throws IOException {
+        final boolean exists = file.exists() && file.length() > 0;
+        if (!exists && file.getParentFile() != null) {
+            file.getParentFile().mkdirs();
+        }
+        DataOutputStream output =
+            new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file, exists)));
+        if (!exists) {
+            writeHeader(output);
+        }
+        return output;
+    }
+
+    /**
+     * <p>
+     * Compacts a log. The names are stored once in a dictionary and the results refer to the
+     * dictionary. The compacted log is written into a temporary file that replaces the log
+     * afterwards.
+     * </p>
+     *
+     * @param file
+     *            file of the log
+     * @param experimentName
+     *            name of the configuration
+     * @throws IOException
+     *             thrown if the log cannot be read or written
+     */
+    private static void compact(File file, String experimentName) throws IOException {
+        final Map<String, Integer> dictionary = new LinkedHashMap<>();
+        readLog(file, experimentName, result -> {
+            for (String name : new String[]
+                { result.getProductName(), result.getTrainProductName(), result.getClassifier() })
+            {
+                if (!dictionary.containsKey(name)) {
+                    dictionary.put(name, dictionary.size());
+                }
+            }
+        }, null);
+
+        final File compactedFile = new File(file.getPath() + ".tmp");
+        try (DataOutputStream output = new DataOutputStream(
+            new BufferedOutputStream(new FileOutputStream(compactedFile))))
+        {
+            writeHeader(output);
+            for (Map.Entry<String, Integer> entry : dictionary.entrySet()) {
+                ByteArrayOutputStream payload = new ByteArrayOutputStream();
+                try (DataOutputStream payloadStream = new DataOutputStream(payload)) {
+                    payloadStream.writeInt(entry.getValue());
+                    payloadStream.writeUTF(entry.getKey());
+                }
+                writeFrame(output, DICTIONARY_FRAME, payload.toByteArray());
+            }
+            final IOException[] failure = new IOException[1];
+            readLog(file, experimentName, result -> {
+                if (failure[0] != null) {
+                    return;
+                }
+                try {
+                    ByteArrayOutputStream payload = new ByteArrayOutputStream();
+                    try (DataOutputStream payloadStream = new DataOutputStream(payload)) {
+                        payloadStream.writeInt(dictionary.get(result.getProductName()));
+                        payloadStream.writeInt(dictionary.get(result.getTrainProductName()));
+                        payloadStream.writeInt(dictionary.get(result.getClassifier()));
+                        writeValues(payloadStream, result);
+                    }
+                    writeFrame(output, COMPACT_RESULT_FRAME, payload.toByteArray());
+                }
+                catch (IOException e) {
+                    failure[0] = e;
+                }
+            }, null);
+            if (failure[0] != null) {
+                throw failure[0];
+            }
+        }
+        Files.move(compactedFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                   StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * <p>
+     * Reads a log. Reading stops at the first incomplete or corrupt frame.
+     * </p>
+     *
+     * @param file
+     *            file of the log
+     * @param experimentName
+     *            name of the configuration
+     * @param consumer
+     *            consumer of the results in the order of the log
+     * @param uncompacted
+     *            if not null, the first element is set to true if the log contains frames that are
+     *            not compacted or corrupt frames
+     * @return length of the valid part of the log in bytes
+     * @throws IOException
+     *             thrown if the log cannot be read or is not a result log
+     */
+    private static long readLog(File file,
+                                String experimentName,
+                                Consumer<ExperimentResult> consumer,
+                                boolean[] uncompacted)
+        throws IOException
+    {
+        if (!file.exists()) {
+            return 0;
+        }
+        final Map<Integer, String> dictionary = new HashMap<>();
+        try (DataInputStream input =
+            new DataInputStream(new BufferedInputStream(new FileInputStream(file))))
+        {
+            try {
+                if (input.readInt() != MAGIC || input.readShort() != VERSION) {
+                    throw new IOException("not a result log of a supported version: " + file);
+                }
+            }
+            catch (EOFException e) {
+                // empty or incomplete header, e.g., after a crash while creating the log
+                if (uncompacted != null) {
+                    uncompacted[0] = true;
+                }
+                return 0;
+            }
+            long validLength = HEADER_SIZE;
+            while (true) {
+                final byte type;
+                final byte[] payload;
+                try {
+                    type = input.readByte();
+                }
+                catch (EOFException e) {
+                    return validLength;
+                }
+                try {
+                    int length = input.readInt();
+                    if (length < 0 || length > MAX_PAYLOAD_SIZE) {
+                        break;
+                    }
+                    payload = new byte[length];
+                    input.readFully(payload);
+                    if (input.readInt() != checksum(type, payload)) {
+                        break;
+                    }
+                }
+                catch (EOFException e) {
+                    break;
+                }
+                try (DataInputStream payloadStream =
+                    new DataInputStream(new ByteArrayInputStream(payload)))
+                {
+                    if (type == DICTIONARY_FRAME) {
+                        int id = payloadStream.readInt();
+                        dictionary.put(id, payloadStream.readUTF());
+                    }
+                    else if (type == RESULT_FRAME || type == COMPACT_RESULT_FRAME) {
+                        ExperimentResult result;
+                        if (type == RESULT_FRAME) {
+                            String productName = payloadStream.readUTF();
+                            String trainProductName = payloadStream.readUTF();
+                            String classifier = payloadStream.readUTF();
+                            result = new ExperimentResult(experimentName, productName, classifier,
+                                                          trainProductName);
+                            if (uncompacted != null) {
+                                uncompacted[0] = true;
+                            }
+                        }
+                        else {
+                            String productName = dictionary.get(payloadStream.readInt());
+                            String trainProductName = dictionary.get(payloadStream.readInt());
+                            String classifier = dictionary.get(payloadStream.readInt());
+                            if (productName == null || trainProductName == null ||
+                                classifier == null)
+                            {
+                                break;
+                            }
+                            result = new ExperimentResult(experimentName, productName, classifier,
+                                                          trainProductName);
+                        }
+                        readValues(payloadStream, result);
+                        consumer.accept(result);
+                    }
+                    else {
+                        break;
+                    }
+                }
+                validLength += 1 + 4 + payload.length + 4;
+            }
+            // corrupt frame
+            if (uncompacted != null) {
+                uncompacted[0] = true;
+            }
+            return validLength;
+        }
+    }
+
+    /**
+     * <p>
+     * Writes the header of a log.
+     * </p>
+     *
+     * @param output
+     *            stream of the log
+     * @throws IOException
+     *             thrown if the header cannot be written
+     */
+    private static void writeHeader(DataOutputStream output) throws IOException {
+        output.writeInt(MAGIC);
+        output.writeShort(VERSION);
+    }
+
+    /**
+     * <p>
+     * Writes a frame.
+     * </p>
+     *
+     * @param output
+     *            stream of the log
+     * @param type
+     *            type of the frame
+     * @param payload
+     *            payload of the frame
+     * @throws IOException
+     *             thrown if the frame cannot be written
+     */
+    private static void writeFrame(DataOutputStream output, byte type, byte[] payload)
+        throws IOException
+    {
+        output.writeByte(type);
+        output.writeInt(payload.length);
+        output.write(payload);
+        output.writeInt(checksum(type, payload));
+    }
+
+    /**
+     * <p>
+     * Calculates the checksum of a frame.
+     * </p>
+     *
+     * @param type
+     *            type of the frame
+     * @param payload
+     *            payload of the frame
+     * @return CRC32 of the type and the payload
+     */
+    private static int checksum(byte type, byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(type);
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * <p>
+     * Writes the sizes and metrics of a result.
+     * </p>
+     *
+     * @param output
+     *            stream for the payload
+     * @param result
+     *            the result
+     * @throws IOException
+     *             thrown if the values cannot be written
+     */
+    private static void writeValues(DataOutputStream output, ExperimentResult result)
+        throws IOException
+    {
+        output.writeInt(result.getSizeTestData());
+        output.writeInt(result.getSizeTrainingData());
+        output.writeDouble(result.getError());
+        output.writeDouble(result.getRecall());
+        output.writeDouble(result.getPrecision());
+        output.writeDouble(result.getFscore());
+        output.writeDouble(result.getGscore());
+        output.writeDouble(result.getMcc());
+        output.writeDouble(result.getAuc());
+        output.writeDouble(result.getBalance());
+        output.writeDouble(result.getAucec());
+        output.writeDouble(result.getNofb20());
+        output.writeDouble(result.getRelb20());
+        output.writeDouble(result.getNofi80());
+        output.writeDouble(result.getReli80());
+        output.writeDouble(result.getRele80());
+        output.writeDouble(result.getNecm15());
+        output.writeDouble(result.getNecm20());
+        output.writeDouble(result.getNecm25());
+        output.writeDouble(result.getNofbPredicted());
+        output.writeDouble(result.getNofbMissed());
+        output.writeDouble(result.getTpr());
+        output.writeDouble(result.getTnr());
+        output.writeDouble(result.getFpr());
+        output.writeDouble(result.getFnr());
+        output.writeDouble(result.getTp());
+        output.writeDouble(result.getFn());
+        output.writeDouble(result.getTn());
+        output.writeDouble(result.getFp());
+    }
+
+    /**
+     * <p>
+     * Reads the sizes and metrics of a result.
+     * </p>
+     *
+     * @param input
+     *            stream of the payload
+     * @param result
+     *            the result whose values are set
+     * @throws IOException
+     *             thrown if the values cannot be read
+     */
+    private static void readValues(DataInputStream input, ExperimentResult result)
+        throws IOException
+    {
+        result.setSizeTestData(input.readInt());
+        result.setSizeTrainingData(input.readInt());
+        result.setError(input.readDouble());
+        result.setRecall(input.readDouble());
+        result.setPrecision(input.readDouble());
+        result.setFscore(input.readDouble());
+        result.setGscore(input.readDouble());
+        result.setMcc(input.readDouble());
+        result.setAuc(input.readDouble());
+        result.setBalance(input.readDouble());
+        result.setAucec(input.readDouble());
+        result.setNofb20(input.readDouble());
+        result.setRelb20(input.readDouble());
+        result.setNofi80(input.readDouble());
+        result.setReli80(input.readDouble());
+        result.setRele80(input.readDouble());
+        result.setNecm15(input.readDouble());
+        result.setNecm20(input.readDouble());
+        result.setNecm25(input.readDouble());
+        result.setNofbPredicted(input.readDouble());
+        result.setNofbMissed(input.readDouble());
+        result.setTpr(input.readDouble());
+        result.setTnr(input.readDouble());
+        result.setFpr(input.readDouble());
+        result.setFnr(input.readDouble());
+        result.setTp(input.readDouble());
+        result.setFn(input.readDouble());
+        result.setTn(input.readDouble());
+        result.setFp(input.readDouble());
+    }
+}
@@ -0,0 +1,39 @@
+// Copyright 2015 Georg-August-Universität Göttingen, Germany
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+
+package de.ugoe.cs.cpdp.eval;
+
+/**
+ * <p>
+ * Interface for result storages that do not store the results immediately, e.g., because they are
+ * written asynchronously in batches. The execution strategies flush the storages before they
+ * record that results are stored and once the experiment is finished.
+ * </p>
+ * 
+ * @author Steffen Herbold
+ */
+public interface IBufferedResultStorage extends IResultStorage {
+
+    /**
+     * <p>
+     * Blocks until all results that were added before are stored.
+     * </p>
+     * 
+     * @throws RuntimeException
+     *             thrown if results that were added to the storage since the last call could not
+     *             be stored
+     */
+    public void flush();
+}
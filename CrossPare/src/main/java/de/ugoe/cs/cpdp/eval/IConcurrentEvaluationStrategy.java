@@ -0,0 +1,40 @@
+// Copyright 2015 Georg-August-Universität Göttingen, Germany
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+
+package de.ugoe.cs.cpdp.eval;
+
+/**
+ * <p>
+ * Interface for evaluation strategies that can evaluate the classifiers concurrently. Execution
+ * strategies enable the concurrent evaluation if they are executed in parallel.
+ * </p>
+ * 
+ * @author Steffen Herbold
+ */
+public interface IConcurrentEvaluationStrategy extends IEvaluationStrategy {
+
+    /**
+     * <p>
+     * Enables or disables the concurrent evaluation of the classifiers.
+     * </p>
+     *
+     * @param concurrent
+     *            true if the classifiers are evaluated concurrently
+     * @param numThreads
+     *            number of threads used, in case a new pool is created; if less than one, the
+     *            number of available processors is used
+     */
+    void setConcurrent(boolean concurrent, int numThreads);
+}
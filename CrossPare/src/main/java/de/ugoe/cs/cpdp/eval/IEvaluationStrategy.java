@@ -14,6 +14,7 @@
 
 package de.ugoe.cs.cpdp.eval;
 
+import java.io.PrintWriter;
 import java.util.List;
 
 import de.ugoe.cs.cpdp.IParameterizable;
@@ -53,4 +54,15 @@ public interface IEvaluationStrategy extends IParameterizable {
                List<Double> numBugs,
                boolean writeHeader,
                List<IResultStorage> storages);
+
+    /**
+     * Redirects the output of the evaluation to a writer, instead of the results file that is
+     * defined through {@link #setParameter(String)}.
+     * 
+     * @param output
+     *            writer for the evaluation results
+     * @param configurationName
+     *            name of the configuration that is evaluated
+     */
+    void setOutput(PrintWriter output, String configurationName);
 }
@@ -0,0 +1,36 @@
+// Copyright 2015 Georg-August-Universität Göttingen, Germany
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+package de.ugoe.cs.cpdp.eval;
+
+/**
+ * <p>
+ * Interface for result storages that store the results in local files. If no location is defined
+ * in the configuration, the configuration passes its results path to the storage.
+ * </p>
+ * 
+ * @author Steffen Herbold
+ */
+public interface IFileResultStorage extends IResultStorage {
+
+    /**
+     * <p>
+     * Sets the results path of the configuration as location of the files of the storage.
+     * </p>
+     * 
+     * @param resultsPath
+     *            results path of the configuration
+     */
+    public void setResultsPath(String resultsPath);
+}
@@ -14,6 +14,8 @@
 
 package de.ugoe.cs.cpdp.eval;
 
+import com.google.common.collect.Table;
+
 /**
  * <p>
  * Interface for result storages.
@@ -68,4 +70,34 @@ public interface IResultStorage {
                                            String productName,
                                            String classifierName,
                                            String trainProductName);
+
+    /**
+     * <p>
+     * Returns the number of contained results of an experiment for all combinations of product and
+     * classifier at once. Execution strategies use this to check which results are already
+     * available without querying the storage for each product.
+     * </p>
+     *
+     * @param experimentName
+     *            name of the experiment
+     * @return number of contained results; the rows are the product names, the columns the
+     *         classifier names; combinations without results are not contained
+     */
+    public Table<String, String, Integer> getResultCounts(String experimentName);
+
+    /**
+     * <p>
+     * Returns the number of contained heterogeneous results of an experiment for all combinations
+     * of product and training product at once.
+     * </p>
+     *
+     * @param experimentName
+     *            name of the experiment
+     * @param classifierName
+     *            name of the first classifier in the configuration
+     * @return number of contained results; the rows are the product names, the columns the names
+     *         of the training products; combinations without results are not contained
+     */
+    public Table<String, String, Integer> getHeterogeneousResultCounts(String experimentName,
+                                                                       String classifierName);
 }
@@ -0,0 +1,55 @@
+// Copyright 2015 Georg-August-Universität Göttingen, Germany
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+package de.ugoe.cs.cpdp.eval;
+
+import java.util.List;
+
+/**
+ * <p>
+ * Interface for result storages that cannot be shared by the processes that execute the shards
+ * of an experiment (see {@link de.ugoe.cs.cpdp.execution.Shard}). The results of each shard are
+ * stored separately and are combined once all shards are finished.
+ * </p>
+ * 
+ * @author Steffen Herbold
+ */
+public interface IShardableResultStorage extends IResultStorage {
+
+    /**
+     * <p>
+     * Sets the shard that is executed by this process. Afterwards, the results are stored
+     * separately for the shard.
+     * </p>
+     * 
+     * @param shardName
+     *            name of the shard
+     */
+    public void setShard(String shardName);
+
+    /**
+     * <p>
+     * Combines the results of the shards of an experiment with the results of the experiment.
+     * Afterwards, the separate results of the shards are deleted.
+     * </p>
+     * 
+     * @param experimentName
+     *            name of the experiment
+     * @param shardNames
+     *            names of the shards
+     * @throws RuntimeException
+     *             thrown if the results of the shards cannot be combined
+     */
+    public void mergeShards(String experimentName, List<String> shardNames);
+}
@@ -14,16 +14,27 @@
 
 package de.ugoe.cs.cpdp.eval;
 
+import java.io.Closeable;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 
+import javax.sql.DataSource;
+
+import com.google.common.collect.HashBasedTable;
+import com.google.common.collect.Table;
 import com.mysql.jdbc.jdbc2.optional.MysqlDataSource;
 
 import de.ugoe.cs.util.console.Console;
@@ -32,10 +43,26 @@ import de.ugoe.cs.util.console.Console;
  * <p>
  * Implements a storage of experiment results in a MySQL database.
  * </p>
+ * <p>
+ * By default, each result is inserted immediately. In the asynchronous mode, the results are put
+ * into a bounded queue instead and a background writer inserts them with JDBC batches, one
+ * transaction per batch. The writer keeps its connection open, i.e., no connection is created per
+ * result. Callers of {@link #addResult(ExperimentResult)} only block if the queue is full. The
+ * execution strategies call {@link #flush()} to wait until the queued results are stored.
+ * </p>
+ * <p>
+ * Results that cannot be inserted are reported on the console. Afterwards, the next
+ * {@link #flush()} fails in both modes, i.e., the execution strategies do not record the results
+ * as stored.
+ * </p>
+ * <p>
+ * {@link #close()} stops the writer and closes its connection. The writer is started again if
+ * results are added afterwards.
+ * </p>
  * 
  * @author Steffen Herbold
  */
-public class MySQLResultStorage implements IResultStorage {
+public class MySQLResultStorage implements IBufferedResultStorage, Closeable {
 
     /**
      * Name of the table where the results are stored.
@@ -45,7 +72,27 @@ public class MySQLResultStorage implements IResultStorage {
     /**
      * Connection pool for the data base.
      */
-    private MysqlDataSource connectionPool = null;
+    private final DataSource connectionPool;
+
+    /**
+     * SQL statement for inserting a result
+     */
+    private final String insertSql;
+
+    /**
+     * background writer of the asynchronous mode; null if the results are inserted immediately
+     */
+    private final BatchWriter writer;
+
+    /**
+     * thread of the background writer; null if the writer is not running
+     */
+    private Thread writerThread = null;
+
+    /**
+     * number of results that could not be stored
+     */
+    private final AtomicLong numFailed = new AtomicLong();
 
     /**
      * <p>
@@ -72,12 +119,94 @@ public class MySQLResultStorage implements IResultStorage {
      * <li>db.pass = crosspare</li>
      * <li>db.results.tablename = results</li>
      * <li>db.results.createtable = false</li>
+     * <li>db.results.async = false</li>
+     * <li>db.results.batchsize = 100</li>
+     * <li>db.results.queuesize = 10000</li>
+     * </ul>
      * </p>
      * 
      * @param parameterFile
      *            name of the parameter file
      */
     public MySQLResultStorage(String parameterFile) {
+        this(loadProperties(parameterFile));
+    }
+
+    /**
+     * <p>
+     * Creates a new results storage from the database properties.
+     * </p>
+     *
+     * @param dbProperties
+     *            properties of the database connection and the storage
+     */
+    private MySQLResultStorage(Properties dbProperties) {
+        this(createDataSource(dbProperties.getProperty("db.host", "localhost"),
+                              dbProperties.getProperty("db.port", "3306"),
+                              dbProperties.getProperty("db.name", "crosspare"),
+                              dbProperties.getProperty("db.user", "crosspare"),
+                              dbProperties.getProperty("db.pass", "crosspare")),
+             dbProperties.getProperty("db.results.tablename", "results"),
+             Boolean.parseBoolean(dbProperties.getProperty("db.results.createtable", "false")),
+             Boolean.parseBoolean(dbProperties.getProperty("db.results.async", "false")),
+             Integer.parseInt(dbProperties.getProperty("db.results.batchsize", "100")),
+             Integer.parseInt(dbProperties.getProperty("db.results.queuesize", "10000")));
+    }
+
+    /**
+     * <p>
+     * Creates a new results storage that uses the provided data source, e.g., a connection pool or
+     * a local test database.
+     * </p>
+     *
+     * @param dataSource
+     *            data source for the connections to the database
+     * @param resultsTableName
+     *            name of the table where the results are stored
+     * @param createTableIfNotExists
+     *            if true, the results table is created if it does not exist
+     * @param async
+     *            if true, the results are inserted asynchronously in batches
+     * @param batchSize
+     *            maximal number of results that are inserted in one batch
+     * @param queueSize
+     *            maximal number of results that are queued for the insertion; if the queue is
+     *            full, {@link #addResult(ExperimentResult)} blocks
+     */
+    @SuppressWarnings("hiding")
+    public MySQLResultStorage(DataSource dataSource,
+                              String resultsTableName,
+                              boolean createTableIfNotExists,
+                              boolean async,
+                              int batchSize,
+                              int queueSize)
+    {
+        this.connectionPool = dataSource;
+        this.resultsTableName = resultsTableName;
+        this.insertSql = createInsertSql(resultsTableName);
+
+        // create the results table if required
+        if (createTableIfNotExists && !doesResultsTableExist()) {
+            createResultsTable();
+        }
+        if (async) {
+            this.writer = new BatchWriter(Math.max(1, batchSize), Math.max(1, queueSize));
+        }
+        else {
+            this.writer = null;
+        }
+    }
+
+    /**
+     * <p>
+     * Loads the properties of the database connection.
+     * </p>
+     *
+     * @param parameterFile
+     *            name of the parameter file
+     * @return the properties; empty if the file could not be loaded
+     */
+    private static Properties loadProperties(String parameterFile) {
         Properties dbProperties = new Properties();
         try(FileInputStream is = new FileInputStream(parameterFile);) {
             dbProperties.load(is);
@@ -89,25 +218,13 @@ public class MySQLResultStorage implements IResultStorage {
                 .traceln(Level.WARNING,
                          "Using default DB configuration since mysql.cred file could not be loaded");
         }
-        String dbHost = dbProperties.getProperty("db.host", "localhost");
-        String dbPort = dbProperties.getProperty("db.port", "3306");
-        String dbName = dbProperties.getProperty("db.name", "crosspare");
-        String dbUser = dbProperties.getProperty("db.user", "crosspare");
-        String dbPass = dbProperties.getProperty("db.pass", "crosspare");
-        this.resultsTableName = dbProperties.getProperty("db.results.tablename", "results");
-        boolean createTableIfNotExists =
-            Boolean.parseBoolean(dbProperties.getProperty("db.results.createtable", "false"));
-        connectToDB(dbHost, dbPort, dbName, dbUser, dbPass);
-
-        // create the results table if required
-        if (!doesResultsTableExist() && createTableIfNotExists) {
-            createResultsTable();
-        }
+        return dbProperties;
     }
 
     /**
      * <p>
-     * Sets up the database connection
+     * Sets up the database connection. Batches of inserts are rewritten into multi-row inserts by
+     * the driver.
      * </p>
      *
      * @param dbHost
@@ -120,28 +237,35 @@ public class MySQLResultStorage implements IResultStorage {
      *            user of the database
      * @param dbPass
      *            password of the user
+     * @return data source for the database
      */
-    private void connectToDB(String dbHost,
-                             String dbPort,
-                             String dbName,
-                             String dbUser,
-                             String dbPass)
+    private static DataSource createDataSource(String dbHost,
+                                               String dbPort,
+                                               String dbName,
+                                               String dbUser,
+                                               String dbPass)
     {
-        this.connectionPool = new MysqlDataSource();
-        this.connectionPool.setUser(dbUser);
-        this.connectionPool.setPassword(dbPass);
-        this.connectionPool.setUrl("jdbc:mysql://" + dbHost + ":" + dbPort + "/" + dbName);
+        MysqlDataSource dataSource = new MysqlDataSource();
+        dataSource.setUser(dbUser);
+        dataSource.setPassword(dbPass);
+        dataSource.setUrl("jdbc:mysql://" + dbHost + ":" + dbPort + "/" + dbName);
+        dataSource.setRewriteBatchedStatements(true);
+        return dataSource;
     }
 
-    /*
-     * (non-Javadoc)
-     * 
-     * @see de.ugoe.cs.cpdp.eval.IResultStorage#addResult(de.ugoe.cs.cpdp.eval.ExperimentResult)
+    /**
+     * <p>
+     * Creates the SQL statement for inserting a result.
+     * </p>
+     *
+     * @param resultsTableName
+     *            name of the table where the results are stored
+     * @return SQL statement with one parameter per column
      */
-    @Override
-    public void addResult(ExperimentResult result) {
+    @SuppressWarnings("hiding")
+    private static String createInsertSql(String resultsTableName) {
         StringBuilder preparedSql = new StringBuilder();
-        preparedSql.append("INSERT INTO " + this.resultsTableName + " (");
+        preparedSql.append("INSERT INTO " + resultsTableName + " (");
         preparedSql.append("`configurationName`,");
         preparedSql.append("`productName`,");
         preparedSql.append("`classifier`,");
@@ -175,53 +299,157 @@ public class MySQLResultStorage implements IResultStorage {
         preparedSql.append("`tn`,");
         preparedSql.append("`fp`) VALUES ");
         preparedSql.append("(?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?)");
+        return preparedSql.toString();
+    }
 
-        try(PreparedStatement stmt = this.connectionPool.getConnection().prepareStatement(preparedSql.toString());) {
-            stmt.setString(1, result.getConfigurationName());
-            stmt.setString(2, result.getProductName());
-            stmt.setString(3, result.getClassifier());
-            stmt.setInt(4, result.getSizeTestData());
-            stmt.setInt(5, result.getSizeTrainingData());
-            stmt.setDouble(6, result.getError());
-            stmt.setDouble(7, result.getRecall());
-            stmt.setDouble(8, result.getPrecision());
-            stmt.setDouble(9, result.getFscore());
-            stmt.setDouble(10, result.getGscore());
-            stmt.setDouble(11, result.getMcc());
-            stmt.setDouble(12, result.getAuc());
-            stmt.setDouble(13, result.getBalance());
-            stmt.setDouble(14, result.getAucec());
-            stmt.setDouble(15, result.getNofb20());
-            stmt.setDouble(16, result.getRelb20());
-            stmt.setDouble(17, result.getNofi80());
-            stmt.setDouble(18, result.getReli80());
-            stmt.setDouble(19, result.getRele80());
-            stmt.setDouble(20, result.getNecm15());
-            stmt.setDouble(21, result.getNecm20());
-            stmt.setDouble(22, result.getNecm25());
-            stmt.setDouble(23, result.getNofbPredicted());
-            stmt.setDouble(24, result.getNofbMissed());
-            stmt.setDouble(25, result.getTpr());
-            stmt.setDouble(26, result.getTnr());
-            stmt.setDouble(27, result.getFpr());
-            stmt.setDouble(28, result.getFnr());
-            stmt.setDouble(29, result.getTp());
-            stmt.setDouble(30, result.getFn());
-            stmt.setDouble(31, result.getTn());
-            stmt.setDouble(32, result.getFp());
-
+    /*
+     * (non-Javadoc)
+     * 
+     * @see de.ugoe.cs.cpdp.eval.IResultStorage#addResult(de.ugoe.cs.cpdp.eval.ExperimentResult)
+     */
+    @Override
+    public void addResult(ExperimentResult result) {
+        if (this.writer != null) {
+            startWriter();
+            this.writer.add(result);
+            return;
+        }
+        try (Connection connection = this.connectionPool.getConnection();
+            PreparedStatement stmt = connection.prepareStatement(this.insertSql);)
+        {
+            setParameters(stmt, result);
             int qryResult = stmt.executeUpdate();
             if (qryResult < 1) {
                 Console.printerr("Insert failed.");
+                this.numFailed.incrementAndGet();
             }
         }
         catch (SQLException e) {
-            Console.printerr("Problem with MySQL connection: ");
-            Console.printerr("SQLException: " + e.getMessage());
-            Console.printerr("SQLState: " + e.getSQLState());
-            Console.printerr("VendorError: " + e.getErrorCode());
+            printSQLException(e);
+            this.numFailed.incrementAndGet();
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see de.ugoe.cs.cpdp.eval.IBufferedResultStorage#flush()
+     */
+    @Override
+    public void flush() {
+        if (this.writer != null) {
+            this.writer.flush();
+        }
+        // each failure is only reported once
+        long failed = this.numFailed.getAndSet(0);
+        if (failed > 0) {
+            throw new RuntimeException(failed + " results could not be stored in table " +
+                this.resultsTableName);
+        }
+    }
+
+    /**
+     * <p>
+     * Waits until the queued results are processed, stops the background writer, and closes its
+     * connection. Results that could not be stored are reported by the next {@link #flush()}.
+     * The storage must not be used concurrently while it is closed.
+     * </p>
+     * 
+     * @see java.io.Closeable#close()
+     */
+    @Override
+    public synchronized void close() {
+        if (this.writerThread == null) {
             return;
         }
+        this.writer.flush();
+        this.writerThread.interrupt();
+        try {
+            this.writerThread.join();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("interrupted while stopping the writer", e);
+        }
+        this.writerThread = null;
+        this.writer.closeConnection();
+    }
+
+    /**
+     * <p>
+     * Starts the background writer, if it is not running.
+     * </p>
+     */
+    private synchronized void startWriter() {
+        if (this.writerThread == null) {
+            this.writerThread = new Thread(this.writer, "MySQLResultStorage-writer");
+            this.writerThread.setDaemon(true);
+            this.writerThread.start();
+        }
+    }
+
+    /**
+     * <p>
+     * Sets the parameters of the insert statement to the values of a result.
+     * </p>
+     *
+     * @param stmt
+     *            the insert statement
+     * @param result
+     *            the result
+     * @throws SQLException
+     *             thrown if a parameter cannot be set
+     */
+    private static void setParameters(PreparedStatement stmt, ExperimentResult result)
+        throws SQLException
+    {
+        stmt.setString(1, result.getConfigurationName());
+        stmt.setString(2, result.getProductName());
+        stmt.setString(3, result.getClassifier());
+        stmt.setInt(4, result.getSizeTestData());
+        stmt.setInt(5, result.getSizeTrainingData());
+        stmt.setDouble(6, result.getError());
+        stmt.setDouble(7, result.getRecall());
+        stmt.setDouble(8, result.getPrecision());
+        stmt.setDouble(9, result.getFscore());
+        stmt.setDouble(10, result.getGscore());
+        stmt.setDouble(11, result.getMcc());
+        stmt.setDouble(12, result.getAuc());
+        stmt.setDouble(13, result.getBalance());
+        stmt.setDouble(14, result.getAucec());
+        stmt.setDouble(15, result.getNofb20());
+        stmt.setDouble(16, result.getRelb20());
+        stmt.setDouble(17, result.getNofi80());
+        stmt.setDouble(18, result.getReli80());
+        stmt.setDouble(19, result.getRele80());
+        stmt.setDouble(20, result.getNecm15());
+        stmt.setDouble(21, result.getNecm20());
+        stmt.setDouble(22, result.getNecm25());
+        stmt.setDouble(23, result.getNofbPredicted());
+        stmt.setDouble(24, result.getNofbMissed());
+        stmt.setDouble(25, result.getTpr());
+        stmt.setDouble(26, result.getTnr());
+        stmt.setDouble(27, result.getFpr());
+        stmt.setDouble(28, result.getFnr());
+        stmt.setDouble(29, result.getTp());
+        stmt.setDouble(30, result.getFn());
+        stmt.setDouble(31, result.getTn());
+        stmt.setDouble(32, result.getFp());
+    }
+
+    /**
+     * <p>
+     * Prints the details of a problem with the database.
+     * </p>
+     *
+     * @param e
+     *            the exception
+     */
+    private static void printSQLException(SQLException e) {
+        Console.printerr("Problem with MySQL connection: ");
+        Console.printerr("SQLException: " + e.getMessage());
+        Console.printerr("SQLState: " + e.getSQLState());
+        Console.printerr("VendorError: " + e.getErrorCode());
     }
 
     /*
@@ -233,7 +461,9 @@ public class MySQLResultStorage implements IResultStorage {
     public int containsResult(String experimentName, String productName, String classifierName) {
         String preparedSql = "SELECT COUNT(*) as cnt FROM " + this.resultsTableName +
             " WHERE configurationName=? AND productName=? AND classifier=?";
-        try(PreparedStatement stmt = this.connectionPool.getConnection().prepareStatement(preparedSql);) {
+        try (Connection connection = this.connectionPool.getConnection();
+            PreparedStatement stmt = connection.prepareStatement(preparedSql);)
+        {
             stmt.setString(1, experimentName);
             stmt.setString(2, productName);
             stmt.setString(3, classifierName);
@@ -251,6 +481,36 @@ public class MySQLResultStorage implements IResultStorage {
         }
     }
 
+    /*
+     * (non-Javadoc)
+     * 
+     * @see de.ugoe.cs.cpdp.eval.IResultStorage#getResultCounts(java.lang.String)
+     */
+    @Override
+    public Table<String, String, Integer> getResultCounts(String experimentName) {
+        Table<String, String, Integer> resultCounts = HashBasedTable.create();
+        String preparedSql = "SELECT productName, classifier, COUNT(*) as cnt FROM " +
+            this.resultsTableName + " WHERE configurationName=? GROUP BY productName, classifier";
+        try (Connection connection = this.connectionPool.getConnection();
+            PreparedStatement stmt = connection.prepareStatement(preparedSql);)
+        {
+            stmt.setString(1, experimentName);
+            try (ResultSet results = stmt.executeQuery();) {
+                while (results.next()) {
+                    resultCounts.put(results.getString("productName"),
+                                     results.getString("classifier"), results.getInt("cnt"));
+                }
+            }
+        }
+        catch (SQLException e) {
+            Console.printerr("Problem with MySQL connection: \n");
+            Console.printerr("SQLException: " + e.getMessage() + "\n");
+            Console.printerr("SQLState: " + e.getSQLState() + "\n");
+            Console.printerr("VendorError: " + e.getErrorCode() + "\n");
+        }
+        return resultCounts;
+    }
+
     /**
      * <p>
      * Checks if the results table exists.
@@ -260,8 +520,8 @@ public class MySQLResultStorage implements IResultStorage {
      */
     public boolean doesResultsTableExist() {
         boolean exists = false;
-        try {
-            DatabaseMetaData meta = this.connectionPool.getConnection().getMetaData();
+        try (Connection connection = this.connectionPool.getConnection();) {
+            DatabaseMetaData meta = connection.getMetaData();
             try(ResultSet res = meta.getTables(null, null, this.resultsTableName, null);) {
                 exists = res.next();
             }
@@ -301,7 +561,9 @@ public class MySQLResultStorage implements IResultStorage {
             "`fn` double DEFAULT NULL," + "`tn` double DEFAULT NULL," +
             "`fp` double DEFAULT NULL," + "PRIMARY KEY (`idresults`)" +
             ") ENGINE=InnoDB AUTO_INCREMENT=77777 DEFAULT CHARSET=utf8;";
-        try(Statement stmt = this.connectionPool.getConnection().createStatement();) { 
+        try (Connection connection = this.connectionPool.getConnection();
+            Statement stmt = connection.createStatement();)
+        {
             stmt.execute(sql);
             Console.traceln(Level.FINE, "Created new table " + this.resultsTableName);
         }
@@ -323,4 +585,211 @@ public class MySQLResultStorage implements IResultStorage {
         return 0;
     }
 
+    /*
+     * (non-Javadoc)
+     * 
+     * @see de.ugoe.cs.cpdp.eval.IResultStorage#getHeterogeneousResultCounts(java.lang.String,
+     * java.lang.String)
+     */
+    @Override
+    public Table<String, String, Integer> getHeterogeneousResultCounts(String experimentName,
+                                                                       String classifierName)
+    {
+        // TODO dummy implementation, consistent with containsHeterogeneousResult
+        return HashBasedTable.create();
+    }
+
+    /**
+     * <p>
+     * Background writer of the asynchronous mode. Takes the results from the queue and inserts up
+     * to a batch size of them in one transaction. The connection is kept open between the
+     * batches. If a batch fails, the connection is replaced and the batch is retried once.
+     * </p>
+     * 
+     * @author Steffen Herbold
+     */
+    private class BatchWriter implements Runnable {
+
+        /**
+         * maximal number of results in a batch
+         */
+        private final int batchSize;
+
+        /**
+         * queued results
+         */
+        private final BlockingQueue<ExperimentResult> queue;
+
+        /**
+         * number of results that were added to the queue
+         */
+        private long numAdded = 0;
+
+        /**
+         * number of results that were taken from the queue and processed
+         */
+        private long numProcessed = 0;
+
+        /**
+         * connection of the writer; null if not yet connected
+         */
+        private Connection connection = null;
+
+        /**
+         * <p>
+         * Creates a new writer.
+         * </p>
+         *
+         * @param batchSize
+         *            maximal number of results in a batch
+         * @param queueSize
+         *            capacity of the queue
+         */
+        @SuppressWarnings("hiding")
+        private BatchWriter(int batchSize, int queueSize) {
+            this.batchSize = batchSize;
+            this.queue = new ArrayBlockingQueue<>(queueSize);
+        }
+
+        /**
+         * <p>
+         * Queues a result. Blocks only if the queue is full.
+         * </p>
+         *
+         * @param result
+         *            the result
+         */
+        private void add(ExperimentResult result) {
+            synchronized (this) {
+                this.numAdded++;
+            }
+            try {
+                this.queue.put(result);
+            }
+            catch (InterruptedException e) {
+                synchronized (this) {
+                    this.numAdded--;
+                }
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("interrupted while queueing a result", e);
+            }
+        }
+
+        /**
+         * <p>
+         * Blocks until all results that were added before are processed. Whether they were stored
+         * is tracked by the storage.
+         * </p>
+         */
+        private synchronized void flush() {
+            final long target = this.numAdded;
+            while (this.numProcessed < target) {
+                try {
+                    wait();
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException("interrupted while storing the results", e);
+                }
+            }
+        }
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see java.lang.Runnable#run()
+         */
+        @Override
+        public void run() {
+            final List<ExperimentResult> batch = new ArrayList<>(this.batchSize);
+            while (true) {
+                try {
+                    batch.add(this.queue.take());
+                }
+                catch (InterruptedException e) {
+                    return;
+                }
+                this.queue.drainTo(batch, this.batchSize - 1);
+                try {
+                    if (!insertBatch(batch)) {
+                        // the connection may be stale, e.g., after a timeout of the server
+                        closeConnection();
+                        if (!insertBatch(batch)) {
+                            Console.printerr("Could not store " + batch.size() + " results.");
+                            MySQLResultStorage.this.numFailed.addAndGet(batch.size());
+                            closeConnection();
+                        }
+                    }
+                }
+                catch (RuntimeException e) {
+                    Console.printerr("Could not store " + batch.size() + " results: " +
+                        e.getMessage());
+                    MySQLResultStorage.this.numFailed.addAndGet(batch.size());
+                }
+                synchronized (this) {
+                    this.numProcessed += batch.size();
+                    notifyAll();
+                }
+                batch.clear();
+            }
+        }
+
+        /**
+         * <p>
+         * Inserts a batch of results in one transaction.
+         * </p>
+         *
+         * @param batch
+         *            the results
+         * @return true if the results are stored, false otherwise
+         */
+        private boolean insertBatch(List<ExperimentResult> batch) {
+            try {
+                if (this.connection == null) {
+                    this.connection = MySQLResultStorage.this.connectionPool.getConnection();
+                    this.connection.setAutoCommit(false);
+                }
+                try (PreparedStatement stmt =
+                    this.connection.prepareStatement(MySQLResultStorage.this.insertSql);)
+                {
+                    for (ExperimentResult result : batch) {
+                        setParameters(stmt, result);
+                        stmt.addBatch();
+                    }
+                    stmt.executeBatch();
+                }
+                this.connection.commit();
+                return true;
+            }
+            catch (SQLException e) {
+                printSQLException(e);
+                if (this.connection != null) {
+                    try {
+                        this.connection.rollback();
+                    }
+                    catch (SQLException e1) {
+                        // the connection is closed afterwards anyway
+                    }
+                }
+                return false;
+            }
+        }
+
+        /**
+         * <p>
+         * Closes the connection of the writer, if any.
+         * </p>
+         */
+        private void closeConnection() {
+            if (this.connection != null) {
+                try {
+                    this.connection.close();
+                }
+                catch (SQLException e) {
+                    // connection is not used anymore
+                }
+                this.connection = null;
+            }
+        }
+    }
 }
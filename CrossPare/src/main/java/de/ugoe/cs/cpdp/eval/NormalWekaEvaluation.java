@@ -19,7 +19,8 @@ import weka.classifiers.Evaluation;
 import weka.core.Instances;
 
 /**
- * Implements the {@link AbstractWekaEvaluation} for evaluation on the test data.
+ * Implements the {@link AbstractWekaEvaluation} for evaluation on the test data. The test data is
+ * scored only once per classifier, the evaluation is created from the {@link PredictionCache}.
  * 
  * @author Steffen Herbold
  * 
@@ -32,13 +33,18 @@ public class NormalWekaEvaluation extends AbstractWekaEvaluation {
      */
     @Override
     protected Evaluation createEvaluator(Instances testdata, Classifier classifier) {
-        try {
-            final Evaluation eval = new Evaluation(testdata);
-            eval.evaluateModel(classifier, testdata);
-            return eval;
-        }
-        catch (Exception e) {
-            throw new RuntimeException(e);
-        }
+        return createEvaluator(testdata, classifier, new PredictionCache(testdata, classifier));
+    }
+
+    /*
+     * @see de.ugoe.cs.cpdp.eval.AbstractWekaEvaluation#createEvaluator(weka.core.Instances,
+     * weka.classifiers.Classifier, de.ugoe.cs.cpdp.eval.PredictionCache)
+     */
+    @Override
+    protected Evaluation createEvaluator(Instances testdata,
+                                         Classifier classifier,
+                                         PredictionCache predictions)
+    {
+        return predictions.createEvaluation();
     }
 }
@@ -0,0 +1,164 @@
+// Copyright 2015 Georg-August-Universität Göttingen, Germany
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+
+package de.ugoe.cs.cpdp.eval;
+
+import weka.classifiers.Classifier;
+import weka.classifiers.Evaluation;
+import weka.core.BatchPredictor;
+import weka.core.Instance;
+import weka.core.Instances;
+
+/**
+ * <p>
+ * Caches the predictions of a classifier for a test data set. The distributions are calculated at
+ * most once, the first time they are requested. Afterwards, all metrics, i.e., the metrics based
+ * on the confusion matrix, the AUC, and the effort metrics, are derived from the cached
+ * distributions instead of scoring the test data again.
+ * </p>
+ * <p>
+ * The distributions are calculated in the same way as by
+ * {@link Evaluation#evaluateModel(Classifier, Instances, Object...)}, i.e., the class values are
+ * hidden from the classifier and the batch prediction is used if the classifier implements a more
+ * efficient batch prediction.
+ * </p>
+ * 
+ * @author Steffen Herbold
+ */
+public class PredictionCache {
+
+    /**
+     * test data
+     */
+    private final Instances testdata;
+
+    /**
+     * classifier used for the predictions
+     */
+    private final Classifier classifier;
+
+    /**
+     * cached distributions; null if not yet calculated
+     */
+    private double[][] distributions = null;
+
+    /**
+     * <p>
+     * Creates a new prediction cache. The predictions are not calculated until they are requested.
+     * </p>
+     *
+     * @param testdata
+     *            test data
+     * @param classifier
+     *            classifier used for the predictions
+     */
+    @SuppressWarnings("hiding")
+    public PredictionCache(Instances testdata, Classifier classifier) {
+        this.testdata = testdata;
+        this.classifier = classifier;
+    }
+
+    /**
+     * <p>
+     * Returns the test data.
+     * </p>
+     *
+     * @return the test data
+     */
+    public Instances getTestdata() {
+        return this.testdata;
+    }
+
+    /**
+     * <p>
+     * Returns the distributions of the classifier for the test data. The distributions are
+     * calculated on the first call.
+     * </p>
+     *
+     * @return one distribution per instance of the test data
+     */
+    public double[][] getDistributions() {
+        if (this.distributions == null) {
+            try {
+                this.distributions = distributionsForInstances(this.classifier, this.testdata);
+            }
+            catch (Exception e) {
+                throw new RuntimeException("unexpected error during the prediction of the test data",
+                                           e);
+            }
+        }
+        return this.distributions;
+    }
+
+    /**
+     * <p>
+     * Creates an evaluation of the test data based on the cached distributions. The result is the
+     * same as the result of {@link Evaluation#evaluateModel(Classifier, Instances, Object...)}.
+     * </p>
+     *
+     * @return the evaluation
+     */
+    public Evaluation createEvaluation() {
+        final double[][] dists = getDistributions();
+        try {
+            final Evaluation eval = new Evaluation(this.testdata);
+            for (int i = 0; i < this.testdata.numInstances(); i++) {
+                eval.evaluationForSingleInstance(dists[i], this.testdata.instance(i), true);
+            }
+            return eval;
+        }
+        catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * <p>
+     * Calculates the distributions of the classifier for the data. The class values are set to
+     * missing before the instances are passed to the classifier.
+     * </p>
+     *
+     * @param classifier
+     *            classifier used for the predictions
+     * @param data
+     *            data that is predicted
+     * @return one distribution per instance of the data
+     * @throws Exception
+     *             thrown if the classifier fails
+     */
+    @SuppressWarnings("hiding")
+    private static double[][] distributionsForInstances(Classifier classifier, Instances data)
+        throws Exception
+    {
+        if (classifier instanceof BatchPredictor &&
+            ((BatchPredictor) classifier).implementsMoreEfficientBatchPrediction())
+        {
+            final Instances dataCopy = new Instances(data);
+            for (int i = 0; i < dataCopy.numInstances(); i++) {
+                dataCopy.instance(i).setClassMissing();
+            }
+            return ((BatchPredictor) classifier).distributionsForInstances(dataCopy);
+        }
+        final double[][] dists = new double[data.numInstances()][];
+        for (int i = 0; i < data.numInstances(); i++) {
+            final Instance instance = data.instance(i);
+            final Instance classMissing = (Instance) instance.copy();
+            classMissing.setDataset(instance.dataset());
+            classMissing.setClassMissing();
+            dists[i] = classifier.distributionForInstance(classMissing);
+        }
+        return dists;
+    }
+}
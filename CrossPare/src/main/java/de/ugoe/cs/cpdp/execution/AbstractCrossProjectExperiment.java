@@ -15,20 +15,32 @@
 package de.ugoe.cs.cpdp.execution;
 
 import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 
 import org.apache.commons.collections4.list.SetUniqueList;
 
 import de.ugoe.cs.cpdp.ExperimentConfiguration;
+import de.ugoe.cs.cpdp.IParameterizable;
 import de.ugoe.cs.cpdp.dataprocessing.IProcessesingStrategy;
 import de.ugoe.cs.cpdp.dataprocessing.ISetWiseProcessingStrategy;
+import de.ugoe.cs.cpdp.dataprocessing.ISetWiseTestdataIndependentProcessingStrategy;
 import de.ugoe.cs.cpdp.dataselection.IPointWiseDataselectionStrategy;
 import de.ugoe.cs.cpdp.dataselection.ISetWiseDataselectionStrategy;
 import de.ugoe.cs.cpdp.eval.IEvaluationStrategy;
 import de.ugoe.cs.cpdp.eval.IResultStorage;
+import de.ugoe.cs.cpdp.eval.IShardableResultStorage;
+import de.ugoe.cs.cpdp.execution.StageTimings.Stage;
 import de.ugoe.cs.cpdp.loader.IVersionLoader;
 import de.ugoe.cs.cpdp.training.ISetWiseTestdataAwareTrainingStrategy;
 import de.ugoe.cs.cpdp.training.ISetWiseTrainingStrategy;
@@ -36,6 +48,8 @@ import de.ugoe.cs.cpdp.training.ITestAwareTrainingStrategy;
 import de.ugoe.cs.cpdp.training.ITrainer;
 import de.ugoe.cs.cpdp.training.ITrainingStrategy;
 import de.ugoe.cs.cpdp.training.IWekaCompatibleTrainer;
+import de.ugoe.cs.cpdp.util.ConcurrencyUtils;
+import de.ugoe.cs.cpdp.util.WekaUtils;
 import de.ugoe.cs.cpdp.versions.IVersionFilter;
 import de.ugoe.cs.cpdp.versions.SoftwareVersion;
 import de.ugoe.cs.util.console.Console;
@@ -71,17 +85,60 @@ import weka.core.Instances;
  * </ul>
  * 
  * Note that this class implements {@link Runnable}, i.e., each experiment can be started in its own
- * thread.
+ * thread. Through the parameter <code>parallel</code> (or <code>parallel=&lt;threads&gt;</code>)
+ * of the execution strategy, the test versions of the experiment and the trainers for each test
+ * version are executed concurrently and the trained classifiers are evaluated concurrently (see
+ * {@link de.ugoe.cs.cpdp.eval.IConcurrentEvaluationStrategy}). The test versions are also the work
+ * units of a sharded execution (see {@link Shard}).
  * 
  * @author Steffen Herbold
  */
-public abstract class AbstractCrossProjectExperiment implements IExecutionStrategy {
+public abstract class AbstractCrossProjectExperiment
+    implements IShardableExecutionStrategy, IParameterizable
+{
 
     /**
      * configuration of the experiment
      */
     protected final ExperimentConfiguration config;
 
+    /**
+     * parameters of the execution strategy
+     */
+    protected ExecutionStrategyParameters parameters = new ExecutionStrategyParameters(null);
+
+    /**
+     * journal of the test versions whose results are stored; only used if the experiment has
+     * result storages
+     */
+    private ProgressJournal journal = null;
+
+    /**
+     * number of results in the result storages, fetched when the experiment starts
+     */
+    private StoredResultCounts storedResults = null;
+
+    /**
+     * training data after the test data independent setwise preprocessors, shared by all test
+     * versions of the experiment
+     */
+    private SetWisePreprocessingCache preprocessingCache = null;
+
+    /**
+     * shard that is executed; null if the experiment is not sharded
+     */
+    private Shard shard = null;
+
+    /**
+     * instrumentation of the stages of the experiment
+     */
+    private StageTimings timings = null;
+
+    /**
+     * live progress of the experiment
+     */
+    private ExperimentMonitor monitor = null;
+
     /**
      * Constructor. Creates a new experiment based on a configuration.
      * 
@@ -119,26 +176,20 @@ public abstract class AbstractCrossProjectExperiment implements IExecutionStrate
      * @return single {@link Instances} set
      */
     public static Instances makeSingleTrainingSet(SetUniqueList<Instances> traindataSet) {
-        Instances traindataFull = null;
-        for (Instances traindata : traindataSet) {
-            if (traindataFull == null) {
-                traindataFull = new Instances(traindata);
-            }
-            else {
-                for (int i = 0; i < traindata.numInstances(); i++) {
-                    traindataFull.add(traindata.instance(i));
-                }
-            }
-        }
-        return traindataFull;
+        return WekaUtils.concatenate(traindataSet);
     }
 
     /**
-     * Executes the experiment with the steps as described in the class comment.
+     * Executes the experiment with the steps as described in the class comment. If the parameter
+     * {@link ExecutionStrategyParameters#PARALLEL} is set, the test versions are executed
+     * concurrently. Each concurrently executed test version uses its own instances of the
+     * components of the experiment. The results are written to the results file and the result
+     * storages in the same order as during a sequential execution. If the experiment has result
+     * storages, the completed test versions are recorded in a {@link ProgressJournal} in the
+     * results path, which is used to skip them when the experiment is executed again.
      * 
      * @see Runnable#run()
      */
-    @SuppressWarnings("boxing")
     @Override
     public void run() {
         final List<SoftwareVersion> versions = new LinkedList<>();
@@ -150,8 +201,6 @@ public abstract class AbstractCrossProjectExperiment implements IExecutionStrate
         for (IVersionFilter filter : this.config.getVersionFilters()) {
             filter.apply(versions);
         }
-        boolean writeHeader = true;
-        int versionCount = 1;
         int testVersionCount = 0;
 
         for (SoftwareVersion testVersion : versions) {
@@ -163,178 +212,577 @@ public abstract class AbstractCrossProjectExperiment implements IExecutionStrate
         // sort versions
         Collections.sort(versions);
 
+        if (!this.config.getResultStorages().isEmpty()) {
+            if (this.shard == null) {
+                this.journal = ProgressJournal.open(this.config.getResultsPath(),
+                                                    this.config.getExperimentName());
+            }
+            else {
+                // the results of the shard are stored separately until the shards are merged
+                for (IResultStorage storage : this.config.getResultStorages()) {
+                    if (storage instanceof IShardableResultStorage) {
+                        ((IShardableResultStorage) storage).setShard(this.shard.getName());
+                    }
+                }
+                this.journal = ShardResults.openJournal(this.config.getResultsPath(),
+                                                        this.config.getExperimentName(),
+                                                        this.shard);
+            }
+        }
+        this.storedResults = StoredResultCounts
+            .fetchResultCounts(this.config.getResultStorages(), this.config.getExperimentName());
+        this.preprocessingCache =
+            new SetWisePreprocessingCache(this.config.getSetWisePreprocessors());
+        StageTimings.remove(this.config.getExperimentName());
+        this.timings = StageTimings.forExperiment(this.config.getExperimentName());
+        this.monitor = ExperimentMonitor.forExperiment(this.config.getExperimentName());
+        this.monitor.started(testVersionCount);
+        boolean success = false;
+        try {
+            executeTestVersions(versions, testVersionCount);
+            writeStageTimings();
+            success = true;
+        }
+        finally {
+            this.monitor.finished(success);
+            this.storedResults = null;
+            this.preprocessingCache = null;
+            if (this.journal != null) {
+                try {
+                    this.journal.close();
+                }
+                catch (IOException e) {
+                    Console.traceln(Level.WARNING, "could not close progress journal: " +
+                        e.getMessage());
+                }
+                this.journal = null;
+            }
+        }
+    }
+
+    /**
+     * <p>
+     * Executes the experiment for all test versions, either one after another or concurrently. If
+     * the experiment is sharded, only the test versions that are assigned to the shard are
+     * executed.
+     * </p>
+     *
+     * @param versions
+     *            all software versions in the data set
+     * @param testVersionCount
+     *            number of test versions
+     */
+    private void executeTestVersions(List<SoftwareVersion> versions, int testVersionCount) {
+        boolean writeHeader = true;
+        int versionCount = 1;
+        final List<Callable<ResultBuffer>> tasks = new LinkedList<>();
+        final List<SoftwareVersion> taskVersions = new LinkedList<>();
+        final List<Integer> taskUnits = new LinkedList<>();
         for (SoftwareVersion testVersion : versions) {
             if (isVersion(testVersion, this.config.getTestVersionFilters())) {
-                Console.traceln(Level.INFO,
-                                String.format("[%s] [%02d/%02d] %s: starting",
-                                              this.config.getExperimentName(), versionCount,
-                                              testVersionCount, testVersion.getVersion()));
-                int numResultsAvailable = resultsAvailable(testVersion);
-                if (numResultsAvailable >= this.config.getRepetitions()) {
-                    Console.traceln(Level.INFO, String
-                        .format("[%s] [%02d/%02d] %s: results already available; skipped",
-                                this.config.getExperimentName(), versionCount, testVersionCount,
-                                testVersion.getVersion()));
+                if (this.shard != null &&
+                    !this.shard.isAssigned(this.config.getExperimentName(), versionCount))
+                {
+                    this.monitor.testVersionSkipped();
                     versionCount++;
                     continue;
                 }
-
-                // Setup testdata and training data
-                Instances testdata = testVersion.getInstances();
-                List<Double> efforts = testVersion.getEfforts();
-                List<Double> numBugs = testVersion.getNumBugs();
-                SetUniqueList<Instances> traindataSet =
-                    SetUniqueList.setUniqueList(new LinkedList<Instances>());
-                for (SoftwareVersion trainingVersion : versions) {
-                    if (isVersion(trainingVersion, this.config.getTrainingVersionFilters())) {
-                        if (trainingVersion != testVersion) {
-                            if (isTrainingVersion(trainingVersion, testVersion, versions)) {
-                                traindataSet.add(trainingVersion.getInstances());
-                            }
-                        }
+                List<SoftwareVersion> trainingVersions =
+                    getTrainingVersions(testVersion, versions, versionCount, testVersionCount);
+                if (trainingVersions != null) {
+                    if (this.parameters.isParallel() || this.shard != null) {
+                        tasks.add(createTask(testVersion, trainingVersions, versionCount,
+                                             testVersionCount, writeHeader));
+                        taskVersions.add(testVersion);
+                        taskUnits.add(versionCount);
+                    }
+                    else {
+                        executeTestVersion(this.config, testVersion, trainingVersions,
+                                           versionCount, testVersionCount, writeHeader, null);
+                        testVersionCompleted(testVersion);
                     }
+                    writeHeader = false;
                 }
-                if( traindataSet.isEmpty() ) {
-                    Console.traceln(Level.WARNING, String
-                                    .format("[%s] [%02d/%02d] %s: no training data this product; skipped",
-                                            this.config.getExperimentName(), versionCount, testVersionCount,
-                                            testVersion.getVersion()));
-                    versionCount++;
-                    continue;
+                else {
+                    this.monitor.testVersionSkipped();
                 }
+                versionCount++;
+            }
+        }
 
-                for (ISetWiseProcessingStrategy processor : this.config.getSetWisePreprocessors()) {
-                    Console.traceln(Level.FINE, String
-                        .format("[%s] [%02d/%02d] %s: applying setwise preprocessor %s",
-                                this.config.getExperimentName(), versionCount, testVersionCount,
-                                testVersion.getVersion(), processor.getClass().getName()));
-                    processor.apply(testdata, traindataSet);
-                }
-                for (ISetWiseDataselectionStrategy dataselector : this.config
-                    .getSetWiseSelectors())
-                {
-                    Console
-                        .traceln(Level.FINE,
-                                 String.format("[%s] [%02d/%02d] %s: applying setwise selection %s",
-                                               this.config.getExperimentName(), versionCount,
-                                               testVersionCount, testVersion.getVersion(),
-                                               dataselector.getClass().getName()));
-                    dataselector.apply(testdata, traindataSet);
-                }
-                for (ISetWiseProcessingStrategy processor : this.config
-                    .getSetWisePostprocessors())
-                {
-                    Console.traceln(Level.FINE, String
-                        .format("[%s] [%02d/%02d] %s: applying setwise postprocessor %s",
-                                this.config.getExperimentName(), versionCount, testVersionCount,
-                                testVersion.getVersion(), processor.getClass().getName()));
-                    processor.apply(testdata, traindataSet);
-                }
-                for (ISetWiseTrainingStrategy setwiseTrainer : this.config.getSetWiseTrainers()) {
-                    Console
-                        .traceln(Level.FINE,
-                                 String.format("[%s] [%02d/%02d] %s: applying setwise trainer %s",
-                                               this.config.getExperimentName(), versionCount,
-                                               testVersionCount, testVersion.getVersion(),
-                                               setwiseTrainer.getName()));
-                    setwiseTrainer.apply(traindataSet);
-                }
-                for (ISetWiseTestdataAwareTrainingStrategy setwiseTestdataAwareTrainer : this.config
-                    .getSetWiseTestdataAwareTrainers())
-                {
-                    Console.traceln(Level.FINE, String
-                        .format("[%s] [%02d/%02d] %s: applying testdata aware setwise trainer %s",
-                                this.config.getExperimentName(), versionCount, testVersionCount,
-                                testVersion.getVersion(), setwiseTestdataAwareTrainer.getName()));
-                    setwiseTestdataAwareTrainer.apply(traindataSet, testdata);
-                }
+        if (this.shard != null) {
+            executeShard(tasks, taskVersions, taskUnits);
+        }
+        else if (!tasks.isEmpty()) {
+            File resultsDir = new File(this.config.getResultsPath());
+            if (!resultsDir.exists()) {
+                resultsDir.mkdir();
+            }
+            try (PrintWriter resultsFile = new PrintWriter(new FileOutputStream(this.config
+                .getResultsPath() + "/" + this.config.getExperimentName() + ".csv")))
+            {
+                final Iterator<SoftwareVersion> completedVersions = taskVersions.iterator();
+                ConcurrencyUtils.invokeOrdered(tasks, this.parameters.getNumThreads(), buffer -> {
+                    buffer.flush(resultsFile, this.config.getResultStorages());
+                    testVersionCompleted(completedVersions.next());
+                });
+            }
+            catch (FileNotFoundException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
 
-                Instances traindata = makeSingleTrainingSet(traindataSet);
+    /**
+     * <p>
+     * Writes the instrumentation of the stages to the file
+     * <code>&lt;experiment name&gt;.stages.csv</code> in the results path. If the experiment is
+     * sharded, the name of the shard is added to the name of the file.
+     * </p>
+     */
+    private void writeStageTimings() {
+        File resultsDir = new File(this.config.getResultsPath());
+        if (!resultsDir.exists()) {
+            resultsDir.mkdirs();
+        }
+        String fileName = this.config.getExperimentName() +
+            (this.shard == null ? "" : "." + this.shard.getName()) + ".stages.csv";
+        this.timings.write(new File(resultsDir, fileName).getPath());
+    }
 
-                for (IProcessesingStrategy processor : this.config.getPreProcessors()) {
-                    Console.traceln(Level.FINE,
-                                    String.format("[%s] [%02d/%02d] %s: applying preprocessor %s",
-                                                  this.config.getExperimentName(), versionCount,
-                                                  testVersionCount, testVersion.getVersion(),
-                                                  processor.getClass().getName()));
-                    processor.apply(testdata, traindata);
-                }
-                for (IPointWiseDataselectionStrategy dataselector : this.config
-                    .getPointWiseSelectors())
-                {
-                    Console.traceln(Level.FINE, String
-                        .format("[%s] [%02d/%02d] %s: applying pointwise selection %s",
-                                this.config.getExperimentName(), versionCount, testVersionCount,
-                                testVersion.getVersion(), dataselector.getClass().getName()));
-                    traindata = dataselector.apply(testdata, traindata);
-                }
-                for (IProcessesingStrategy processor : this.config.getPostProcessors()) {
-                    Console.traceln(Level.FINE, String
-                        .format("[%s] [%02d/%02d] %s: applying setwise postprocessor %s",
-                                this.config.getExperimentName(), versionCount, testVersionCount,
-                                testVersion.getVersion(), processor.getClass().getName()));
-                    processor.apply(testdata, traindata);
-                }
-                for (ITrainingStrategy trainer : this.config.getTrainers()) {
-                    Console.traceln(Level.FINE,
-                                    String.format("[%s] [%02d/%02d] %s: applying trainer %s",
-                                                  this.config.getExperimentName(), versionCount,
-                                                  testVersionCount, testVersion.getVersion(),
-                                                  trainer.getName()));
-                    trainer.apply(traindata);
+    /**
+     * <p>
+     * Executes the test versions of a shard and writes their results to the results of the shard.
+     * The test versions are executed concurrently if the parameter
+     * {@link ExecutionStrategyParameters#PARALLEL} is set.
+     * </p>
+     *
+     * @param tasks
+     *            tasks that execute the test versions of the shard
+     * @param taskVersions
+     *            test versions of the tasks
+     * @param taskUnits
+     *            work units of the tasks, i.e., the numbers of the test versions
+     */
+    @SuppressWarnings("boxing")
+    private void executeShard(List<Callable<ResultBuffer>> tasks,
+                              List<SoftwareVersion> taskVersions,
+                              List<Integer> taskUnits)
+    {
+        try (ShardResults shardResults = ShardResults.open(this.config.getResultsPath(),
+                                                           this.config.getExperimentName(),
+                                                           this.shard))
+        {
+            final Iterator<SoftwareVersion> completedVersions = taskVersions.iterator();
+            final Iterator<Integer> completedUnits = taskUnits.iterator();
+            final Consumer<ResultBuffer> consumer = buffer -> {
+                int unit = completedUnits.next();
+                // only the first test version of the shard writes the header
+                shardResults.addUnit(unit, unit == taskUnits.get(0), buffer,
+                                     this.config.getResultStorages());
+                testVersionCompleted(completedVersions.next());
+            };
+            if (this.parameters.isParallel()) {
+                ConcurrencyUtils.invokeOrdered(tasks, this.parameters.getNumThreads(), consumer);
+            }
+            else {
+                for (Callable<ResultBuffer> task : tasks) {
+                    consumer.accept(task.call());
                 }
-                for (ITestAwareTrainingStrategy trainer : this.config.getTestAwareTrainers()) {
-                    Console.traceln(Level.FINE,
-                                    String.format("[%s] [%02d/%02d] %s: applying trainer %s",
-                                                  this.config.getExperimentName(), versionCount,
-                                                  testVersionCount, testVersion.getVersion(),
-                                                  trainer.getName()));
-                    trainer.apply(testdata, traindata);
+            }
+        }
+        catch (RuntimeException e) {
+            throw e;
+        }
+        catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see de.ugoe.cs.cpdp.execution.IShardableExecutionStrategy#setShard(de.ugoe.cs.cpdp.execution.Shard)
+     */
+    @SuppressWarnings("hiding")
+    @Override
+    public void setShard(Shard shard) {
+        this.shard = shard;
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see de.ugoe.cs.cpdp.IParameterizable#setParameter(java.lang.String)
+     */
+    @Override
+    public void setParameter(String parameters) {
+        this.parameters = new ExecutionStrategyParameters(parameters);
+    }
+
+    /**
+     * <p>
+     * Determines the candidate training versions for a test version. Returns null if the test
+     * version is skipped, either because the results are already available or because there is no
+     * training data for the test version.
+     * </p>
+     *
+     * @param testVersion
+     *            test version
+     * @param versions
+     *            all software versions in the data set
+     * @param versionCount
+     *            number of the test version
+     * @param testVersionCount
+     *            number of test versions
+     * @return the candidate training versions; null if the test version is skipped
+     */
+    @SuppressWarnings("boxing")
+    private List<SoftwareVersion> getTrainingVersions(SoftwareVersion testVersion,
+                                                      List<SoftwareVersion> versions,
+                                                      int versionCount,
+                                                      int testVersionCount)
+    {
+        int numResultsAvailable = resultsAvailable(testVersion);
+        if (numResultsAvailable >= this.config.getRepetitions()) {
+            Console.traceln(Level.INFO, String
+                .format("[%s] [%02d/%02d] %s: results already available; skipped",
+                        this.config.getExperimentName(), versionCount, testVersionCount,
+                        testVersion.getVersion()));
+            return null;
+        }
+
+        List<SoftwareVersion> trainingVersions = new LinkedList<>();
+        for (SoftwareVersion trainingVersion : versions) {
+            if (isVersion(trainingVersion, this.config.getTrainingVersionFilters())) {
+                if (trainingVersion != testVersion) {
+                    if (isTrainingVersion(trainingVersion, testVersion, versions)) {
+                        trainingVersions.add(trainingVersion);
+                    }
                 }
+            }
+        }
+        if (trainingVersions.isEmpty()) {
+            Console.traceln(Level.WARNING, String
+                .format("[%s] [%02d/%02d] %s: no training data this product; skipped",
+                        this.config.getExperimentName(), versionCount, testVersionCount,
+                        testVersion.getVersion()));
+            return null;
+        }
+        return trainingVersions;
+    }
+
+    /**
+     * <p>
+     * Creates a task for the concurrent execution of a test version. The task uses a copy of the
+     * configuration, i.e., its own instances of all components of the experiment, and writes its
+     * results into a {@link ResultBuffer}.
+     * </p>
+     *
+     * @param testVersion
+     *            test version
+     * @param trainingVersions
+     *            candidate training versions
+     * @param versionCount
+     *            number of the test version
+     * @param testVersionCount
+     *            number of test versions
+     * @param writeHeader
+     *            if true, the header of the results file is written
+     * @return the task
+     */
+    private Callable<ResultBuffer> createTask(final SoftwareVersion testVersion,
+                                              final List<SoftwareVersion> trainingVersions,
+                                              final int versionCount,
+                                              final int testVersionCount,
+                                              final boolean writeHeader)
+    {
+        return () -> {
+            ResultBuffer buffer = new ResultBuffer();
+            executeTestVersion(this.config.createCopy(), testVersion, trainingVersions,
+                               versionCount, testVersionCount, writeHeader, buffer);
+            return buffer;
+        };
+    }
+
+    /**
+     * <p>
+     * Executes the experiment for a single test version.
+     * </p>
+     *
+     * @param config
+     *            configuration whose components are used
+     * @param testVersion
+     *            test version
+     * @param trainingVersions
+     *            candidate training versions
+     * @param versionCount
+     *            number of the test version
+     * @param testVersionCount
+     *            number of test versions
+     * @param writeHeader
+     *            if true, the header of the results file is written
+     * @param buffer
+     *            buffer for the results; if null, the results are directly written to the results
+     *            file and the result storages
+     */
+    @SuppressWarnings({ "boxing", "hiding" })
+    private void executeTestVersion(ExperimentConfiguration config,
+                                    SoftwareVersion testVersion,
+                                    List<SoftwareVersion> trainingVersions,
+                                    int versionCount,
+                                    int testVersionCount,
+                                    boolean writeHeader,
+                                    ResultBuffer buffer)
+    {
+        Console.traceln(Level.INFO,
+                        String.format("[%s] [%02d/%02d] %s: starting",
+                                      config.getExperimentName(), versionCount,
+                                      testVersionCount, testVersion.getVersion()));
+
+        // Setup testdata and training data
+        Instances testdata = testVersion.getInstances();
+        List<Double> efforts = testVersion.getEfforts();
+        List<Double> numBugs = testVersion.getNumBugs();
+        SetUniqueList<Instances> traindataSet =
+            SetUniqueList.setUniqueList(new LinkedList<Instances>());
+        for (SoftwareVersion trainingVersion : trainingVersions) {
+            traindataSet.add(this.preprocessingCache.getTraindata(trainingVersion));
+        }
+
+        // the training data of the first preprocessors is already processed by the cache
+        int numCachedPreprocessors = this.preprocessingCache.getPreprocessors().size();
+        for (int i = 0; i < numCachedPreprocessors; i++) {
+            ISetWiseTestdataIndependentProcessingStrategy processor =
+                (ISetWiseTestdataIndependentProcessingStrategy) config.getSetWisePreprocessors()
+                    .get(i);
+            Console.traceln(Level.FINE, String
+                .format("[%s] [%02d/%02d] %s: applying setwise preprocessor %s",
+                        config.getExperimentName(), versionCount, testVersionCount,
+                        testVersion.getVersion(), processor.getClass().getName()));
+            Stage stage =
+                this.timings.start(testVersion.getVersion(), "setwise preprocessor", processor);
+            try {
+                processor.applyToTestdata(testdata);
+            }
+            finally {
+                stage.close();
+            }
+        }
+        for (ISetWiseProcessingStrategy processor : config.getSetWisePreprocessors()
+            .subList(numCachedPreprocessors, config.getSetWisePreprocessors().size()))
+        {
+            Console.traceln(Level.FINE, String
+                .format("[%s] [%02d/%02d] %s: applying setwise preprocessor %s",
+                        config.getExperimentName(), versionCount, testVersionCount,
+                        testVersion.getVersion(), processor.getClass().getName()));
+            Stage stage =
+                this.timings.start(testVersion.getVersion(), "setwise preprocessor", processor);
+            try {
+                processor.apply(testdata, traindataSet);
+            }
+            finally {
+                stage.close();
+            }
+        }
+        for (ISetWiseDataselectionStrategy dataselector : config.getSetWiseSelectors()) {
+            Console.traceln(Level.FINE,
+                            String.format("[%s] [%02d/%02d] %s: applying setwise selection %s",
+                                          config.getExperimentName(), versionCount,
+                                          testVersionCount, testVersion.getVersion(),
+                                          dataselector.getClass().getName()));
+            Stage stage =
+                this.timings.start(testVersion.getVersion(), "setwise selection", dataselector);
+            try {
+                dataselector.apply(testdata, traindataSet);
+            }
+            finally {
+                stage.close();
+            }
+        }
+        for (ISetWiseProcessingStrategy processor : config.getSetWisePostprocessors()) {
+            Console.traceln(Level.FINE, String
+                .format("[%s] [%02d/%02d] %s: applying setwise postprocessor %s",
+                        config.getExperimentName(), versionCount, testVersionCount,
+                        testVersion.getVersion(), processor.getClass().getName()));
+            Stage stage =
+                this.timings.start(testVersion.getVersion(), "setwise postprocessor", processor);
+            try {
+                processor.apply(testdata, traindataSet);
+            }
+            finally {
+                stage.close();
+            }
+        }
+        for (ISetWiseTrainingStrategy setwiseTrainer : config.getSetWiseTrainers()) {
+            Console.traceln(Level.FINE,
+                            String.format("[%s] [%02d/%02d] %s: applying setwise trainer %s",
+                                          config.getExperimentName(), versionCount,
+                                          testVersionCount, testVersion.getVersion(),
+                                          setwiseTrainer.getName()));
+            Stage stage =
+                this.timings.start(testVersion.getVersion(), "setwise trainer", setwiseTrainer);
+            try {
+                setwiseTrainer.apply(traindataSet);
+            }
+            finally {
+                stage.close();
+            }
+        }
+        for (ISetWiseTestdataAwareTrainingStrategy setwiseTestdataAwareTrainer : config
+            .getSetWiseTestdataAwareTrainers())
+        {
+            Console.traceln(Level.FINE, String
+                .format("[%s] [%02d/%02d] %s: applying testdata aware setwise trainer %s",
+                        config.getExperimentName(), versionCount, testVersionCount,
+                        testVersion.getVersion(), setwiseTestdataAwareTrainer.getName()));
+            Stage stage = this.timings.start(testVersion.getVersion(),
+                                             "testdata aware setwise trainer",
+                                             setwiseTestdataAwareTrainer);
+            try {
+                setwiseTestdataAwareTrainer.apply(traindataSet, testdata);
+            }
+            finally {
+                stage.close();
+            }
+        }
+
+        Instances traindata = ExecutionUtils.makeSingleTrainingSet(config, traindataSet);
+
+        for (IProcessesingStrategy processor : config.getPreProcessors()) {
+            Console.traceln(Level.FINE,
+                            String.format("[%s] [%02d/%02d] %s: applying preprocessor %s",
+                                          config.getExperimentName(), versionCount,
+                                          testVersionCount, testVersion.getVersion(),
+                                          processor.getClass().getName()));
+            Stage stage = this.timings.start(testVersion.getVersion(), "preprocessor", processor);
+            try {
+                processor.apply(testdata, traindata);
+            }
+            finally {
+                stage.close();
+            }
+        }
+        for (IPointWiseDataselectionStrategy dataselector : config.getPointWiseSelectors()) {
+            Console.traceln(Level.FINE, String
+                .format("[%s] [%02d/%02d] %s: applying pointwise selection %s",
+                        config.getExperimentName(), versionCount, testVersionCount,
+                        testVersion.getVersion(), dataselector.getClass().getName()));
+            Stage stage =
+                this.timings.start(testVersion.getVersion(), "pointwise selection", dataselector);
+            try {
+                traindata = dataselector.apply(testdata, traindata);
+            }
+            finally {
+                stage.close();
+            }
+        }
+        for (IProcessesingStrategy processor : config.getPostProcessors()) {
+            Console.traceln(Level.FINE, String
+                .format("[%s] [%02d/%02d] %s: applying setwise postprocessor %s",
+                        config.getExperimentName(), versionCount, testVersionCount,
+                        testVersion.getVersion(), processor.getClass().getName()));
+            Stage stage = this.timings.start(testVersion.getVersion(), "postprocessor", processor);
+            try {
+                processor.apply(testdata, traindata);
+            }
+            finally {
+                stage.close();
+            }
+        }
+        ExecutionUtils.applyTrainers(config.getTrainers(), traindata, this.parameters,
+                                     config.getExperimentName(), versionCount, testVersionCount,
+                                     testVersion.getVersion(), this.timings);
+        for (ITestAwareTrainingStrategy trainer : config.getTestAwareTrainers()) {
+            Console.traceln(Level.FINE,
+                            String.format("[%s] [%02d/%02d] %s: applying trainer %s",
+                                          config.getExperimentName(), versionCount,
+                                          testVersionCount, testVersion.getVersion(),
+                                          trainer.getName()));
+            Stage stage =
+                this.timings.start(testVersion.getVersion(), "test aware trainer", trainer);
+            try {
+                trainer.apply(testdata, traindata);
+            }
+            finally {
+                stage.close();
+            }
+        }
 
-                File resultsDir = new File(this.config.getResultsPath());
+        File resultsDir = new File(config.getResultsPath());
 
-                if (!resultsDir.exists()) {
-                    resultsDir.mkdir();
+        if (!resultsDir.exists()) {
+            resultsDir.mkdir();
+        }
+        boolean writeEvaluatorHeader = writeHeader;
+        boolean firstEvaluator = true;
+        for (IEvaluationStrategy evaluator : config.getEvaluators()) {
+            Console.traceln(Level.FINE,
+                            String.format("[%s] [%02d/%02d] %s: applying evaluator %s",
+                                          config.getExperimentName(), versionCount,
+                                          testVersionCount, testVersion.getVersion(),
+                                          evaluator.getClass().getName()));
+            List<ITrainer> allTrainers = getAllTrainers(config);
+            List<IResultStorage> resultStorages;
+            if (buffer == null) {
+                if (writeEvaluatorHeader) {
+                    evaluator.setParameter(config.getResultsPath() + "/" +
+                        config.getExperimentName() + ".csv");
                 }
-                for (IEvaluationStrategy evaluator : this.config.getEvaluators()) {
-                    Console.traceln(Level.FINE,
-                                    String.format("[%s] [%02d/%02d] %s: applying evaluator %s",
-                                                  this.config.getExperimentName(), versionCount,
-                                                  testVersionCount, testVersion.getVersion(),
-                                                  evaluator.getClass().getName()));
-                    List<ITrainer> allTrainers = new LinkedList<>();
-                    for (ISetWiseTrainingStrategy setwiseTrainer : this.config
-                        .getSetWiseTrainers())
-                    {
-                        allTrainers.add(setwiseTrainer);
-                    }
-                    for (ISetWiseTestdataAwareTrainingStrategy setwiseTestdataAwareTrainer : this.config
-                        .getSetWiseTestdataAwareTrainers())
-                    {
-                        allTrainers.add(setwiseTestdataAwareTrainer);
-                    }
-                    for (ITrainingStrategy trainer : this.config.getTrainers()) {
-                        allTrainers.add(trainer);
-                    }
-                    for (ITestAwareTrainingStrategy trainer : this.config.getTestAwareTrainers()) {
-                        allTrainers.add(trainer);
-                    }
-                    if (writeHeader) {
-                        evaluator.setParameter(this.config.getResultsPath() + "/" +
-                            this.config.getExperimentName() + ".csv");
-                    }
-                    evaluator.apply(testdata, traindata, allTrainers, efforts, numBugs, writeHeader,
-                                    this.config.getResultStorages());
-                    writeHeader = false;
+                resultStorages = config.getResultStorages();
+            }
+            else {
+                if (firstEvaluator) {
+                    // only the first evaluator writes into the results file
+                    evaluator.setOutput(buffer.getOutput(), config.getExperimentName());
                 }
-                Console.traceln(Level.INFO,
-                                String.format("[%s] [%02d/%02d] %s: finished",
-                                              this.config.getExperimentName(), versionCount,
-                                              testVersionCount, testVersion.getVersion()));
-                versionCount++;
+                resultStorages = Arrays.<IResultStorage> asList(buffer);
+            }
+            ExecutionUtils.configureEvaluator(evaluator, this.parameters);
+            Stage stage = this.timings.start(testVersion.getVersion(), "evaluator", evaluator);
+            try {
+                evaluator.apply(testdata, traindata, allTrainers, efforts, numBugs,
+                                writeEvaluatorHeader, resultStorages);
+            }
+            finally {
+                stage.close();
             }
+            writeEvaluatorHeader = false;
+            firstEvaluator = false;
         }
+        Console.traceln(Level.INFO,
+                        String.format("[%s] [%02d/%02d] %s: finished",
+                                      config.getExperimentName(), versionCount,
+                                      testVersionCount, testVersion.getVersion()));
+    }
+
+    /**
+     * <p>
+     * Helper method that returns all trainers of a configuration.
+     * </p>
+     *
+     * @param config
+     *            configuration
+     * @return all trainers in the order in which they are evaluated
+     */
+    @SuppressWarnings("hiding")
+    private static List<ITrainer> getAllTrainers(ExperimentConfiguration config) {
+        List<ITrainer> allTrainers = new LinkedList<>();
+        for (ISetWiseTrainingStrategy setwiseTrainer : config.getSetWiseTrainers()) {
+            allTrainers.add(setwiseTrainer);
+        }
+        for (ISetWiseTestdataAwareTrainingStrategy setwiseTestdataAwareTrainer : config
+            .getSetWiseTestdataAwareTrainers())
+        {
+            allTrainers.add(setwiseTestdataAwareTrainer);
+        }
+        for (ITrainingStrategy trainer : config.getTrainers()) {
+            allTrainers.add(trainer);
+        }
+        for (ITestAwareTrainingStrategy trainer : config.getTestAwareTrainers()) {
+            allTrainers.add(trainer);
+        }
+        return allTrainers;
     }
 
     /**
@@ -354,6 +802,33 @@ public abstract class AbstractCrossProjectExperiment implements IExecutionStrate
         return result;
     }
 
+    /**
+     * <p>
+     * Records in the progress journal and the monitor of the experiment that the results of a
+     * test version are stored. Result storages that buffer the results are flushed before, i.e.,
+     * the journal only contains test versions whose results are actually stored. If results could
+     * not be stored, the test version is not journaled and executed again by the next run.
+     * </p>
+     *
+     * @param testVersion
+     *            the test version
+     */
+    private void testVersionCompleted(SoftwareVersion testVersion) {
+        this.monitor.testVersionCompleted();
+        if (this.journal != null) {
+            try {
+                ExecutionUtils.flushResultStorages(this.config.getResultStorages());
+            }
+            catch (RuntimeException e) {
+                Console.printerrln(String.format("[%s] %s: results not stored: %s",
+                                                 this.config.getExperimentName(),
+                                                 testVersion.getVersion(), e.getMessage()));
+                return;
+            }
+            this.journal.addCompletedUnit(testVersion.getVersion());
+        }
+    }
+
     /**
      * <p>
      * helper function that checks if the results are already in the data store
@@ -368,31 +843,16 @@ public abstract class AbstractCrossProjectExperiment implements IExecutionStrate
             return 0;
         }
 
-        List<ITrainer> allTrainers = new LinkedList<>();
-        for (ISetWiseTrainingStrategy setwiseTrainer : this.config.getSetWiseTrainers()) {
-            allTrainers.add(setwiseTrainer);
-        }
-        for (ISetWiseTestdataAwareTrainingStrategy setwiseTestdataAwareTrainer : this.config
-            .getSetWiseTestdataAwareTrainers())
-        {
-            allTrainers.add(setwiseTestdataAwareTrainer);
-        }
-        for (ITrainingStrategy trainer : this.config.getTrainers()) {
-            allTrainers.add(trainer);
-        }
-        for (ITestAwareTrainingStrategy trainer : this.config.getTestAwareTrainers()) {
-            allTrainers.add(trainer);
+        int journaled =
+            this.journal == null ? 0 : this.journal.getCompletedCount(version.getVersion());
+        if (journaled >= this.config.getRepetitions()) {
+            // no need to query the result storages
+            return journaled;
         }
 
-        int available = Integer.MAX_VALUE;
-        for (IResultStorage storage : this.config.getResultStorages()) {
-            String classifierName = ((IWekaCompatibleTrainer) allTrainers.get(0)).getName();
-            int curAvailable = storage.containsResult(this.config.getExperimentName(),
-                                                      version.getVersion(), classifierName);
-            if (curAvailable < available) {
-                available = curAvailable;
-            }
-        }
-        return available;
+        List<ITrainer> allTrainers = getAllTrainers(this.config);
+
+        String classifierName = ((IWekaCompatibleTrainer) allTrainers.get(0)).getName();
+        return this.storedResults.getCount(version.getVersion(), classifierName);
     }
 }
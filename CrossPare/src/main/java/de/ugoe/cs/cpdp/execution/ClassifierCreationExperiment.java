@@ -21,6 +21,7 @@ import java.util.logging.Level;
 
 import weka.core.Instances;
 import de.ugoe.cs.cpdp.ExperimentConfiguration;
+import de.ugoe.cs.cpdp.IParameterizable;
 import de.ugoe.cs.cpdp.dataprocessing.IProcessesingStrategy;
 import de.ugoe.cs.cpdp.dataselection.IPointWiseDataselectionStrategy;
 import de.ugoe.cs.cpdp.eval.IEvaluationStrategy;
@@ -57,13 +58,20 @@ import de.ugoe.cs.util.console.Console;
  * 
  * @author Fabian Trautsch
  */
-public class ClassifierCreationExperiment implements IExecutionStrategy {
+public class ClassifierCreationExperiment
+    implements IExecutionStrategy, IParameterizable
+{
 
     /**
      * configuration of the experiment
      */
     private final ExperimentConfiguration config;
 
+    /**
+     * parameters of the execution strategy
+     */
+    private ExecutionStrategyParameters parameters = new ExecutionStrategyParameters(null);
+
     /**
      * Constructor. Creates a new experiment based on a configuration.
      * 
@@ -75,6 +83,16 @@ public class ClassifierCreationExperiment implements IExecutionStrategy {
         this.config = config;
     }
 
+    /*
+     * (non-Javadoc)
+     * 
+     * @see de.ugoe.cs.cpdp.IParameterizable#setParameter(java.lang.String)
+     */
+    @Override
+    public void setParameter(String parameters) {
+        this.parameters = new ExecutionStrategyParameters(parameters);
+    }
+
     /**
      * Executes the experiment with the steps as described in the class comment.
      * 
@@ -142,14 +160,14 @@ public class ClassifierCreationExperiment implements IExecutionStrategy {
             // Trainerlist for evaluation later on
             List<ITrainer> allTrainers = new LinkedList<>();
 
-            for (ITrainingStrategy trainer : this.config.getTrainers()) {
+            allTrainers.addAll(this.config.getTrainers());
 
-                // Add trainer to list for evaluation
-                allTrainers.add(trainer);
-
-                // Train classifier
-                trainer.apply(traindata);
+            // Train classifiers
+            ExecutionUtils.applyTrainers(this.config.getTrainers(), traindata, this.parameters,
+                                         this.config.getExperimentName(), versionCount,
+                                         versions.size(), testVersion.getProject());
 
+            for (ITrainingStrategy trainer : this.config.getTrainers()) {
                 if (this.config.getSaveClassifier()) {
                     // If classifier should be saved, train him and save him
                     // be careful with typecasting here!
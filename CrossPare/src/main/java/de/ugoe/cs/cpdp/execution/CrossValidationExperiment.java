@@ -23,10 +23,10 @@ import java.util.logging.Level;
 import org.apache.commons.collections4.list.SetUniqueList;
 
 import de.ugoe.cs.cpdp.ExperimentConfiguration;
+import de.ugoe.cs.cpdp.IParameterizable;
 import de.ugoe.cs.cpdp.dataprocessing.IProcessesingStrategy;
 import de.ugoe.cs.cpdp.dataprocessing.ISetWiseProcessingStrategy;
 import de.ugoe.cs.cpdp.eval.IEvaluationStrategy;
-import de.ugoe.cs.cpdp.eval.IResultStorage;
 import de.ugoe.cs.cpdp.loader.IVersionLoader;
 import de.ugoe.cs.cpdp.training.ISetWiseTestdataAwareTrainingStrategy;
 import de.ugoe.cs.cpdp.training.ISetWiseTrainingStrategy;
@@ -34,6 +34,7 @@ import de.ugoe.cs.cpdp.training.ITestAwareTrainingStrategy;
 import de.ugoe.cs.cpdp.training.ITrainer;
 import de.ugoe.cs.cpdp.training.ITrainingStrategy;
 import de.ugoe.cs.cpdp.training.IWekaCompatibleTrainer;
+import de.ugoe.cs.cpdp.util.WekaUtils;
 import de.ugoe.cs.cpdp.versions.IVersionFilter;
 import de.ugoe.cs.cpdp.versions.SoftwareVersion;
 import de.ugoe.cs.util.console.Console;
@@ -73,13 +74,20 @@ import weka.core.Instances;
  * 
  * @author Steffen Herbold
  */
-public class CrossValidationExperiment implements IExecutionStrategy {
+public class CrossValidationExperiment
+    implements IExecutionStrategy, IParameterizable
+{
 
     /**
      * configuration of the experiment
      */
     protected final ExperimentConfiguration config;
 
+    /**
+     * parameters of the execution strategy
+     */
+    protected ExecutionStrategyParameters parameters = new ExecutionStrategyParameters(null);
+
     /**
      * Constructor. Creates a new experiment based on a configuration.
      * 
@@ -91,6 +99,16 @@ public class CrossValidationExperiment implements IExecutionStrategy {
         this.config = config;
     }
 
+    /*
+     * (non-Javadoc)
+     * 
+     * @see de.ugoe.cs.cpdp.IParameterizable#setParameter(java.lang.String)
+     */
+    @Override
+    public void setParameter(String parameters) {
+        this.parameters = new ExecutionStrategyParameters(parameters);
+    }
+
     /**
      * Helper method that combines a set of Weka {@link Instances} sets into a single
      * {@link Instances} set.
@@ -100,18 +118,7 @@ public class CrossValidationExperiment implements IExecutionStrategy {
      * @return single {@link Instances} set
      */
     public static Instances makeSingleTrainingSet(SetUniqueList<Instances> traindataSet) {
-        Instances traindataFull = null;
-        for (Instances traindata : traindataSet) {
-            if (traindataFull == null) {
-                traindataFull = new Instances(traindata);
-            }
-            else {
-                for (int i = 0; i < traindata.numInstances(); i++) {
-                    traindataFull.add(traindata.instance(i));
-                }
-            }
-        }
-        return traindataFull;
+        return WekaUtils.concatenate(traindataSet);
     }
 
     /**
@@ -150,13 +157,16 @@ public class CrossValidationExperiment implements IExecutionStrategy {
         // sort versions
         Collections.sort(versions);
 
+        final StoredResultCounts storedResults = StoredResultCounts
+            .fetchResultCounts(this.config.getResultStorages(), this.config.getExperimentName());
+
         for (SoftwareVersion testVersion : versions) {
             if (isVersion(testVersion, this.config.getTestVersionFilters())) {
                 Console.traceln(Level.INFO,
                                 String.format("[%s] [%02d/%02d] %s: starting",
                                               this.config.getExperimentName(), versionCount,
                                               testVersionCount, testVersion.getVersion()));
-                int numResultsAvailable = resultsAvailable(testVersion);
+                int numResultsAvailable = resultsAvailable(testVersion, storedResults);
                 if (numResultsAvailable >= numTrainers * this.config.getRepetitions()) {
                     Console.traceln(Level.INFO, String
                         .format("[%s] [%02d/%02d] %s: results already available; skipped",
@@ -197,7 +207,7 @@ public class CrossValidationExperiment implements IExecutionStrategy {
                                 testVersion.getVersion(), processor.getClass().getName()));
                     processor.apply(testdata, traindataSet);
                 }
-                Instances traindata = makeSingleTrainingSet(traindataSet);
+                Instances traindata = WekaUtils.merge(traindataSet);
                 for (IProcessesingStrategy processor : this.config.getPreProcessors()) {
                     Console.traceln(Level.FINE,
                                     String.format("[%s] [%02d/%02d] %s: applying preprocessor %s",
@@ -215,14 +225,9 @@ public class CrossValidationExperiment implements IExecutionStrategy {
                 }
                 
                 // training with test data
-                for (ITrainingStrategy trainer : this.config.getTrainers()) {
-                    Console.traceln(Level.FINE,
-                                    String.format("[%s] [%02d/%02d] %s: applying trainer %s",
-                                                  this.config.getExperimentName(), versionCount,
-                                                  testVersionCount, testVersion.getVersion(),
-                                                  trainer.getName()));
-                    trainer.apply(testdata);
-                }
+                ExecutionUtils.applyTrainers(this.config.getTrainers(), testdata, this.parameters,
+                                             this.config.getExperimentName(), versionCount,
+                                             testVersionCount, testVersion.getVersion());
 
                 File resultsDir = new File(this.config.getResultsPath());
                 if (!resultsDir.exists()) {
@@ -292,9 +297,11 @@ public class CrossValidationExperiment implements IExecutionStrategy {
      *
      * @param version
      *            version for which the results are checked
+     * @param storedResults
+     *            number of results in the result storages
      * @return
      */
-    private int resultsAvailable(SoftwareVersion version) {
+    private int resultsAvailable(SoftwareVersion version, StoredResultCounts storedResults) {
         if (this.config.getResultStorages().isEmpty()) {
             return 0;
         }
@@ -315,15 +322,7 @@ public class CrossValidationExperiment implements IExecutionStrategy {
             allTrainers.add(trainer);
         }
 
-        int available = Integer.MAX_VALUE;
-        for (IResultStorage storage : this.config.getResultStorages()) {
-            String classifierName = ((IWekaCompatibleTrainer) allTrainers.get(0)).getName();
-            int curAvailable = storage.containsResult(this.config.getExperimentName(),
-                                                      version.getVersion(), classifierName);
-            if (curAvailable < available) {
-                available = curAvailable;
-            }
-        }
-        return available;
+        String classifierName = ((IWekaCompatibleTrainer) allTrainers.get(0)).getName();
+        return storedResults.getCount(version.getVersion(), classifierName);
     }
 }
@@ -0,0 +1,190 @@
+// Copyright 2015 Georg-August-Universität Göttingen, Germany
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+package de.ugoe.cs.cpdp.execution;
+
+import java.util.logging.Level;
+
+import de.ugoe.cs.cpdp.ExperimentConfiguration;
+import de.ugoe.cs.cpdp.loader.IVersionLoader;
+import de.ugoe.cs.cpdp.versions.SoftwareVersion;
+import de.ugoe.cs.util.console.Console;
+import weka.core.Instances;
+
+/**
+ * <p>
+ * Size of the data of an experiment. The size is determined once for each experiment and is the
+ * basis for the estimates of the work (see
+ * {@link TimingHistory#getWork(ExperimentConfiguration, DataSize)}) and of the memory footprint
+ * (see {@link MemoryBudget#estimateFootprint(ExperimentConfiguration, DataSize, int)}) of the
+ * experiment.
+ * </p>
+ *
+ * @author Steffen Herbold
+ */
+public class DataSize {
+
+    /**
+     * size of an experiment without data
+     */
+    public static final DataSize EMPTY = new DataSize(0, 0, 0, 0, 0);
+
+    /**
+     * number of instances of all versions
+     */
+    private final long numInstances;
+
+    /**
+     * number of values of all versions, i.e., the sum of the instances times the attributes
+     */
+    private final long numValues;
+
+    /**
+     * number of instances of the largest version
+     */
+    private final int maxInstances;
+
+    /**
+     * largest number of attributes of a version
+     */
+    private final int maxAttributes;
+
+    /**
+     * number of versions
+     */
+    private final int numVersions;
+
+    /**
+     * <p>
+     * Creates a new data size.
+     * </p>
+     *
+     * @param numInstances
+     *            number of instances of all versions
+     * @param numValues
+     *            number of values of all versions
+     * @param maxInstances
+     *            number of instances of the largest version
+     * @param maxAttributes
+     *            largest number of attributes of a version
+     * @param numVersions
+     *            number of versions
+     */
+    @SuppressWarnings("hiding")
+    public DataSize(long numInstances,
+                    long numValues,
+                    int maxInstances,
+                    int maxAttributes,
+                    int numVersions)
+    {
+        this.numInstances = numInstances;
+        this.numValues = numValues;
+        this.maxInstances = maxInstances;
+        this.maxAttributes = maxAttributes;
+        this.numVersions = numVersions;
+    }
+
+    /**
+     * <p>
+     * Determines the size of the data of an experiment. The versions are loaded for this. The
+     * loaded versions are cached (see {@link de.ugoe.cs.cpdp.loader.VersionCache}), i.e., they are
+     * not loaded again when the experiment is executed.
+     * </p>
+     *
+     * @param config
+     *            configuration of the experiment
+     * @return size of the data; {@link #EMPTY} if the versions cannot be loaded
+     */
+    public static DataSize of(ExperimentConfiguration config) {
+        long numInstances = 0;
+        long numValues = 0;
+        int maxInstances = 0;
+        int maxAttributes = 0;
+        int numVersions = 0;
+        try {
+            for (IVersionLoader loader : config.getLoaders()) {
+                for (SoftwareVersion version : loader.load()) {
+                    Instances data = version.getReadOnlyInstances();
+                    numInstances += data.numInstances();
+                    numValues += (long) data.numInstances() * data.numAttributes();
+                    maxInstances = Math.max(maxInstances, data.numInstances());
+                    maxAttributes = Math.max(maxAttributes, data.numAttributes());
+                    numVersions++;
+                }
+            }
+        }
+        catch (RuntimeException e) {
+            Console.traceln(Level.WARNING, "could not determine the size of the data of " +
+                config.getExperimentName() + ": " + e.getMessage());
+            return EMPTY;
+        }
+        return new DataSize(numInstances, numValues, maxInstances, maxAttributes, numVersions);
+    }
+
+    /**
+     * <p>
+     * returns the number of instances of all versions
+     * </p>
+     *
+     * @return number of instances
+     */
+    public long getNumInstances() {
+        return this.numInstances;
+    }
+
+    /**
+     * <p>
+     * returns the number of values of all versions, i.e., the sum of the instances times the
+     * attributes
+     * </p>
+     *
+     * @return number of values
+     */
+    public long getNumValues() {
+        return this.numValues;
+    }
+
+    /**
+     * <p>
+     * returns the number of instances of the largest version
+     * </p>
+     *
+     * @return number of instances
+     */
+    public int getMaxInstances() {
+        return this.maxInstances;
+    }
+
+    /**
+     * <p>
+     * returns the largest number of attributes of a version
+     * </p>
+     *
+     * @return number of attributes
+     */
+    public int getMaxAttributes() {
+        return this.maxAttributes;
+    }
+
+    /**
+     * <p>
+     * returns the number of versions
+     * </p>
+     *
+     * @return number of versions
+     */
+    public int getNumVersions() {
+        return this.numVersions;
+    }
+}
@@ -0,0 +1,186 @@
+// Copyright 2015 Georg-August-Universität Göttingen, Germany
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+package de.ugoe.cs.cpdp.execution;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>
+ * Parses the parameters of execution strategies, i.e., the param attribute of the
+ * executionStrategy element of the configuration. The parameters are a whitespace separated list
+ * of options. Each option is either a flag (e.g., <code>parallel</code>) or a key-value pair
+ * (e.g., <code>parallel=4</code>). Tokens that are neither a known flag nor a key-value pair are
+ * unnamed values, e.g., the number of previous releases of the
+ * {@link WithinProjectPreviousReleasesExperiment}.
+ * </p>
+ * 
+ * @author Steffen Herbold
+ */
+public class ExecutionStrategyParameters {
+
+    /**
+     * option for the concurrent execution of the parts of an experiment; the optional value defines
+     * the number of threads
+     */
+    public static final String PARALLEL = "parallel";
+
+    /**
+     * option for limiting the number of concurrently materialized copies of the data during the
+     * concurrent execution
+     */
+    public static final String MAX_COPIES = "maxcopies";
+
+    /**
+     * flags that are known, i.e., that are not treated as unnamed values
+     */
+    private static final List<String> FLAGS = Arrays.asList(PARALLEL);
+
+    /**
+     * parsed options
+     */
+    private final Map<String, String> options = new HashMap<>();
+
+    /**
+     * unnamed values
+     */
+    private final List<String> values = new LinkedList<>();
+
+    /**
+     * <p>
+     * Creates new parameters from a parameter string.
+     * </p>
+     *
+     * @param parameters
+     *            parameter string; may be null or empty
+     */
+    public ExecutionStrategyParameters(String parameters) {
+        if (parameters != null && !parameters.trim().isEmpty()) {
+            for (String option : parameters.trim().split("\\s+")) {
+                int separator = option.indexOf('=');
+                if (separator < 0) {
+                    if (FLAGS.contains(option)) {
+                        this.options.put(option, "");
+                    }
+                    else {
+                        this.values.add(option);
+                    }
+                }
+                else {
+                    this.options.put(option.substring(0, separator),
+                                     option.substring(separator + 1));
+                }
+            }
+        }
+    }
+
+    /**
+     * <p>
+     * Checks if an option is set.
+     * </p>
+     *
+     * @param option
+     *            name of the option
+     * @return true if the option is set, false otherwise
+     */
+    public boolean isSet(String option) {
+        return this.options.containsKey(option);
+    }
+
+    /**
+     * <p>
+     * Returns the value of an option.
+     * </p>
+     *
+     * @param option
+     *            name of the option
+     * @param defaultValue
+     *            value that is returned if the option is not set or has no value
+     * @return value of the option
+     */
+    public String get(String option, String defaultValue) {
+        String value = this.options.get(option);
+        if (value == null || value.isEmpty()) {
+            return defaultValue;
+        }
+        return value;
+    }
+
+    /**
+     * <p>
+     * Returns the value of an option as integer.
+     * </p>
+     *
+     * @param option
+     *            name of the option
+     * @param defaultValue
+     *            value that is returned if the option is not set or has no value
+     * @return value of the option
+     * @throws RuntimeException
+     *             thrown if the value of the option is not an integer
+     */
+    public int getInt(String option, int defaultValue) {
+        String value = get(option, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        }
+        catch (NumberFormatException e) {
+            throw new RuntimeException("invalid value for execution strategy option " + option +
+                ": " + value, e);
+        }
+    }
+
+    /**
+     * <p>
+     * Returns the first unnamed value.
+     * </p>
+     *
+     * @param defaultValue
+     *            value that is returned if there is no unnamed value
+     * @return the first unnamed value
+     */
+    public String getValue(String defaultValue) {
+        return this.values.isEmpty() ? defaultValue : this.values.get(0);
+    }
+
+    /**
+     * <p>
+     * Checks if the concurrent execution is enabled, i.e., if the option {@link #PARALLEL} is set.
+     * </p>
+     *
+     * @return true if the concurrent execution is enabled
+     */
+    public boolean isParallel() {
+        return isSet(PARALLEL);
+    }
+
+    /**
+     * <p>
+     * Returns the number of threads for the concurrent execution. If no number is defined, 0 is
+     * returned, i.e., the number of available processors is used.
+     * </p>
+     *
+     * @return number of threads
+     */
+    public int getNumThreads() {
+        return getInt(PARALLEL, 0);
+    }
+}
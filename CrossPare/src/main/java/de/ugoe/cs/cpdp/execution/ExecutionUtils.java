@@ -0,0 +1,304 @@
+// Copyright 2015 Georg-August-Universität Göttingen, Germany
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+package de.ugoe.cs.cpdp.execution;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.logging.Level;
+
+import org.apache.commons.collections4.list.SetUniqueList;
+
+import de.ugoe.cs.cpdp.ExperimentConfiguration;
+import de.ugoe.cs.cpdp.eval.FileResultStorage;
+import de.ugoe.cs.cpdp.eval.IBufferedResultStorage;
+import de.ugoe.cs.cpdp.eval.IConcurrentEvaluationStrategy;
+import de.ugoe.cs.cpdp.eval.IEvaluationStrategy;
+import de.ugoe.cs.cpdp.eval.IResultStorage;
+import de.ugoe.cs.cpdp.eval.MySQLResultStorage;
+import de.ugoe.cs.cpdp.training.IReadOnlyTrainer;
+import de.ugoe.cs.cpdp.training.ITrainingStrategy;
+import de.ugoe.cs.cpdp.util.ConcurrencyUtils;
+import de.ugoe.cs.cpdp.util.WekaUtils;
+import de.ugoe.cs.util.console.Console;
+import weka.core.Instances;
+
+/**
+ * <p>
+ * Collection of helper functions that are shared by the execution strategies.
+ * </p>
+ * 
+ * @author Steffen Herbold
+ */
+public class ExecutionUtils {
+
+    /**
+     * <p>
+     * Combines the set of training data into a single training data set. The training data sets
+     * must belong to the caller, i.e., they must not be shared with other test versions or tasks.
+     * If the configuration does not contain setwise trainers, the instances are moved from the
+     * training data sets to the result without copying them (see
+     * {@link WekaUtils#merge(java.util.Collection)}) and the training data sets must not be used
+     * afterwards. Otherwise, the instances are copied, because the setwise trainers may still
+     * refer to the training data sets.
+     * </p>
+     *
+     * @param config
+     *            configuration of the experiment
+     * @param traindataSet
+     *            set of training data
+     * @return single training data set
+     */
+    public static Instances makeSingleTrainingSet(ExperimentConfiguration config,
+                                                  SetUniqueList<Instances> traindataSet)
+    {
+        if (config.getSetWiseTrainers().isEmpty() &&
+            config.getSetWiseTestdataAwareTrainers().isEmpty())
+        {
+            return WekaUtils.merge(traindataSet);
+        }
+        return WekaUtils.concatenate(traindataSet);
+    }
+
+    /**
+     * <p>
+     * Applies the trainers to the training data. If the concurrent execution is enabled through the
+     * parameters, the trainers are trained concurrently, each as a separate task. In this case, the
+     * training data is a snapshot that must not be modified: trainers that declare that they do not
+     * modify their data (see {@link IReadOnlyTrainer}) share the training data, all other trainers
+     * receive their own copy. Otherwise, the trainers are applied one after another.
+     * </p>
+     *
+     * @param trainers
+     *            trainers that are applied
+     * @param traindata
+     *            training data
+     * @param parameters
+     *            parameters of the execution strategy
+     * @param experimentName
+     *            name of the experiment, used for logging
+     * @param versionCount
+     *            number of the test version, used for logging
+     * @param testVersionCount
+     *            number of test versions, used for logging
+     * @param versionName
+     *            name of the test version, used for logging
+     */
+    public static void applyTrainers(List<ITrainingStrategy> trainers,
+                                     Instances traindata,
+                                     ExecutionStrategyParameters parameters,
+                                     String experimentName,
+                                     int versionCount,
+                                     int testVersionCount,
+                                     String versionName)
+    {
+        applyTrainers(trainers, traindata, parameters, experimentName, versionCount,
+                      testVersionCount, versionName, null);
+    }
+
+    /**
+     * <p>
+     * Applies the trainers to the training data, like
+     * {@link #applyTrainers(List, Instances, ExecutionStrategyParameters, String, int, int, String)}
+     * . Additionally, the training of each trainer is measured as stage <code>trainer</code> of
+     * the instrumentation. The measurement takes place in the thread that trains the trainer.
+     * </p>
+     *
+     * @param trainers
+     *            trainers that are applied
+     * @param traindata
+     *            training data
+     * @param parameters
+     *            parameters of the execution strategy
+     * @param experimentName
+     *            name of the experiment, used for logging
+     * @param versionCount
+     *            number of the test version, used for logging
+     * @param testVersionCount
+     *            number of test versions, used for logging
+     * @param versionName
+     *            name of the test version, used for logging
+     * @param timings
+     *            instrumentation of the stages; null if the stages are not measured
+     */
+    public static void applyTrainers(List<ITrainingStrategy> trainers,
+                                     Instances traindata,
+                                     ExecutionStrategyParameters parameters,
+                                     String experimentName,
+                                     int versionCount,
+                                     int testVersionCount,
+                                     String versionName,
+                                     StageTimings timings)
+    {
+        if (!parameters.isParallel()) {
+            for (ITrainingStrategy trainer : trainers) {
+                logTrainer(trainer, experimentName, versionCount, testVersionCount, versionName);
+                applyTrainer(trainer, traindata, versionName, timings);
+            }
+            return;
+        }
+        List<Callable<Void>> tasks = new LinkedList<>();
+        for (ITrainingStrategy trainer : trainers) {
+            tasks.add(() -> {
+                logTrainer(trainer, experimentName, versionCount, testVersionCount, versionName);
+                if (trainer instanceof IReadOnlyTrainer && ((IReadOnlyTrainer) trainer).isReadOnly())
+                {
+                    applyTrainer(trainer, traindata, versionName, timings);
+                }
+                else {
+                    applyTrainer(trainer, new Instances(traindata), versionName, timings);
+                }
+                return null;
+            });
+        }
+        ConcurrencyUtils.invokeAll(tasks, parameters.getNumThreads());
+    }
+
+    /**
+     * <p>
+     * Helper method that applies a trainer and measures the training.
+     * </p>
+     *
+     * @param trainer
+     *            trainer that is applied
+     * @param traindata
+     *            training data
+     * @param versionName
+     *            name of the test version
+     * @param timings
+     *            instrumentation of the stages; null if the stages are not measured
+     */
+    private static void applyTrainer(ITrainingStrategy trainer,
+                                     Instances traindata,
+                                     String versionName,
+                                     StageTimings timings)
+    {
+        if (timings == null) {
+            trainer.apply(traindata);
+            return;
+        }
+        StageTimings.Stage stage = timings.start(versionName, "trainer", trainer);
+        try {
+            trainer.apply(traindata);
+        }
+        finally {
+            stage.close();
+        }
+    }
+
+    /**
+     * <p>
+     * Helper method that logs the application of a trainer.
+     * </p>
+     *
+     * @param trainer
+     *            trainer that is applied
+     * @param experimentName
+     *            name of the experiment
+     * @param versionCount
+     *            number of the test version
+     * @param testVersionCount
+     *            number of test versions
+     * @param versionName
+     *            name of the test version
+     */
+    @SuppressWarnings("boxing")
+    private static void logTrainer(ITrainingStrategy trainer,
+                                   String experimentName,
+                                   int versionCount,
+                                   int testVersionCount,
+                                   String versionName)
+    {
+        Console.traceln(Level.FINE,
+                        String.format("[%s] [%02d/%02d] %s: applying trainer %s", experimentName,
+                                      versionCount, testVersionCount, versionName,
+                                      trainer.getName()));
+    }
+
+    /**
+     * <p>
+     * Enables the concurrent evaluation of the classifiers, if the experiment is executed in
+     * parallel and the evaluator supports this (see {@link IConcurrentEvaluationStrategy}).
+     * </p>
+     *
+     * @param evaluator
+     *            evaluator that is configured
+     * @param parameters
+     *            parameters of the execution strategy
+     */
+    public static void configureEvaluator(IEvaluationStrategy evaluator,
+                                          ExecutionStrategyParameters parameters)
+    {
+        if (evaluator instanceof IConcurrentEvaluationStrategy) {
+            ((IConcurrentEvaluationStrategy) evaluator)
+                .setConcurrent(parameters.isParallel(), parameters.getNumThreads());
+        }
+    }
+
+    /**
+     * <p>
+     * Flushes all result storages that buffer the results (see {@link IBufferedResultStorage}),
+     * i.e., blocks until all results that were added to the storages are stored. All storages are
+     * flushed, even if one of them fails.
+     * </p>
+     *
+     * @param storages
+     *            the result storages
+     * @throws RuntimeException
+     *             the first failure of a storage, in case results could not be stored
+     */
+    public static void flushResultStorages(List<IResultStorage> storages) {
+        RuntimeException failure = null;
+        for (IResultStorage storage : storages) {
+            if (storage instanceof IBufferedResultStorage) {
+                try {
+                    ((IBufferedResultStorage) storage).flush();
+                }
+                catch (RuntimeException e) {
+                    if (failure == null) {
+                        failure = e;
+                    }
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * <p>
+     * Closes all result storages that hold resources, e.g., open files (see
+     * {@link FileResultStorage}) or database connections (see {@link MySQLResultStorage}). The
+     * storages may still be used afterwards.
+     * </p>
+     *
+     * @param storages
+     *            the result storages
+     */
+    public static void closeResultStorages(List<IResultStorage> storages) {
+        for (IResultStorage storage : storages) {
+            if (storage instanceof AutoCloseable) {
+                try {
+                    ((AutoCloseable) storage).close();
+                }
+                catch (Exception e) {
+                    Console.printerr("could not close result storage " +
+                        storage.getClass().getSimpleName() + ": " + e.getMessage());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,460 @@
+// Copyright 2015 Georg-August-Universität Göttingen, Germany
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+package de.ugoe.cs.cpdp.execution;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import de.ugoe.cs.util.console.Console;
+
+/**
+ * <p>
+ * Live progress of an experiment, which is exposed as JMX MBean with the name
+ * <code>de.ugoe.cs.cpdp:type=Experiment,name="&lt;experiment name&gt;"</code>. Thereby, headless
+ * executions can be watched with standard JMX tools, e.g., JConsole or a JMX exporter of a
+ * monitoring system.
+ * </p>
+ * <p>
+ * The monitor of each experiment is registered by the name of the experiment (see
+ * {@link #forExperiment(String)}). The execution strategy reports the number of test versions,
+ * and the completed and skipped test versions. The running stages are taken from the
+ * {@link StageTimings} of the experiment. Execution strategies that do not report their progress
+ * only have a state.
+ * </p>
+ * 
+ * @author Steffen Herbold
+ */
+public class ExperimentMonitor implements ExperimentMonitorMBean {
+
+    /**
+     * domain of the names of the MBeans
+     */
+    public static final String DOMAIN = "de.ugoe.cs.cpdp";
+
+    /**
+     * monitors of the experiments, by the name of the experiment
+     */
+    private static final Map<String, ExperimentMonitor> EXPERIMENTS = new ConcurrentHashMap<>();
+
+    /**
+     * possible states of an experiment
+     */
+    private enum State {
+        PLANNED, RUNNING, FINISHED, FAILED
+    }
+
+    /**
+     * name of the experiment
+     */
+    private final String experimentName;
+
+    /**
+     * state of the experiment
+     */
+    private volatile State state = State.PLANNED;
+
+    /**
+     * start of the experiment, in nanoseconds
+     */
+    private volatile long startTime;
+
+    /**
+     * end of the experiment, in nanoseconds
+     */
+    private volatile long endTime;
+
+    /**
+     * number of test versions
+     */
+    private volatile int totalTestVersions = 0;
+
+    /**
+     * number of completed test versions
+     */
+    private final AtomicInteger completedTestVersions = new AtomicInteger();
+
+    /**
+     * number of skipped test versions
+     */
+    private final AtomicInteger skippedTestVersions = new AtomicInteger();
+
+    /**
+     * thread pool in which the experiment is executed; null if it is not executed in a
+     * {@link ForkJoinPool}
+     */
+    private volatile ForkJoinPool pool;
+
+    /**
+     * <p>
+     * Creates a new monitor.
+     * </p>
+     *
+     * @param experimentName
+     *            name of the experiment
+     */
+    @SuppressWarnings("hiding")
+    private ExperimentMonitor(String experimentName) {
+        this.experimentName = experimentName;
+    }
+
+    /**
+     * <p>
+     * Returns the monitor of an experiment. If the experiment has no monitor yet, a new monitor is
+     * created and registered as MBean.
+     * </p>
+     *
+     * @param experimentName
+     *            name of the experiment
+     * @return monitor of the experiment
+     */
+    public static ExperimentMonitor forExperiment(String experimentName) {
+        return EXPERIMENTS.computeIfAbsent(experimentName, name -> {
+            ExperimentMonitor monitor = new ExperimentMonitor(name);
+            register(monitor, getObjectName(name));
+            return monitor;
+        });
+    }
+
+    /**
+     * <p>
+     * Returns the monitor of an experiment, without creating it.
+     * </p>
+     *
+     * @param experimentName
+     *            name of the experiment
+     * @return monitor of the experiment; null if the experiment has no monitor
+     */
+    public static ExperimentMonitor get(String experimentName) {
+        return EXPERIMENTS.get(experimentName);
+    }
+
+    /**
+     * <p>
+     * Removes the monitor of an experiment and unregisters its MBean.
+     * </p>
+     *
+     * @param experimentName
+     *            name of the experiment
+     */
+    public static void remove(String experimentName) {
+        if (EXPERIMENTS.remove(experimentName) != null) {
+            unregister(getObjectName(experimentName));
+        }
+    }
+
+    /**
+     * <p>
+     * Returns the name of the MBean of an experiment.
+     * </p>
+     *
+     * @param experimentName
+     *            name of the experiment
+     * @return name of the MBean
+     */
+    public static ObjectName getObjectName(String experimentName) {
+        try {
+            return new ObjectName(DOMAIN + ":type=Experiment,name=" +
+                ObjectName.quote(experimentName));
+        }
+        catch (JMException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * <p>
+     * Marks the experiment as running and resets its progress. If the calling thread belongs to a
+     * {@link ForkJoinPool}, the queue of the pool is monitored.
+     * </p>
+     *
+     * @param totalTestVersions
+     *            number of test versions of the experiment; zero if unknown
+     */
+    @SuppressWarnings("hiding")
+    public void started(int totalTestVersions) {
+        this.totalTestVersions = totalTestVersions;
+        this.completedTestVersions.set(0);
+        this.skippedTestVersions.set(0);
+        this.pool = ForkJoinTask.getPool();
+        this.startTime = System.nanoTime();
+        this.state = State.RUNNING;
+    }
+
+    /**
+     * <p>
+     * Marks a test version as completed.
+     * </p>
+     */
+    public void testVersionCompleted() {
+        this.completedTestVersions.incrementAndGet();
+    }
+
+    /**
+     * <p>
+     * Marks a test version as skipped.
+     * </p>
+     */
+    public void testVersionSkipped() {
+        this.skippedTestVersions.incrementAndGet();
+    }
+
+    /**
+     * <p>
+     * Marks the experiment as finished. Only the first call after the start has an effect.
+     * </p>
+     *
+     * @param success
+     *            true if the experiment was successful; false if it failed
+     */
+    public synchronized void finished(boolean success) {
+        if (this.state == State.RUNNING) {
+            this.endTime = System.nanoTime();
+            this.state = success ? State.FINISHED : State.FAILED;
+        }
+    }
+
+    /**
+     * <p>
+     * Returns true if the experiment is finished, either successfully or with a failure.
+     * </p>
+     *
+     * @return true if the experiment is finished
+     */
+    public boolean isFinished() {
+        return this.state == State.FINISHED || this.state == State.FAILED;
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see de.ugoe.cs.cpdp.execution.ExperimentMonitorMBean#getExperimentName()
+     */
+    @Override
+    public String getExperimentName() {
+        return this.experimentName;
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see de.ugoe.cs.cpdp.execution.ExperimentMonitorMBean#getState()
+     */
+    @Override
+    public String getState() {
+        return this.state.name().toLowerCase();
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see de.ugoe.cs.cpdp.execution.ExperimentMonitorMBean#getTotalTestVersions()
+     */
+    @Override
+    public int getTotalTestVersions() {
+        return this.totalTestVersions;
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see de.ugoe.cs.cpdp.execution.ExperimentMonitorMBean#getCompletedTestVersions()
+     */
+    @Override
+    public int getCompletedTestVersions() {
+        return this.completedTestVersions.get();
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see de.ugoe.cs.cpdp.execution.ExperimentMonitorMBean#getSkippedTestVersions()
+     */
+    @Override
+    public int getSkippedTestVersions() {
+        return this.skippedTestVersions.get();
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see de.ugoe.cs.cpdp.execution.ExperimentMonitorMBean#getProgress()
+     */
+    @Override
+    public double getProgress() {
+        if (isFinished()) {
+            return 1.0;
+        }
+        if (this.state == State.PLANNED || this.totalTestVersions == 0) {
+            return 0.0;
+        }
+        return Math.min(1.0, (getCompletedTestVersions() + getSkippedTestVersions()) /
+            (double) this.totalTestVersions);
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see de.ugoe.cs.cpdp.execution.ExperimentMonitorMBean#getRunningStages()
+     */
+    @Override
+    public String[] getRunningStages() {
+        if (this.state != State.RUNNING) {
+            return new String[0];
+        }
+        List<String> runningStages =
+            StageTimings.forExperiment(this.experimentName).getRunningStages();
+        return runningStages.toArray(new String[runningStages.size()]);
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see de.ugoe.cs.cpdp.execution.ExperimentMonitorMBean#getThroughput()
+     */
+    @Override
+    public double getThroughput() {
+        double minutes = getElapsedNanos() / 60e9;
+        return minutes > 0 ? getCompletedTestVersions() / minutes : 0.0;
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see de.ugoe.cs.cpdp.execution.ExperimentMonitorMBean#getQueuedTasks()
+     */
+    @Override
+    public long getQueuedTasks() {
+        ForkJoinPool currentPool = this.pool;
+        if (currentPool == null || this.state != State.RUNNING) {
+            return 0;
+        }
+        return currentPool.getQueuedTaskCount() + currentPool.getQueuedSubmissionCount();
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see de.ugoe.cs.cpdp.execution.ExperimentMonitorMBean#getHeapUsed()
+     */
+    @Override
+    public long getHeapUsed() {
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see de.ugoe.cs.cpdp.execution.ExperimentMonitorMBean#getElapsedSeconds()
+     */
+    @Override
+    public long getElapsedSeconds() {
+        return getElapsedNanos() / 1000000000L;
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see de.ugoe.cs.cpdp.execution.ExperimentMonitorMBean#getEstimatedRemainingSeconds()
+     */
+    @Override
+    public long getEstimatedRemainingSeconds() {
+        if (isFinished()) {
+            return 0;
+        }
+        int completed = getCompletedTestVersions();
+        if (this.state != State.RUNNING || completed == 0 || this.totalTestVersions == 0) {
+            return -1;
+        }
+        // skipped test versions do not take time
+        int remaining =
+            Math.max(0, this.totalTestVersions - completed - getSkippedTestVersions());
+        return Math.round(getElapsedNanos() / 1e9 / completed * remaining);
+    }
+
+    /**
+     * <p>
+     * Helper method that returns the time since the start of the experiment.
+     * </p>
+     *
+     * @return elapsed time in nanoseconds; 0 if the experiment is not yet started
+     */
+    private long getElapsedNanos() {
+        switch (this.state)
+        {
+            case PLANNED:
+                return 0;
+            case RUNNING:
+                return System.nanoTime() - this.startTime;
+            default:
+                return this.endTime - this.startTime;
+        }
+    }
+
+    /**
+     * <p>
+     * Registers an MBean with the platform MBean server. An MBean that is already registered with
+     * the same name is replaced. Failures are logged, but do not affect the experiment.
+     * </p>
+     *
+     * @param mbean
+     *            the MBean
+     * @param name
+     *            name of the MBean
+     */
+    static void register(Object mbean, ObjectName name) {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+            server.registerMBean(mbean, name);
+        }
+        catch (JMException e) {
+            Console.traceln(Level.WARNING, "could not register MBean " + name + ": " +
+                e.getMessage());
+        }
+    }
+
+    /**
+     * <p>
+     * Unregisters an MBean from the platform MBean server. Failures are logged.
+     * </p>
+     *
+     * @param name
+     *            name of the MBean
+     */
+    static void unregister(ObjectName name) {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+        }
+        catch (JMException e) {
+            Console.traceln(Level.WARNING, "could not unregister MBean " + name + ": " +
+                e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,87 @@
+// Copyright 2015 Georg-August-Universität Göttingen, Germany
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+package de.ugoe.cs.cpdp.execution;
+
+/**
+ * <p>
+ * JMX management interface of an {@link ExperimentMonitor}, i.e., the live progress of a single
+ * experiment.
+ * </p>
+ * 
+ * @author Steffen Herbold
+ */
+public interface ExperimentMonitorMBean {
+
+    /**
+     * @return name of the experiment
+     */
+    String getExperimentName();
+
+    /**
+     * @return state of the experiment, i.e., planned, running, finished, or failed
+     */
+    String getState();
+
+    /**
+     * @return number of test versions of the experiment; zero if not yet known
+     */
+    int getTotalTestVersions();
+
+    /**
+     * @return number of test versions that are completed
+     */
+    int getCompletedTestVersions();
+
+    /**
+     * @return number of test versions that are skipped, e.g., because their results are already
+     *         available
+     */
+    int getSkippedTestVersions();
+
+    /**
+     * @return fraction of the test versions that are completed or skipped, between 0 and 1
+     */
+    double getProgress();
+
+    /**
+     * @return stages that are currently running, see {@link StageTimings#getRunningStages()}
+     */
+    String[] getRunningStages();
+
+    /**
+     * @return completed test versions per minute since the start of the experiment
+     */
+    double getThroughput();
+
+    /**
+     * @return number of tasks that are queued in the thread pool of the experiment
+     */
+    long getQueuedTasks();
+
+    /**
+     * @return heap memory of the JVM that is in use, in bytes
+     */
+    long getHeapUsed();
+
+    /**
+     * @return seconds since the start of the experiment
+     */
+    long getElapsedSeconds();
+
+    /**
+     * @return estimated seconds until the experiment is finished; -1 if no estimate is available
+     */
+    long getEstimatedRemainingSeconds();
+}
@@ -2,14 +2,20 @@
 package de.ugoe.cs.cpdp.execution;
 
 import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.PrintWriter;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.Callable;
 import java.util.logging.Level;
 
 import org.apache.commons.collections4.list.SetUniqueList;
 
 import de.ugoe.cs.cpdp.ExperimentConfiguration;
+import de.ugoe.cs.cpdp.IParameterizable;
 import de.ugoe.cs.cpdp.dataprocessing.IProcessesingStrategy;
 import de.ugoe.cs.cpdp.dataprocessing.ISetWiseProcessingStrategy;
 import de.ugoe.cs.cpdp.dataselection.IPointWiseDataselectionStrategy;
@@ -23,6 +29,8 @@ import de.ugoe.cs.cpdp.training.ITestAwareTrainingStrategy;
 import de.ugoe.cs.cpdp.training.ITrainer;
 import de.ugoe.cs.cpdp.training.ITrainingStrategy;
 import de.ugoe.cs.cpdp.training.IWekaCompatibleTrainer;
+import de.ugoe.cs.cpdp.util.ConcurrencyUtils;
+import de.ugoe.cs.cpdp.util.WekaUtils;
 import de.ugoe.cs.cpdp.versions.IVersionFilter;
 import de.ugoe.cs.cpdp.versions.SoftwareVersion;
 import de.ugoe.cs.util.console.Console;
@@ -35,13 +43,20 @@ import weka.core.Instances;
  * 
  * @author Alexander Trautsch
  */
-public class HeterogeneousExperiment implements IExecutionStrategy {
+public class HeterogeneousExperiment
+    implements IExecutionStrategy, IParameterizable
+{
 
     /**
      * configuration of the experiment
      */
     protected final ExperimentConfiguration config;
 
+    /**
+     * parameters of the execution strategy
+     */
+    protected ExecutionStrategyParameters parameters = new ExecutionStrategyParameters(null);
+
     /**
      * Constructor. Creates a new experiment based on a configuration.
      * 
@@ -53,6 +68,16 @@ public class HeterogeneousExperiment implements IExecutionStrategy {
         this.config = config;
     }
 
+    /*
+     * (non-Javadoc)
+     * 
+     * @see de.ugoe.cs.cpdp.IParameterizable#setParameter(java.lang.String)
+     */
+    @Override
+    public void setParameter(String parameters) {
+        this.parameters = new ExecutionStrategyParameters(parameters);
+    }
+
     /**
      * DUBLICATE FROM AbstractCrossProjectExperiment
      */
@@ -73,18 +98,7 @@ public class HeterogeneousExperiment implements IExecutionStrategy {
      * @see AbstractCrossProjectExperiment#makeSingleTrainingSet(SetUniqueList)
      */
     public static Instances makeSingleTrainingSet(SetUniqueList<Instances> traindataSet) {
-        Instances traindataFull = null;
-        for (Instances traindata : traindataSet) {
-            if (traindataFull == null) {
-                traindataFull = new Instances(traindata);
-            }
-            else {
-                for (int i = 0; i < traindata.numInstances(); i++) {
-                    traindataFull.add(traindata.instance(i));
-                }
-            }
-        }
-        return traindataFull;
+        return WekaUtils.concatenate(traindataSet);
     }
 
     /**
@@ -108,7 +122,17 @@ public class HeterogeneousExperiment implements IExecutionStrategy {
         return true;
     }
 
-    @SuppressWarnings("boxing")
+    /**
+     * Executes the experiment for all pairs of test and training versions. If the parameter
+     * {@link ExecutionStrategyParameters#PARALLEL} is set, the pairs are executed concurrently, each
+     * with its own instances of the components of the experiment. The results are written in the
+     * same order as during a sequential execution. Each running pair holds a copy of the test data
+     * and a copy of the training data. The parameter {@link ExecutionStrategyParameters#MAX_COPIES}
+     * limits the number of these copies, i.e., with <code>maxcopies=8</code> at most four pairs are
+     * executed or waiting for their results to be written at the same time.
+     * 
+     * @see Runnable#run()
+     */
     @Override
     public void run() {
         final List<SoftwareVersion> versions = new LinkedList<>();
@@ -122,256 +146,340 @@ public class HeterogeneousExperiment implements IExecutionStrategy {
         }
         boolean writeHeader = true;
         int versionCount = 1;
-        int testVersionCount = 0;
 
-        // changed
-        for (SoftwareVersion testVersion : versions) {
-            if (isVersion(testVersion, this.config.getTestVersionFilters())) {
-                for (SoftwareVersion trainingVersion : versions) {
-                    if (isVersion(trainingVersion, this.config.getTrainingVersionFilters())) {
-                        testVersionCount++;
+        // sort versions
+        Collections.sort(versions);
+
+        // the filters only depend on the versions themselves, i.e., they are evaluated once
+        final List<SoftwareVersion> testVersions = new LinkedList<>();
+        final List<SoftwareVersion> trainingVersions = new LinkedList<>();
+        for (SoftwareVersion version : versions) {
+            if (isVersion(version, this.config.getTestVersionFilters())) {
+                testVersions.add(version);
+            }
+            if (isVersion(version, this.config.getTrainingVersionFilters())) {
+                trainingVersions.add(version);
+            }
+        }
+        final int testVersionCount = testVersions.size() * trainingVersions.size();
+
+        StoredResultCounts storedResults = null;
+        if (!this.config.getResultStorages().isEmpty()) {
+            String classifierName =
+                ((IWekaCompatibleTrainer) getAllTrainers(this.config).get(0)).getName();
+            storedResults = StoredResultCounts
+                .fetchHeterogeneousResultCounts(this.config.getResultStorages(),
+                                                this.config.getExperimentName(), classifierName);
+        }
+
+        final List<Callable<ResultBuffer>> tasks = new LinkedList<>();
+        for (SoftwareVersion testVersion : testVersions) {
+            for (SoftwareVersion trainingVersion : trainingVersions) {
+                // checks if they are the same dataset
+                if (trainingVersion != testVersion &&
+                    isTrainingVersion(trainingVersion, testVersion))
+                {
+                    if (!isSkipped(testVersion, trainingVersion, storedResults, versionCount,
+                                   testVersionCount))
+                    {
+                        if (this.parameters.isParallel()) {
+                            tasks.add(createTask(testVersion, trainingVersion, versionCount,
+                                                 testVersionCount, writeHeader));
+                        }
+                        else {
+                            executePair(this.config, testVersion, trainingVersion, versionCount,
+                                        testVersionCount, writeHeader, null);
+                        }
+                        writeHeader = false;
                     }
+                    versionCount++;
                 }
             }
         }
 
-        // sort versions
-        Collections.sort(versions);
-
-        // todo: test version check problematic
-        //
-        for (SoftwareVersion testVersion : versions) {
-            if (isVersion(testVersion, this.config.getTestVersionFilters())) {
+        if (!tasks.isEmpty()) {
+            File resultsDir = new File(this.config.getResultsPath());
+            if (!resultsDir.exists()) {
+                resultsDir.mkdir();
+            }
+            // each pair holds one copy of the test data and one copy of the training data
+            int maxPendingPairs =
+                this.parameters.getInt(ExecutionStrategyParameters.MAX_COPIES, 0) / 2;
+            if (this.parameters.isSet(ExecutionStrategyParameters.MAX_COPIES) &&
+                maxPendingPairs < 1)
+            {
+                maxPendingPairs = 1;
+            }
+            try (PrintWriter resultsFile = new PrintWriter(new FileOutputStream(this.config
+                .getResultsPath() + "/" + this.config.getExperimentName() + ".csv")))
+            {
+                ConcurrencyUtils.invokeOrdered(tasks, this.parameters.getNumThreads(),
+                                               maxPendingPairs,
+                                               buffer -> buffer.flush(resultsFile, this.config
+                                                   .getResultStorages()));
+            }
+            catch (FileNotFoundException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
 
-                // now iterate trainVersions
-                for (SoftwareVersion trainingVersion : versions) {
-                    if (isVersion(trainingVersion, this.config.getTrainingVersionFilters())) {
-                        if (trainingVersion != testVersion) {
-                            if (isTrainingVersion(trainingVersion, testVersion)) { // checks if they
-                                                                                   // are the same
-                                                                                   // dataset
+    /**
+     * <p>
+     * Checks if a pair of test and training version is skipped, because the results are already
+     * available.
+     * </p>
+     *
+     * @param testVersion
+     *            test version
+     * @param trainingVersion
+     *            training version
+     * @param storedResults
+     *            number of results in the result storages; null if there are no result storages
+     * @param versionCount
+     *            number of the pair
+     * @param testVersionCount
+     *            number of pairs
+     * @return true if the pair is skipped
+     */
+    @SuppressWarnings("boxing")
+    private boolean isSkipped(SoftwareVersion testVersion,
+                              SoftwareVersion trainingVersion,
+                              StoredResultCounts storedResults,
+                              int versionCount,
+                              int testVersionCount)
+    {
+        int numResultsAvailable =
+            storedResults == null ? 0
+                : storedResults.getCount(testVersion.getVersion(), trainingVersion.getVersion());
+        if (numResultsAvailable >= this.config.getRepetitions()) {
+            Console.traceln(Level.INFO, String
+                .format("[%s] [%02d/%02d] %s:%s results already available; skipped",
+                        this.config.getExperimentName(), versionCount, testVersionCount,
+                        testVersion.getVersion(), trainingVersion.getVersion()));
+            return true;
+        }
+        return false;
+    }
 
-                                Console.traceln(Level.INFO,
-                                                String.format("[%s] [%02d/%02d] %s:%s starting",
-                                                              this.config.getExperimentName(),
-                                                              versionCount, testVersionCount,
-                                                              testVersion.getVersion(),
-                                                              trainingVersion.getVersion()));
-                                int numResultsAvailable =
-                                    resultsAvailable(testVersion, trainingVersion);
-                                if (numResultsAvailable >= this.config.getRepetitions()) {
-                                    Console.traceln(Level.INFO, String
-                                        .format("[%s] [%02d/%02d] %s:%s results already available; skipped",
-                                                this.config.getExperimentName(), versionCount,
-                                                testVersionCount, testVersion.getVersion(),
-                                                trainingVersion.getVersion()));
-                                    versionCount++;
-                                    continue;
-                                }
+    /**
+     * <p>
+     * Creates a task for the concurrent execution of a pair of test and training version. The task
+     * uses a copy of the configuration and writes its results into a {@link ResultBuffer}.
+     * </p>
+     *
+     * @param testVersion
+     *            test version
+     * @param trainingVersion
+     *            training version
+     * @param versionCount
+     *            number of the pair
+     * @param testVersionCount
+     *            number of pairs
+     * @param writeHeader
+     *            if true, the header of the results file is written
+     * @return the task
+     */
+    private Callable<ResultBuffer> createTask(final SoftwareVersion testVersion,
+                                              final SoftwareVersion trainingVersion,
+                                              final int versionCount,
+                                              final int testVersionCount,
+                                              final boolean writeHeader)
+    {
+        return () -> {
+            ResultBuffer buffer = new ResultBuffer();
+            executePair(this.config.createCopy(), testVersion, trainingVersion, versionCount,
+                        testVersionCount, writeHeader, buffer);
+            return buffer;
+        };
+    }
 
-                                // Setup testdata and training data
-                                Instances testdata = testVersion.getInstances();
-                                List<Double> efforts = testVersion.getEfforts();
-                                List<Double> numBugs = testVersion.getNumBugs();
-                                Instances traindata = trainingVersion.getInstances();
+    /**
+     * <p>
+     * Executes the experiment for a pair of test and training version.
+     * </p>
+     *
+     * @param config
+     *            configuration whose components are used
+     * @param testVersion
+     *            test version
+     * @param trainingVersion
+     *            training version
+     * @param versionCount
+     *            number of the pair
+     * @param testVersionCount
+     *            number of pairs
+     * @param writeHeader
+     *            if true, the header of the results file is written
+     * @param buffer
+     *            buffer for the results; if null, the results are directly written to the results
+     *            file and the result storages
+     */
+    @SuppressWarnings({ "boxing", "hiding" })
+    private void executePair(ExperimentConfiguration config,
+                             SoftwareVersion testVersion,
+                             SoftwareVersion trainingVersion,
+                             int versionCount,
+                             int testVersionCount,
+                             boolean writeHeader,
+                             ResultBuffer buffer)
+    {
+        Console.traceln(Level.INFO,
+                        String.format("[%s] [%02d/%02d] %s:%s starting",
+                                      config.getExperimentName(), versionCount,
+                                      testVersionCount, testVersion.getVersion(),
+                                      trainingVersion.getVersion()));
 
-                                // only one set
-                                SetUniqueList<Instances> traindataSet =
-                                    SetUniqueList.setUniqueList(new LinkedList<Instances>());
-                                traindataSet.add(traindata);
+        // Setup testdata and training data
+        Instances testdata = testVersion.getInstances();
+        List<Double> efforts = testVersion.getEfforts();
+        List<Double> numBugs = testVersion.getNumBugs();
+        Instances traindata = trainingVersion.getInstances();
 
-                                for (ISetWiseProcessingStrategy processor : this.config
-                                    .getSetWisePreprocessors())
-                                {
-                                    Console.traceln(Level.FINE, String
-                                        .format("[%s] [%02d/%02d] %s:%s applying setwise preprocessor %s",
-                                                this.config.getExperimentName(), versionCount,
-                                                testVersionCount, testVersion.getVersion(),
-                                                trainingVersion.getVersion(),
-                                                processor.getClass().getName()));
-                                    processor.apply(testdata, traindataSet);
-                                }
-                                for (ISetWiseDataselectionStrategy dataselector : this.config
-                                    .getSetWiseSelectors())
-                                {
-                                    Console.traceln(Level.FINE, String
-                                        .format("[%s] [%02d/%02d] %s: applying setwise selection %s",
-                                                this.config.getExperimentName(), versionCount,
-                                                testVersionCount, testVersion.getVersion(),
-                                                dataselector.getClass().getName()));
-                                    dataselector.apply(testdata, traindataSet);
-                                }
-                                for (ISetWiseProcessingStrategy processor : this.config
-                                    .getSetWisePostprocessors())
-                                {
-                                    Console.traceln(Level.FINE, String
-                                        .format("[%s] [%02d/%02d] %s: applying setwise postprocessor %s",
-                                                this.config.getExperimentName(), versionCount,
-                                                testVersionCount, testVersion.getVersion(),
-                                                processor.getClass().getName()));
-                                    processor.apply(testdata, traindataSet);
-                                }
-                                for (ISetWiseTrainingStrategy setwiseTrainer : this.config
-                                    .getSetWiseTrainers())
-                                {
-                                    Console.traceln(Level.FINE, String
-                                        .format("[%s] [%02d/%02d] %s: applying setwise trainer %s",
-                                                this.config.getExperimentName(), versionCount,
-                                                testVersionCount, testVersion.getVersion(),
-                                                setwiseTrainer.getName()));
-                                    setwiseTrainer.apply(traindataSet);
-                                }
-                                for (ISetWiseTestdataAwareTrainingStrategy setwiseTestdataAwareTrainer : this.config
-                                    .getSetWiseTestdataAwareTrainers())
-                                {
-                                    Console.traceln(Level.FINE, String
-                                        .format("[%s] [%02d/%02d] %s:%s applying testdata aware setwise trainer %s",
-                                                this.config.getExperimentName(), versionCount,
-                                                testVersionCount, testVersion.getVersion(),
-                                                trainingVersion.getVersion(),
-                                                setwiseTestdataAwareTrainer.getName()));
-                                    setwiseTestdataAwareTrainer.apply(traindataSet, testdata);
-                                }
+        // only one set
+        SetUniqueList<Instances> traindataSet =
+            SetUniqueList.setUniqueList(new LinkedList<Instances>());
+        traindataSet.add(traindata);
 
-                                // this part will not work in heterogeneous
-                                // Instances traindata = makeSingleTrainingSet(traindataSet);
-                                for (IProcessesingStrategy processor : this.config
-                                    .getPreProcessors())
-                                {
-                                    Console.traceln(Level.FINE, String
-                                        .format("[%s] [%02d/%02d] %s: applying preprocessor %s",
-                                                this.config.getExperimentName(), versionCount,
-                                                testVersionCount, testVersion.getVersion(),
-                                                processor.getClass().getName()));
-                                    processor.apply(testdata, traindata);
-                                }
-                                for (IPointWiseDataselectionStrategy dataselector : this.config
-                                    .getPointWiseSelectors())
-                                {
-                                    Console.traceln(Level.FINE, String
-                                        .format("[%s] [%02d/%02d] %s: applying pointwise selection %s",
-                                                this.config.getExperimentName(), versionCount,
-                                                testVersionCount, testVersion.getVersion(),
-                                                dataselector.getClass().getName()));
-                                    traindata = dataselector.apply(testdata, traindata);
-                                }
-                                for (IProcessesingStrategy processor : this.config
-                                    .getPostProcessors())
-                                {
-                                    Console.traceln(Level.FINE, String
-                                        .format("[%s] [%02d/%02d] %s: applying setwise postprocessor %s",
-                                                this.config.getExperimentName(), versionCount,
-                                                testVersionCount, testVersion.getVersion(),
-                                                processor.getClass().getName()));
-                                    processor.apply(testdata, traindata);
-                                }
-                                for (ITrainingStrategy trainer : this.config.getTrainers()) {
-                                    Console.traceln(Level.FINE, String
-                                        .format("[%s] [%02d/%02d] %s: applying trainer %s",
-                                                this.config.getExperimentName(), versionCount,
-                                                testVersionCount, testVersion.getVersion(),
-                                                trainer.getName()));
-                                    trainer.apply(traindata);
-                                }
-                                for (ITestAwareTrainingStrategy trainer : this.config
-                                    .getTestAwareTrainers())
-                                {
-                                    Console.traceln(Level.FINE, String
-                                        .format("[%s] [%02d/%02d] %s: applying trainer %s",
-                                                this.config.getExperimentName(), versionCount,
-                                                testVersionCount, testVersion.getVersion(),
-                                                trainer.getName()));
-                                    trainer.apply(testdata, traindata);
-                                }
-                                File resultsDir = new File(this.config.getResultsPath());
-                                if (!resultsDir.exists()) {
-                                    resultsDir.mkdir();
-                                }
-                                for (IEvaluationStrategy evaluator : this.config.getEvaluators()) {
-                                    Console.traceln(Level.FINE, String
-                                        .format("[%s] [%02d/%02d] %s:%s applying evaluator %s",
-                                                this.config.getExperimentName(), versionCount,
-                                                testVersionCount, testVersion.getVersion(),
-                                                trainingVersion.getVersion(),
-                                                evaluator.getClass().getName()));
-                                    List<ITrainer> allTrainers = new LinkedList<>();
-                                    for (ISetWiseTrainingStrategy setwiseTrainer : this.config
-                                        .getSetWiseTrainers())
-                                    {
-                                        allTrainers.add(setwiseTrainer);
-                                    }
-                                    for (ISetWiseTestdataAwareTrainingStrategy setwiseTestdataAwareTrainer : this.config
-                                        .getSetWiseTestdataAwareTrainers())
-                                    {
-                                        allTrainers.add(setwiseTestdataAwareTrainer);
-                                    }
-                                    for (ITrainingStrategy trainer : this.config.getTrainers()) {
-                                        allTrainers.add(trainer);
-                                    }
-                                    for (ITestAwareTrainingStrategy trainer : this.config
-                                        .getTestAwareTrainers())
-                                    {
-                                        allTrainers.add(trainer);
-                                    }
-                                    if (writeHeader) {
-                                        evaluator.setParameter(this.config.getResultsPath() + "/" +
-                                            this.config.getExperimentName() + ".csv");
-                                    }
-                                    evaluator.apply(testdata, traindata, allTrainers, efforts,
-                                                    numBugs, writeHeader,
-                                                    this.config.getResultStorages());
-                                    writeHeader = false;
-                                }
-                                Console.traceln(Level.INFO,
-                                                String.format("[%s] [%02d/%02d] %s: finished",
-                                                              this.config.getExperimentName(),
-                                                              versionCount, testVersionCount,
-                                                              testVersion.getVersion()));
-                                versionCount++;
+        for (ISetWiseProcessingStrategy processor : config.getSetWisePreprocessors()) {
+            Console.traceln(Level.FINE, String
+                .format("[%s] [%02d/%02d] %s:%s applying setwise preprocessor %s",
+                        config.getExperimentName(), versionCount, testVersionCount,
+                        testVersion.getVersion(), trainingVersion.getVersion(),
+                        processor.getClass().getName()));
+            processor.apply(testdata, traindataSet);
+        }
+        for (ISetWiseDataselectionStrategy dataselector : config.getSetWiseSelectors()) {
+            Console.traceln(Level.FINE, String
+                .format("[%s] [%02d/%02d] %s: applying setwise selection %s",
+                        config.getExperimentName(), versionCount, testVersionCount,
+                        testVersion.getVersion(), dataselector.getClass().getName()));
+            dataselector.apply(testdata, traindataSet);
+        }
+        for (ISetWiseProcessingStrategy processor : config.getSetWisePostprocessors()) {
+            Console.traceln(Level.FINE, String
+                .format("[%s] [%02d/%02d] %s: applying setwise postprocessor %s",
+                        config.getExperimentName(), versionCount, testVersionCount,
+                        testVersion.getVersion(), processor.getClass().getName()));
+            processor.apply(testdata, traindataSet);
+        }
+        for (ISetWiseTrainingStrategy setwiseTrainer : config.getSetWiseTrainers()) {
+            Console.traceln(Level.FINE, String
+                .format("[%s] [%02d/%02d] %s: applying setwise trainer %s",
+                        config.getExperimentName(), versionCount, testVersionCount,
+                        testVersion.getVersion(), setwiseTrainer.getName()));
+            setwiseTrainer.apply(traindataSet);
+        }
+        for (ISetWiseTestdataAwareTrainingStrategy setwiseTestdataAwareTrainer : config
+            .getSetWiseTestdataAwareTrainers())
+        {
+            Console.traceln(Level.FINE, String
+                .format("[%s] [%02d/%02d] %s:%s applying testdata aware setwise trainer %s",
+                        config.getExperimentName(), versionCount, testVersionCount,
+                        testVersion.getVersion(), trainingVersion.getVersion(),
+                        setwiseTestdataAwareTrainer.getName()));
+            setwiseTestdataAwareTrainer.apply(traindataSet, testdata);
+        }
 
-                            }
-                        }
-                    }
+        // this part will not work in heterogeneous
+        // Instances traindata = makeSingleTrainingSet(traindataSet);
+        for (IProcessesingStrategy processor : config.getPreProcessors()) {
+            Console.traceln(Level.FINE, String
+                .format("[%s] [%02d/%02d] %s: applying preprocessor %s",
+                        config.getExperimentName(), versionCount, testVersionCount,
+                        testVersion.getVersion(), processor.getClass().getName()));
+            processor.apply(testdata, traindata);
+        }
+        for (IPointWiseDataselectionStrategy dataselector : config.getPointWiseSelectors()) {
+            Console.traceln(Level.FINE, String
+                .format("[%s] [%02d/%02d] %s: applying pointwise selection %s",
+                        config.getExperimentName(), versionCount, testVersionCount,
+                        testVersion.getVersion(), dataselector.getClass().getName()));
+            traindata = dataselector.apply(testdata, traindata);
+        }
+        for (IProcessesingStrategy processor : config.getPostProcessors()) {
+            Console.traceln(Level.FINE, String
+                .format("[%s] [%02d/%02d] %s: applying setwise postprocessor %s",
+                        config.getExperimentName(), versionCount, testVersionCount,
+                        testVersion.getVersion(), processor.getClass().getName()));
+            processor.apply(testdata, traindata);
+        }
+        ExecutionUtils.applyTrainers(config.getTrainers(), traindata, this.parameters,
+                                     config.getExperimentName(), versionCount, testVersionCount,
+                                     testVersion.getVersion());
+        for (ITestAwareTrainingStrategy trainer : config.getTestAwareTrainers()) {
+            Console.traceln(Level.FINE, String
+                .format("[%s] [%02d/%02d] %s: applying trainer %s", config.getExperimentName(),
+                        versionCount, testVersionCount, testVersion.getVersion(),
+                        trainer.getName()));
+            trainer.apply(testdata, traindata);
+        }
+        File resultsDir = new File(config.getResultsPath());
+        if (!resultsDir.exists()) {
+            resultsDir.mkdir();
+        }
+        boolean writeEvaluatorHeader = writeHeader;
+        boolean firstEvaluator = true;
+        for (IEvaluationStrategy evaluator : config.getEvaluators()) {
+            Console.traceln(Level.FINE, String
+                .format("[%s] [%02d/%02d] %s:%s applying evaluator %s",
+                        config.getExperimentName(), versionCount, testVersionCount,
+                        testVersion.getVersion(), trainingVersion.getVersion(),
+                        evaluator.getClass().getName()));
+            List<ITrainer> allTrainers = getAllTrainers(config);
+            List<IResultStorage> resultStorages;
+            if (buffer == null) {
+                if (writeEvaluatorHeader) {
+                    evaluator.setParameter(config.getResultsPath() + "/" +
+                        config.getExperimentName() + ".csv");
                 }
-
-            } /* end if check training */
-        } /* end for iteration test version */
+                resultStorages = config.getResultStorages();
+            }
+            else {
+                if (firstEvaluator) {
+                    // only the first evaluator writes into the results file
+                    evaluator.setOutput(buffer.getOutput(), config.getExperimentName());
+                }
+                resultStorages = Arrays.<IResultStorage> asList(buffer);
+            }
+            ExecutionUtils.configureEvaluator(evaluator, this.parameters);
+            evaluator.apply(testdata, traindata, allTrainers, efforts, numBugs,
+                            writeEvaluatorHeader, resultStorages);
+            writeEvaluatorHeader = false;
+            firstEvaluator = false;
+        }
+        Console.traceln(Level.INFO,
+                        String.format("[%s] [%02d/%02d] %s: finished",
+                                      config.getExperimentName(), versionCount,
+                                      testVersionCount, testVersion.getVersion()));
     }
 
     /**
-     * DUBLICATE FROM AbstractCrossProjectExperiment
+     * <p>
+     * Helper method that returns all trainers of a configuration.
+     * </p>
+     *
+     * @param config
+     *            configuration
+     * @return all trainers in the order in which they are evaluated
      */
-    private int resultsAvailable(SoftwareVersion version, SoftwareVersion trainVersion) {
-        if (this.config.getResultStorages().isEmpty()) {
-            return 0;
-        }
-
+    @SuppressWarnings("hiding")
+    private static List<ITrainer> getAllTrainers(ExperimentConfiguration config) {
         List<ITrainer> allTrainers = new LinkedList<>();
-        for (ISetWiseTrainingStrategy setwiseTrainer : this.config.getSetWiseTrainers()) {
+        for (ISetWiseTrainingStrategy setwiseTrainer : config.getSetWiseTrainers()) {
             allTrainers.add(setwiseTrainer);
         }
-        for (ISetWiseTestdataAwareTrainingStrategy setwiseTestdataAwareTrainer : this.config
+        for (ISetWiseTestdataAwareTrainingStrategy setwiseTestdataAwareTrainer : config
             .getSetWiseTestdataAwareTrainers())
         {
             allTrainers.add(setwiseTestdataAwareTrainer);
         }
-        for (ITrainingStrategy trainer : this.config.getTrainers()) {
+        for (ITrainingStrategy trainer : config.getTrainers()) {
             allTrainers.add(trainer);
         }
-        for (ITestAwareTrainingStrategy trainer : this.config.getTestAwareTrainers()) {
+        for (ITestAwareTrainingStrategy trainer : config.getTestAwareTrainers()) {
             allTrainers.add(trainer);
         }
-
-        int available = Integer.MAX_VALUE;
-        for (IResultStorage storage : this.config.getResultStorages()) {
-            String classifierName = ((IWekaCompatibleTrainer) allTrainers.get(0)).getName();
-            int curAvailable = storage
-                .containsHeterogeneousResult(this.config.getExperimentName(), version.getVersion(),
-                                             classifierName, trainVersion.getVersion());
-            if (curAvailable < available) {
-                available = curAvailable;
-            }
-        }
-        return available;
+        return allTrainers;
     }
 }
@@ -0,0 +1,38 @@
+// Copyright 2015 Georg-August-Universität Göttingen, Germany
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+package de.ugoe.cs.cpdp.execution;
+
+/**
+ * <p>
+ * Execution strategy that can split its work into work units for a sharded execution (see
+ * {@link Shard}). Execution strategies that do not implement this interface are executed as a
+ * single unit by one of the shards.
+ * </p>
+ * 
+ * @author Steffen Herbold
+ */
+public interface IShardableExecutionStrategy extends IExecutionStrategy {
+
+    /**
+     * <p>
+     * Sets the shard that is executed. The strategy executes only the work units that are
+     * assigned to the shard and writes its results with {@link ShardResults}.
+     * </p>
+     *
+     * @param shard
+     *            the shard
+     */
+    void setShard(Shard shard);
+}
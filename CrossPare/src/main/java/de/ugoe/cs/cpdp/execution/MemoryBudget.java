@@ -0,0 +1,289 @@
+// Copyright 2015 Georg-August-Universität Göttingen, Germany
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+package de.ugoe.cs.cpdp.execution;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+import de.ugoe.cs.cpdp.ExperimentConfiguration;
+import de.ugoe.cs.cpdp.IMemoryFootprint;
+
+/**
+ * <p>
+ * Admission control for the concurrent execution of experiments based on their estimated memory
+ * footprint. An experiment is only admitted, if the sum of the footprints of the running
+ * experiments stays within the budget, and if the maximal number of concurrent experiments is not
+ * reached. An experiment whose footprint exceeds the budget on its own is admitted once no other
+ * experiment is running. If the next experiment does not fit, later experiments that fit are
+ * admitted first, such that the threads are not idle.
+ * </p>
+ * <p>
+ * The footprint of an experiment is estimated from the size of its data and the components that
+ * declare their footprint through {@link IMemoryFootprint} (see
+ * {@link #estimateFootprint(ExperimentConfiguration, DataSize, int)}).
+ * </p>
+ * 
+ * @author Steffen Herbold
+ */
+public class MemoryBudget {
+
+    /**
+     * estimated bytes per value of an instance
+     */
+    private static final long BYTES_PER_VALUE = 8L;
+
+    /**
+     * estimated overhead of an instance in bytes
+     */
+    private static final long BYTES_PER_INSTANCE = 64L;
+
+    /**
+     * budget in bytes
+     */
+    private final long budget;
+
+    /**
+     * maximal number of concurrently running experiments
+     */
+    private final int maxConcurrent;
+
+    /**
+     * sum of the footprints of the running experiments
+     */
+    private long used = 0;
+
+    /**
+     * number of running experiments
+     */
+    private int running = 0;
+
+    /**
+     * <p>
+     * Creates a new budget.
+     * </p>
+     *
+     * @param budget
+     *            budget in bytes
+     * @param maxConcurrent
+     *            maximal number of concurrently running experiments
+     */
+    @SuppressWarnings("hiding")
+    public MemoryBudget(long budget, int maxConcurrent) {
+        this.budget = budget;
+        this.maxConcurrent = maxConcurrent;
+    }
+
+    /**
+     * <p>
+     * Creates a budget that is a share of the maximal heap of the JVM.
+     * </p>
+     *
+     * @param heapShare
+     *            share of the maximal heap, between 0 and 1
+     * @param maxConcurrent
+     *            maximal number of concurrently running experiments
+     * @return the budget
+     */
+    public static MemoryBudget ofMaxHeap(double heapShare, int maxConcurrent) {
+        if (heapShare <= 0.0 || heapShare > 1.0) {
+            throw new IllegalArgumentException("share of the heap must be in (0, 1]: " +
+                heapShare);
+        }
+        return new MemoryBudget((long) (Runtime.getRuntime().maxMemory() * heapShare),
+                                maxConcurrent);
+    }
+
+    /**
+     * <p>
+     * Admits the first candidate that fits into the budget and removes it from the candidates.
+     * Blocks until a candidate fits. The footprint of the admitted candidate is reserved until it
+     * is released with {@link #release(long)}.
+     * </p>
+     *
+     * @param <T>
+     *            type of the candidates
+     * @param candidates
+     *            candidates in the order of their priority; must not be empty
+     * @param footprint
+     *            function that returns the footprint of a candidate in bytes
+     * @return the admitted candidate
+     * @throws InterruptedException
+     *             if the thread is interrupted while waiting
+     */
+    public synchronized <T> T admit(List<T> candidates, ToLongFunction<T> footprint)
+        throws InterruptedException
+    {
+        if (candidates.isEmpty()) {
+            throw new IllegalArgumentException("no candidates for admission");
+        }
+        T candidate;
+        while ((candidate = tryAdmit(candidates, footprint)) == null) {
+            wait();
+        }
+        return candidate;
+    }
+
+    /**
+     * <p>
+     * Admits the first candidate that fits into the budget and removes it from the candidates,
+     * like {@link #admit(List, ToLongFunction)}, but without waiting if no candidate fits.
+     * </p>
+     *
+     * @param <T>
+     *            type of the candidates
+     * @param candidates
+     *            candidates in the order of their priority
+     * @param footprint
+     *            function that returns the footprint of a candidate in bytes
+     * @return the admitted candidate; null if no candidate fits
+     */
+    public synchronized <T> T tryAdmit(List<T> candidates, ToLongFunction<T> footprint) {
+        Iterator<T> iter = candidates.iterator();
+        while (iter.hasNext()) {
+            T candidate = iter.next();
+            long bytes = footprint.applyAsLong(candidate);
+            if (fits(bytes)) {
+                iter.remove();
+                this.running++;
+                this.used += bytes;
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * <p>
+     * Releases the footprint of an admitted candidate.
+     * </p>
+     *
+     * @param bytes
+     *            footprint of the candidate in bytes
+     */
+    public synchronized void release(long bytes) {
+        this.running--;
+        this.used -= bytes;
+        notifyAll();
+    }
+
+    /**
+     * <p>
+     * Returns the sum of the footprints of the admitted candidates that are not yet released.
+     * </p>
+     *
+     * @return used budget in bytes
+     */
+    public synchronized long getUsed() {
+        return this.used;
+    }
+
+    /**
+     * <p>
+     * Returns the budget.
+     * </p>
+     *
+     * @return budget in bytes
+     */
+    public long getBudget() {
+        return this.budget;
+    }
+
+    /**
+     * <p>
+     * Estimates the memory footprint of an experiment. The footprint consists of the data of the
+     * experiment, a copy of the training data, and the largest footprint of the components of the
+     * experiment that implement {@link IMemoryFootprint}. For the components, the training data
+     * are all versions but the largest version, which is the test data. If the test versions are
+     * executed concurrently, the footprint of a test version is multiplied with the number of
+     * concurrently executed test versions.
+     * </p>
+     *
+     * @param config
+     *            configuration of the experiment
+     * @param dataSize
+     *            size of the data of the experiment
+     * @param concurrentTestVersions
+     *            maximal number of concurrently executed test versions of the experiment
+     * @return estimated footprint in bytes; 0 if the experiment has no data
+     */
+    public static long estimateFootprint(ExperimentConfiguration config,
+                                         DataSize dataSize,
+                                         int concurrentTestVersions)
+    {
+        if (dataSize.getNumVersions() == 0) {
+            return 0;
+        }
+        long numInstances = dataSize.getNumInstances();
+        int maxInstances = dataSize.getMaxInstances();
+        int maxAttributes = dataSize.getMaxAttributes();
+        int numVersions = dataSize.getNumVersions();
+        long dataFootprint =
+            numInstances * BYTES_PER_INSTANCE + dataSize.getNumValues() * BYTES_PER_VALUE;
+        int numTraining = (int) Math.min(Integer.MAX_VALUE, numInstances - maxInstances);
+
+        long componentFootprint = 0;
+        for (Object component : getComponents(config)) {
+            if (component instanceof IMemoryFootprint) {
+                componentFootprint = Math.max(componentFootprint, ((IMemoryFootprint) component)
+                    .estimateFootprint(numTraining, maxInstances, maxAttributes));
+            }
+        }
+        long testVersionFootprint = dataFootprint + componentFootprint;
+        return dataFootprint +
+            testVersionFootprint * Math.max(1, Math.min(concurrentTestVersions, numVersions));
+    }
+
+    /**
+     * <p>
+     * Helper method that checks if a footprint fits into the budget.
+     * </p>
+     *
+     * @param bytes
+     *            footprint in bytes
+     * @return true if the footprint fits
+     */
+    private boolean fits(long bytes) {
+        if (this.running == 0) {
+            return true;
+        }
+        return this.running < this.maxConcurrent && this.used + bytes <= this.budget;
+    }
+
+    /**
+     * <p>
+     * Helper method that returns all components of an experiment that are applied to the data.
+     * </p>
+     *
+     * @param config
+     *            configuration of the experiment
+     * @return the components
+     */
+    private static List<Object> getComponents(ExperimentConfiguration config) {
+        List<Object> components = new ArrayList<>();
+        components.addAll(config.getSetWisePreprocessors());
+        components.addAll(config.getSetWiseSelectors());
+        components.addAll(config.getSetWisePostprocessors());
+        components.addAll(config.getSetWiseTrainers());
+        components.addAll(config.getSetWiseTestdataAwareTrainers());
+        components.addAll(config.getPreProcessors());
+        components.addAll(config.getPointWiseSelectors());
+        components.addAll(config.getPostProcessors());
+        components.addAll(config.getTrainers());
+        components.addAll(config.getTestAwareTrainers());
+        return components;
+    }
+}
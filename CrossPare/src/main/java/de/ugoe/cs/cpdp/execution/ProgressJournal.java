@@ -0,0 +1,194 @@
+// Copyright 2015 Georg-August-Universität Göttingen, Germany
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+package de.ugoe.cs.cpdp.execution;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.logging.Level;
+
+import de.ugoe.cs.util.console.Console;
+
+/**
+ * <p>
+ * Append-only journal of the units of an experiment that are completed, e.g., the test versions
+ * whose results are stored. Each completed unit is appended as a line to the journal file and
+ * the file is synchronized with the storage device before the method returns. When a journal is
+ * opened, the existing file is loaded into an in-memory index, i.e., checks whether a unit is
+ * already completed do not require any access to the result storages.
+ * </p>
+ * <p>
+ * A line that was not completely written, e.g., because the process was killed, is ignored and
+ * removed from the journal file.
+ * </p>
+ * 
+ * @author Steffen Herbold
+ */
+public class ProgressJournal implements Closeable {
+
+    /**
+     * file extension of journal files
+     */
+    public static final String FILE_EXTENSION = ".progress";
+
+    /**
+     * separator of the parts of the name of a unit
+     */
+    private static final String SEPARATOR = "\t";
+
+    /**
+     * line separator of the journal; independent of the platform such that incomplete lines can
+     * be detected
+     */
+    private static final byte LINE_SEPARATOR = '\n';
+
+    /**
+     * number of times each unit was completed
+     */
+    private final Map<String, Integer> completedUnits = new HashMap<>();
+
+    /**
+     * stream to which the completed units are appended
+     */
+    private final FileOutputStream journalStream;
+
+    /**
+     * <p>
+     * Opens the journal of an experiment. The journal is located in the results path and named
+     * after the experiment.
+     * </p>
+     *
+     * @param resultsPath
+     *            path where the results of the experiment are stored
+     * @param experimentName
+     *            name of the experiment
+     * @return the journal
+     */
+    public static ProgressJournal open(String resultsPath, String experimentName) {
+        File resultsDir = new File(resultsPath);
+        if (!resultsDir.exists()) {
+            resultsDir.mkdirs();
+        }
+        try {
+            return new ProgressJournal(new File(resultsDir, experimentName + FILE_EXTENSION));
+        }
+        catch (IOException e) {
+            throw new RuntimeException("could not open progress journal of experiment " +
+                experimentName, e);
+        }
+    }
+
+    /**
+     * <p>
+     * Creates a new journal. If the journal file exists, the completed units are loaded from it.
+     * </p>
+     *
+     * @param journalFile
+     *            the journal file
+     * @throws IOException
+     *             thrown if the journal file cannot be read or opened for writing
+     */
+    public ProgressJournal(File journalFile) throws IOException {
+        long completeLength = 0;
+        if (journalFile.exists()) {
+            byte[] content = Files.readAllBytes(journalFile.toPath());
+            int numCompleteLines = 0;
+            int lineStart = 0;
+            for (int i = 0; i < content.length; i++) {
+                if (content[i] == LINE_SEPARATOR) {
+                    if (i > lineStart) {
+                        String unit =
+                            new String(content, lineStart, i - lineStart, StandardCharsets.UTF_8);
+                        this.completedUnits.merge(unit, 1, Integer::sum);
+                        numCompleteLines++;
+                    }
+                    lineStart = i + 1;
+                }
+            }
+            completeLength = lineStart;
+            Console.traceln(Level.FINE, String.format("loaded %d completed units from %s",
+                                                      numCompleteLines, journalFile));
+        }
+        this.journalStream = new FileOutputStream(journalFile, true);
+        if (this.journalStream.getChannel().size() > completeLength) {
+            // remove the incomplete line
+            this.journalStream.getChannel().truncate(completeLength);
+            this.journalStream.getFD().sync();
+        }
+    }
+
+    /**
+     * <p>
+     * Returns how often a unit was completed.
+     * </p>
+     *
+     * @param unit
+     *            parts of the name of the unit, e.g., the name of the test version
+     * @return number of times the unit was completed
+     */
+    public synchronized int getCompletedCount(String... unit) {
+        return this.completedUnits.getOrDefault(String.join(SEPARATOR, unit), 0);
+    }
+
+    /**
+     * <p>
+     * Appends a completed unit to the journal. The method returns after the journal file is
+     * synchronized with the storage device.
+     * </p>
+     *
+     * @param unit
+     *            parts of the name of the unit, e.g., the name of the test version
+     */
+    public synchronized void addCompletedUnit(String... unit) {
+        String name = String.join(SEPARATOR, unit);
+        try {
+            write(name + (char) LINE_SEPARATOR);
+        }
+        catch (IOException e) {
+            throw new RuntimeException("could not write to progress journal", e);
+        }
+        this.completedUnits.merge(name, 1, Integer::sum);
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see java.io.Closeable#close()
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        this.journalStream.close();
+    }
+
+    /**
+     * <p>
+     * Appends a string to the journal file and synchronizes the file with the storage device.
+     * </p>
+     *
+     * @param str
+     *            the string
+     * @throws IOException
+     *             thrown if the string cannot be written
+     */
+    private void write(String str) throws IOException {
+        this.journalStream.write(str.getBytes(StandardCharsets.UTF_8));
+        this.journalStream.getFD().sync();
+    }
+}
@@ -0,0 +1,151 @@
+// Copyright 2015 Georg-August-Universität Göttingen, Germany
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+package de.ugoe.cs.cpdp.execution;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.LinkedList;
+import java.util.List;
+
+import com.google.common.collect.HashBasedTable;
+import com.google.common.collect.Table;
+
+import de.ugoe.cs.cpdp.eval.ExperimentResult;
+import de.ugoe.cs.cpdp.eval.IResultStorage;
+
+/**
+ * <p>
+ * Buffers the output of the evaluation of a single part of an experiment, i.e., both the lines of
+ * the results file and the results for the result storages. The buffer is used for the concurrent
+ * execution of experiments: each part writes into its own buffer and the buffers are flushed in the
+ * order of the parts. Hence, the results file and the result storages receive the same results in
+ * the same order as during a sequential execution.
+ * </p>
+ * 
+ * @author Steffen Herbold
+ */
+public class ResultBuffer implements IResultStorage {
+
+    /**
+     * buffer for the lines of the results file
+     */
+    private final StringWriter outputBuffer = new StringWriter();
+
+    /**
+     * writer for the lines of the results file
+     */
+    private final PrintWriter output = new PrintWriter(this.outputBuffer);
+
+    /**
+     * buffered results
+     */
+    private final List<ExperimentResult> results = new LinkedList<>();
+
+    /**
+     * <p>
+     * Returns the writer for the lines of the results file.
+     * </p>
+     *
+     * @return the writer
+     */
+    public PrintWriter getOutput() {
+        return this.output;
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see de.ugoe.cs.cpdp.eval.IResultStorage#addResult(de.ugoe.cs.cpdp.eval.ExperimentResult)
+     */
+    @Override
+    public synchronized void addResult(ExperimentResult result) {
+        this.results.add(result);
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see de.ugoe.cs.cpdp.eval.IResultStorage#containsResult(java.lang.String, java.lang.String,
+     * java.lang.String)
+     */
+    @Override
+    public int containsResult(String experimentName, String productName, String classifierName) {
+        return 0;
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see de.ugoe.cs.cpdp.eval.IResultStorage#containsHeterogeneousResult(java.lang.String,
+     * java.lang.String, java.lang.String, java.lang.String)
+     */
+    @Override
+    public int containsHeterogeneousResult(String experimentName,
+                                           String productName,
+                                           String classifierName,
+                                           String trainProductName)
+    {
+        return 0;
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see de.ugoe.cs.cpdp.eval.IResultStorage#getResultCounts(java.lang.String)
+     */
+    @Override
+    public Table<String, String, Integer> getResultCounts(String experimentName) {
+        return HashBasedTable.create();
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see de.ugoe.cs.cpdp.eval.IResultStorage#getHeterogeneousResultCounts(java.lang.String,
+     * java.lang.String)
+     */
+    @Override
+    public Table<String, String, Integer> getHeterogeneousResultCounts(String experimentName,
+                                                                       String classifierName)
+    {
+        return HashBasedTable.create();
+    }
+
+    /**
+     * <p>
+     * Writes the buffered lines to the results file and passes the buffered results to the result
+     * storages. Afterwards, the buffer is empty.
+     * </p>
+     *
+     * @param resultsFile
+     *            writer for the results file; may be null, in which case the lines are discarded
+     * @param resultStorages
+     *            result storages that receive the results
+     */
+    public synchronized void flush(PrintWriter resultsFile, List<IResultStorage> resultStorages) {
+        this.output.flush();
+        if (resultsFile != null) {
+            resultsFile.write(this.outputBuffer.toString());
+            resultsFile.flush();
+        }
+        this.outputBuffer.getBuffer().setLength(0);
+        for (ExperimentResult result : this.results) {
+            for (IResultStorage storage : resultStorages) {
+                storage.addResult(result);
+            }
+        }
+        this.results.clear();
+    }
+}
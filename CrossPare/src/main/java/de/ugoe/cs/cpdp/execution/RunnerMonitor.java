@@ -0,0 +1,302 @@
+// Copyright 2015 Georg-August-Universität Göttingen, Germany
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+package de.ugoe.cs.cpdp.execution;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * <p>
+ * Live progress of all experiments that are executed by the {@link de.ugoe.cs.cpdp.Runner}, which
+ * is exposed as JMX MBean with the name <code>de.ugoe.cs.cpdp:type=Runner</code>. The progress of
+ * the single experiments is available through their {@link ExperimentMonitor}s.
+ * </p>
+ * <p>
+ * The progress is weighted by the estimated costs of the experiments (see {@link TimingHistory}),
+ * i.e., an experiment with twice the estimated cost counts twice. The estimated remaining time
+ * extrapolates the elapsed time with the progress.
+ * </p>
+ * 
+ * @author Steffen Herbold
+ */
+public class RunnerMonitor implements RunnerMonitorMBean {
+
+    /**
+     * name of the MBean
+     */
+    public static final ObjectName OBJECT_NAME;
+
+    static {
+        try {
+            OBJECT_NAME = new ObjectName(ExperimentMonitor.DOMAIN + ":type=Runner");
+        }
+        catch (JMException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * thread pool in which the experiments are executed
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * start of the execution, in nanoseconds
+     */
+    private final long startTime = System.nanoTime();
+
+    /**
+     * estimated costs of the experiments, by the name of the experiment
+     */
+    private final Map<String, Double> estimatedCosts = new LinkedHashMap<>();
+
+    /**
+     * <p>
+     * Creates a new monitor.
+     * </p>
+     *
+     * @param pool
+     *            thread pool in which the experiments are executed; may be null
+     */
+    @SuppressWarnings("hiding")
+    public RunnerMonitor(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * <p>
+     * Registers the monitor as MBean. An already registered monitor is replaced.
+     * </p>
+     */
+    public void register() {
+        ExperimentMonitor.register(this, OBJECT_NAME);
+    }
+
+    /**
+     * <p>
+     * Unregisters the MBean of the monitor.
+     * </p>
+     */
+    public void unregister() {
+        ExperimentMonitor.unregister(OBJECT_NAME);
+    }
+
+    /**
+     * <p>
+     * Adds an experiment that is executed. The experiment gets an {@link ExperimentMonitor} in
+     * the state planned.
+     * </p>
+     *
+     * @param experimentName
+     *            name of the experiment
+     * @param estimatedCost
+     *            estimated cost of the experiment
+     * @return monitor of the experiment
+     */
+    @SuppressWarnings("boxing")
+    public synchronized ExperimentMonitor addExperiment(String experimentName,
+                                                        double estimatedCost)
+    {
+        this.estimatedCosts.put(experimentName, estimatedCost);
+        return ExperimentMonitor.forExperiment(experimentName);
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see de.ugoe.cs.cpdp.execution.RunnerMonitorMBean#getTotalExperiments()
+     */
+    @Override
+    public synchronized int getTotalExperiments() {
+        return this.estimatedCosts.size();
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see de.ugoe.cs.cpdp.execution.RunnerMonitorMBean#getFinishedExperiments()
+     */
+    @Override
+    public int getFinishedExperiments() {
+        int finished = 0;
+        for (ExperimentMonitor monitor : getMonitors()) {
+            if (monitor.isFinished()) {
+                finished++;
+            }
+        }
+        return finished;
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see de.ugoe.cs.cpdp.execution.RunnerMonitorMBean#getFailedExperiments()
+     */
+    @Override
+    public int getFailedExperiments() {
+        int failed = 0;
+        for (ExperimentMonitor monitor : getMonitors()) {
+            if ("failed".equals(monitor.getState())) {
+                failed++;
+            }
+        }
+        return failed;
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see de.ugoe.cs.cpdp.execution.RunnerMonitorMBean#getRunningExperiments()
+     */
+    @Override
+    public String[] getRunningExperiments() {
+        List<String> running = new ArrayList<>();
+        for (ExperimentMonitor monitor : getMonitors()) {
+            if ("running".equals(monitor.getState())) {
+                running.add(monitor.getExperimentName());
+            }
+        }
+        return running.toArray(new String[running.size()]);
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see de.ugoe.cs.cpdp.execution.RunnerMonitorMBean#getProgress()
+     */
+    @Override
+    public synchronized double getProgress() {
+        double totalCost = 0.0;
+        double doneCost = 0.0;
+        for (Map.Entry<String, Double> entry : this.estimatedCosts.entrySet()) {
+            // experiments without estimate count as a unit of cost
+            double cost = entry.getValue() > 0 ? entry.getValue() : 1.0;
+            ExperimentMonitor monitor = ExperimentMonitor.get(entry.getKey());
+            totalCost += cost;
+            if (monitor != null) {
+                doneCost += cost * monitor.getProgress();
+            }
+        }
+        return totalCost > 0 ? doneCost / totalCost : 0.0;
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see de.ugoe.cs.cpdp.execution.RunnerMonitorMBean#getThroughput()
+     */
+    @Override
+    public double getThroughput() {
+        int completed = 0;
+        for (ExperimentMonitor monitor : getMonitors()) {
+            completed += monitor.getCompletedTestVersions();
+        }
+        double minutes = (System.nanoTime() - this.startTime) / 60e9;
+        return minutes > 0 ? completed / minutes : 0.0;
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see de.ugoe.cs.cpdp.execution.RunnerMonitorMBean#getQueuedTasks()
+     */
+    @Override
+    public long getQueuedTasks() {
+        if (this.pool == null) {
+            return 0;
+        }
+        return this.pool.getQueuedTaskCount() + this.pool.getQueuedSubmissionCount();
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see de.ugoe.cs.cpdp.execution.RunnerMonitorMBean#getActiveThreads()
+     */
+    @Override
+    public int getActiveThreads() {
+        return this.pool == null ? 0 : this.pool.getActiveThreadCount();
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see de.ugoe.cs.cpdp.execution.RunnerMonitorMBean#getHeapUsed()
+     */
+    @Override
+    public long getHeapUsed() {
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see de.ugoe.cs.cpdp.execution.RunnerMonitorMBean#getHeapMax()
+     */
+    @Override
+    public long getHeapMax() {
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getMax();
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see de.ugoe.cs.cpdp.execution.RunnerMonitorMBean#getElapsedSeconds()
+     */
+    @Override
+    public long getElapsedSeconds() {
+        return (System.nanoTime() - this.startTime) / 1000000000L;
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see de.ugoe.cs.cpdp.execution.RunnerMonitorMBean#getEstimatedRemainingSeconds()
+     */
+    @Override
+    public long getEstimatedRemainingSeconds() {
+        double progress = getProgress();
+        if (progress <= 0.0) {
+            return -1;
+        }
+        double elapsed = (System.nanoTime() - this.startTime) / 1e9;
+        return Math.round(elapsed * (1.0 - progress) / progress);
+    }
+
+    /**
+     * <p>
+     * Helper method that returns the monitors of the experiments.
+     * </p>
+     *
+     * @return monitors of the experiments that are available
+     */
+    private synchronized List<ExperimentMonitor> getMonitors() {
+        List<ExperimentMonitor> monitors = new ArrayList<>();
+        for (String experimentName : this.estimatedCosts.keySet()) {
+            ExperimentMonitor monitor = ExperimentMonitor.get(experimentName);
+            if (monitor != null) {
+                monitors.add(monitor);
+            }
+        }
+        return monitors;
+    }
+}
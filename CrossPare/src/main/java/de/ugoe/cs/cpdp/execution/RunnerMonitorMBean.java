@@ -0,0 +1,88 @@
+// Copyright 2015 Georg-August-Universität Göttingen, Germany
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+package de.ugoe.cs.cpdp.execution;
+
+/**
+ * <p>
+ * JMX management interface of a {@link RunnerMonitor}, i.e., the live progress of all
+ * experiments that are executed by the {@link de.ugoe.cs.cpdp.Runner}.
+ * </p>
+ * 
+ * @author Steffen Herbold
+ */
+public interface RunnerMonitorMBean {
+
+    /**
+     * @return number of experiments
+     */
+    int getTotalExperiments();
+
+    /**
+     * @return number of finished experiments, including failed experiments
+     */
+    int getFinishedExperiments();
+
+    /**
+     * @return number of failed experiments
+     */
+    int getFailedExperiments();
+
+    /**
+     * @return names of the experiments that are currently running
+     */
+    String[] getRunningExperiments();
+
+    /**
+     * @return fraction of the estimated total cost of the experiments that is done, between 0 and
+     *         1
+     */
+    double getProgress();
+
+    /**
+     * @return completed test versions of all experiments per minute since the start
+     */
+    double getThroughput();
+
+    /**
+     * @return number of tasks that are queued in the thread pool
+     */
+    long getQueuedTasks();
+
+    /**
+     * @return number of threads of the pool that are executing tasks
+     */
+    int getActiveThreads();
+
+    /**
+     * @return heap memory of the JVM that is in use, in bytes
+     */
+    long getHeapUsed();
+
+    /**
+     * @return maximal heap memory of the JVM, in bytes; -1 if undefined
+     */
+    long getHeapMax();
+
+    /**
+     * @return seconds since the start
+     */
+    long getElapsedSeconds();
+
+    /**
+     * @return estimated seconds until all experiments are finished; -1 if no estimate is
+     *         available
+     */
+    long getEstimatedRemainingSeconds();
+}
@@ -15,6 +15,7 @@
 package de.ugoe.cs.cpdp.execution;
 
 import de.ugoe.cs.cpdp.ExperimentConfiguration;
+import de.ugoe.cs.cpdp.IParameterizable;
 import de.ugoe.cs.cpdp.dataprocessing.IProcessesingStrategy;
 import de.ugoe.cs.cpdp.dataprocessing.ISetWiseProcessingStrategy;
 import de.ugoe.cs.cpdp.dataselection.IPointWiseDataselectionStrategy;
@@ -25,6 +26,8 @@ import de.ugoe.cs.cpdp.loader.IVersionLoader;
 import de.ugoe.cs.cpdp.training.*;
 import de.ugoe.cs.cpdp.versions.IVersionFilter;
 import de.ugoe.cs.cpdp.versions.SoftwareVersion;
+import de.ugoe.cs.cpdp.util.ConcurrencyUtils;
+import de.ugoe.cs.cpdp.util.WekaUtils;
 import de.ugoe.cs.util.console.Console;
 import org.apache.commons.collections4.list.SetUniqueList;
 import weka.core.Attribute;
@@ -32,7 +35,11 @@ import weka.core.Instance;
 import weka.core.Instances;
 
 import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.PrintWriter;
 import java.util.*;
+import java.util.concurrent.Callable;
 import java.util.logging.Level;
 
 /**
@@ -69,13 +76,30 @@ import java.util.logging.Level;
  * 
  * @author Steffen Herbold
  */
-public abstract class SclModelAbstractCrossProjectExperiment implements IExecutionStrategy {
+public abstract class SclModelAbstractCrossProjectExperiment
+    implements IExecutionStrategy, IParameterizable
+{
 
     /**
      * configuration of the experiment
      */
     protected final ExperimentConfiguration config;
 
+    /**
+     * parameters of the execution strategy
+     */
+    protected ExecutionStrategyParameters parameters = new ExecutionStrategyParameters(null);
+
+    /**
+     * number of times the data of the versions is shuffled
+     */
+    private static final int NUM_SHUFFLES = 10;
+
+    /**
+     * number of folds of each shuffle
+     */
+    private static final int NUM_FOLDS = 10;
+
     /**
      * Constructor. Creates a new experiment based on a configuration.
      *
@@ -87,6 +111,16 @@ public abstract class SclModelAbstractCrossProjectExperiment implements IExecuti
         this.config = config;
     }
 
+    /*
+     * (non-Javadoc)
+     * 
+     * @see de.ugoe.cs.cpdp.IParameterizable#setParameter(java.lang.String)
+     */
+    @Override
+    public void setParameter(String parameters) {
+        this.parameters = new ExecutionStrategyParameters(parameters);
+    }
+
     /**
      * <p>
      * Defines which products are allowed for training.
@@ -113,18 +147,7 @@ public abstract class SclModelAbstractCrossProjectExperiment implements IExecuti
      * @return single {@link Instances} set
      */
     public static Instances makeSingleTrainingSet(SetUniqueList<Instances> traindataSet) {
-        Instances traindataFull = null;
-        for (Instances traindata : traindataSet) {
-            if (traindataFull == null) {
-                traindataFull = new Instances(traindata);
-            }
-            else {
-                for (int i = 0; i < traindata.numInstances(); i++) {
-                    traindataFull.add(traindata.instance(i));
-                }
-            }
-        }
-        return traindataFull;
+        return WekaUtils.concatenate(traindataSet);
     }
 
     /**
@@ -132,7 +155,6 @@ public abstract class SclModelAbstractCrossProjectExperiment implements IExecuti
      * 
      * @see Runnable#run()
      */
-    @SuppressWarnings("boxing")
     @Override
     public void run() {
 
@@ -146,8 +168,6 @@ public abstract class SclModelAbstractCrossProjectExperiment implements IExecuti
             filter.apply(versions);
         }
 
-        boolean writeHeader = true;
-        int versionCount = 1;
         int testVersionCount = 0;
 
         for (SoftwareVersion testVersion : versions) {
@@ -156,172 +176,368 @@ public abstract class SclModelAbstractCrossProjectExperiment implements IExecuti
             }
         }
 
-        testVersionCount*=10;
+        testVersionCount *= NUM_FOLDS;
 
         // sort versions
         Collections.sort(versions);
-        for(int time = 0;time < 10;time++) {
 
-            Random rand = new Random(time + 1);
-            SoftwareVersion vtmp;
-            Instances tmpInstance;
-            for(int i = 0;i < versions.size();i++){
-
-                vtmp = versions.get(i);
-                tmpInstance = vtmp.getInstances();
-                tmpInstance.randomize(rand);
-                List<Double> efforts = getEfforts(tmpInstance);
-                List<Double> numBugs = getNumBugs(tmpInstance);
-                SoftwareVersion newVersion = new SoftwareVersion(vtmp.getDataset(),vtmp.getProject(),vtmp.getVersion(),tmpInstance,efforts,numBugs);
-                versions.set(i,newVersion);
-
-                //versions.get(i).getInstances().randomize(rand);
+        // the data of the versions is only read, the folds are copied from it
+        final List<Instances> versionData = new ArrayList<>(versions.size());
+        final List<int[]> order = new ArrayList<>(versions.size());
+        for (SoftwareVersion version : versions) {
+            Instances data = version.getReadOnlyInstances();
+            int[] identity = new int[data.numInstances()];
+            for (int i = 0; i < identity.length; i++) {
+                identity[i] = i;
             }
+            versionData.add(data);
+            order.add(identity);
+        }
 
-
-            for (int fold = 0; fold < 10; fold++) {
-
-                SetUniqueList<Instances> traindataSet = SetUniqueList.setUniqueList(new LinkedList<Instances>());
-
-                for (SoftwareVersion version : versions) {
-                    //Setup traindata
-                    traindataSet.add(version.getInstances().testCV(10, fold));
+        final List<Callable<ResultBuffer>> tasks = new LinkedList<>();
+        for (int time = 0; time < NUM_SHUFFLES; time++) {
+            // each shuffle continues from the order of the previous shuffle
+            Random rand = new Random(time + 1);
+            for (int i = 0; i < order.size(); i++) {
+                int[] shuffled = order.get(i).clone();
+                shuffle(shuffled, rand);
+                order.set(i, shuffled);
+            }
+            final List<int[]> shuffles = new ArrayList<>(order);
+
+            for (int fold = 0; fold < NUM_FOLDS; fold++) {
+                int versionCount = 1 + (time * NUM_FOLDS + fold) * versions.size();
+                boolean writeHeader = time == 0 && fold == 0;
+                if (this.parameters.isParallel()) {
+                    tasks.add(createTask(versions, versionData, shuffles, fold, versionCount,
+                                         testVersionCount, writeHeader));
                 }
+                else {
+                    executeFold(this.config, versions, versionData, shuffles, fold,
+                                versionCount, testVersionCount, writeHeader, null);
+                }
+            }
+        }
+
+        if (!tasks.isEmpty()) {
+            File resultsDir = new File(this.config.getResultsPath());
+            if (!resultsDir.exists()) {
+                resultsDir.mkdir();
+            }
+            try (PrintWriter resultsFile = new PrintWriter(new FileOutputStream(this.config
+                .getResultsPath() + "/" + this.config.getExperimentName() + ".csv")))
+            {
+                ConcurrencyUtils.invokeOrdered(tasks, this.parameters.getNumThreads(),
+                                               buffer -> buffer.flush(resultsFile, this.config
+                                                   .getResultStorages()));
+            }
+            catch (FileNotFoundException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
 
-                for (SoftwareVersion version : versions) {
+    /**
+     * <p>
+     * Creates a task for the concurrent execution of a fold of a shuffle. The task uses a copy of
+     * the configuration, i.e., its own instances of all components of the experiment, and writes
+     * its results into a {@link ResultBuffer}.
+     * </p>
+     *
+     * @param versions
+     *            all software versions in the data set
+     * @param versionData
+     *            data of the versions
+     * @param shuffles
+     *            order of the instances of each version in the shuffle
+     * @param fold
+     *            index of the fold
+     * @param versionCount
+     *            number of the first version of the fold
+     * @param testVersionCount
+     *            number of test versions
+     * @param writeHeader
+     *            if true, the header of the results file is written
+     * @return the task
+     */
+    private Callable<ResultBuffer> createTask(final List<SoftwareVersion> versions,
+                                              final List<Instances> versionData,
+                                              final List<int[]> shuffles,
+                                              final int fold,
+                                              final int versionCount,
+                                              final int testVersionCount,
+                                              final boolean writeHeader)
+    {
+        return () -> {
+            ResultBuffer buffer = new ResultBuffer();
+            executeFold(this.config.createCopy(), versions, versionData, shuffles, fold,
+                        versionCount, testVersionCount, writeHeader, buffer);
+            return buffer;
+        };
+    }
 
-                    // Setup testdata
-                    Instances testdata = version.getInstances().trainCV(10, fold);
-                    List<Double> efforts = getEfforts(testdata);
-                    List<Double> numBugs = getNumBugs(testdata);
+    /**
+     * <p>
+     * Executes a fold of a shuffle. The training data consists of the fold of all versions. The
+     * versions are evaluated one after another, because they share the set of training data.
+     * </p>
+     *
+     * @param config
+     *            configuration whose components are used
+     * @param versions
+     *            all software versions in the data set
+     * @param versionData
+     *            data of the versions
+     * @param shuffles
+     *            order of the instances of each version in the shuffle
+     * @param fold
+     *            index of the fold
+     * @param versionCount
+     *            number of the first version of the fold
+     * @param testVersionCount
+     *            number of test versions
+     * @param writeHeader
+     *            if true, the header of the results file is written
+     * @param buffer
+     *            buffer for the results; if null, the results are directly written to the results
+     *            file and the result storages
+     */
+    @SuppressWarnings({ "boxing", "hiding" })
+    private void executeFold(ExperimentConfiguration config,
+                             List<SoftwareVersion> versions,
+                             List<Instances> versionData,
+                             List<int[]> shuffles,
+                             int fold,
+                             int versionCount,
+                             int testVersionCount,
+                             boolean writeHeader,
+                             ResultBuffer buffer)
+    {
+        SetUniqueList<Instances> traindataSet =
+            SetUniqueList.setUniqueList(new LinkedList<Instances>());
+        for (int i = 0; i < versions.size(); i++) {
+            // Setup traindata
+            traindataSet.add(getFold(versionData.get(i), shuffles.get(i), fold, true));
+        }
 
-                    for (ISetWiseProcessingStrategy processor : this.config.getSetWisePreprocessors()) {
-                        Console.traceln(Level.FINE, String
-                                .format("[%s] [%02d/%02d] %s: applying setwise preprocessor %s",
-                                        this.config.getExperimentName(), versionCount, testVersionCount,
-                                        version.getVersion(), processor.getClass().getName()));
-                        processor.apply(testdata, traindataSet);
-                    }
-                    for (ISetWiseDataselectionStrategy dataselector : this.config
-                            .getSetWiseSelectors()) {
-                        Console
-                                .traceln(Level.FINE,
-                                        String.format("[%s] [%02d/%02d] %s: applying setwise selection %s",
-                                                this.config.getExperimentName(), versionCount,
-                                                testVersionCount, version.getVersion(),
-                                                dataselector.getClass().getName()));
-                        dataselector.apply(testdata, traindataSet);
-                    }
-                    for (ISetWiseProcessingStrategy processor : this.config
-                            .getSetWisePostprocessors()) {
-                        Console.traceln(Level.FINE, String
-                                .format("[%s] [%02d/%02d] %s: applying setwise postprocessor %s",
-                                        this.config.getExperimentName(), versionCount, testVersionCount,
-                                        version.getVersion(), processor.getClass().getName()));
-                        processor.apply(testdata, traindataSet);
-                    }
-                    for (ISetWiseTrainingStrategy setwiseTrainer : this.config.getSetWiseTrainers()) {
-                        Console
-                                .traceln(Level.FINE,
-                                        String.format("[%s] [%02d/%02d] %s: applying setwise trainer %s",
-                                                this.config.getExperimentName(), versionCount,
-                                                testVersionCount, version.getVersion(),
-                                                setwiseTrainer.getName()));
-                        setwiseTrainer.apply(traindataSet);
-                    }
-                    for (ISetWiseTestdataAwareTrainingStrategy setwiseTestdataAwareTrainer : this.config
-                            .getSetWiseTestdataAwareTrainers()) {
-                        Console.traceln(Level.FINE, String
-                                .format("[%s] [%02d/%02d] %s: applying testdata aware setwise trainer %s",
-                                        this.config.getExperimentName(), versionCount, testVersionCount,
-                                        version.getVersion(), setwiseTestdataAwareTrainer.getName()));
-                        setwiseTestdataAwareTrainer.apply(traindataSet, testdata);
-                    }
+        boolean writeEvaluatorHeader = writeHeader;
+        for (int i = 0; i < versions.size(); i++) {
+            SoftwareVersion version = versions.get(i);
+            int currentCount = versionCount + i;
+
+            // Setup testdata
+            Instances testdata = getFold(versionData.get(i), shuffles.get(i), fold, false);
+            List<Double> efforts = getEfforts(testdata);
+            List<Double> numBugs = getNumBugs(testdata);
+
+            for (ISetWiseProcessingStrategy processor : config.getSetWisePreprocessors()) {
+                Console.traceln(Level.FINE, String
+                    .format("[%s] [%02d/%02d] %s: applying setwise preprocessor %s",
+                            config.getExperimentName(), currentCount, testVersionCount,
+                            version.getVersion(), processor.getClass().getName()));
+                processor.apply(testdata, traindataSet);
+            }
+            for (ISetWiseDataselectionStrategy dataselector : config.getSetWiseSelectors()) {
+                Console.traceln(Level.FINE,
+                                String.format("[%s] [%02d/%02d] %s: applying setwise selection %s",
+                                              config.getExperimentName(), currentCount,
+                                              testVersionCount, version.getVersion(),
+                                              dataselector.getClass().getName()));
+                dataselector.apply(testdata, traindataSet);
+            }
+            for (ISetWiseProcessingStrategy processor : config.getSetWisePostprocessors()) {
+                Console.traceln(Level.FINE, String
+                    .format("[%s] [%02d/%02d] %s: applying setwise postprocessor %s",
+                            config.getExperimentName(), currentCount, testVersionCount,
+                            version.getVersion(), processor.getClass().getName()));
+                processor.apply(testdata, traindataSet);
+            }
+            for (ISetWiseTrainingStrategy setwiseTrainer : config.getSetWiseTrainers()) {
+                Console.traceln(Level.FINE,
+                                String.format("[%s] [%02d/%02d] %s: applying setwise trainer %s",
+                                              config.getExperimentName(), currentCount,
+                                              testVersionCount, version.getVersion(),
+                                              setwiseTrainer.getName()));
+                setwiseTrainer.apply(traindataSet);
+            }
+            for (ISetWiseTestdataAwareTrainingStrategy setwiseTestdataAwareTrainer : config
+                .getSetWiseTestdataAwareTrainers())
+            {
+                Console.traceln(Level.FINE, String
+                    .format("[%s] [%02d/%02d] %s: applying testdata aware setwise trainer %s",
+                            config.getExperimentName(), currentCount, testVersionCount,
+                            version.getVersion(), setwiseTestdataAwareTrainer.getName()));
+                setwiseTestdataAwareTrainer.apply(traindataSet, testdata);
+            }
 
-                    Instances traindata = makeSingleTrainingSet(traindataSet);
+            Instances traindata = makeSingleTrainingSet(traindataSet);
 
-                    //model building
-                    for (IProcessesingStrategy processor : this.config.getPreProcessors()) {
-                        Console.traceln(Level.FINE,
+            // model building
+            for (IProcessesingStrategy processor : config.getPreProcessors()) {
+                Console.traceln(Level.FINE,
                                 String.format("[%s] [%02d/%02d] %s: applying preprocessor %s",
-                                        this.config.getExperimentName(), versionCount,
-                                        testVersionCount, version.getVersion(),
-                                        processor.getClass().getName()));
-                        processor.apply(testdata, traindata);
-                    }
-                    for (IPointWiseDataselectionStrategy dataselector : this.config
-                            .getPointWiseSelectors()) {
-                        Console.traceln(Level.FINE, String
-                                .format("[%s] [%02d/%02d] %s: applying pointwise selection %s",
-                                        this.config.getExperimentName(), versionCount, testVersionCount,
-                                        version.getVersion(), dataselector.getClass().getName()));
-                        traindata = dataselector.apply(testdata, traindata);
-                    }
-                    for (IProcessesingStrategy processor : this.config.getPostProcessors()) {
-                        Console.traceln(Level.FINE, String
-                                .format("[%s] [%02d/%02d] %s: applying setwise postprocessor %s",
-                                        this.config.getExperimentName(), versionCount, testVersionCount,
-                                        version.getVersion(), processor.getClass().getName()));
-                        processor.apply(testdata, traindata);
-                    }
-                    for (ITrainingStrategy trainer : this.config.getTrainers()) {
-                        Console.traceln(Level.FINE,
-                                String.format("[%s] [%02d/%02d] %s: applying trainer %s",
-                                        this.config.getExperimentName(), versionCount,
-                                        testVersionCount, version.getVersion(),
-                                        trainer.getName()));
-                        trainer.apply(traindata);
-                    }
-                    for (ITestAwareTrainingStrategy trainer : this.config.getTestAwareTrainers()) {
-                        Console.traceln(Level.FINE,
+                                              config.getExperimentName(), currentCount,
+                                              testVersionCount, version.getVersion(),
+                                              processor.getClass().getName()));
+                processor.apply(testdata, traindata);
+            }
+            for (IPointWiseDataselectionStrategy dataselector : config.getPointWiseSelectors()) {
+                Console.traceln(Level.FINE, String
+                    .format("[%s] [%02d/%02d] %s: applying pointwise selection %s",
+                            config.getExperimentName(), currentCount, testVersionCount,
+                            version.getVersion(), dataselector.getClass().getName()));
+                traindata = dataselector.apply(testdata, traindata);
+            }
+            for (IProcessesingStrategy processor : config.getPostProcessors()) {
+                Console.traceln(Level.FINE, String
+                    .format("[%s] [%02d/%02d] %s: applying setwise postprocessor %s",
+                            config.getExperimentName(), currentCount, testVersionCount,
+                            version.getVersion(), processor.getClass().getName()));
+                processor.apply(testdata, traindata);
+            }
+            ExecutionUtils.applyTrainers(config.getTrainers(), traindata, this.parameters,
+                                         config.getExperimentName(), currentCount,
+                                         testVersionCount, version.getVersion());
+            for (ITestAwareTrainingStrategy trainer : config.getTestAwareTrainers()) {
+                Console.traceln(Level.FINE,
                                 String.format("[%s] [%02d/%02d] %s: applying trainer %s",
-                                        this.config.getExperimentName(), versionCount,
-                                        testVersionCount, version.getVersion(),
-                                        trainer.getName()));
-                        trainer.apply(testdata, traindata);
-                    }
+                                              config.getExperimentName(), currentCount,
+                                              testVersionCount, version.getVersion(),
+                                              trainer.getName()));
+                trainer.apply(testdata, traindata);
+            }
 
-                    File resultsDir = new File(this.config.getResultsPath());
-                    if (!resultsDir.exists()) {
-                        resultsDir.mkdir();
+            File resultsDir = new File(config.getResultsPath());
+            if (!resultsDir.exists()) {
+                resultsDir.mkdir();
+            }
+            boolean firstEvaluator = true;
+            for (IEvaluationStrategy evaluator : config.getEvaluators()) {
+                Console.traceln(Level.FINE,
+                                String.format("[%s] [%02d/%02d] %s: applying evaluator %s",
+                                              config.getExperimentName(), currentCount,
+                                              testVersionCount, version.getVersion(),
+                                              evaluator.getClass().getName()));
+                List<ITrainer> allTrainers = getAllTrainers(config);
+                List<IResultStorage> resultStorages;
+                if (buffer == null) {
+                    if (writeEvaluatorHeader) {
+                        evaluator.setParameter(config.getResultsPath() + "/" +
+                            config.getExperimentName() + ".csv");
                     }
-                    for (IEvaluationStrategy evaluator : this.config.getEvaluators()) {
-
-                        Console.traceln(Level.FINE, String.format("[%s] [%02d/%02d] %s: applying evaluator %s",
-                                this.config.getExperimentName(), versionCount,
-                                testVersionCount, version.getVersion(),
-                                evaluator.getClass().getName()));
-
-                        List<ITrainer> allTrainers = new LinkedList<>();
-
-                        for (ISetWiseTrainingStrategy setwiseTrainer : this.config.getSetWiseTrainers()) {
-                            allTrainers.add(setwiseTrainer);
-                        }
-                        for (ISetWiseTestdataAwareTrainingStrategy setwiseTestdataAwareTrainer : this.config.getSetWiseTestdataAwareTrainers()) {
-                            allTrainers.add(setwiseTestdataAwareTrainer);
-                        }
-                        for (ITrainingStrategy trainer : this.config.getTrainers()) {
-                            allTrainers.add(trainer);
-                        }
-                        for (ITestAwareTrainingStrategy trainer : this.config.getTestAwareTrainers()) {
-                            allTrainers.add(trainer);
-                        }
-                        if (writeHeader) {
-                            evaluator.setParameter(this.config.getResultsPath() + "/" +
-                                    this.config.getExperimentName() + ".csv");
-                        }
-                        evaluator.apply(testdata, traindata, allTrainers, efforts, numBugs, writeHeader, this.config.getResultStorages());
-                        writeHeader = false;
+                    resultStorages = config.getResultStorages();
+                }
+                else {
+                    if (firstEvaluator) {
+                        // only the first evaluator writes into the results file
+                        evaluator.setOutput(buffer.getOutput(), config.getExperimentName());
                     }
-                    Console.traceln(Level.INFO,
+                    resultStorages = Arrays.<IResultStorage> asList(buffer);
+                }
+                ExecutionUtils.configureEvaluator(evaluator, this.parameters);
+                evaluator.apply(testdata, traindata, allTrainers, efforts, numBugs,
+                                writeEvaluatorHeader, resultStorages);
+                writeEvaluatorHeader = false;
+                firstEvaluator = false;
+            }
+            Console.traceln(Level.INFO,
                             String.format("[%s] [%02d/%02d] %s: finished",
-                                    this.config.getExperimentName(), versionCount,
-                                    testVersionCount, version.getVersion()));
-                    versionCount++;
+                                          config.getExperimentName(), currentCount,
+                                          testVersionCount, version.getVersion()));
+        }
+    }
 
-                }
+    /**
+     * <p>
+     * Shuffles the order of the instances of a version. The same random numbers are drawn and the
+     * same swaps are performed as by {@link Instances#randomize(Random)}.
+     * </p>
+     *
+     * @param order
+     *            order of the instances; modified in place
+     * @param rand
+     *            random number generator
+     */
+    static void shuffle(int[] order, Random rand) {
+        for (int j = order.length - 1; j > 0; j--) {
+            int k = rand.nextInt(j + 1);
+            int tmp = order[j];
+            order[j] = order[k];
+            order[k] = tmp;
+        }
+    }
+
+    /**
+     * <p>
+     * Copies the instances of a fold from the data of a version. The folds are defined like by
+     * {@link Instances#testCV(int, int)} and {@link Instances#trainCV(int, int)} for the data in
+     * the order of the shuffle.
+     * </p>
+     *
+     * @param data
+     *            data of the version
+     * @param order
+     *            order of the instances in the shuffle
+     * @param fold
+     *            index of the fold
+     * @param inFold
+     *            if true, the instances of the fold are copied; otherwise, all other instances
+     *            are copied
+     * @return the copied instances
+     */
+    static Instances getFold(Instances data, int[] order, int fold, boolean inFold) {
+        if (order.length < NUM_FOLDS) {
+            throw new IllegalArgumentException("Can't have more folds than instances!");
+        }
+        int numInstForFold = order.length / NUM_FOLDS;
+        int offset;
+        if (fold < order.length % NUM_FOLDS) {
+            numInstForFold++;
+            offset = fold;
+        }
+        else {
+            offset = order.length % NUM_FOLDS;
+        }
+        int first = fold * (order.length / NUM_FOLDS) + offset;
+        int last = first + numInstForFold;
+
+        Instances foldData =
+            new Instances(data, inFold ? numInstForFold : order.length - numInstForFold);
+        for (int i = 0; i < order.length; i++) {
+            if ((i >= first && i < last) == inFold) {
+                foldData.add(data.instance(order[i]));
             }
         }
+        return foldData;
+    }
+
+    /**
+     * <p>
+     * Helper method that returns all trainers of a configuration.
+     * </p>
+     *
+     * @param config
+     *            configuration
+     * @return all trainers in the order in which they are evaluated
+     */
+    @SuppressWarnings("hiding")
+    private static List<ITrainer> getAllTrainers(ExperimentConfiguration config) {
+        List<ITrainer> allTrainers = new LinkedList<>();
+        for (ISetWiseTrainingStrategy setwiseTrainer : config.getSetWiseTrainers()) {
+            allTrainers.add(setwiseTrainer);
+        }
+        for (ISetWiseTestdataAwareTrainingStrategy setwiseTestdataAwareTrainer : config
+            .getSetWiseTestdataAwareTrainers())
+        {
+            allTrainers.add(setwiseTestdataAwareTrainer);
+        }
+        for (ITrainingStrategy trainer : config.getTrainers()) {
+            allTrainers.add(trainer);
+        }
+        for (ITestAwareTrainingStrategy trainer : config.getTestAwareTrainers()) {
+            allTrainers.add(trainer);
+        }
+        return allTrainers;
     }
 
     /**
@@ -355,21 +571,7 @@ public abstract class SclModelAbstractCrossProjectExperiment implements IExecuti
             return 0;
         }
 
-        List<ITrainer> allTrainers = new LinkedList<>();
-        for (ISetWiseTrainingStrategy setwiseTrainer : this.config.getSetWiseTrainers()) {
-            allTrainers.add(setwiseTrainer);
-        }
-        for (ISetWiseTestdataAwareTrainingStrategy setwiseTestdataAwareTrainer : this.config
-            .getSetWiseTestdataAwareTrainers())
-        {
-            allTrainers.add(setwiseTestdataAwareTrainer);
-        }
-        for (ITrainingStrategy trainer : this.config.getTrainers()) {
-            allTrainers.add(trainer);
-        }
-        for (ITestAwareTrainingStrategy trainer : this.config.getTestAwareTrainers()) {
-            allTrainers.add(trainer);
-        }
+        List<ITrainer> allTrainers = getAllTrainers(this.config);
 
         int available = Integer.MAX_VALUE;
         for (IResultStorage storage : this.config.getResultStorages()) {
@@ -0,0 +1,127 @@
+// Copyright 2015 Georg-August-Universität Göttingen, Germany
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+package de.ugoe.cs.cpdp.execution;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+import de.ugoe.cs.cpdp.dataprocessing.ISetWiseProcessingStrategy;
+import de.ugoe.cs.cpdp.dataprocessing.ISetWiseTestdataIndependentProcessingStrategy;
+import de.ugoe.cs.cpdp.versions.SoftwareVersion;
+import weka.core.Instances;
+
+/**
+ * <p>
+ * Cache for the training data of software versions after the test data independent setwise
+ * preprocessors are applied. In cross-project experiments, each version is used as training data
+ * for almost all other versions. Without the cache, the preprocessors are applied to the same
+ * training data once per test version.
+ * </p>
+ * <p>
+ * Only the leading setwise preprocessors of the configuration that implement
+ * {@link ISetWiseTestdataIndependentProcessingStrategy} are cached, because all later processors
+ * may depend on the test data. The cache belongs to one run of an experiment, i.e., the
+ * preprocessors and their parameters are fixed and the versions are the only key. The versions
+ * are compared by identity. The cache only holds soft references to the data, i.e., the garbage
+ * collector can reclaim the data if memory runs low. In that case, the preprocessors are applied
+ * again on the next request.
+ * </p>
+ * 
+ * @author Steffen Herbold
+ */
+public class SetWisePreprocessingCache {
+
+    /**
+     * test data independent preprocessors at the start of the setwise preprocessors
+     */
+    private final List<ISetWiseTestdataIndependentProcessingStrategy> preprocessors;
+
+    /**
+     * cached training data
+     */
+    private final Cache<SoftwareVersion, Instances> cache =
+        CacheBuilder.newBuilder().weakKeys().softValues().build();
+
+    /**
+     * <p>
+     * Creates a new cache for the setwise preprocessors of an experiment.
+     * </p>
+     *
+     * @param setwisePreprocessors
+     *            all setwise preprocessors of the experiment in the order of their application
+     */
+    public SetWisePreprocessingCache(List<ISetWiseProcessingStrategy> setwisePreprocessors) {
+        List<ISetWiseTestdataIndependentProcessingStrategy> cachedPreprocessors = new ArrayList<>();
+        for (ISetWiseProcessingStrategy processor : setwisePreprocessors) {
+            if (!(processor instanceof ISetWiseTestdataIndependentProcessingStrategy)) {
+                break;
+            }
+            cachedPreprocessors.add((ISetWiseTestdataIndependentProcessingStrategy) processor);
+        }
+        this.preprocessors = Collections.unmodifiableList(cachedPreprocessors);
+    }
+
+    /**
+     * <p>
+     * Returns the preprocessors whose results for the training data are cached. These
+     * preprocessors must still be applied to the test data with
+     * {@link ISetWiseTestdataIndependentProcessingStrategy#applyToTestdata(Instances)}.
+     * </p>
+     *
+     * @return the cached preprocessors
+     */
+    public List<ISetWiseTestdataIndependentProcessingStrategy> getPreprocessors() {
+        return this.preprocessors;
+    }
+
+    /**
+     * <p>
+     * Returns the training data of a version after the cached preprocessors are applied. If the
+     * data is not yet cached, the preprocessors are applied to a copy of the data of the version.
+     * Concurrent requests for the same version wait until the data is processed, i.e., the
+     * preprocessors are only applied once.
+     * </p>
+     *
+     * @param version
+     *            the training version
+     * @return copy of the processed training data
+     */
+    public Instances getTraindata(final SoftwareVersion version) {
+        if (this.preprocessors.isEmpty()) {
+            return version.getInstances();
+        }
+        try {
+            return new Instances(this.cache.get(version, () -> {
+                Instances traindata = version.getInstances();
+                for (ISetWiseTestdataIndependentProcessingStrategy processor : this.preprocessors) {
+                    processor.applyToTraindata(traindata);
+                }
+                return traindata;
+            }));
+        }
+        catch (ExecutionException | UncheckedExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException(e.getCause());
+        }
+    }
+}
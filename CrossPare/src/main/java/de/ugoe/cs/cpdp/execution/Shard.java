@@ -0,0 +1,145 @@
+// Copyright 2015 Georg-August-Universität Göttingen, Germany
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+package de.ugoe.cs.cpdp.execution;
+
+/**
+ * <p>
+ * Share of the work of a sharded execution, i.e., an execution that is split over multiple
+ * processes, possibly on different machines. The work of each experiment is split into work units
+ * that are numbered deterministically, e.g., the test versions of a cross-project experiment. Each
+ * shard executes the work units that are assigned to it. The units of an experiment are assigned
+ * round robin, starting at a shard that depends on the name of the experiment, such that small
+ * experiments are not all assigned to the same shard.
+ * </p>
+ * <p>
+ * Shards do not communicate with each other. The only requirement is that all shards write into
+ * the same results path, e.g., on a shared file system. The outputs of the shards are combined
+ * afterwards with {@link ShardResults#merge(String, String, int)}.
+ * </p>
+ * 
+ * @author Steffen Herbold
+ */
+public class Shard {
+
+    /**
+     * index of the shard, starting with 1
+     */
+    private final int index;
+
+    /**
+     * number of shards
+     */
+    private final int count;
+
+    /**
+     * <p>
+     * Creates a new shard.
+     * </p>
+     *
+     * @param index
+     *            index of the shard, starting with 1
+     * @param count
+     *            number of shards
+     */
+    @SuppressWarnings("hiding")
+    public Shard(int index, int count) {
+        if (count < 1 || index < 1 || index > count) {
+            throw new IllegalArgumentException("invalid shard " + index + "/" + count);
+        }
+        this.index = index;
+        this.count = count;
+    }
+
+    /**
+     * <p>
+     * Parses a shard from a string of the form <code>i/n</code>, where <code>i</code> is the index
+     * of the shard, starting with 1, and <code>n</code> is the number of shards.
+     * </p>
+     *
+     * @param shard
+     *            the string
+     * @return the shard
+     */
+    public static Shard parse(String shard) {
+        String[] parts = shard == null ? new String[0] : shard.split("/");
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("invalid shard, expected i/n: " + shard);
+        }
+        try {
+            return new Shard(Integer.parseInt(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+        }
+        catch (NumberFormatException e) {
+            throw new IllegalArgumentException("invalid shard, expected i/n: " + shard, e);
+        }
+    }
+
+    /**
+     * <p>
+     * returns the index of the shard, starting with 1
+     * </p>
+     *
+     * @return index of the shard
+     */
+    public int getIndex() {
+        return this.index;
+    }
+
+    /**
+     * <p>
+     * returns the number of shards
+     * </p>
+     *
+     * @return number of shards
+     */
+    public int getCount() {
+        return this.count;
+    }
+
+    /**
+     * <p>
+     * returns the name of the shard, which is used for the files of the shard
+     * </p>
+     *
+     * @return name of the shard
+     */
+    public String getName() {
+        return this.index + "-of-" + this.count;
+    }
+
+    /**
+     * <p>
+     * Checks if a work unit of an experiment is assigned to this shard.
+     * </p>
+     *
+     * @param experimentName
+     *            name of the experiment
+     * @param unitIndex
+     *            index of the work unit within the experiment
+     * @return true if the unit is executed by this shard
+     */
+    public boolean isAssigned(String experimentName, int unitIndex) {
+        return Math.floorMod(experimentName.hashCode() + unitIndex, this.count) == this.index - 1;
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return this.index + "/" + this.count;
+    }
+}
@@ -0,0 +1,386 @@
+// Copyright 2015 Georg-August-Universität Göttingen, Germany
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+package de.ugoe.cs.cpdp.execution;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.logging.Level;
+
+import de.ugoe.cs.cpdp.eval.IResultStorage;
+import de.ugoe.cs.cpdp.eval.IShardableResultStorage;
+import de.ugoe.cs.util.console.Console;
+
+/**
+ * <p>
+ * Results of a shard of an experiment (see {@link Shard}). The results file of a shard contains
+ * the outputs of its work units in the order of their execution. An additional index file
+ * contains the index of each unit, the length of its output, and whether the output starts with
+ * the header of the results file. The files of all shards of an experiment are located in the
+ * directory <code>&lt;experiment name&gt;.shards</code> in the results path. The progress
+ * journal of a shard (see {@link ProgressJournal}) is also located in this directory.
+ * </p>
+ * <p>
+ * Once all shards are finished, {@link #merge(String, String, int)} combines the results of the
+ * shards into the same files that are created when the experiment is executed by a single
+ * process, i.e., the results file and the progress journal of the experiment.
+ * </p>
+ * 
+ * @author Steffen Herbold
+ */
+public class ShardResults implements Closeable {
+
+    /**
+     * extension of the directory with the files of the shards
+     */
+    public static final String DIRECTORY_EXTENSION = ".shards";
+
+    /**
+     * extension of the index files
+     */
+    private static final String INDEX_EXTENSION = ".units";
+
+    /**
+     * separator of the values of the index files
+     */
+    private static final String SEPARATOR = "\t";
+
+    /**
+     * results file of the shard
+     */
+    private final FileOutputStream resultsStream;
+
+    /**
+     * index file of the shard
+     */
+    private final FileOutputStream indexStream;
+
+    /**
+     * <p>
+     * Creates the results of a shard. Existing results of the shard are replaced.
+     * </p>
+     *
+     * @param shardDir
+     *            directory with the files of the shards
+     * @param shard
+     *            the shard
+     * @throws IOException
+     *             thrown if the files of the shard cannot be created
+     */
+    private ShardResults(File shardDir, Shard shard) throws IOException {
+        this.resultsStream = new FileOutputStream(new File(shardDir, shard.getName() + ".csv"));
+        this.indexStream =
+            new FileOutputStream(new File(shardDir, shard.getName() + INDEX_EXTENSION));
+    }
+
+    /**
+     * <p>
+     * Creates the results of a shard of an experiment. Existing results of the shard are replaced.
+     * </p>
+     *
+     * @param resultsPath
+     *            results path of the experiment
+     * @param experimentName
+     *            name of the experiment
+     * @param shard
+     *            the shard
+     * @return results of the shard
+     */
+    public static ShardResults open(String resultsPath, String experimentName, Shard shard) {
+        File shardDir = getDirectory(resultsPath, experimentName);
+        if (!shardDir.exists()) {
+            shardDir.mkdirs();
+        }
+        try {
+            return new ShardResults(shardDir, shard);
+        }
+        catch (IOException e) {
+            throw new RuntimeException("could not create results of shard " + shard +
+                " of experiment " + experimentName, e);
+        }
+    }
+
+    /**
+     * <p>
+     * Opens the progress journal of a shard of an experiment.
+     * </p>
+     *
+     * @param resultsPath
+     *            results path of the experiment
+     * @param experimentName
+     *            name of the experiment
+     * @param shard
+     *            the shard
+     * @return progress journal of the shard
+     */
+    public static ProgressJournal openJournal(String resultsPath,
+                                              String experimentName,
+                                              Shard shard)
+    {
+        File shardDir = getDirectory(resultsPath, experimentName);
+        if (!shardDir.exists()) {
+            shardDir.mkdirs();
+        }
+        try {
+            return new ProgressJournal(new File(shardDir, shard.getName() +
+                ProgressJournal.FILE_EXTENSION));
+        }
+        catch (IOException e) {
+            throw new RuntimeException("could not open progress journal of shard " + shard +
+                " of experiment " + experimentName, e);
+        }
+    }
+
+    /**
+     * <p>
+     * Returns the directory with the files of the shards of an experiment.
+     * </p>
+     *
+     * @param resultsPath
+     *            results path of the experiment
+     * @param experimentName
+     *            name of the experiment
+     * @return directory of the shards
+     */
+    public static File getDirectory(String resultsPath, String experimentName) {
+        return new File(resultsPath, experimentName + DIRECTORY_EXTENSION);
+    }
+
+    /**
+     * <p>
+     * Adds the results of a work unit. The output of the unit is appended to the results file of
+     * the shard and the results are passed to the result storages.
+     * </p>
+     *
+     * @param unitIndex
+     *            index of the unit
+     * @param withHeader
+     *            true if the output of the unit starts with the header of the results file
+     * @param buffer
+     *            results of the unit
+     * @param resultStorages
+     *            result storages of the experiment
+     */
+    public synchronized void addUnit(int unitIndex,
+                                     boolean withHeader,
+                                     ResultBuffer buffer,
+                                     List<IResultStorage> resultStorages)
+    {
+        StringWriter output = new StringWriter();
+        buffer.flush(new PrintWriter(output), resultStorages);
+        byte[] content = output.toString().getBytes(StandardCharsets.UTF_8);
+        String indexLine = unitIndex + SEPARATOR + content.length + SEPARATOR +
+            (withHeader ? 1 : 0) + "\n";
+        try {
+            this.resultsStream.write(content);
+            this.resultsStream.getFD().sync();
+            // the index is written last, i.e., all indexed units are completely written
+            this.indexStream.write(indexLine.getBytes(StandardCharsets.UTF_8));
+            this.indexStream.getFD().sync();
+        }
+        catch (IOException e) {
+            throw new RuntimeException("could not write results of shard", e);
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see java.io.Closeable#close()
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            this.resultsStream.close();
+        }
+        finally {
+            this.indexStream.close();
+        }
+    }
+
+    /**
+     * <p>
+     * Combines the results of all shards of an experiment. The outputs of the work units are
+     * written to the results file of the experiment in the order of the units, with the header
+     * only once at the beginning. The progress journals of the shards are appended to the
+     * progress journal of the experiment. Afterwards, the files of the shards are deleted.
+     * </p>
+     *
+     * @param resultsPath
+     *            results path of the experiment
+     * @param experimentName
+     *            name of the experiment
+     * @param numShards
+     *            number of shards
+     * @return false if there are no results of shards for the experiment, e.g., because the
+     *         experiment does not support sharding and was executed completely by one shard
+     * @throws RuntimeException
+     *             thrown if the results of a shard are missing or cannot be read
+     */
+    public static boolean merge(String resultsPath, String experimentName, int numShards) {
+        return merge(resultsPath, experimentName, numShards,
+                     Collections.<IResultStorage> emptyList());
+    }
+
+    /**
+     * <p>
+     * Combines the results of all shards of an experiment like
+     * {@link #merge(String, String, int)}. Additionally, the results of the shards in result
+     * storages that store them separately (see {@link IShardableResultStorage}) are combined.
+     * </p>
+     *
+     * @param resultsPath
+     *            results path of the experiment
+     * @param experimentName
+     *            name of the experiment
+     * @param numShards
+     *            number of shards
+     * @param resultStorages
+     *            result storages of the experiment
+     * @return false if there are no results of shards for the experiment, e.g., because the
+     *         experiment does not support sharding and was executed completely by one shard
+     * @throws RuntimeException
+     *             thrown if the results of a shard are missing or cannot be read
+     */
+    public static boolean merge(String resultsPath,
+                                String experimentName,
+                                int numShards,
+                                List<IResultStorage> resultStorages)
+    {
+        File shardDir = getDirectory(resultsPath, experimentName);
+        if (!shardDir.isDirectory()) {
+            return false;
+        }
+        String header = null;
+        Map<Integer, String> unitOutputs = new TreeMap<>();
+        for (int i = 1; i <= numShards; i++) {
+            Shard shard = new Shard(i, numShards);
+            File indexFile = new File(shardDir, shard.getName() + INDEX_EXTENSION);
+            File resultsFile = new File(shardDir, shard.getName() + ".csv");
+            if (!indexFile.isFile() || !resultsFile.isFile()) {
+                throw new RuntimeException("results of shard " + shard + " of experiment " +
+                    experimentName + " are missing");
+            }
+            try {
+                byte[] results = Files.readAllBytes(resultsFile.toPath());
+                int offset = 0;
+                for (String indexLine : completeLines(indexFile)) {
+                    String[] values = indexLine.split(SEPARATOR);
+                    int unitIndex = Integer.parseInt(values[0]);
+                    int length = Integer.parseInt(values[1]);
+                    String output = new String(results, offset, length, StandardCharsets.UTF_8);
+                    offset += length;
+                    if ("1".equals(values[2])) {
+                        int headerEnd = output.indexOf('\n') + 1;
+                        if (header == null) {
+                            header = output.substring(0, headerEnd);
+                        }
+                        output = output.substring(headerEnd);
+                    }
+                    if (unitOutputs.put(unitIndex, output) != null) {
+                        throw new RuntimeException("unit " + unitIndex + " of experiment " +
+                            experimentName + " was executed by multiple shards");
+                    }
+                }
+            }
+            catch (IOException | NumberFormatException | IndexOutOfBoundsException e) {
+                throw new RuntimeException("could not read results of shard " + shard +
+                    " of experiment " + experimentName, e);
+            }
+        }
+
+        File resultsFile = new File(resultsPath, experimentName + ".csv");
+        File journalFile = new File(resultsPath, experimentName + ProgressJournal.FILE_EXTENSION);
+        try (FileOutputStream resultsStream = new FileOutputStream(resultsFile)) {
+            if (header != null) {
+                resultsStream.write(header.getBytes(StandardCharsets.UTF_8));
+            }
+            for (String output : unitOutputs.values()) {
+                resultsStream.write(output.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        catch (IOException e) {
+            throw new RuntimeException("could not write results of experiment " +
+                experimentName, e);
+        }
+        for (int i = 1; i <= numShards; i++) {
+            File shardJournal = new File(shardDir, new Shard(i, numShards).getName() +
+                ProgressJournal.FILE_EXTENSION);
+            if (shardJournal.isFile()) {
+                try (FileOutputStream journalStream = new FileOutputStream(journalFile, true)) {
+                    for (String unit : completeLines(shardJournal)) {
+                        journalStream.write((unit + "\n").getBytes(StandardCharsets.UTF_8));
+                    }
+                }
+                catch (IOException e) {
+                    throw new RuntimeException("could not merge progress journal of experiment " +
+                        experimentName, e);
+                }
+            }
+        }
+
+        List<String> shardNames = new ArrayList<>();
+        for (int i = 1; i <= numShards; i++) {
+            shardNames.add(new Shard(i, numShards).getName());
+        }
+        for (IResultStorage resultStorage : resultStorages) {
+            if (resultStorage instanceof IShardableResultStorage) {
+                ((IShardableResultStorage) resultStorage).mergeShards(experimentName, shardNames);
+            }
+        }
+
+        File[] shardFiles = shardDir.listFiles();
+        if (shardFiles != null) {
+            for (File shardFile : shardFiles) {
+                shardFile.delete();
+            }
+        }
+        shardDir.delete();
+        Console.traceln(Level.INFO, String.format("[%s] merged %d units of %d shards",
+                                                  experimentName, unitOutputs.size(), numShards));
+        return true;
+    }
+
+    /**
+     * <p>
+     * Helper method that reads the complete lines of a file. Incomplete lines at the end of the
+     * file, e.g., due to a crash of a shard, are ignored.
+     * </p>
+     *
+     * @param file
+     *            the file
+     * @return complete lines of the file without line separators
+     * @throws IOException
+     *             thrown if the file cannot be read
+     */
+    private static String[] completeLines(File file) throws IOException {
+        String content = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+        int end = content.lastIndexOf('\n');
+        if (end < 0) {
+            return new String[0];
+        }
+        return content.substring(0, end).split("\n", -1);
+    }
+}
@@ -15,6 +15,7 @@
 package de.ugoe.cs.cpdp.execution;
 
 import de.ugoe.cs.cpdp.ExperimentConfiguration;
+import de.ugoe.cs.cpdp.IParameterizable;
 import de.ugoe.cs.cpdp.dataprocessing.IProcessesingStrategy;
 import de.ugoe.cs.cpdp.dataprocessing.ISetWiseProcessingStrategy;
 import de.ugoe.cs.cpdp.dataselection.IPointWiseDataselectionStrategy;
@@ -25,6 +26,8 @@ import de.ugoe.cs.cpdp.loader.IVersionLoader;
 import de.ugoe.cs.cpdp.training.*;
 import de.ugoe.cs.cpdp.versions.IVersionFilter;
 import de.ugoe.cs.cpdp.versions.SoftwareVersion;
+import de.ugoe.cs.cpdp.util.ConcurrencyUtils;
+import de.ugoe.cs.cpdp.util.WekaUtils;
 import de.ugoe.cs.util.console.Console;
 import org.apache.commons.collections4.list.SetUniqueList;
 import weka.core.Attribute;
@@ -33,8 +36,11 @@ import weka.core.Instances;
 import weka.filters.unsupervised.instance.RemovePercentage;
 
 import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.PrintWriter;
 import java.util.*;
-import java.util.logging.Filter;
+import java.util.concurrent.Callable;
 import java.util.logging.Level;
 
 /**
@@ -71,13 +77,26 @@ import java.util.logging.Level;
  * 
  * @author Steffen Herbold
  */
-public abstract class SingleTrainAbstractCrossProjectExperiment implements IExecutionStrategy {
+public abstract class SingleTrainAbstractCrossProjectExperiment
+    implements IExecutionStrategy, IParameterizable
+{
 
     /**
      * configuration of the experiment
      */
     protected final ExperimentConfiguration config;
 
+    /**
+     * parameters of the execution strategy
+     */
+    protected ExecutionStrategyParameters parameters = new ExecutionStrategyParameters(null);
+
+    /**
+     * number of repetitions of the experiment, each with a differently seeded random number
+     * generator
+     */
+    private static final int NUM_REPETITIONS = 50;
+
     /**
      * Constructor. Creates a new experiment based on a configuration.
      *
@@ -89,6 +108,16 @@ public abstract class SingleTrainAbstractCrossProjectExperiment implements IExec
         this.config = config;
     }
 
+    /*
+     * (non-Javadoc)
+     * 
+     * @see de.ugoe.cs.cpdp.IParameterizable#setParameter(java.lang.String)
+     */
+    @Override
+    public void setParameter(String parameters) {
+        this.parameters = new ExecutionStrategyParameters(parameters);
+    }
+
     /**
      * <p>
      * Defines which products are allowed for training.
@@ -115,18 +144,7 @@ public abstract class SingleTrainAbstractCrossProjectExperiment implements IExec
      * @return single {@link Instances} set
      */
     public static Instances makeSingleTrainingSet(SetUniqueList<Instances> traindataSet) {
-        Instances traindataFull = null;
-        for (Instances traindata : traindataSet) {
-            if (traindataFull == null) {
-                traindataFull = new Instances(traindata);
-            }
-            else {
-                for (int i = 0; i < traindata.numInstances(); i++) {
-                    traindataFull.add(traindata.instance(i));
-                }
-            }
-        }
-        return traindataFull;
+        return WekaUtils.concatenate(traindataSet);
     }
 
     /**
@@ -134,7 +152,6 @@ public abstract class SingleTrainAbstractCrossProjectExperiment implements IExec
      * 
      * @see Runnable#run()
      */
-    @SuppressWarnings("boxing")
     @Override
     public void run() {
         final List<SoftwareVersion> versions = new LinkedList<>();
@@ -147,8 +164,6 @@ public abstract class SingleTrainAbstractCrossProjectExperiment implements IExec
             filter.apply(versions);
         }
 
-        boolean writeHeader = true;
-        int versionCount = 1;
         int testVersionCount = 0;
 
         for (SoftwareVersion testVersion : versions) {
@@ -160,218 +175,368 @@ public abstract class SingleTrainAbstractCrossProjectExperiment implements IExec
         // sort versions
         Collections.sort(versions);
 
-        for(int time = 0;time < 50;time++) {
-
-            Random rand = new Random(time + 1);
-
-            for (SoftwareVersion trainingVersion : versions) {
+        final List<List<PairExecution>> repetitions =
+            planRepetitions(versions, testVersionCount);
 
-                if (isVersion(trainingVersion, this.config.getTestVersionFilters())) {
+        if (!this.parameters.isParallel()) {
+            for (int repetition = 0; repetition < NUM_REPETITIONS; repetition++) {
+                executeRepetition(this.config, repetition, repetitions.get(repetition),
+                                  testVersionCount, null);
+            }
+            return;
+        }
 
-                    Console.traceln(Level.INFO,String.format("[%s] [%02d/%02d] %s: starting",
-                                                                this.config.getExperimentName(),
-                                                                versionCount,
-                                                                testVersionCount,
-                                                                trainingVersion.getVersion()));
+        final List<Callable<ResultBuffer>> tasks = new LinkedList<>();
+        for (int repetition = 0; repetition < NUM_REPETITIONS; repetition++) {
+            if (!repetitions.get(repetition).isEmpty()) {
+                tasks.add(createTask(repetition, repetitions.get(repetition), testVersionCount));
+            }
+        }
+        if (!tasks.isEmpty()) {
+            File resultsDir = new File(this.config.getResultsPath());
+            if (!resultsDir.exists()) {
+                resultsDir.mkdir();
+            }
+            try (PrintWriter resultsFile = new PrintWriter(new FileOutputStream(this.config
+                .getResultsPath() + "/" + this.config.getExperimentName() + ".csv")))
+            {
+                // the buffers are flushed in the order of the repetitions, i.e., the results are
+                // stored in the same order as by the serial execution
+                ConcurrencyUtils.invokeOrdered(tasks, this.parameters.getNumThreads(),
+                                               buffer -> buffer.flush(resultsFile, this.config
+                                                   .getResultStorages()));
+            }
+            catch (FileNotFoundException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
 
-                    SetUniqueList<Instances> traindataSet = SetUniqueList.setUniqueList(new LinkedList<Instances>());
+    /**
+     * <p>
+     * Determines the pairs of training and test versions that are executed in each repetition.
+     * Pairs for which enough results are already available are skipped. The results that are
+     * stored by the executions of earlier pairs are accounted for without accessing the result
+     * storages again, i.e., the decisions are the same, regardless whether the repetitions are
+     * executed one after another or concurrently.
+     * </p>
+     *
+     * @param versions
+     *            all software versions in the data set
+     * @param testVersionCount
+     *            number of test versions
+     * @return the executed pairs of each repetition
+     */
+    @SuppressWarnings("boxing")
+    private List<List<PairExecution>> planRepetitions(List<SoftwareVersion> versions,
+                                                      int testVersionCount)
+    {
+        final List<List<PairExecution>> repetitions = new ArrayList<>(NUM_REPETITIONS);
+        final Map<SoftwareVersion, Integer> resultsAvailable = new HashMap<>();
+        final int resultsPerExecution =
+            this.config.getResultStorages().isEmpty() ? 0 : this.config.getEvaluators().size();
+        final StoredResultCounts storedResults = StoredResultCounts
+            .fetchResultCounts(this.config.getResultStorages(), this.config.getExperimentName());
+        boolean writeHeader = true;
+        int versionCount = 1;
 
+        for (int repetition = 0; repetition < NUM_REPETITIONS; repetition++) {
+            final List<PairExecution> executions = new LinkedList<>();
+            for (SoftwareVersion trainingVersion : versions) {
+                if (isVersion(trainingVersion, this.config.getTestVersionFilters())) {
                     for (SoftwareVersion testVersion : versions) {
-                        if (isVersion(testVersion, this.config.getTrainingVersionFilters())) {
-                            if (testVersion != trainingVersion) {
-                                if (isTrainingVersion(trainingVersion, testVersion, versions)) {
-
-                                    traindataSet.add(trainingVersion.getInstances());
-
-                                    int numResultsAvailable = resultsAvailable(testVersion);
-                                    if (numResultsAvailable >= this.config.getRepetitions()) {
-                                        Console.traceln(Level.INFO, String
-                                                .format("[%s] [%02d/%02d] %s: results already available; skipped",
-                                                        this.config.getExperimentName(), versionCount, testVersionCount,
-                                                        testVersion.getVersion()));
-                                        versionCount++;
-                                        continue;
-                                    }
-
-                                    // Setup testdata and training data
-
-                                    Instances testdata = testVersion.getInstances();
-                                    testdata.randomize(rand);
-
-                                    try {
-                                        RemovePercentage removeFilter = new RemovePercentage();
-                                        removeFilter.setOptions(new String[]{"-P","5"});
-                                        removeFilter.setInputFormat(testdata);
-                                        testdata = weka.filters.Filter.useFilter(testdata,removeFilter);
-                                    } catch (Exception e) {
-                                        e.printStackTrace();
-                                    }
-
-                                    List<Double> efforts = getEfforts(testdata);
-                                    List<Double> numBugs = getNumBugs(testdata);
-                                    SoftwareVersion newVersion = new SoftwareVersion(testVersion.getDataset(),testVersion.getProject(),testVersion.getVersion(),testdata,efforts,numBugs);
-
-                                    if( traindataSet.isEmpty() ) {
-                                        Console.traceln(Level.WARNING, String
-                                                .format("[%s] [%02d/%02d] %s: no training data this product; skipped",
-                                                        this.config.getExperimentName(), versionCount, testVersionCount,
-                                                        newVersion.getVersion()));
-                                        versionCount++;
-                                        continue;
-                                    }
-
-                                    for (ISetWiseProcessingStrategy processor : this.config.getSetWisePreprocessors()) {
-                                        Console.traceln(Level.FINE, String
-                                                .format("[%s] [%02d/%02d] %s: applying setwise preprocessor %s",
-                                                        this.config.getExperimentName(), versionCount, testVersionCount,
-                                                        newVersion.getVersion(), processor.getClass().getName()));
-                                        processor.apply(testdata, traindataSet);
-                                    }
-
-                                    for (ISetWiseDataselectionStrategy dataselector : this.config
-                                            .getSetWiseSelectors())
-                                    {
-                                        Console
-                                                .traceln(Level.FINE,
-                                                        String.format("[%s] [%02d/%02d] %s: applying setwise selection %s",
-                                                                this.config.getExperimentName(), versionCount,
-                                                                testVersionCount, newVersion.getVersion(),
-                                                                dataselector.getClass().getName()));
-                                        dataselector.apply(testdata, traindataSet);
-                                    }
-
-                                    for (ISetWiseProcessingStrategy processor : this.config
-                                            .getSetWisePostprocessors())
-                                    {
-                                        Console.traceln(Level.FINE, String
-                                                .format("[%s] [%02d/%02d] %s: applying setwise postprocessor %s",
-                                                        this.config.getExperimentName(), versionCount, testVersionCount,
-                                                        newVersion.getVersion(), processor.getClass().getName()));
-                                        processor.apply(testdata, traindataSet);
-                                    }
-
-                                    for (ISetWiseTrainingStrategy setwiseTrainer : this.config.getSetWiseTrainers()) {
-                                        Console
-                                                .traceln(Level.FINE,
-                                                        String.format("[%s] [%02d/%02d] %s: applying setwise trainer %s",
-                                                                this.config.getExperimentName(), versionCount,
-                                                                testVersionCount, newVersion.getVersion(),
-                                                                setwiseTrainer.getName()));
-                                        setwiseTrainer.apply(traindataSet);
-                                    }
-
-                                    for (ISetWiseTestdataAwareTrainingStrategy setwiseTestdataAwareTrainer : this.config
-                                            .getSetWiseTestdataAwareTrainers())
-                                    {
-                                        Console.traceln(Level.FINE, String
-                                                .format("[%s] [%02d/%02d] %s: applying testdata aware setwise trainer %s",
-                                                        this.config.getExperimentName(), versionCount, testVersionCount,
-                                                        newVersion.getVersion(), setwiseTestdataAwareTrainer.getName()));
-                                        setwiseTestdataAwareTrainer.apply(traindataSet, testdata);
-                                    }
-
-                                    Instances traindata = makeSingleTrainingSet(traindataSet);
-                                    traindata.randomize(rand);
-
-                                    //model train
-                                    for (IProcessesingStrategy processor : this.config.getPreProcessors()) {
-                                        Console.traceln(Level.FINE,
-                                                String.format("[%s] [%02d/%02d] %s: applying preprocessor %s",
-                                                        this.config.getExperimentName(), versionCount,
-                                                        testVersionCount, newVersion.getVersion(),
-                                                        processor.getClass().getName()));
-                                        processor.apply(testdata, traindata);
-                                    }
-                                    for (IPointWiseDataselectionStrategy dataselector : this.config
-                                            .getPointWiseSelectors())
-                                    {
-                                        Console.traceln(Level.FINE, String
-                                                .format("[%s] [%02d/%02d] %s: applying pointwise selection %s",
-                                                        this.config.getExperimentName(), versionCount, testVersionCount,
-                                                        newVersion.getVersion(), dataselector.getClass().getName()));
-                                        traindata = dataselector.apply(testdata, traindata);
-                                    }
-
-                                    for (IProcessesingStrategy processor : this.config.getPostProcessors()) {
-                                        Console.traceln(Level.FINE, String
-                                                .format("[%s] [%02d/%02d] %s: applying setwise postprocessor %s",
-                                                        this.config.getExperimentName(), versionCount, testVersionCount,
-                                                        newVersion.getVersion(), processor.getClass().getName()));
-                                        processor.apply(testdata, traindata);
-                                    }
-
-                                    for (ITrainingStrategy trainer : this.config.getTrainers()) {
-                                        Console.traceln(Level.FINE,
-                                                String.format("[%s] [%02d/%02d] %s: applying trainer %s",
-                                                        this.config.getExperimentName(), versionCount,
-                                                        testVersionCount, newVersion.getVersion(),
-                                                        trainer.getName()));
-                                        trainer.apply(traindata);
-                                    }
-
-                                    for (ITestAwareTrainingStrategy trainer : this.config.getTestAwareTrainers()) {
-                                        Console.traceln(Level.FINE,
-                                                String.format("[%s] [%02d/%02d] %s: applying trainer %s",
-                                                        this.config.getExperimentName(), versionCount,
-                                                        testVersionCount, newVersion.getVersion(),
-                                                        trainer.getName()));
-                                        trainer.apply(testdata, traindata);
-                                    }
-
-                                    File resultsDir = new File(this.config.getResultsPath());
-
-                                    if (!resultsDir.exists()) {
-                                        resultsDir.mkdir();
-                                    }
-                                    for (IEvaluationStrategy evaluator : this.config.getEvaluators()) {
-                                        Console.traceln(Level.FINE,
-                                                String.format("[%s] [%02d/%02d] %s: applying evaluator %s",
-                                                        this.config.getExperimentName(), versionCount,
-                                                        testVersionCount, newVersion.getVersion(),
-                                                        evaluator.getClass().getName()));
-                                        List<ITrainer> allTrainers = new LinkedList<>();
-                                        for (ISetWiseTrainingStrategy setwiseTrainer : this.config
-                                                .getSetWiseTrainers())
-                                        {
-                                            allTrainers.add(setwiseTrainer);
-                                        }
-                                        for (ISetWiseTestdataAwareTrainingStrategy setwiseTestdataAwareTrainer : this.config
-                                                .getSetWiseTestdataAwareTrainers())
-                                        {
-                                            allTrainers.add(setwiseTestdataAwareTrainer);
-                                        }
-                                        for (ITrainingStrategy trainer : this.config.getTrainers()) {
-                                            allTrainers.add(trainer);
-                                        }
-                                        for (ITestAwareTrainingStrategy trainer : this.config.getTestAwareTrainers()) {
-                                            allTrainers.add(trainer);
-                                        }
-                                        if (writeHeader) {
-                                            evaluator.setParameter(this.config.getResultsPath() + "/" +
-                                                    this.config.getExperimentName() + ".csv");
-                                        }
-
-
-                                        evaluator.apply(testdata, traindata, allTrainers, efforts, numBugs, writeHeader,
-                                                this.config.getResultStorages());
-                                        writeHeader = false;
-                                    }
-                                    Console.traceln(Level.INFO,
-                                            String.format("[%s] [%02d/%02d] %s: finished",
-                                                    this.config.getExperimentName(), versionCount,
-                                                    testVersionCount, newVersion.getVersion()));
-                                    versionCount++;
-
-                                    traindataSet.clear();
-
-                                }
+                        if (isVersion(testVersion, this.config.getTrainingVersionFilters()) &&
+                            testVersion != trainingVersion &&
+                            isTrainingVersion(trainingVersion, testVersion, versions))
+                        {
+                            Integer numResultsAvailable = resultsAvailable.get(testVersion);
+                            if (numResultsAvailable == null) {
+                                numResultsAvailable = resultsAvailable(testVersion, storedResults);
+                            }
+                            if (numResultsAvailable >= this.config.getRepetitions()) {
+                                Console.traceln(Level.INFO, String
+                                    .format("[%s] [%02d/%02d] %s: results already available; skipped",
+                                            this.config.getExperimentName(), versionCount,
+                                            testVersionCount, testVersion.getVersion()));
                             }
+                            else {
+                                executions.add(new PairExecution(trainingVersion, testVersion,
+                                                                 versionCount, writeHeader));
+                                writeHeader = false;
+                                numResultsAvailable += resultsPerExecution;
+                            }
+                            resultsAvailable.put(testVersion, numResultsAvailable);
+                            versionCount++;
                         }
                     }
+                }
+            }
+            repetitions.add(executions);
+        }
+        return repetitions;
+    }
+
+    /**
+     * <p>
+     * Creates a task for the concurrent execution of a repetition. The task uses a copy of the
+     * configuration, i.e., its own instances of all components of the experiment, and writes its
+     * results into a {@link ResultBuffer}.
+     * </p>
+     *
+     * @param repetition
+     *            index of the repetition
+     * @param executions
+     *            pairs of training and test versions that are executed
+     * @param testVersionCount
+     *            number of test versions
+     * @return the task
+     */
+    private Callable<ResultBuffer> createTask(final int repetition,
+                                              final List<PairExecution> executions,
+                                              final int testVersionCount)
+    {
+        return () -> {
+            ResultBuffer buffer = new ResultBuffer();
+            executeRepetition(this.config.createCopy(), repetition, executions, testVersionCount,
+                              buffer);
+            return buffer;
+        };
+    }
+
+    /**
+     * <p>
+     * Executes a single repetition of the experiment. Each repetition uses its own random number
+     * generator that is seeded with the index of the repetition. The pairs of the repetition are
+     * executed one after another, because they draw from the same generator.
+     * </p>
+     *
+     * @param config
+     *            configuration whose components are used
+     * @param repetition
+     *            index of the repetition
+     * @param executions
+     *            pairs of training and test versions that are executed
+     * @param testVersionCount
+     *            number of test versions
+     * @param buffer
+     *            buffer for the results; if null, the results are directly written to the results
+     *            file and the result storages
+     */
+    @SuppressWarnings("hiding")
+    private void executeRepetition(ExperimentConfiguration config,
+                                   int repetition,
+                                   List<PairExecution> executions,
+                                   int testVersionCount,
+                                   ResultBuffer buffer)
+    {
+        final Random rand = new Random(repetition + 1);
+        for (PairExecution execution : executions) {
+            executePair(config, execution, testVersionCount, rand, buffer);
+        }
+    }
+
+    /**
+     * <p>
+     * Executes the experiment for a single pair of training and test version.
+     * </p>
+     *
+     * @param config
+     *            configuration whose components are used
+     * @param execution
+     *            pair of training and test version
+     * @param testVersionCount
+     *            number of test versions
+     * @param rand
+     *            random number generator of the repetition
+     * @param buffer
+     *            buffer for the results; if null, the results are directly written to the results
+     *            file and the result storages
+     */
+    @SuppressWarnings({ "boxing", "hiding" })
+    private void executePair(ExperimentConfiguration config,
+                             PairExecution execution,
+                             int testVersionCount,
+                             Random rand,
+                             ResultBuffer buffer)
+    {
+        final SoftwareVersion testVersion = execution.testVersion;
+        final int versionCount = execution.versionCount;
+
+        Console.traceln(Level.INFO,
+                        String.format("[%s] [%02d/%02d] %s: starting",
+                                      config.getExperimentName(), versionCount,
+                                      testVersionCount, testVersion.getVersion()));
+
+        // Setup testdata and training data
+        SetUniqueList<Instances> traindataSet =
+            SetUniqueList.setUniqueList(new LinkedList<Instances>());
+        traindataSet.add(execution.trainingVersion.getInstances());
+
+        Instances testdata = testVersion.getInstances();
+        testdata.randomize(rand);
+
+        try {
+            RemovePercentage removeFilter = new RemovePercentage();
+            removeFilter.setOptions(new String[]
+                { "-P", "5" });
+            removeFilter.setInputFormat(testdata);
+            testdata = weka.filters.Filter.useFilter(testdata, removeFilter);
+        }
+        catch (Exception e) {
+            e.printStackTrace();
+        }
+
+        List<Double> efforts = getEfforts(testdata);
+        List<Double> numBugs = getNumBugs(testdata);
+        SoftwareVersion newVersion =
+            new SoftwareVersion(testVersion.getDataset(), testVersion.getProject(),
+                                testVersion.getVersion(), testdata, efforts, numBugs);
+
+        for (ISetWiseProcessingStrategy processor : config.getSetWisePreprocessors()) {
+            Console.traceln(Level.FINE, String
+                .format("[%s] [%02d/%02d] %s: applying setwise preprocessor %s",
+                        config.getExperimentName(), versionCount, testVersionCount,
+                        newVersion.getVersion(), processor.getClass().getName()));
+            processor.apply(testdata, traindataSet);
+        }
+        for (ISetWiseDataselectionStrategy dataselector : config.getSetWiseSelectors()) {
+            Console.traceln(Level.FINE,
+                            String.format("[%s] [%02d/%02d] %s: applying setwise selection %s",
+                                          config.getExperimentName(), versionCount,
+                                          testVersionCount, newVersion.getVersion(),
+                                          dataselector.getClass().getName()));
+            dataselector.apply(testdata, traindataSet);
+        }
+        for (ISetWiseProcessingStrategy processor : config.getSetWisePostprocessors()) {
+            Console.traceln(Level.FINE, String
+                .format("[%s] [%02d/%02d] %s: applying setwise postprocessor %s",
+                        config.getExperimentName(), versionCount, testVersionCount,
+                        newVersion.getVersion(), processor.getClass().getName()));
+            processor.apply(testdata, traindataSet);
+        }
+        for (ISetWiseTrainingStrategy setwiseTrainer : config.getSetWiseTrainers()) {
+            Console.traceln(Level.FINE,
+                            String.format("[%s] [%02d/%02d] %s: applying setwise trainer %s",
+                                          config.getExperimentName(), versionCount,
+                                          testVersionCount, newVersion.getVersion(),
+                                          setwiseTrainer.getName()));
+            setwiseTrainer.apply(traindataSet);
+        }
+        for (ISetWiseTestdataAwareTrainingStrategy setwiseTestdataAwareTrainer : config
+            .getSetWiseTestdataAwareTrainers())
+        {
+            Console.traceln(Level.FINE, String
+                .format("[%s] [%02d/%02d] %s: applying testdata aware setwise trainer %s",
+                        config.getExperimentName(), versionCount, testVersionCount,
+                        newVersion.getVersion(), setwiseTestdataAwareTrainer.getName()));
+            setwiseTestdataAwareTrainer.apply(traindataSet, testdata);
+        }
+
+        Instances traindata = ExecutionUtils.makeSingleTrainingSet(config, traindataSet);
+        traindata.randomize(rand);
 
+        for (IProcessesingStrategy processor : config.getPreProcessors()) {
+            Console.traceln(Level.FINE,
+                            String.format("[%s] [%02d/%02d] %s: applying preprocessor %s",
+                                          config.getExperimentName(), versionCount,
+                                          testVersionCount, newVersion.getVersion(),
+                                          processor.getClass().getName()));
+            processor.apply(testdata, traindata);
+        }
+        for (IPointWiseDataselectionStrategy dataselector : config.getPointWiseSelectors()) {
+            Console.traceln(Level.FINE, String
+                .format("[%s] [%02d/%02d] %s: applying pointwise selection %s",
+                        config.getExperimentName(), versionCount, testVersionCount,
+                        newVersion.getVersion(), dataselector.getClass().getName()));
+            traindata = dataselector.apply(testdata, traindata);
+        }
+        for (IProcessesingStrategy processor : config.getPostProcessors()) {
+            Console.traceln(Level.FINE, String
+                .format("[%s] [%02d/%02d] %s: applying setwise postprocessor %s",
+                        config.getExperimentName(), versionCount, testVersionCount,
+                        newVersion.getVersion(), processor.getClass().getName()));
+            processor.apply(testdata, traindata);
+        }
+        ExecutionUtils.applyTrainers(config.getTrainers(), traindata, this.parameters,
+                                     config.getExperimentName(), versionCount, testVersionCount,
+                                     newVersion.getVersion());
+        for (ITestAwareTrainingStrategy trainer : config.getTestAwareTrainers()) {
+            Console.traceln(Level.FINE,
+                            String.format("[%s] [%02d/%02d] %s: applying trainer %s",
+                                          config.getExperimentName(), versionCount,
+                                          testVersionCount, newVersion.getVersion(),
+                                          trainer.getName()));
+            trainer.apply(testdata, traindata);
+        }
+
+        File resultsDir = new File(config.getResultsPath());
+
+        if (!resultsDir.exists()) {
+            resultsDir.mkdir();
+        }
+        boolean writeEvaluatorHeader = execution.writeHeader;
+        boolean firstEvaluator = true;
+        for (IEvaluationStrategy evaluator : config.getEvaluators()) {
+            Console.traceln(Level.FINE,
+                            String.format("[%s] [%02d/%02d] %s: applying evaluator %s",
+                                          config.getExperimentName(), versionCount,
+                                          testVersionCount, newVersion.getVersion(),
+                                          evaluator.getClass().getName()));
+            List<ITrainer> allTrainers = getAllTrainers(config);
+            List<IResultStorage> resultStorages;
+            if (buffer == null) {
+                if (writeEvaluatorHeader) {
+                    evaluator.setParameter(config.getResultsPath() + "/" +
+                        config.getExperimentName() + ".csv");
                 }
+                resultStorages = config.getResultStorages();
             }
+            else {
+                if (firstEvaluator) {
+                    // only the first evaluator writes into the results file
+                    evaluator.setOutput(buffer.getOutput(), config.getExperimentName());
+                }
+                resultStorages = Arrays.<IResultStorage> asList(buffer);
+            }
+            ExecutionUtils.configureEvaluator(evaluator, this.parameters);
+            evaluator.apply(testdata, traindata, allTrainers, efforts, numBugs,
+                            writeEvaluatorHeader, resultStorages);
+            writeEvaluatorHeader = false;
+            firstEvaluator = false;
+        }
+        Console.traceln(Level.INFO,
+                        String.format("[%s] [%02d/%02d] %s: finished",
+                                      config.getExperimentName(), versionCount,
+                                      testVersionCount, newVersion.getVersion()));
+    }
+
+    /**
+     * <p>
+     * Helper method that returns all trainers of a configuration.
+     * </p>
+     *
+     * @param config
+     *            configuration
+     * @return all trainers in the order in which they are evaluated
+     */
+    @SuppressWarnings("hiding")
+    private static List<ITrainer> getAllTrainers(ExperimentConfiguration config) {
+        List<ITrainer> allTrainers = new LinkedList<>();
+        for (ISetWiseTrainingStrategy setwiseTrainer : config.getSetWiseTrainers()) {
+            allTrainers.add(setwiseTrainer);
+        }
+        for (ISetWiseTestdataAwareTrainingStrategy setwiseTestdataAwareTrainer : config
+            .getSetWiseTestdataAwareTrainers())
+        {
+            allTrainers.add(setwiseTestdataAwareTrainer);
         }
+        for (ITrainingStrategy trainer : config.getTrainers()) {
+            allTrainers.add(trainer);
+        }
+        for (ITestAwareTrainingStrategy trainer : config.getTestAwareTrainers()) {
+            allTrainers.add(trainer);
+        }
+        return allTrainers;
     }
 
     /**
@@ -398,39 +563,19 @@ public abstract class SingleTrainAbstractCrossProjectExperiment implements IExec
      *
      * @param version
      *            version for which the results are checked
+     * @param storedResults
+     *            number of results in the result storages
      * @return
      */
-    private int resultsAvailable(SoftwareVersion version) {
+    private int resultsAvailable(SoftwareVersion version, StoredResultCounts storedResults) {
         if (this.config.getResultStorages().isEmpty()) {
             return 0;
         }
 
-        List<ITrainer> allTrainers = new LinkedList<>();
-        for (ISetWiseTrainingStrategy setwiseTrainer : this.config.getSetWiseTrainers()) {
-            allTrainers.add(setwiseTrainer);
-        }
-        for (ISetWiseTestdataAwareTrainingStrategy setwiseTestdataAwareTrainer : this.config
-            .getSetWiseTestdataAwareTrainers())
-        {
-            allTrainers.add(setwiseTestdataAwareTrainer);
-        }
-        for (ITrainingStrategy trainer : this.config.getTrainers()) {
-            allTrainers.add(trainer);
-        }
-        for (ITestAwareTrainingStrategy trainer : this.config.getTestAwareTrainers()) {
-            allTrainers.add(trainer);
-        }
+        List<ITrainer> allTrainers = getAllTrainers(this.config);
 
-        int available = Integer.MAX_VALUE;
-        for (IResultStorage storage : this.config.getResultStorages()) {
-            String classifierName = ((IWekaCompatibleTrainer) allTrainers.get(0)).getName();
-            int curAvailable = storage.containsResult(this.config.getExperimentName(),
-                                                      version.getVersion(), classifierName);
-            if (curAvailable < available) {
-                available = curAvailable;
-            }
-        }
-        return available;
+        String classifierName = ((IWekaCompatibleTrainer) allTrainers.get(0)).getName();
+        return storedResults.getCount(version.getVersion(), classifierName);
     }
 
     /**
@@ -492,4 +637,46 @@ public abstract class SingleTrainAbstractCrossProjectExperiment implements IExec
         return numBugs;
     }
 
+    /**
+     * <p>
+     * Helper class that describes the execution of a pair of training and test version within a
+     * repetition.
+     * </p>
+     * 
+     * @author Steffen Herbold
+     */
+    private static class PairExecution {
+
+        /**
+         * training version of the pair
+         */
+        private final SoftwareVersion trainingVersion;
+
+        /**
+         * test version of the pair
+         */
+        private final SoftwareVersion testVersion;
+
+        /**
+         * number of the execution, used for logging
+         */
+        private final int versionCount;
+
+        /**
+         * if true, the header of the results file is written by the execution
+         */
+        private final boolean writeHeader;
+
+        @SuppressWarnings("hiding")
+        public PairExecution(SoftwareVersion trainingVersion,
+                             SoftwareVersion testVersion,
+                             int versionCount,
+                             boolean writeHeader)
+        {
+            this.trainingVersion = trainingVersion;
+            this.testVersion = testVersion;
+            this.versionCount = versionCount;
+            this.writeHeader = writeHeader;
+        }
+    }
 }
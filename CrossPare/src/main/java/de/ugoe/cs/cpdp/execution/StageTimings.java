@@ -0,0 +1,348 @@
+// Copyright 2015 Georg-August-Universität Göttingen, Germany
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+package de.ugoe.cs.cpdp.execution;
+
+import java.io.FileNotFoundException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <p>
+ * Instrumentation of the stages of the pipeline of an experiment, e.g., the application of a
+ * preprocessor, a data selection, a trainer, or an evaluation. For each stage, the wall time, the
+ * CPU time, and the number of allocated bytes are measured through the {@link ThreadMXBean} of the
+ * JVM. The measurements are aggregated by the test version, the stage, and the class of the
+ * component that is applied in the stage. The CPU time and the allocated bytes are measured for
+ * the current thread, i.e., each stage must be measured in the thread that executes it. If the
+ * JVM does not support the measurement of the CPU time or the allocated bytes, they are reported
+ * as zero.
+ * </p>
+ * <p>
+ * The instrumentation of each experiment is registered by the name of the experiment, such that
+ * the aggregates can be queried while the experiment is running (see
+ * {@link #forExperiment(String)}). When an experiment is finished, the aggregates are written to a
+ * CSV file in the results path with {@link #write(String)}.
+ * </p>
+ * <p>
+ * Example:
+ * </p>
+ * 
+ * <pre>
+ * Stage stage = timings.start(testVersion.getVersion(), "preprocessor", processor);
+ * try {
+ *     processor.apply(testdata, traindata);
+ * }
+ * finally {
+ *     stage.close();
+ * }
+ * </pre>
+ * 
+ * @author Steffen Herbold
+ */
+public class StageTimings {
+
+    /**
+     * instrumentations of the experiments, by the name of the experiment
+     */
+    private static final Map<String, StageTimings> EXPERIMENTS = new ConcurrentHashMap<>();
+
+    /**
+     * management interface of the threads of the JVM
+     */
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    /**
+     * aggregated measurements by test version, stage, and component; each value contains the
+     * number of invocations, the wall time, the CPU time, and the allocated bytes
+     */
+    private final Map<List<String>, long[]> measurements = new LinkedHashMap<>();
+
+    /**
+     * invocations of stages that are currently running
+     */
+    private final Set<Stage> running = ConcurrentHashMap.newKeySet();
+
+    /**
+     * <p>
+     * Measurement of a single invocation of a stage. The measurement ends when the stage is
+     * closed.
+     * </p>
+     * 
+     * @author Steffen Herbold
+     */
+    public class Stage implements AutoCloseable {
+
+        /**
+         * test version, stage, and component of the invocation
+         */
+        private final List<String> key;
+
+        /**
+         * wall time at the start of the invocation
+         */
+        private final long wallTime = System.nanoTime();
+
+        /**
+         * CPU time of the thread at the start of the invocation
+         */
+        private final long cpuTime = cpuTime();
+
+        /**
+         * allocated bytes of the thread at the start of the invocation
+         */
+        private final long allocatedBytes = allocatedBytes();
+
+        /**
+         * <p>
+         * Starts the measurement of an invocation.
+         * </p>
+         *
+         * @param key
+         *            test version, stage, and component of the invocation
+         */
+        @SuppressWarnings("hiding")
+        private Stage(List<String> key) {
+            this.key = key;
+            StageTimings.this.running.add(this);
+        }
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see java.lang.AutoCloseable#close()
+         */
+        @Override
+        public void close() {
+            StageTimings.this.running.remove(this);
+            add(this.key, System.nanoTime() - this.wallTime, cpuTime() - this.cpuTime,
+                allocatedBytes() - this.allocatedBytes);
+        }
+    }
+
+    /**
+     * <p>
+     * Returns the instrumentation of an experiment. If the experiment has no instrumentation yet,
+     * a new instrumentation is created.
+     * </p>
+     *
+     * @param experimentName
+     *            name of the experiment
+     * @return instrumentation of the experiment
+     */
+    public static StageTimings forExperiment(String experimentName) {
+        return EXPERIMENTS.computeIfAbsent(experimentName, name -> new StageTimings());
+    }
+
+    /**
+     * <p>
+     * Removes the instrumentation of an experiment from the registry. A new run of the experiment
+     * starts with a new instrumentation.
+     * </p>
+     *
+     * @param experimentName
+     *            name of the experiment
+     */
+    public static void remove(String experimentName) {
+        EXPERIMENTS.remove(experimentName);
+    }
+
+    /**
+     * <p>
+     * Returns the names of the experiments that have an instrumentation.
+     * </p>
+     *
+     * @return names of the experiments
+     */
+    public static List<String> getExperimentNames() {
+        return new ArrayList<>(EXPERIMENTS.keySet());
+    }
+
+    /**
+     * <p>
+     * Starts the measurement of an invocation of a stage.
+     * </p>
+     *
+     * @param testVersion
+     *            name of the test version
+     * @param stage
+     *            name of the stage
+     * @param component
+     *            component that is applied in the stage
+     * @return the measurement, which must be closed at the end of the invocation
+     */
+    public Stage start(String testVersion, String stage, Object component) {
+        return new Stage(Arrays.asList(testVersion, stage, component.getClass().getName()));
+    }
+
+    /**
+     * <p>
+     * Returns the invocations of stages that are currently running, each in the form
+     * <code>testVersion: stage (component)</code>.
+     * </p>
+     *
+     * @return the running invocations
+     */
+    public List<String> getRunningStages() {
+        List<String> runningStages = new ArrayList<>();
+        for (Stage stage : this.running) {
+            runningStages.add(stage.key.get(0) + ": " + stage.key.get(1) + " (" +
+                stage.key.get(2) + ")");
+        }
+        Collections.sort(runningStages);
+        return runningStages;
+    }
+
+    /**
+     * <p>
+     * Returns the aggregated measurements of a stage and component over all test versions.
+     * </p>
+     *
+     * @param stage
+     *            name of the stage
+     * @param componentClass
+     *            class name of the component
+     * @return number of invocations, wall time in nanoseconds, CPU time in nanoseconds, and
+     *         allocated bytes
+     */
+    public synchronized long[] getTotals(String stage, String componentClass) {
+        long[] totals = new long[4];
+        for (Map.Entry<List<String>, long[]> entry : this.measurements.entrySet()) {
+            if (entry.getKey().get(1).equals(stage) &&
+                entry.getKey().get(2).equals(componentClass))
+            {
+                for (int i = 0; i < totals.length; i++) {
+                    totals[i] += entry.getValue()[i];
+                }
+            }
+        }
+        return totals;
+    }
+
+    /**
+     * <p>
+     * Returns the aggregated measurements over all test versions for each stage and component.
+     * </p>
+     *
+     * @return number of invocations, wall time in nanoseconds, CPU time in nanoseconds, and
+     *         allocated bytes by the names of the stage and the component class
+     */
+    public synchronized Map<List<String>, long[]> getTotals() {
+        Map<List<String>, long[]> totals = new LinkedHashMap<>();
+        for (Map.Entry<List<String>, long[]> entry : this.measurements.entrySet()) {
+            long[] total = totals.computeIfAbsent(entry.getKey().subList(1, 3),
+                                                  key -> new long[4]);
+            for (int i = 0; i < total.length; i++) {
+                total[i] += entry.getValue()[i];
+            }
+        }
+        return Collections.unmodifiableMap(totals);
+    }
+
+    /**
+     * <p>
+     * Writes the aggregated measurements to a CSV file. The file contains one line for each
+     * combination of test version, stage, and component, with the number of invocations, the wall
+     * time and CPU time in milliseconds, and the allocated bytes.
+     * </p>
+     *
+     * @param file
+     *            path of the file
+     */
+    public synchronized void write(String file) {
+        try (PrintWriter output = new PrintWriter(file)) {
+            output.println("testVersion,stage,component,invocations,wallTimeMs,cpuTimeMs," +
+                "allocatedBytes");
+            for (Map.Entry<List<String>, long[]> entry : this.measurements.entrySet()) {
+                long[] values = entry.getValue();
+                output.println(String.join(",", entry.getKey()) + "," + values[0] + "," +
+                    values[1] / 1000000 + "," + values[2] / 1000000 + "," + values[3]);
+            }
+        }
+        catch (FileNotFoundException e) {
+            throw new RuntimeException("could not write stage timings to " + file, e);
+        }
+    }
+
+    /**
+     * <p>
+     * Adds the measurement of an invocation.
+     * </p>
+     *
+     * @param key
+     *            test version, stage, and component of the invocation
+     * @param wallTime
+     *            wall time in nanoseconds
+     * @param cpuTime
+     *            CPU time in nanoseconds
+     * @param allocatedBytes
+     *            allocated bytes
+     */
+    private synchronized void add(List<String> key,
+                                  long wallTime,
+                                  long cpuTime,
+                                  long allocatedBytes)
+    {
+        long[] values = this.measurements.computeIfAbsent(key, k -> new long[4]);
+        values[0]++;
+        values[1] += wallTime;
+        values[2] += cpuTime;
+        values[3] += allocatedBytes;
+    }
+
+    /**
+     * <p>
+     * Helper method that returns the CPU time of the current thread.
+     * </p>
+     *
+     * @return CPU time in nanoseconds; 0 if not supported
+     */
+    private static long cpuTime() {
+        if (THREADS.isCurrentThreadCpuTimeSupported()) {
+            long cpuTime = THREADS.getCurrentThreadCpuTime();
+            return cpuTime < 0 ? 0 : cpuTime;
+        }
+        return 0;
+    }
+
+    /**
+     * <p>
+     * Helper method that returns the allocated bytes of the current thread.
+     * </p>
+     *
+     * @return allocated bytes; 0 if not supported
+     */
+    private static long allocatedBytes() {
+        if (THREADS instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) THREADS;
+            if (threads.isThreadAllocatedMemorySupported() &&
+                threads.isThreadAllocatedMemoryEnabled())
+            {
+                long allocatedBytes =
+                    threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+                return allocatedBytes < 0 ? 0 : allocatedBytes;
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,129 @@
+// Copyright 2015 Georg-August-Universität Göttingen, Germany
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+package de.ugoe.cs.cpdp.execution;
+
+import java.util.LinkedList;
+import java.util.List;
+
+import com.google.common.collect.Table;
+
+import de.ugoe.cs.cpdp.eval.IResultStorage;
+
+/**
+ * <p>
+ * Number of results of an experiment that are contained in the result storages. The numbers are
+ * fetched from all storages at once when the object is created, such that execution strategies
+ * can check which results are available without querying the storages for each product or pair
+ * of products. If there are multiple storages, the minimum over the storages is used.
+ * </p>
+ * 
+ * @author Steffen Herbold
+ */
+public class StoredResultCounts {
+
+    /**
+     * number of results of each storage
+     */
+    private final List<Table<String, String, Integer>> resultCounts;
+
+    /**
+     * <p>
+     * Creates a new object.
+     * </p>
+     *
+     * @param resultCounts
+     *            number of results of each storage
+     */
+    @SuppressWarnings("hiding")
+    private StoredResultCounts(List<Table<String, String, Integer>> resultCounts) {
+        this.resultCounts = resultCounts;
+    }
+
+    /**
+     * <p>
+     * Fetches the number of results for all combinations of product and classifier.
+     * </p>
+     *
+     * @param storages
+     *            the result storages
+     * @param experimentName
+     *            name of the experiment
+     * @return the number of results; use {@link #getCount(String, String)} with the product and
+     *         the classifier name
+     */
+    public static StoredResultCounts fetchResultCounts(List<IResultStorage> storages,
+                                                       String experimentName)
+    {
+        List<Table<String, String, Integer>> resultCounts = new LinkedList<>();
+        for (IResultStorage storage : storages) {
+            resultCounts.add(storage.getResultCounts(experimentName));
+        }
+        return new StoredResultCounts(resultCounts);
+    }
+
+    /**
+     * <p>
+     * Fetches the number of heterogeneous results for all combinations of product and training
+     * product.
+     * </p>
+     *
+     * @param storages
+     *            the result storages
+     * @param experimentName
+     *            name of the experiment
+     * @param classifierName
+     *            name of the first classifier in the configuration
+     * @return the number of results; use {@link #getCount(String, String)} with the product and
+     *         the training product name
+     */
+    public static StoredResultCounts fetchHeterogeneousResultCounts(List<IResultStorage> storages,
+                                                                    String experimentName,
+                                                                    String classifierName)
+    {
+        List<Table<String, String, Integer>> resultCounts = new LinkedList<>();
+        for (IResultStorage storage : storages) {
+            resultCounts.add(storage.getHeterogeneousResultCounts(experimentName, classifierName));
+        }
+        return new StoredResultCounts(resultCounts);
+    }
+
+    /**
+     * <p>
+     * Returns the number of results that are contained in all storages.
+     * </p>
+     *
+     * @param productName
+     *            name of the product
+     * @param columnName
+     *            name of the classifier or the training product, depending on how the counts were
+     *            fetched
+     * @return number of results; 0 if there are no storages
+     */
+    @SuppressWarnings("boxing")
+    public int getCount(String productName, String columnName) {
+        if (this.resultCounts.isEmpty()) {
+            return 0;
+        }
+        int available = Integer.MAX_VALUE;
+        for (Table<String, String, Integer> counts : this.resultCounts) {
+            Integer count = counts.get(productName, columnName);
+            int curAvailable = count == null ? 0 : count;
+            if (curAvailable < available) {
+                available = curAvailable;
+            }
+        }
+        return available;
+    }
+}
@@ -0,0 +1,252 @@
+// Copyright 2015 Georg-August-Universität Göttingen, Germany
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+package de.ugoe.cs.cpdp.execution;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+
+import de.ugoe.cs.cpdp.ExperimentConfiguration;
+import de.ugoe.cs.cpdp.training.ISetWiseTestdataAwareTrainingStrategy;
+import de.ugoe.cs.cpdp.training.ISetWiseTrainingStrategy;
+import de.ugoe.cs.cpdp.training.ITestAwareTrainingStrategy;
+import de.ugoe.cs.cpdp.training.ITrainingStrategy;
+import de.ugoe.cs.util.console.Console;
+
+/**
+ * <p>
+ * History of the execution times of experiments that is used to estimate the cost of experiments
+ * before they are executed. The {@link de.ugoe.cs.cpdp.Runner} uses the estimates to start the
+ * most expensive experiments first, such that they do not delay the end of the whole execution.
+ * </p>
+ * <p>
+ * The cost of an experiment is modeled as the product of its work and the time per unit of work.
+ * The work is based on the size of the data: the number of instances times the number of versions
+ * times the number of trainers, because each version is used as test data and trained with the
+ * data of the other versions. The time per unit of work is learned from the history for each
+ * signature of an experiment, i.e., the execution strategy, the processors, selectors, and
+ * trainers of the experiment (see {@link #getSignature(ExperimentConfiguration)}). For signatures
+ * without history, the average time per unit of work of all signatures is used. Without any
+ * history, the estimate is only the work.
+ * </p>
+ * <p>
+ * The history is stored in a tab-separated file, with one line for each signature that contains
+ * the signature, the total work, and the total time in seconds.
+ * </p>
+ * 
+ * @author Steffen Herbold
+ */
+public class TimingHistory {
+
+    /**
+     * separator of the values in the history file
+     */
+    private static final String SEPARATOR = "\t";
+
+    /**
+     * file of the history; null if the history is not stored
+     */
+    private final File historyFile;
+
+    /**
+     * total work and total time in seconds for each signature
+     */
+    private final Map<String, double[]> timings = new HashMap<>();
+
+    /**
+     * <p>
+     * Creates a new history and loads the existing history from the file.
+     * </p>
+     *
+     * @param historyFile
+     *            file of the history; null if the history is not stored
+     */
+    @SuppressWarnings("boxing")
+    public TimingHistory(File historyFile) {
+        this.historyFile = historyFile;
+        if (historyFile != null && historyFile.isFile()) {
+            try {
+                for (String line : Files.readAllLines(historyFile.toPath(),
+                                                      StandardCharsets.UTF_8))
+                {
+                    String[] values = line.split(SEPARATOR);
+                    if (values.length == 3) {
+                        this.timings.put(values[0], new double[]
+                            { Double.parseDouble(values[1]), Double.parseDouble(values[2]) });
+                    }
+                }
+                Console.traceln(Level.FINE, String.format("loaded %d timings from %s",
+                                                          this.timings.size(), historyFile));
+            }
+            catch (IOException | NumberFormatException e) {
+                Console.traceln(Level.WARNING, "could not load timing history " + historyFile +
+                    ": " + e.getMessage());
+                this.timings.clear();
+            }
+        }
+    }
+
+    /**
+     * <p>
+     * Estimates the execution time of an experiment.
+     * </p>
+     *
+     * @param signature
+     *            signature of the experiment
+     * @param work
+     *            work of the experiment
+     * @return estimated execution time; in seconds if there is a history
+     */
+    public synchronized double estimate(String signature, double work) {
+        double[] timing = this.timings.get(signature);
+        if (timing == null || timing[0] <= 0.0) {
+            timing = new double[2];
+            for (double[] otherTiming : this.timings.values()) {
+                timing[0] += otherTiming[0];
+                timing[1] += otherTiming[1];
+            }
+        }
+        if (timing[0] <= 0.0) {
+            // no history, only the size of the data is considered
+            return work;
+        }
+        return work * timing[1] / timing[0];
+    }
+
+    /**
+     * <p>
+     * Adds the execution time of an experiment to the history.
+     * </p>
+     *
+     * @param signature
+     *            signature of the experiment
+     * @param work
+     *            work of the experiment
+     * @param seconds
+     *            execution time in seconds
+     */
+    public synchronized void record(String signature, double work, double seconds) {
+        if (work > 0.0) {
+            double[] timing = this.timings.computeIfAbsent(signature, key -> new double[2]);
+            timing[0] += work;
+            timing[1] += seconds;
+        }
+    }
+
+    /**
+     * <p>
+     * Stores the history in the history file. The file is replaced atomically, i.e., concurrent
+     * readers see either the old or the new history.
+     * </p>
+     */
+    public synchronized void save() {
+        if (this.historyFile == null) {
+            return;
+        }
+        StringBuilder content = new StringBuilder();
+        for (Map.Entry<String, double[]> entry : this.timings.entrySet()) {
+            content.append(entry.getKey() + SEPARATOR + entry.getValue()[0] + SEPARATOR +
+                entry.getValue()[1] + "\n");
+        }
+        File tmpFile = new File(this.historyFile.getAbsolutePath() + ".tmp");
+        try {
+            Files.write(tmpFile.toPath(), content.toString().getBytes(StandardCharsets.UTF_8));
+            Files.move(tmpFile.toPath(), this.historyFile.toPath(),
+                       StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (IOException e) {
+            Console.traceln(Level.WARNING, "could not store timing history " + this.historyFile +
+                ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * <p>
+     * Returns the signature of an experiment, i.e., the execution strategy and the names of the
+     * processors, selectors, and trainers of the experiment.
+     * </p>
+     *
+     * @param config
+     *            configuration of the experiment
+     * @return signature of the experiment
+     */
+    public static String getSignature(ExperimentConfiguration config) {
+        List<String> components = new ArrayList<>();
+        components.add(config.getExecutionStrategy());
+        addClassNames(components, config.getSetWisePreprocessors());
+        addClassNames(components, config.getSetWiseSelectors());
+        addClassNames(components, config.getSetWisePostprocessors());
+        for (ISetWiseTrainingStrategy trainer : config.getSetWiseTrainers()) {
+            components.add(trainer.getClass().getSimpleName() + ":" + trainer.getName());
+        }
+        for (ISetWiseTestdataAwareTrainingStrategy trainer : config
+            .getSetWiseTestdataAwareTrainers())
+        {
+            components.add(trainer.getClass().getSimpleName() + ":" + trainer.getName());
+        }
+        addClassNames(components, config.getPreProcessors());
+        addClassNames(components, config.getPointWiseSelectors());
+        addClassNames(components, config.getPostProcessors());
+        for (ITrainingStrategy trainer : config.getTrainers()) {
+            components.add(trainer.getClass().getSimpleName() + ":" + trainer.getName());
+        }
+        for (ITestAwareTrainingStrategy trainer : config.getTestAwareTrainers()) {
+            components.add(trainer.getClass().getSimpleName() + ":" + trainer.getName());
+        }
+        return String.join(",", components);
+    }
+
+    /**
+     * <p>
+     * Returns the work of an experiment, i.e., the number of instances times the number of
+     * versions times the number of trainers.
+     * </p>
+     *
+     * @param config
+     *            configuration of the experiment
+     * @param dataSize
+     *            size of the data of the experiment
+     * @return work of the experiment; 0 if the experiment has no data
+     */
+    public static double getWork(ExperimentConfiguration config, DataSize dataSize) {
+        int numTrainers = config.getTrainers().size() + config.getTestAwareTrainers().size() +
+            config.getSetWiseTrainers().size() + config.getSetWiseTestdataAwareTrainers().size();
+        return (double) dataSize.getNumInstances() * dataSize.getNumVersions() *
+            Math.max(1, numTrainers);
+    }
+
+    /**
+     * <p>
+     * Helper method that adds the class names of components to a list.
+     * </p>
+     *
+     * @param names
+     *            list of names
+     * @param components
+     *            the components
+     */
+    private static void addClassNames(List<String> names, List<?> components) {
+        for (Object component : components) {
+            names.add(component.getClass().getSimpleName());
+        }
+    }
+}
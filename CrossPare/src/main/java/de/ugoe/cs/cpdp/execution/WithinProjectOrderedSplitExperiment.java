@@ -21,10 +21,10 @@ import java.util.List;
 import java.util.logging.Level;
 
 import de.ugoe.cs.cpdp.ExperimentConfiguration;
+import de.ugoe.cs.cpdp.IParameterizable;
 import de.ugoe.cs.cpdp.dataprocessing.IProcessesingStrategy;
 import de.ugoe.cs.cpdp.dataselection.IPointWiseDataselectionStrategy;
 import de.ugoe.cs.cpdp.eval.IEvaluationStrategy;
-import de.ugoe.cs.cpdp.eval.IResultStorage;
 import de.ugoe.cs.cpdp.loader.IVersionLoader;
 import de.ugoe.cs.cpdp.training.ISetWiseTestdataAwareTrainingStrategy;
 import de.ugoe.cs.cpdp.training.ISetWiseTrainingStrategy;
@@ -47,13 +47,20 @@ import weka.core.Instances;
  * 
  * @author Steffen Herbold
  */
-public class WithinProjectOrderedSplitExperiment implements IExecutionStrategy {
+public class WithinProjectOrderedSplitExperiment
+    implements IExecutionStrategy, IParameterizable
+{
 
     /**
      * configuration of the experiment
      */
     protected final ExperimentConfiguration config;
 
+    /**
+     * parameters of the execution strategy
+     */
+    protected ExecutionStrategyParameters parameters = new ExecutionStrategyParameters(null);
+
     /**
      * Constructor. Creates a new experiment based on a configuration.
      * 
@@ -65,6 +72,16 @@ public class WithinProjectOrderedSplitExperiment implements IExecutionStrategy {
         this.config = config;
     }
 
+    /*
+     * (non-Javadoc)
+     * 
+     * @see de.ugoe.cs.cpdp.IParameterizable#setParameter(java.lang.String)
+     */
+    @Override
+    public void setParameter(String parameters) {
+        this.parameters = new ExecutionStrategyParameters(parameters);
+    }
+
     /**
      * Executes the experiment with the steps as described in the class comment.
      * 
@@ -101,13 +118,16 @@ public class WithinProjectOrderedSplitExperiment implements IExecutionStrategy {
         // sort versions
         Collections.sort(versions);
 
+        final StoredResultCounts storedResults = StoredResultCounts
+            .fetchResultCounts(this.config.getResultStorages(), this.config.getExperimentName());
+
         for (SoftwareVersion testVersion : versions) {
             if (isVersion(testVersion, this.config.getTestVersionFilters())) {
                 Console.traceln(Level.INFO,
                                 String.format("[%s] [%02d/%02d] %s: starting",
                                               this.config.getExperimentName(), versionCount,
                                               testVersionCount, testVersion.getVersion()));
-                int numResultsAvailable = resultsAvailable(testVersion);
+                int numResultsAvailable = resultsAvailable(testVersion, storedResults);
                 if (numResultsAvailable >= numTrainers * this.config.getRepetitions()) {
                     Console.traceln(Level.INFO, String
                         .format("[%s] [%02d/%02d] %s: results already available; skipped",
@@ -124,8 +144,8 @@ public class WithinProjectOrderedSplitExperiment implements IExecutionStrategy {
 
                 // now split data into parts
                 double percentage = 0.5; // 0.5 as default value
-                String param = this.config.getExecutionStrategyParameters();
-                if (this.config.getExecutionStrategyParameters() != null) {
+                String param = this.parameters.getValue(null);
+                if (param != null) {
                     try {
                         percentage = Double.parseDouble(param);
                     }
@@ -175,14 +195,9 @@ public class WithinProjectOrderedSplitExperiment implements IExecutionStrategy {
                                 testVersion.getVersion(), processor.getClass().getName()));
                     processor.apply(testdata, traindata);
                 }
-                for (ITrainingStrategy trainer : this.config.getTrainers()) {
-                    Console.traceln(Level.FINE,
-                                    String.format("[%s] [%02d/%02d] %s: applying trainer %s",
-                                                  this.config.getExperimentName(), versionCount,
-                                                  testVersionCount, testVersion.getVersion(),
-                                                  trainer.getName()));
-                    trainer.apply(traindata);
-                }
+                ExecutionUtils.applyTrainers(this.config.getTrainers(), traindata, this.parameters,
+                                             this.config.getExperimentName(), versionCount,
+                                             testVersionCount, testVersion.getVersion());
                 for (ITestAwareTrainingStrategy trainer : this.config.getTestAwareTrainers()) {
                     Console.traceln(Level.FINE,
                                     String.format("[%s] [%02d/%02d] %s: applying trainer %s",
@@ -249,9 +264,11 @@ public class WithinProjectOrderedSplitExperiment implements IExecutionStrategy {
      *
      * @param version
      *            version for which the results are checked
+     * @param storedResults
+     *            number of results in the result storages
      * @return
      */
-    private int resultsAvailable(SoftwareVersion version) {
+    private int resultsAvailable(SoftwareVersion version, StoredResultCounts storedResults) {
         if (this.config.getResultStorages().isEmpty()) {
             return 0;
         }
@@ -272,15 +289,7 @@ public class WithinProjectOrderedSplitExperiment implements IExecutionStrategy {
             allTrainers.add(trainer);
         }
 
-        int available = Integer.MAX_VALUE;
-        for (IResultStorage storage : this.config.getResultStorages()) {
-            String classifierName = ((IWekaCompatibleTrainer) allTrainers.get(0)).getName();
-            int curAvailable = storage.containsResult(this.config.getExperimentName(),
-                                                      version.getVersion(), classifierName);
-            if (curAvailable < available) {
-                available = curAvailable;
-            }
-        }
-        return available;
+        String classifierName = ((IWekaCompatibleTrainer) allTrainers.get(0)).getName();
+        return storedResults.getCount(version.getVersion(), classifierName);
     }
 }
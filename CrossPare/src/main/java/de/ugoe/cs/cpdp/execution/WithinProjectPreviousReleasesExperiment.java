@@ -65,10 +65,18 @@ public class WithinProjectPreviousReleasesExperiment extends AbstractCrossProjec
         return isSameProject && isWithinPreviousReleases;
     }
 
+    /**
+     * The number of previous releases is the unnamed value of the parameters. Additionally, the
+     * parameters of the {@link AbstractCrossProjectExperiment} are supported.
+     * 
+     * @see de.ugoe.cs.cpdp.execution.AbstractCrossProjectExperiment#setParameter(java.lang.String)
+     */
     @Override
     public void setParameter(String parameters) {
-        if( parameters.length()>0 ) {
-            numPreviousReleases =  Integer.parseInt(parameters);
+        super.setParameter(parameters);
+        String value = this.parameters.getValue(null);
+        if( value!=null ) {
+            numPreviousReleases =  Integer.parseInt(value);
         }
     }
 }
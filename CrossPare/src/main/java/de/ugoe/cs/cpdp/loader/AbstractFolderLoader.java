@@ -65,11 +65,26 @@ public abstract class AbstractFolderLoader implements IVersionLoader {
         }
     }
 
-    /*
+    /**
+     * Loads the versions. The versions are shared with all other folder loaders of the same type that
+     * load the same location with the same class type through the {@link VersionCache}.
+     * 
      * @see de.ugoe.cs.cpdp.loader.IVersionLoader#load()
      */
     @Override
     public List<SoftwareVersion> load() {
+        return VersionCache.getVersions(getClass(), this.path, this.isBinaryClass,
+                                        this::loadVersions);
+    }
+
+    /**
+     * <p>
+     * Loads the versions from the folder, without using the cache.
+     * </p>
+     *
+     * @return the loaded versions
+     */
+    private List<SoftwareVersion> loadVersions() {
         final List<SoftwareVersion> versions = new LinkedList<>();
 
         final File dataDir = new File(this.path);
@@ -0,0 +1,117 @@
+// Copyright 2015 Georg-August-Universität Göttingen, Germany
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+package de.ugoe.cs.cpdp.loader;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+import de.ugoe.cs.cpdp.versions.SoftwareVersion;
+
+/**
+ * <p>
+ * Process-wide cache for the software versions loaded from a data location. Experiments that are
+ * executed in the same process and use the same data, e.g., multiple configurations passed to the
+ * {@link de.ugoe.cs.cpdp.Runner}, share the versions instead of loading them again. The cache is
+ * keyed by the class of the loader, the location of the data, and the type of the class attribute.
+ * </p>
+ * <p>
+ * The cached versions are never modified: {@link SoftwareVersion} only hands out copies of its
+ * data. Each call returns a new list, i.e., callers are free to filter or reorder the list. The
+ * cache only holds soft references to the versions, i.e., the garbage collector can reclaim them
+ * if memory runs low. In that case, the versions are loaded again on the next request.
+ * </p>
+ * 
+ * @author Steffen Herbold
+ */
+public class VersionCache {
+
+    /**
+     * cached versions
+     */
+    private static final Cache<List<Object>, List<SoftwareVersion>> CACHE =
+        CacheBuilder.newBuilder().softValues().build();
+
+    /**
+     * <p>
+     * Returns the versions for a data location. If the versions are not yet cached, they are loaded
+     * with the provided loader. Concurrent requests for the same versions wait until the versions
+     * are loaded, i.e., the versions are only loaded once.
+     * </p>
+     *
+     * @param loaderClass
+     *            class of the loader
+     * @param location
+     *            location of the data
+     * @param isBinaryClass
+     *            true if the class attribute is binary, false if it is numeric
+     * @param loader
+     *            loads the versions in case they are not yet cached
+     * @return new list with the versions
+     */
+    public static List<SoftwareVersion> getVersions(Class<?> loaderClass,
+                                                    String location,
+                                                    boolean isBinaryClass,
+                                                    Callable<List<SoftwareVersion>> loader)
+    {
+        List<Object> key = Arrays.asList(loaderClass, canonicalPath(location),
+                                         Boolean.valueOf(isBinaryClass));
+        try {
+            return new LinkedList<>(CACHE.get(key, loader));
+        }
+        catch (ExecutionException | UncheckedExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    /**
+     * <p>
+     * Removes all versions from the cache.
+     * </p>
+     */
+    public static void clear() {
+        CACHE.invalidateAll();
+    }
+
+    /**
+     * <p>
+     * Helper method that resolves the canonical path of a location such that different notations
+     * of the same location share a cache entry.
+     * </p>
+     *
+     * @param location
+     *            location of the data
+     * @return canonical path of the location
+     */
+    private static String canonicalPath(String location) {
+        try {
+            return new File(location).getCanonicalPath();
+        }
+        catch (IOException e) {
+            return new File(location).getAbsolutePath();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+// Copyright 2015 Georg-August-Universität Göttingen, Germany
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+package de.ugoe.cs.cpdp.training;
+
+/**
+ * <p>
+ * Interface for trainers that can declare that they do not modify the data passed to them. The
+ * training data of read-only trainers can be shared when multiple trainers are trained
+ * concurrently. All other trainers receive their own copy of the data.
+ * </p>
+ * 
+ * @author Steffen Herbold
+ */
+public interface IReadOnlyTrainer extends ITrainer {
+
+    /**
+     * <p>
+     * Checks if the trainer only reads the data passed to it.
+     * </p>
+     *
+     * @return true if the data is not modified by the trainer
+     */
+    boolean isReadOnly();
+}
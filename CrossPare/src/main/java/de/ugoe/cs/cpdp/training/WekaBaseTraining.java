@@ -17,6 +17,7 @@ package de.ugoe.cs.cpdp.training;
 import java.util.Arrays;
 import java.util.logging.Level;
 
+import de.ugoe.cs.cpdp.IMemoryFootprint;
 import de.ugoe.cs.util.console.Console;
 
 import weka.core.OptionHandler;
@@ -45,7 +46,7 @@ import de.bwaldvogel.liblinear.*;
  * 
  * @author Alexander Trautsch
  */
-public abstract class WekaBaseTraining implements IWekaCompatibleTrainer {
+public abstract class WekaBaseTraining implements IWekaCompatibleTrainer, IMemoryFootprint {
 
     /**
      * reference to the Weka classifier
@@ -101,6 +102,36 @@ public abstract class WekaBaseTraining implements IWekaCompatibleTrainer {
         return this.classifier;
     }
 
+    /**
+     * <p>
+     * Delegates the estimate to the Weka classifier, if the classifier implements
+     * {@link IMemoryFootprint}. Otherwise, the footprint of the classifier is assumed to be
+     * negligible.
+     * </p>
+     * 
+     * @see de.ugoe.cs.cpdp.IMemoryFootprint#estimateFootprint(int, int, int)
+     */
+    @Override
+    public long estimateFootprint(int numTrainingInstances,
+                                  int numTestInstances,
+                                  int numAttributes)
+    {
+        if (this.classifierClassName == null) {
+            return 0;
+        }
+        try {
+            Class<?> c = Class.forName(this.classifierClassName);
+            if (IMemoryFootprint.class.isAssignableFrom(c)) {
+                return ((IMemoryFootprint) c.getDeclaredConstructor().newInstance())
+                    .estimateFootprint(numTrainingInstances, numTestInstances, numAttributes);
+            }
+        }
+        catch (ReflectiveOperationException e) {
+            // the classifier cannot be created; the training reports this problem
+        }
+        return 0;
+    }
+
     /**
      * <p>
      * helper function that sets up the Weka classifier including its parameters
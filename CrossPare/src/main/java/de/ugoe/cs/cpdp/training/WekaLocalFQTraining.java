@@ -92,6 +92,24 @@ public class WekaLocalFQTraining extends WekaBaseTraining implements ITrainingSt
         }
     }
 
+    /**
+     * <p>
+     * The clustering computes the full distance matrix of the training data, i.e.,
+     * <code>n<sup>2</sup></code> doubles.
+     * </p>
+     * 
+     * @see de.ugoe.cs.cpdp.training.WekaBaseTraining#estimateFootprint(int, int, int)
+     */
+    @Override
+    public long estimateFootprint(int numTrainingInstances,
+                                  int numTestInstances,
+                                  int numAttributes)
+    {
+        long distanceMatrix = numTrainingInstances * (8L * numTrainingInstances + 16L);
+        return distanceMatrix +
+            super.estimateFootprint(numTrainingInstances, numTestInstances, numAttributes);
+    }
+
     /**
      * <p>
      * Weka classifier for the local model with WHERE clustering
@@ -38,7 +38,9 @@ import weka.core.Instances;
  * </pre>
  * 
  */
-public class WekaTraining extends WekaBaseTraining implements ITrainingStrategy {
+public class WekaTraining extends WekaBaseTraining
+    implements ITrainingStrategy, IReadOnlyTrainer
+{
 
     @Override
     public void apply(Instances traindata) {
@@ -52,4 +54,26 @@ public class WekaTraining extends WekaBaseTraining implements ITrainingStrategy
         }
         this.classifier = WekaUtils.buildClassifier(this.classifier, traindata);
     }
+
+    /**
+     * The training is read-only if only classifiers from the Weka distribution are used. Weka
+     * classifiers do not modify the training data passed to them. For all other classifiers, e.g.,
+     * the classifiers from the package {@link de.ugoe.cs.cpdp.wekaclassifier}, this is not
+     * guaranteed.
+     * 
+     * @see de.ugoe.cs.cpdp.training.IReadOnlyTrainer#isReadOnly()
+     */
+    @Override
+    public boolean isReadOnly() {
+        if (this.classifierClassName == null || !this.classifierClassName.startsWith("weka.")) {
+            return false;
+        }
+        for (String param : this.classifierParams) {
+            // classifiers that are passed as parameters, e.g., to meta classifiers
+            if (param.matches("[a-z_][\\w$]*(\\.[\\w$]+)+") && !param.startsWith("weka.")) {
+                return false;
+            }
+        }
+        return true;
+    }
 }
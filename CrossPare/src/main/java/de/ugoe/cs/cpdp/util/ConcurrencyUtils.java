@@ -0,0 +1,166 @@
+// Copyright 2015 Georg-August-Universität Göttingen, Germany
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+package de.ugoe.cs.cpdp.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+
+/**
+ * <p>
+ * Collection of helper functions for the concurrent execution of independent parts of an
+ * experiment. The parts are executed as tasks of a {@link ForkJoinPool}. If the caller is already
+ * running within a {@link ForkJoinPool}, the tasks are forked into that pool, i.e., idle threads of
+ * the pool can steal them. Otherwise, a new pool is created for the tasks.
+ * </p>
+ *
+ * @author Steffen Herbold
+ */
+public class ConcurrencyUtils {
+
+    /**
+     * <p>
+     * Executes the tasks concurrently and passes their results to the consumer in the order of the
+     * tasks. The consumer is always called by the calling thread, i.e., it does not need to be
+     * thread-safe. The method returns once all tasks are finished.
+     * </p>
+     *
+     * @param <T>
+     *            result type of the tasks
+     * @param tasks
+     *            tasks that are executed
+     * @param numThreads
+     *            number of threads used, in case a new pool is created; if less than one, the
+     *            number of available processors is used
+     * @param consumer
+     *            consumer for the results of the tasks
+     */
+    public static <T> void invokeOrdered(List<Callable<T>> tasks,
+                                         int numThreads,
+                                         Consumer<T> consumer)
+    {
+        invokeOrdered(tasks, numThreads, 0, consumer);
+    }
+
+    /**
+     * <p>
+     * Executes the tasks concurrently and passes their results to the consumer in the order of the
+     * tasks. At most <code>maxPendingTasks</code> tasks are started, but not yet consumed, at the
+     * same time. Thereby, the resources that are held by tasks, e.g., copies of the data, are
+     * bounded. The consumer is always called by the calling thread, i.e., it does not need to be
+     * thread-safe. The method returns once all tasks are finished.
+     * </p>
+     *
+     * @param <T>
+     *            result type of the tasks
+     * @param tasks
+     *            tasks that are executed
+     * @param numThreads
+     *            number of threads used, in case a new pool is created; if less than one, the
+     *            number of available processors is used
+     * @param maxPendingTasks
+     *            maximal number of started tasks whose results are not yet consumed; if less than
+     *            one, all tasks are started at once
+     * @param consumer
+     *            consumer for the results of the tasks
+     */
+    public static <T> void invokeOrdered(List<Callable<T>> tasks,
+                                         int numThreads,
+                                         int maxPendingTasks,
+                                         Consumer<T> consumer)
+    {
+        ForkJoinPool pool = null;
+        if (!ForkJoinTask.inForkJoinPool()) {
+            pool = new ForkJoinPool(numThreads > 0 ? numThreads
+                : Runtime.getRuntime().availableProcessors());
+        }
+        final int window = maxPendingTasks > 0 ? maxPendingTasks : tasks.size();
+        final List<Callable<T>> taskList = new ArrayList<>(tasks);
+        final List<ForkJoinTask<T>> forkedTasks = new ArrayList<>(tasks.size());
+        boolean finished = false;
+        try {
+            while (forkedTasks.size() < Math.min(window, taskList.size())) {
+                forkedTasks.add(start(taskList.get(forkedTasks.size()), pool));
+            }
+            for (int i = 0; i < taskList.size(); i++) {
+                T result = forkedTasks.get(i).join();
+                forkedTasks.set(i, null);
+                if (forkedTasks.size() < taskList.size()) {
+                    forkedTasks.add(start(taskList.get(forkedTasks.size()), pool));
+                }
+                consumer.accept(result);
+            }
+            finished = true;
+        }
+        finally {
+            if (!finished) {
+                // do not waste resources on the remaining tasks in case of failures
+                for (ForkJoinTask<T> forkedTask : forkedTasks) {
+                    if (forkedTask != null) {
+                        forkedTask.cancel(true);
+                    }
+                }
+            }
+            if (pool != null) {
+                pool.shutdown();
+            }
+        }
+    }
+
+    /**
+     * <p>
+     * Executes the tasks concurrently and returns their results in the order of the tasks.
+     * </p>
+     *
+     * @param <T>
+     *            result type of the tasks
+     * @param tasks
+     *            tasks that are executed
+     * @param numThreads
+     *            number of threads used, in case a new pool is created; if less than one, the
+     *            number of available processors is used
+     * @return results of the tasks
+     * @see #invokeOrdered(List, int, Consumer)
+     */
+    public static <T> List<T> invokeAll(List<Callable<T>> tasks, int numThreads) {
+        final List<T> results = new ArrayList<>(tasks.size());
+        invokeOrdered(tasks, numThreads, results::add);
+        return results;
+    }
+
+    /**
+     * <p>
+     * Helper method that starts a task, either in the current pool or in the provided pool.
+     * </p>
+     *
+     * @param <T>
+     *            result type of the task
+     * @param task
+     *            task that is started
+     * @param pool
+     *            pool in which the task is started; null if the task is forked into the current
+     *            pool
+     * @return the started task
+     */
+    private static <T> ForkJoinTask<T> start(Callable<T> task, ForkJoinPool pool) {
+        if (pool == null) {
+            return ForkJoinTask.adapt(task).fork();
+        }
+        return pool.submit(task);
+    }
+}
@@ -15,6 +15,10 @@
 package de.ugoe.cs.cpdp.util;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
 import java.util.logging.Level;
 
 import org.apache.commons.math3.ml.distance.EuclideanDistance;
@@ -393,4 +397,120 @@ public class WekaUtils {
             throw new RuntimeException("class attribute invalid: neither numeric nor nominal");
         }
     }
+
+    /**
+     * <p>
+     * Combines multiple data sets with the same attributes into a single data set. The instances
+     * are copied, i.e., the data sets are not modified and are independent of the result.
+     * </p>
+     *
+     * @param dataSets
+     *            the data sets
+     * @return combined data set; null if there are no data sets
+     */
+    public static Instances concatenate(Collection<Instances> dataSets) {
+        Instances combined = null;
+        for (Instances data : dataSets) {
+            if (combined == null) {
+                combined = new Instances(data, numInstances(dataSets));
+            }
+            for (Instance instance : data) {
+                combined.add(instance);
+            }
+        }
+        return combined;
+    }
+
+    /**
+     * <p>
+     * Combines multiple data sets with the same attributes into a single data set without copying
+     * the instances, i.e., the instances are moved from the data sets to the result. This avoids
+     * copying all training instances when the training data of multiple products is combined.
+     * Afterwards, the instances belong to the result and the data sets must not be used anymore.
+     * Only instances that are contained more than once are copied.
+     * </p>
+     *
+     * @param dataSets
+     *            the data sets
+     * @return combined data set; null if there are no data sets
+     * @see #concatenate(Collection)
+     */
+    public static Instances merge(Collection<Instances> dataSets) {
+        MergedInstances merged = null;
+        Set<Instance> mergedInstances = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Instances data : dataSets) {
+            if (merged == null) {
+                merged = new MergedInstances(data, numInstances(dataSets));
+            }
+            for (Instance instance : data) {
+                if (mergedInstances.add(instance)) {
+                    merged.addWithoutCopy(instance);
+                }
+                else {
+                    merged.add(instance);
+                }
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * <p>
+     * Helper method that counts the instances of multiple data sets.
+     * </p>
+     *
+     * @param dataSets
+     *            the data sets
+     * @return number of instances
+     */
+    private static int numInstances(Collection<Instances> dataSets) {
+        int numInstances = 0;
+        for (Instances data : dataSets) {
+            numInstances += data.numInstances();
+        }
+        return numInstances;
+    }
+
+    /**
+     * <p>
+     * Data set that allows adding instances without copying them. Used by
+     * {@link WekaUtils#merge(Collection)}.
+     * </p>
+     * 
+     * @author Steffen Herbold
+     */
+    private static class MergedInstances extends Instances {
+
+        /**
+         * default serial version ID
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * <p>
+         * Creates an empty data set with the attributes of another data set.
+         * </p>
+         *
+         * @param header
+         *            data set whose attributes are used
+         * @param capacity
+         *            initial capacity of the data set
+         */
+        private MergedInstances(Instances header, int capacity) {
+            super(header, capacity);
+        }
+
+        /**
+         * <p>
+         * Adds an instance without copying it. The instance is moved to this data set.
+         * </p>
+         *
+         * @param instance
+         *            the instance
+         */
+        private void addWithoutCopy(Instance instance) {
+            instance.setDataset(this);
+            this.m_Instances.add(instance);
+        }
+    }
 }
@@ -32,7 +32,7 @@ public class MaxInstanceNumberFilter extends AbstractVersionFilter {
      */
     @Override
     public boolean apply(SoftwareVersion version) {
-        return version.getInstances().numInstances() > this.maxInstances;
+        return version.getStatistics().getNumInstances() > this.maxInstances;
     }
 
     /**
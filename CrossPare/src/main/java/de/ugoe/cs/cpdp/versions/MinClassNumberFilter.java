@@ -14,9 +14,6 @@
 
 package de.ugoe.cs.cpdp.versions;
 
-import weka.core.Instance;
-import weka.core.Instances;
-
 /**
  * Applies to small data sets. All data sets that do not have the required minimal number of
  * instances in each class (i.e., positive, negative) are removed.
@@ -35,30 +32,7 @@ public class MinClassNumberFilter extends AbstractVersionFilter {
      */
     @Override
     public boolean apply(SoftwareVersion version) {
-        Instances instances = version.getInstances();
-        int[] counts;
-        if (instances.classAttribute().isNominal()) {
-            counts = instances.attributeStats(instances.classIndex()).nominalCounts;
-
-        }
-        else if (instances.classAttribute().isNumeric()) {
-            // count values == 0.0 and values!=0
-            int countNull = 0;
-            int countNonNull = 0;
-            for (Instance instance : instances) {
-                if (instance.classValue() > 0.0 || instance.classValue() < 0.0) {
-                    countNonNull++;
-                }
-                else {
-                    countNull++;
-                }
-            }
-            counts = new int[]
-                { countNull, countNonNull };
-        }
-        else {
-            throw new RuntimeException("class attribute invalid: neither numeric nor nominal");
-        }
+        int[] counts = version.getStatistics().getClassCounts();
         boolean toSmall = false;
         for (int count : counts) {
             toSmall |= count < this.minInstances;
@@ -32,7 +32,7 @@ public class MinInstanceNumberFilter extends AbstractVersionFilter {
      */
     @Override
     public boolean apply(SoftwareVersion version) {
-        return version.getInstances().numInstances() < this.minInstances;
+        return version.getStatistics().getNumInstances() < this.minInstances;
     }
 
     /**
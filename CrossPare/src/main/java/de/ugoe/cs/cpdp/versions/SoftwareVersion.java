@@ -14,12 +14,17 @@
 
 package de.ugoe.cs.cpdp.versions;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import weka.core.Instances;
 
 /**
- * Data class for software versions.
+ * Data class for software versions. Software versions are immutable: the accessors for the data,
+ * efforts, and bug counts return copies. The only exception is
+ * {@link #getReadOnlyInstances()}, which avoids the copy for callers that only read the data. This
+ * allows sharing versions between experiments, e.g., through the
+ * {@link de.ugoe.cs.cpdp.loader.VersionCache}.
  * 
  * @author Steffen Herbold
  */
@@ -52,6 +57,11 @@ public class SoftwareVersion implements Comparable<SoftwareVersion> {
      */
     private final List<Double> numBugs;
 
+    /**
+     * statistics of the data; computed when they are requested for the first time
+     */
+    private volatile VersionStatistics statistics = null;
+
     /**
      * Constructor. Creates a new version.
      * 
@@ -115,7 +125,7 @@ public class SoftwareVersion implements Comparable<SoftwareVersion> {
     }
 
     /**
-     * returns the data of the version
+     * returns a copy of the data of the version
      * 
      * @return data
      */
@@ -123,15 +133,46 @@ public class SoftwareVersion implements Comparable<SoftwareVersion> {
         return new Instances(this.instances);
     }
 
+    /**
+     * <p>
+     * returns the data of the version without copying it. The data is shared with all other users
+     * of the version and must not be modified. Use {@link #getInstances()} to get a copy that can
+     * be modified.
+     * </p>
+     * 
+     * @return data
+     */
+    public Instances getReadOnlyInstances() {
+        return this.instances;
+    }
+
+    /**
+     * <p>
+     * returns the statistics of the data of the version. The statistics are computed when they are
+     * requested for the first time.
+     * </p>
+     *
+     * @return statistics of the data
+     */
+    public VersionStatistics getStatistics() {
+        VersionStatistics result = this.statistics;
+        if (result == null) {
+            // concurrent requests may compute the statistics twice, which is harmless
+            result = new VersionStatistics(this.instances);
+            this.statistics = result;
+        }
+        return result;
+    }
+
     /**
      * <p>
      * returns the review effort of the version
      * </p>
      *
-     * @return the review efforts
+     * @return copy of the review efforts
      */
     public List<Double> getEfforts() {
-        return this.efforts;
+        return this.efforts == null ? null : new ArrayList<>(this.efforts);
     }
 
     /**
@@ -139,10 +180,10 @@ public class SoftwareVersion implements Comparable<SoftwareVersion> {
      * returns the number of bugs for the instances
      * </p>
      *
-     * @return the bug counts
+     * @return copy of the bug counts
      */
     public List<Double> getNumBugs() {
-        return this.numBugs;
+        return this.numBugs == null ? null : new ArrayList<>(this.numBugs);
     }
 
     /**
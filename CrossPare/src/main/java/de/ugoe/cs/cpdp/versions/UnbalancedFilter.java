@@ -14,8 +14,6 @@
 
 package de.ugoe.cs.cpdp.versions;
 
-import weka.core.Instances;
-
 /**
  * Removes unbalanced data sets in terms of classification. All data sets that are outside of the
  * quantil defined by setParameter (default=0.1) are removed.
@@ -45,11 +43,11 @@ public class UnbalancedFilter extends AbstractVersionFilter {
      */
     @Override
     public boolean apply(SoftwareVersion version) {
-        final Instances instances = version.getInstances();
+        final VersionStatistics statistics = version.getStatistics();
 
-        final int[] counts = instances.attributeStats(instances.classIndex()).nominalCounts;
-        return ((double) counts[0]) / instances.numInstances() >= (1 - this.quantil) ||
-            ((double) counts[0]) / instances.numInstances() <= (this.quantil);
+        final int[] counts = statistics.getClassCounts();
+        return ((double) counts[0]) / statistics.getNumInstances() >= (1 - this.quantil) ||
+            ((double) counts[0]) / statistics.getNumInstances() <= (this.quantil);
     }
 
 }
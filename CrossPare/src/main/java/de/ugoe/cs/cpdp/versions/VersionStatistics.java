@@ -0,0 +1,266 @@
+// Copyright 2015 Georg-August-Universität Göttingen, Germany
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+package de.ugoe.cs.cpdp.versions;
+
+import java.util.Arrays;
+
+import weka.core.Instance;
+import weka.core.Instances;
+
+/**
+ * <p>
+ * Immutable statistics of the data of a software version. The statistics are computed once per
+ * version (see {@link SoftwareVersion#getStatistics()}), such that version filters do not need to
+ * go through the data each time a version is checked.
+ * </p>
+ * <p>
+ * The statistics of the attributes ignore missing values and the weights of the instances. For
+ * attributes that are not numeric, the statistics are {@link Double#NaN}.
+ * </p>
+ * 
+ * @author Steffen Herbold
+ */
+public class VersionStatistics {
+
+    /**
+     * number of instances
+     */
+    private final int numInstances;
+
+    /**
+     * number of instances per class; for numeric classes, the number of instances with value zero
+     * and non-zero values
+     */
+    private final int[] classCounts;
+
+    /**
+     * minimum of each attribute
+     */
+    private final double[] min;
+
+    /**
+     * maximum of each attribute
+     */
+    private final double[] max;
+
+    /**
+     * mean of each attribute
+     */
+    private final double[] mean;
+
+    /**
+     * sample variance of each attribute
+     */
+    private final double[] variance;
+
+    /**
+     * median of each attribute
+     */
+    private final double[] median;
+
+    /**
+     * <p>
+     * Computes the statistics of the data.
+     * </p>
+     *
+     * @param data
+     *            the data; the class attribute must be nominal or numeric
+     */
+    public VersionStatistics(Instances data) {
+        this.numInstances = data.numInstances();
+        this.classCounts = classCounts(data);
+        this.min = new double[data.numAttributes()];
+        this.max = new double[data.numAttributes()];
+        this.mean = new double[data.numAttributes()];
+        this.variance = new double[data.numAttributes()];
+        this.median = new double[data.numAttributes()];
+        for (int j = 0; j < data.numAttributes(); j++) {
+            this.min[j] = Double.NaN;
+            this.max[j] = Double.NaN;
+            this.mean[j] = Double.NaN;
+            this.variance[j] = Double.NaN;
+            this.median[j] = Double.NaN;
+            if (data.attribute(j).isNumeric()) {
+                computeAttributeStatistics(data, j);
+            }
+        }
+    }
+
+    /**
+     * <p>
+     * Helper method that counts the instances of each class. For numeric classes, the instances
+     * with value zero and non-zero values are counted.
+     * </p>
+     *
+     * @param data
+     *            the data
+     * @return number of instances of each class
+     */
+    private static int[] classCounts(Instances data) {
+        if (data.classAttribute().isNominal()) {
+            return data.attributeStats(data.classIndex()).nominalCounts;
+        }
+        else if (data.classAttribute().isNumeric()) {
+            int countNull = 0;
+            int countNonNull = 0;
+            for (Instance instance : data) {
+                if (instance.classValue() > 0.0 || instance.classValue() < 0.0) {
+                    countNonNull++;
+                }
+                else {
+                    countNull++;
+                }
+            }
+            return new int[]
+                { countNull, countNonNull };
+        }
+        else {
+            throw new RuntimeException("class attribute invalid: neither numeric nor nominal");
+        }
+    }
+
+    /**
+     * <p>
+     * Helper method that computes the statistics of a numeric attribute.
+     * </p>
+     *
+     * @param data
+     *            the data
+     * @param attIndex
+     *            index of the attribute
+     */
+    private void computeAttributeStatistics(Instances data, int attIndex) {
+        double[] values = new double[data.numInstances()];
+        int numValues = 0;
+        double sum = 0.0;
+        for (Instance instance : data) {
+            if (!instance.isMissing(attIndex)) {
+                values[numValues] = instance.value(attIndex);
+                sum += values[numValues];
+                numValues++;
+            }
+        }
+        if (numValues == 0) {
+            return;
+        }
+        values = Arrays.copyOf(values, numValues);
+        Arrays.sort(values);
+        this.min[attIndex] = values[0];
+        this.max[attIndex] = values[numValues - 1];
+        this.mean[attIndex] = sum / numValues;
+        if (numValues % 2 == 1) {
+            this.median[attIndex] = values[numValues / 2];
+        }
+        else {
+            this.median[attIndex] = (values[numValues / 2 - 1] + values[numValues / 2]) / 2.0;
+        }
+        if (numValues > 1) {
+            double squaredDeviations = 0.0;
+            for (double value : values) {
+                squaredDeviations += (value - this.mean[attIndex]) * (value - this.mean[attIndex]);
+            }
+            this.variance[attIndex] = squaredDeviations / (numValues - 1);
+        }
+    }
+
+    /**
+     * <p>
+     * returns the number of instances
+     * </p>
+     *
+     * @return number of instances
+     */
+    public int getNumInstances() {
+        return this.numInstances;
+    }
+
+    /**
+     * <p>
+     * returns the number of instances of each class. For numeric classes, the first value is the
+     * number of instances with value zero, the second the number of instances with non-zero values.
+     * </p>
+     *
+     * @return copy of the number of instances of each class
+     */
+    public int[] getClassCounts() {
+        return this.classCounts.clone();
+    }
+
+    /**
+     * <p>
+     * returns the minimum of an attribute
+     * </p>
+     *
+     * @param attIndex
+     *            index of the attribute
+     * @return minimum
+     */
+    public double getMin(int attIndex) {
+        return this.min[attIndex];
+    }
+
+    /**
+     * <p>
+     * returns the maximum of an attribute
+     * </p>
+     *
+     * @param attIndex
+     *            index of the attribute
+     * @return maximum
+     */
+    public double getMax(int attIndex) {
+        return this.max[attIndex];
+    }
+
+    /**
+     * <p>
+     * returns the mean of an attribute
+     * </p>
+     *
+     * @param attIndex
+     *            index of the attribute
+     * @return mean
+     */
+    public double getMean(int attIndex) {
+        return this.mean[attIndex];
+    }
+
+    /**
+     * <p>
+     * returns the sample variance of an attribute; {@link Double#NaN} if the attribute has less
+     * than two values
+     * </p>
+     *
+     * @param attIndex
+     *            index of the attribute
+     * @return variance
+     */
+    public double getVariance(int attIndex) {
+        return this.variance[attIndex];
+    }
+
+    /**
+     * <p>
+     * returns the median of an attribute
+     * </p>
+     *
+     * @param attIndex
+     *            index of the attribute
+     * @return median
+     */
+    public double getMedian(int attIndex) {
+        return this.median[attIndex];
+    }
+}
@@ -11,6 +11,7 @@ import org.ojalgo.matrix.jama.JamaEigenvalue;
 import org.ojalgo.matrix.jama.JamaEigenvalue.General;
 import org.ojalgo.matrix.jama.JamaMatrix;
 
+import de.ugoe.cs.cpdp.IMemoryFootprint;
 import de.ugoe.cs.cpdp.util.WekaUtils;
 import de.ugoe.cs.util.console.Console;
 import weka.classifiers.AbstractClassifier;
@@ -24,7 +25,9 @@ import weka.core.Instances;
  * 
  * @author Steffen Herbold
  */
-public class SpectralClusteringClassifier extends AbstractClassifier {
+public class SpectralClusteringClassifier extends AbstractClassifier
+    implements IMemoryFootprint
+{
 
     /**  */
     private static final long serialVersionUID = 1L;
@@ -110,6 +113,23 @@ public class SpectralClusteringClassifier extends AbstractClassifier {
         }
     }
 
+    /**
+     * <p>
+     * The training builds several dense matrices over the training data, i.e., the adjacency
+     * matrix, the degree matrix, the identity matrix, the Laplacian matrix, intermediate products,
+     * and the eigenvectors.
+     * </p>
+     * 
+     * @see de.ugoe.cs.cpdp.IMemoryFootprint#estimateFootprint(int, int, int)
+     */
+    @Override
+    public long estimateFootprint(int numTrainingInstances,
+                                  int numTestInstances,
+                                  int numAttributes)
+    {
+        return 8L * 8L * numTrainingInstances * numTrainingInstances;
+    }
+
     /*
      * (non-Javadoc)
      * 
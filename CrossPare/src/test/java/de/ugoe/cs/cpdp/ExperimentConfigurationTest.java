@@ -1,8 +1,16 @@
 package de.ugoe.cs.cpdp;
 
 import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import de.ugoe.cs.cpdp.eval.ExperimentResult;
+import de.ugoe.cs.cpdp.eval.FileResultStorage;
+import de.ugoe.cs.cpdp.eval.IResultStorage;
 
 import static org.junit.Assert.*;
 
@@ -15,11 +23,86 @@ import static org.junit.Assert.*;
  */
 public class ExperimentConfigurationTest {
 
+	private static final String HEADER = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+			+ "<config xmlns=\"experimentconfig\" xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\" "
+			+ "xsi:schemaLocation=\"experimentconfig experimentconfig.xsd\">\n";
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
 	@Test
 	public void validateConfigurations() {
 		validateConfigurations("testdata/configurations");
 	}
 	
+	@Test
+	public void testCreateCopy_doesNotReadFilesAgain() throws Exception {
+		File partialFile = this.folder.newFile("partial.xml");
+		Files.write(partialFile.toPath(), (HEADER
+				+ " <trainer name=\"WekaTraining\" param=\"NB weka.classifiers.bayes.NaiveBayes\" />\n"
+				+ " <executionStrategy name=\"CrossProjectExperiment\" />\n" + "</config>\n")
+						.getBytes(StandardCharsets.UTF_8));
+		File configFile = this.folder.newFile("config.xml");
+		Files.write(configFile.toPath(), (HEADER
+				+ " <loader name=\"CSVFolderLoader\" datalocation=\"data\" relative=\"false\"/>\n"
+				+ " <executionStrategy name=\"CrossProjectExperiment\" />\n"
+				+ " <partialconfig path=\"partial.xml\" />\n" + "</config>\n")
+						.getBytes(StandardCharsets.UTF_8));
+		ExperimentConfiguration config = new ExperimentConfiguration(configFile);
+
+		// the copies are created from the contents that were read by the configuration
+		assertTrue(configFile.delete());
+		assertTrue(partialFile.delete());
+		ExperimentConfiguration copy = config.createCopy();
+
+		assertEquals(1, copy.getLoaders().size());
+		assertEquals(1, copy.getTrainers().size());
+		assertNotSame(config.getLoaders().get(0), copy.getLoaders().get(0));
+		assertNotSame(config.getTrainers().get(0), copy.getTrainers().get(0));
+		assertSame(config.getResultStorages(), copy.getResultStorages());
+	}
+
+	@Test
+	public void testFileResultStorage_resultsPathAfterStorage() throws Exception {
+		File resultsPath = new File(this.folder.getRoot(), "results");
+		File configFile = this.folder.newFile("config.xml");
+		Files.write(configFile.toPath(), (HEADER
+				+ " <storage name=\"FileResultStorage\" />\n"
+				+ " <resultspath path=\"" + resultsPath.getAbsolutePath() + "\"/>\n"
+				+ " <executionStrategy name=\"CrossProjectExperiment\" />\n" + "</config>\n")
+						.getBytes(StandardCharsets.UTF_8));
+
+		assertResultsIn(new ExperimentConfiguration(configFile), resultsPath);
+	}
+
+	@Test
+	public void testFileResultStorage_resultsPathOfPartialConfig() throws Exception {
+		File resultsPath = new File(this.folder.getRoot(), "results");
+		File partialFile = this.folder.newFile("partial.xml");
+		Files.write(partialFile.toPath(), (HEADER
+				+ " <resultspath path=\"" + resultsPath.getAbsolutePath() + "\"/>\n"
+				+ " <executionStrategy name=\"CrossProjectExperiment\" />\n" + "</config>\n")
+						.getBytes(StandardCharsets.UTF_8));
+		File configFile = this.folder.newFile("config.xml");
+		Files.write(configFile.toPath(), (HEADER
+				+ " <storage name=\"FileResultStorage\" />\n"
+				+ " <executionStrategy name=\"CrossProjectExperiment\" />\n"
+				+ " <partialconfig path=\"partial.xml\" />\n" + "</config>\n")
+						.getBytes(StandardCharsets.UTF_8));
+
+		assertResultsIn(new ExperimentConfiguration(configFile), resultsPath);
+	}
+
+	private static void assertResultsIn(ExperimentConfiguration config, File resultsPath) throws Exception {
+		assertEquals(resultsPath.getAbsolutePath(), config.getResultsPath());
+		assertEquals(1, config.getResultStorages().size());
+		IResultStorage storage = config.getResultStorages().get(0);
+		assertTrue(storage instanceof FileResultStorage);
+		storage.addResult(new ExperimentResult("config", "p1", "NB", ""));
+		((FileResultStorage) storage).close();
+		assertTrue(new File(resultsPath, "config" + FileResultStorage.FILE_EXTENSION).isFile());
+	}
+	
 	public static void validateConfigurations(String folder) {
 		File configFolder = new File(folder);
 		boolean error = false;
@@ -0,0 +1,84 @@
+package de.ugoe.cs.cpdp.eval;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import weka.classifiers.Classifier;
+import weka.classifiers.Evaluation;
+import weka.classifiers.bayes.NaiveBayes;
+import weka.classifiers.trees.J48;
+import weka.core.Instances;
+
+public class CVWekaEvaluationTest {
+
+	private static void assertSameEvaluation(Classifier classifier) throws Exception {
+		Instances data = EvaluationTestData.createData("data", 42);
+
+		Evaluation expected = new Evaluation(data);
+		expected.crossValidateModel(classifier, data, 10, new Random(1));
+
+		Evaluation actual = CVWekaEvaluation.crossValidateModel(classifier, data, 10, new Random(1));
+
+		assertEquals(expected.numInstances(), actual.numInstances(), 0.0);
+		assertEquals(expected.errorRate(), actual.errorRate(), 0.0);
+		assertEquals(expected.areaUnderROC(1), actual.areaUnderROC(1), 0.0);
+		assertEquals(expected.matthewsCorrelationCoefficient(1),
+				actual.matthewsCorrelationCoefficient(1), 0.0);
+		for (int i = 0; i < 2; i++) {
+			assertArrayEquals(expected.confusionMatrix()[i], actual.confusionMatrix()[i], 0.0);
+		}
+		assertEquals(expected.predictions().size(), actual.predictions().size());
+		for (int i = 0; i < expected.predictions().size(); i++) {
+			assertEquals(expected.predictions().get(i).actual(), actual.predictions().get(i).actual(), 0.0);
+			assertEquals(expected.predictions().get(i).predicted(),
+					actual.predictions().get(i).predicted(), 0.0);
+		}
+	}
+
+	@Test
+	public void testCrossValidateModel_naiveBayes() throws Exception {
+		assertSameEvaluation(new NaiveBayes());
+	}
+
+	@Test
+	public void testCrossValidateModel_j48() throws Exception {
+		assertSameEvaluation(new J48());
+	}
+
+	@Test
+	public void testCreateEvaluator_reproducible() throws Exception {
+		Instances data = EvaluationTestData.createData("data", 42);
+		CVWekaEvaluation evaluation = new CVWekaEvaluation();
+		Evaluation first = evaluation.createEvaluator(data, new J48());
+		Evaluation second = evaluation.createEvaluator(data, new J48());
+		assertEquals(first.errorRate(), second.errorRate(), 0.0);
+		assertEquals(first.areaUnderROC(1), second.areaUnderROC(1), 0.0);
+		assertEquals(data.numInstances(), first.numInstances(), 0.0);
+	}
+
+	@Test
+	public void testSetParameter_seed() throws Exception {
+		Instances data = EvaluationTestData.createData("data", 42);
+		CVWekaEvaluation evaluation = new CVWekaEvaluation();
+		evaluation.setParameter("seed=7");
+		// the output file set by the experiments does not reset the seed
+		evaluation.setParameter("system.out");
+		Evaluation actual = evaluation.createEvaluator(data, new NaiveBayes());
+
+		Evaluation expected = CVWekaEvaluation.crossValidateModel(new NaiveBayes(), data, 10, new Random(7));
+		assertEquals(expected.predictions().size(), actual.predictions().size());
+		for (int i = 0; i < expected.predictions().size(); i++) {
+			assertEquals(expected.predictions().get(i).actual(), actual.predictions().get(i).actual(), 0.0);
+			assertEquals(expected.predictions().get(i).predicted(),
+					actual.predictions().get(i).predicted(), 0.0);
+		}
+	}
+
+	@Test(expected = RuntimeException.class)
+	public void testSetParameter_invalidSeed() {
+		new CVWekaEvaluation().setParameter("seed=abc");
+	}
+}
@@ -0,0 +1,109 @@
+package de.ugoe.cs.cpdp.eval;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import weka.classifiers.AbstractClassifier;
+import weka.core.Attribute;
+import weka.core.DenseInstance;
+import weka.core.Instance;
+import weka.core.Instances;
+
+public class EffortMetricCalculatorTest {
+
+	private static final double[] SCORES = new double[] { 0.9, 0.1, 0.5, 0.5 };
+
+	private static final List<Double> EFFORTS = Arrays.asList(10.0, 40.0, 30.0, 20.0);
+
+	private static final List<Double> BUGS = Arrays.asList(2.0, 0.0, 1.0, 1.0);
+
+	private static PredictionCache createPredictions() {
+		ArrayList<Attribute> attributes = new ArrayList<>();
+		attributes.add(new Attribute("id"));
+		ArrayList<String> classValues = new ArrayList<>();
+		classValues.add("0");
+		classValues.add("1");
+		attributes.add(new Attribute("class", classValues));
+		Instances data = new Instances("data", attributes, 0);
+		data.setClassIndex(1);
+		for (int i = 0; i < SCORES.length; i++) {
+			data.add(new DenseInstance(1.0, new double[] { i, 0.0 }));
+		}
+		AbstractClassifier classifier = new AbstractClassifier() {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			public void buildClassifier(Instances traindata) {
+				// nothing to train
+			}
+
+			@Override
+			public double[] distributionForInstance(Instance instance) {
+				double score = SCORES[(int) instance.value(0)];
+				return new double[] { 1.0 - score, score };
+			}
+		};
+		return new PredictionCache(data, classifier);
+	}
+
+	@Test
+	public void testDefaultCutoffs() {
+		EffortMetricCalculator calculator = new EffortMetricCalculator(createPredictions(), EFFORTS,
+				BUGS);
+		// ranking: 0, 3, 2, 1 with efforts 10, 20, 30, 40 and bugs 2, 1, 1, 0
+		assertTrue(calculator.isDefined());
+		assertEquals(0.9, calculator.getAUCEC(), 1e-12);
+		assertEquals(2.0, calculator.getNofb20(), 0.0);
+		assertEquals(0.5, calculator.getRelb20(), 1e-12);
+		assertEquals(3.0, calculator.getNofi80(), 0.0);
+		assertEquals(0.75, calculator.getReli80(), 1e-12);
+		assertEquals(0.6, calculator.getRele80(), 1e-12);
+		assertEquals(2.0, calculator.getNofBPredicted(), 0.0);
+		assertEquals(2.0, calculator.getNofBMissed(), 0.0);
+	}
+
+	@Test
+	public void testAdditionalCutoffs() {
+		EffortMetricCalculator calculator = new EffortMetricCalculator(createPredictions(), EFFORTS,
+				BUGS, new double[] { 0.6, 0.1 }, new double[] { 0.5 });
+		assertEquals(0.0, calculator.getNofb(0.1), 0.0);
+		assertEquals(0.0, calculator.getRelb(0.1), 0.0);
+		assertEquals(2.0, calculator.getNofb(0.2), 0.0);
+		assertEquals(3.0, calculator.getNofb(0.6), 0.0);
+		assertEquals(0.75, calculator.getRelb(0.6), 1e-12);
+		assertEquals(2.0, calculator.getNofi(0.5), 0.0);
+		assertEquals(0.5, calculator.getReli(0.5), 1e-12);
+		assertEquals(0.3, calculator.getRele(0.5), 1e-12);
+		assertEquals(3.0, calculator.getNofi80(), 0.0);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testUnknownCutoff() {
+		EffortMetricCalculator calculator = new EffortMetricCalculator(createPredictions(), EFFORTS,
+				BUGS);
+		calculator.getNofb(0.3);
+	}
+
+	@Test
+	public void testNoEfforts() {
+		EffortMetricCalculator calculator = new EffortMetricCalculator(createPredictions(), null,
+				null);
+		assertFalse(calculator.isDefined());
+		assertEquals(-1.0, calculator.getAUCEC(), 0.0);
+		assertEquals(-1.0, calculator.getNofb20(), 0.0);
+		assertEquals(-1.0, calculator.getRele80(), 0.0);
+		assertEquals(-1.0, calculator.getNofBPredicted(), 0.0);
+	}
+
+	@Test
+	public void testRank_stable() {
+		double[] scores = new double[] { 0.5, 0.7, 0.5, 0.5, 0.7 };
+		double[] efforts = new double[] { 3.0, 1.0, 1.0, 3.0, 1.0 };
+		assertArrayEquals(new int[] { 1, 4, 2, 0, 3 }, EffortMetricCalculator.rank(scores, efforts));
+	}
+}
@@ -0,0 +1,38 @@
+package de.ugoe.cs.cpdp.eval;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import weka.core.Attribute;
+import weka.core.DenseInstance;
+import weka.core.Instances;
+
+final class EvaluationTestData {
+
+	private EvaluationTestData() {
+	}
+
+	/**
+	 * Two numeric attributes and a binary class; 30% of the 200 instances are
+	 * defective and differ from the others in both attributes.
+	 */
+	static Instances createData(String name, long seed) {
+		ArrayList<Attribute> attributes = new ArrayList<>();
+		attributes.add(new Attribute("attr1"));
+		attributes.add(new Attribute("attr2"));
+		ArrayList<String> classValues = new ArrayList<>();
+		classValues.add("0");
+		classValues.add("1");
+		attributes.add(new Attribute("class", classValues));
+
+		Instances data = new Instances(name, attributes, 0);
+		data.setClassIndex(2);
+		Random rand = new Random(seed);
+		for (int i = 0; i < 200; i++) {
+			double label = rand.nextDouble() < 0.3 ? 1.0 : 0.0;
+			data.add(new DenseInstance(1.0, new double[] { rand.nextGaussian() + label,
+					rand.nextGaussian() * (1.0 + label), label }));
+		}
+		return data;
+	}
+}
@@ -0,0 +1,195 @@
+package de.ugoe.cs.cpdp.eval;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.collect.Table;
+
+public class FileResultStorageTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private static ExperimentResult createResult(String product, String classifier, String trainProduct,
+			double value) {
+		ExperimentResult result = new ExperimentResult("config", product, classifier, trainProduct);
+		result.setSizeTestData(100);
+		result.setSizeTrainingData(1000);
+		result.setError(value);
+		result.setAuc(value / 2);
+		result.setFp(value * 3);
+		return result;
+	}
+
+	@Test
+	public void testContainsResult() {
+		FileResultStorage storage = new FileResultStorage(this.folder.getRoot().getPath());
+		storage.addResult(createResult("p1", "NB", "", 0.1));
+		storage.addResult(createResult("p1", "NB", "", 0.2));
+		storage.addResult(createResult("p2", "J48", "", 0.3));
+
+		assertEquals(2, storage.containsResult("config", "p1", "NB"));
+		assertEquals(1, storage.containsResult("config", "p2", "J48"));
+		assertEquals(0, storage.containsResult("config", "p1", "J48"));
+		assertEquals(0, storage.containsResult("other", "p1", "NB"));
+
+		Table<String, String, Integer> counts = storage.getResultCounts("config");
+		assertEquals(2, counts.size());
+		assertEquals(Integer.valueOf(2), counts.get("p1", "NB"));
+		assertEquals(Integer.valueOf(1), counts.get("p2", "J48"));
+		storage.close();
+	}
+
+	@Test
+	public void testContainsHeterogeneousResult() {
+		FileResultStorage storage = new FileResultStorage(this.folder.getRoot().getPath());
+		storage.addResult(createResult("p1", "NB", "t1", 0.1));
+		storage.addResult(createResult("p1", "NB", "t2", 0.2));
+		storage.addResult(createResult("p1", "NB", "t2", 0.3));
+		storage.addResult(createResult("p1", "J48", "t1", 0.4));
+
+		assertEquals(1, storage.containsHeterogeneousResult("config", "p1", "NB", "t1"));
+		assertEquals(2, storage.containsHeterogeneousResult("config", "p1", "NB", "t2"));
+		assertEquals(0, storage.containsHeterogeneousResult("config", "p1", "J48", "t2"));
+		assertEquals(0, storage.containsHeterogeneousResult("config", "p1", "IBk", "t1"));
+
+		Table<String, String, Integer> counts = storage.getHeterogeneousResultCounts("config", "NB");
+		assertEquals(2, counts.size());
+		assertEquals(Integer.valueOf(2), counts.get("p1", "t2"));
+		assertTrue(storage.getHeterogeneousResultCounts("config", "IBk").isEmpty());
+		storage.close();
+	}
+
+	@Test
+	public void testResume() {
+		FileResultStorage storage = new FileResultStorage(this.folder.getRoot().getPath());
+		storage.addResult(createResult("p1", "NB", "", 0.1));
+		storage.addResult(createResult("p2", "NB", "", 0.2));
+
+		// results are readable without closing, e.g., after a crash
+		FileResultStorage resumed = new FileResultStorage(this.folder.getRoot().getPath());
+		assertEquals(1, resumed.containsResult("config", "p1", "NB"));
+		assertEquals(1, resumed.containsResult("config", "p2", "NB"));
+		storage.close();
+		resumed.close();
+	}
+
+	@Test
+	public void testCompaction() throws Exception {
+		FileResultStorage storage = new FileResultStorage(this.folder.getRoot().getPath());
+		for (int i = 0; i < 50; i++) {
+			storage.addResult(createResult("product" + (i % 5), "classifier" + (i % 3), "", i));
+		}
+		File file = new File(this.folder.getRoot(), "config" + FileResultStorage.FILE_EXTENSION);
+		long uncompactedLength = file.length();
+		storage.close();
+		assertTrue(file.length() < uncompactedLength);
+		assertFalse(new File(file.getPath() + ".tmp").exists());
+
+		FileResultStorage reopened = new FileResultStorage(this.folder.getRoot().getPath());
+		List<ExperimentResult> results = reopened.getResults("config");
+		assertEquals(50, results.size());
+		for (int i = 0; i < 50; i++) {
+			ExperimentResult result = results.get(i);
+			assertEquals("config", result.getConfigurationName());
+			assertEquals("product" + (i % 5), result.getProductName());
+			assertEquals("classifier" + (i % 3), result.getClassifier());
+			assertEquals("", result.getTrainProductName());
+			assertEquals(100, result.getSizeTestData());
+			assertEquals(1000, result.getSizeTrainingData());
+			assertEquals(i, result.getError(), 0.0);
+			assertEquals(i / 2.0, result.getAuc(), 0.0);
+			assertEquals(i * 3.0, result.getFp(), 0.0);
+		}
+
+		// appending after the compaction
+		reopened.addResult(createResult("product0", "classifier0", "", 50));
+		assertEquals(5, reopened.containsResult("config", "product0", "classifier0"));
+		reopened.close();
+		assertEquals(51, new FileResultStorage(this.folder.getRoot().getPath()).getResults("config").size());
+	}
+
+	@Test
+	public void testTornFrame() throws Exception {
+		FileResultStorage storage = new FileResultStorage(this.folder.getRoot().getPath());
+		storage.addResult(createResult("p1", "NB", "", 0.1));
+		storage.addResult(createResult("p2", "NB", "", 0.2));
+		File file = new File(this.folder.getRoot(), "config" + FileResultStorage.FILE_EXTENSION);
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+			raf.setLength(file.length() - 5);
+		}
+
+		FileResultStorage resumed = new FileResultStorage(this.folder.getRoot().getPath());
+		assertEquals(1, resumed.containsResult("config", "p1", "NB"));
+		assertEquals(0, resumed.containsResult("config", "p2", "NB"));
+		resumed.addResult(createResult("p2", "NB", "", 0.3));
+
+		FileResultStorage check = new FileResultStorage(this.folder.getRoot().getPath());
+		List<ExperimentResult> results = check.getResults("config");
+		assertEquals(2, results.size());
+		assertEquals(0.3, results.get(1).getError(), 0.0);
+		storage.close();
+		resumed.close();
+	}
+
+	@Test
+	public void testSetResultsPath() throws Exception {
+		FileResultStorage storage = new FileResultStorage();
+		File resultsPath = this.folder.newFolder("results");
+		storage.setResultsPath(resultsPath.getPath());
+		storage.addResult(createResult("p1", "NB", "", 0.1));
+		storage.close();
+		assertTrue(new File(resultsPath, "config" + FileResultStorage.FILE_EXTENSION).isFile());
+	}
+
+	@Test
+	public void testShards() {
+		String directory = this.folder.getRoot().getPath();
+		FileResultStorage storage = new FileResultStorage(directory);
+		storage.addResult(createResult("p0", "NB", "", 0.0));
+		storage.close();
+
+		FileResultStorage shard1 = new FileResultStorage(directory);
+		FileResultStorage shard2 = new FileResultStorage(directory);
+		shard1.setShard("1-of-2");
+		shard2.setShard("2-of-2");
+		shard1.addResult(createResult("p1", "NB", "", 0.1));
+		shard2.addResult(createResult("p2", "NB", "", 0.2));
+		// compacting the log of one shard does not affect the results of the other shard
+		shard1.close();
+		shard2.addResult(createResult("p2", "NB", "", 0.3));
+		shard2.close();
+
+		// the shards see the results of the configuration, but not of the other shards
+		assertEquals(1, shard1.containsResult("config", "p0", "NB"));
+		assertEquals(1, shard1.containsResult("config", "p1", "NB"));
+		assertEquals(0, shard1.containsResult("config", "p2", "NB"));
+		assertEquals(2, shard2.containsResult("config", "p2", "NB"));
+		assertEquals(3, shard2.getResults("config").size());
+		assertEquals(1, new FileResultStorage(directory).getResults("config").size());
+		shard1.close();
+		shard2.close();
+
+		FileResultStorage merged = new FileResultStorage(directory);
+		merged.mergeShards("config", Arrays.asList("1-of-2", "2-of-2"));
+		List<ExperimentResult> results = merged.getResults("config");
+		assertEquals(4, results.size());
+		assertEquals(0.0, results.get(0).getError(), 0.0);
+		assertEquals(0.1, results.get(1).getError(), 0.0);
+		assertEquals(0.2, results.get(2).getError(), 0.0);
+		assertEquals(0.3, results.get(3).getError(), 0.0);
+		assertEquals(2, merged.containsResult("config", "p2", "NB"));
+		merged.close();
+		assertFalse(new File(directory, "config.1-of-2" + FileResultStorage.FILE_EXTENSION).exists());
+		assertFalse(new File(directory, "config.2-of-2" + FileResultStorage.FILE_EXTENSION).exists());
+		assertFalse(new File(directory, "config" + FileResultStorage.FILE_EXTENSION + ".merge").exists());
+	}
+}
@@ -1,5 +1,18 @@
 package de.ugoe.cs.cpdp.eval;
 
+import static org.junit.Assert.*;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
 import org.junit.Test;
 
 public class MySQLResultStorageTest {
@@ -29,4 +42,245 @@ public class MySQLResultStorageTest {
         result.setFp(15);
         storage.addResult(result);
     }
+
+    /**
+     * In-process stand-in for a JDBC database that counts the inserted rows.
+     */
+    private static class FakeDatabase {
+
+        final AtomicInteger connections = new AtomicInteger();
+        final AtomicInteger openConnections = new AtomicInteger();
+        final AtomicInteger batches = new AtomicInteger();
+        final AtomicInteger commits = new AtomicInteger();
+        final AtomicInteger insertedRows = new AtomicInteger();
+        final AtomicInteger failures = new AtomicInteger();
+        volatile CountDownLatch blockBatches = new CountDownLatch(0);
+
+        DataSource getDataSource() {
+            InvocationHandler handler = (proxy, method, args) -> {
+                if (method.getName().equals("getConnection")) {
+                    this.connections.incrementAndGet();
+                    this.openConnections.incrementAndGet();
+                    return createConnection();
+                }
+                throw new UnsupportedOperationException(method.getName());
+            };
+            return (DataSource) Proxy.newProxyInstance(getClass().getClassLoader(),
+                                                       new Class<?>[] { DataSource.class },
+                                                       handler);
+        }
+
+        private Connection createConnection() {
+            final AtomicInteger pendingRows = new AtomicInteger();
+            InvocationHandler handler = (proxy, method, args) -> {
+                switch (method.getName())
+                {
+                    case "prepareStatement":
+                        return createStatement(pendingRows);
+                    case "commit":
+                        this.commits.incrementAndGet();
+                        this.insertedRows.addAndGet(pendingRows.getAndSet(0));
+                        return null;
+                    case "rollback":
+                        pendingRows.set(0);
+                        return null;
+                    case "close":
+                        this.openConnections.decrementAndGet();
+                        return null;
+                    case "getAutoCommit":
+                        return false;
+                    default:
+                        return null;
+                }
+            };
+            return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(),
+                                                       new Class<?>[] { Connection.class },
+                                                       handler);
+        }
+
+        private PreparedStatement createStatement(AtomicInteger pendingRows) {
+            final AtomicInteger batchRows = new AtomicInteger();
+            InvocationHandler handler = (proxy, method, args) -> {
+                switch (method.getName())
+                {
+                    case "addBatch":
+                        batchRows.incrementAndGet();
+                        return null;
+                    case "executeBatch":
+                        this.blockBatches.await(10, TimeUnit.SECONDS);
+                        if (this.failures.getAndDecrement() > 0) {
+                            throw new SQLException("connection lost");
+                        }
+                        this.batches.incrementAndGet();
+                        pendingRows.addAndGet(batchRows.get());
+                        return new int[batchRows.getAndSet(0)];
+                    case "executeUpdate":
+                        if (this.failures.getAndDecrement() > 0) {
+                            throw new SQLException("connection lost");
+                        }
+                        this.insertedRows.incrementAndGet();
+                        return 1;
+                    default:
+                        return null;
+                }
+            };
+            return (PreparedStatement) Proxy
+                .newProxyInstance(getClass().getClassLoader(),
+                                  new Class<?>[] { PreparedStatement.class }, handler);
+        }
+    }
+
+    private static ExperimentResult createResult(int i) {
+        ExperimentResult result = new ExperimentResult("dummy", "product-" + i, "classifier");
+        result.setSizeTestData(100);
+        result.setSizeTrainingData(200);
+        return result;
+    }
+
+    @Test
+    public void testAddResult_synchronous() {
+        FakeDatabase database = new FakeDatabase();
+        MySQLResultStorage storage =
+            new MySQLResultStorage(database.getDataSource(), "results", false, false, 100, 100);
+        for (int i = 0; i < 3; i++) {
+            storage.addResult(createResult(i));
+        }
+        storage.flush();
+        assertEquals(3, database.insertedRows.get());
+        assertEquals(3, database.connections.get());
+        assertEquals(0, database.openConnections.get());
+    }
+
+    @Test
+    public void testAddResult_synchronousFailure() {
+        FakeDatabase database = new FakeDatabase();
+        database.failures.set(1);
+        MySQLResultStorage storage =
+            new MySQLResultStorage(database.getDataSource(), "results", false, false, 100, 100);
+        for (int i = 0; i < 3; i++) {
+            storage.addResult(createResult(i));
+        }
+        assertEquals(2, database.insertedRows.get());
+        try {
+            storage.flush();
+            fail("failed insert not reported");
+        }
+        catch (RuntimeException e) {
+            assertTrue(e.getMessage().startsWith("1 "));
+        }
+        // the failure is only reported once
+        storage.flush();
+    }
+
+    @Test
+    public void testAddResult_asynchronousBatches() {
+        FakeDatabase database = new FakeDatabase();
+        MySQLResultStorage storage =
+            new MySQLResultStorage(database.getDataSource(), "results", false, true, 10, 1000);
+        for (int i = 0; i < 95; i++) {
+            storage.addResult(createResult(i));
+        }
+        storage.flush();
+        assertEquals(95, database.insertedRows.get());
+        assertTrue(database.batches.get() >= 10);
+        assertEquals(database.batches.get(), database.commits.get());
+        assertEquals(1, database.connections.get());
+        storage.close();
+    }
+
+    @Test
+    public void testAddResult_asynchronousDoesNotBlock() throws Exception {
+        FakeDatabase database = new FakeDatabase();
+        database.blockBatches = new CountDownLatch(1);
+        MySQLResultStorage storage =
+            new MySQLResultStorage(database.getDataSource(), "results", false, true, 10, 1000);
+        for (int i = 0; i < 50; i++) {
+            storage.addResult(createResult(i));
+        }
+        // the writer is still blocked by the database
+        assertEquals(0, database.insertedRows.get());
+        database.blockBatches.countDown();
+        storage.flush();
+        assertEquals(50, database.insertedRows.get());
+        storage.close();
+    }
+
+    @Test
+    public void testAddResult_asynchronousRetry() {
+        FakeDatabase database = new FakeDatabase();
+        database.failures.set(1);
+        MySQLResultStorage storage =
+            new MySQLResultStorage(database.getDataSource(), "results", false, true, 10, 1000);
+        for (int i = 0; i < 5; i++) {
+            storage.addResult(createResult(i));
+        }
+        storage.flush();
+        assertEquals(5, database.insertedRows.get());
+        assertEquals(2, database.connections.get());
+        assertEquals(1, database.openConnections.get());
+        storage.close();
+        assertEquals(0, database.openConnections.get());
+    }
+
+    @Test
+    public void testAddResult_asynchronousFailure() {
+        FakeDatabase database = new FakeDatabase();
+        // the batches fail with the open connection and with the new connection
+        database.failures.set(1000);
+        MySQLResultStorage storage =
+            new MySQLResultStorage(database.getDataSource(), "results", false, true, 10, 1000);
+        for (int i = 0; i < 5; i++) {
+            storage.addResult(createResult(i));
+        }
+        try {
+            storage.flush();
+            fail("dropped batch not reported");
+        }
+        catch (RuntimeException e) {
+            assertTrue(e.getMessage().startsWith("5 "));
+        }
+        assertEquals(0, database.insertedRows.get());
+
+        // later results are stored and the failure is only reported once
+        database.failures.set(0);
+        storage.addResult(createResult(5));
+        storage.flush();
+        assertEquals(1, database.insertedRows.get());
+        storage.close();
+    }
+
+    @Test
+    public void testClose_asynchronous() throws Exception {
+        int runningWriters = countWriters();
+        FakeDatabase database = new FakeDatabase();
+        MySQLResultStorage storage =
+            new MySQLResultStorage(database.getDataSource(), "results", false, true, 10, 1000);
+        for (int i = 0; i < 25; i++) {
+            storage.addResult(createResult(i));
+        }
+        storage.close();
+        // the queued results are stored before the writer stops
+        assertEquals(25, database.insertedRows.get());
+        assertEquals(0, database.openConnections.get());
+        assertEquals(runningWriters, countWriters());
+
+        // the writer is started again for later results
+        storage.addResult(createResult(25));
+        storage.flush();
+        assertEquals(26, database.insertedRows.get());
+        assertEquals(1, database.openConnections.get());
+        storage.close();
+        assertEquals(0, database.openConnections.get());
+        assertEquals(runningWriters, countWriters());
+    }
+
+    private static int countWriters() {
+        int count = 0;
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().equals("MySQLResultStorage-writer") && thread.isAlive()) {
+                count++;
+            }
+        }
+        return count;
+    }
 }
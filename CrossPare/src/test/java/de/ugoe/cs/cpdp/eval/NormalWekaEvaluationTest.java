@@ -0,0 +1,122 @@
+package de.ugoe.cs.cpdp.eval;
+
+import static org.junit.Assert.*;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.google.common.collect.Table;
+
+import de.ugoe.cs.cpdp.training.ITrainer;
+import de.ugoe.cs.cpdp.training.WekaTraining;
+import weka.core.Instances;
+
+public class NormalWekaEvaluationTest {
+
+	private static final String[] CLASSIFIERS = new String[] {
+			"NB weka.classifiers.bayes.NaiveBayes", "DT weka.classifiers.trees.J48",
+			"KNN weka.classifiers.lazy.IBk", "OR weka.classifiers.rules.OneR" };
+
+	private static class ListStorage implements IResultStorage {
+
+		final List<ExperimentResult> results = Collections.synchronizedList(new ArrayList<>());
+
+		@Override
+		public void addResult(ExperimentResult result) {
+			this.results.add(result);
+		}
+
+		@Override
+		public int containsResult(String experimentName, String productName, String classifierName) {
+			return 0;
+		}
+
+		@Override
+		public int containsHeterogeneousResult(String experimentName, String productName,
+				String classifierName, String trainProductName) {
+			return 0;
+		}
+
+		@Override
+		public Table<String, String, Integer> getResultCounts(String experimentName) {
+			return null;
+		}
+
+		@Override
+		public Table<String, String, Integer> getHeterogeneousResultCounts(String experimentName,
+				String classifierName) {
+			return null;
+		}
+	}
+
+	private static String evaluate(boolean concurrent, ListStorage storage) {
+		Instances traindata = EvaluationTestData.createData("train", 42);
+		Instances testdata = EvaluationTestData.createData("test", 43);
+		List<ITrainer> trainers = new ArrayList<>();
+		for (String classifier : CLASSIFIERS) {
+			WekaTraining trainer = new WekaTraining();
+			trainer.setParameter(classifier);
+			trainer.apply(traindata);
+			trainers.add(trainer);
+		}
+		List<Double> efforts = new ArrayList<>();
+		List<Double> numBugs = new ArrayList<>();
+		for (int i = 0; i < testdata.numInstances(); i++) {
+			efforts.add((double) (i % 17 + 1));
+			numBugs.add(testdata.instance(i).classValue());
+		}
+
+		StringWriter output = new StringWriter();
+		NormalWekaEvaluation evaluation = new NormalWekaEvaluation();
+		evaluation.setOutput(new PrintWriter(output), "test");
+		evaluation.setConcurrent(concurrent, 2);
+		evaluation.apply(testdata, traindata, trainers, efforts, numBugs, true,
+				Collections.<IResultStorage> singletonList(storage));
+		return output.toString();
+	}
+
+	@Test
+	public void testApply_concurrentSameAsSerial() {
+		ListStorage serialStorage = new ListStorage();
+		ListStorage concurrentStorage = new ListStorage();
+		String serial = evaluate(false, serialStorage);
+		String concurrent = evaluate(true, concurrentStorage);
+
+		assertEquals(serial, concurrent);
+		assertEquals(CLASSIFIERS.length, serialStorage.results.size());
+		assertEquals(CLASSIFIERS.length, concurrentStorage.results.size());
+		for (int i = 0; i < CLASSIFIERS.length; i++) {
+			ExperimentResult expected = serialStorage.results.get(i);
+			ExperimentResult actual = concurrentStorage.results.get(i);
+			assertEquals(CLASSIFIERS[i].split(" ")[0], actual.getClassifier());
+			assertEquals(expected.getClassifier(), actual.getClassifier());
+			assertEquals(expected.getAuc(), actual.getAuc(), 0.0);
+			assertEquals(expected.getAucec(), actual.getAucec(), 0.0);
+			assertEquals(expected.getMcc(), actual.getMcc(), 0.0);
+		}
+	}
+
+	@Test
+	public void testApply_concurrentStorageFailure() {
+		ListStorage storage = new ListStorage() {
+			@Override
+			public void addResult(ExperimentResult result) {
+				throw new IllegalStateException("storage failure");
+			}
+		};
+		try {
+			evaluate(true, storage);
+			fail("expected RuntimeException");
+		}
+		catch (RuntimeException e) {
+			// the storages are called by the calling thread, i.e., the failure is not wrapped
+			assertTrue(e instanceof IllegalStateException);
+			assertEquals("storage failure", e.getMessage());
+		}
+	}
+}
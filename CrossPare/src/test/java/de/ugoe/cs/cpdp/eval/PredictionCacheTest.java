@@ -0,0 +1,118 @@
+package de.ugoe.cs.cpdp.eval;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import weka.classifiers.Classifier;
+import weka.classifiers.Evaluation;
+import weka.classifiers.bayes.NaiveBayes;
+import weka.classifiers.trees.J48;
+import weka.core.Instance;
+import weka.core.Instances;
+
+public class PredictionCacheTest {
+
+	private static void assertSameEvaluation(Classifier classifier, Instances testdata) throws Exception {
+		classifier.buildClassifier(EvaluationTestData.createData("train", 42));
+
+		Evaluation expected = new Evaluation(testdata);
+		expected.evaluateModel(classifier, testdata);
+
+		Evaluation actual = new PredictionCache(testdata, classifier).createEvaluation();
+
+		assertEquals(expected.numInstances(), actual.numInstances(), 0.0);
+		assertEquals(expected.errorRate(), actual.errorRate(), 0.0);
+		assertEquals(expected.areaUnderROC(1), actual.areaUnderROC(1), 0.0);
+		assertEquals(expected.matthewsCorrelationCoefficient(1),
+				actual.matthewsCorrelationCoefficient(1), 0.0);
+		for (int i = 0; i < 2; i++) {
+			assertArrayEquals(expected.confusionMatrix()[i], actual.confusionMatrix()[i], 0.0);
+		}
+	}
+
+	@Test
+	public void testCreateEvaluation_naiveBayes() throws Exception {
+		assertSameEvaluation(new NaiveBayes(), EvaluationTestData.createData("test", 43));
+	}
+
+	@Test
+	public void testCreateEvaluation_j48() throws Exception {
+		assertSameEvaluation(new J48(), EvaluationTestData.createData("test", 43));
+	}
+
+	@Test
+	public void testCreateEvaluation_missingValues() throws Exception {
+		Instances testdata = EvaluationTestData.createData("test", 43);
+		for (int i = 0; i < testdata.numInstances(); i += 5) {
+			testdata.instance(i).setMissing(i % 2);
+		}
+		assertSameEvaluation(new NaiveBayes(), testdata);
+		assertSameEvaluation(new J48(), testdata);
+	}
+
+	@Test
+	public void testGetDistributions_predictedOnce() throws Exception {
+		Instances testdata = EvaluationTestData.createData("test", 43);
+		final int[] numPredictions = new int[1];
+		NaiveBayes classifier = new NaiveBayes() {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			public double[] distributionForInstance(Instance instance) throws Exception {
+				assertTrue(instance.classIsMissing());
+				numPredictions[0]++;
+				return super.distributionForInstance(instance);
+			}
+		};
+		classifier.buildClassifier(EvaluationTestData.createData("train", 42));
+
+		PredictionCache predictions = new PredictionCache(testdata, classifier);
+		assertEquals(0, numPredictions[0]);
+		double[][] distributions = predictions.getDistributions();
+		predictions.createEvaluation();
+		assertSame(distributions, predictions.getDistributions());
+		assertEquals(testdata.numInstances(), numPredictions[0]);
+		assertFalse(testdata.instance(0).classIsMissing());
+	}
+
+	@Test
+	public void testGetDistributions_batchPrediction() throws Exception {
+		Instances traindata = EvaluationTestData.createData("train", 42);
+		Instances testdata = EvaluationTestData.createData("test", 43);
+		final int[] numBatches = new int[1];
+		NaiveBayes batchClassifier = new NaiveBayes() {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			public boolean implementsMoreEfficientBatchPrediction() {
+				return true;
+			}
+
+			@Override
+			public double[][] distributionsForInstances(Instances batch) throws Exception {
+				assertNotSame(testdata, batch);
+				for (Instance instance : batch) {
+					assertTrue(instance.classIsMissing());
+				}
+				numBatches[0]++;
+				return super.distributionsForInstances(batch);
+			}
+		};
+		batchClassifier.buildClassifier(traindata);
+		NaiveBayes classifier = new NaiveBayes();
+		classifier.buildClassifier(traindata);
+
+		double[][] expected = new PredictionCache(testdata, classifier).getDistributions();
+		double[][] actual = new PredictionCache(testdata, batchClassifier).getDistributions();
+
+		assertEquals(1, numBatches[0]);
+		assertEquals(expected.length, actual.length);
+		for (int i = 0; i < expected.length; i++) {
+			assertArrayEquals(expected[i], actual[i], 0.0);
+		}
+		for (Instance instance : testdata) {
+			assertFalse(instance.classIsMissing());
+		}
+	}
+}
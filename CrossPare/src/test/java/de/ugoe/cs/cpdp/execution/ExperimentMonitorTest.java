@@ -0,0 +1,82 @@
+package de.ugoe.cs.cpdp.execution;
+
+import static org.junit.Assert.*;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class ExperimentMonitorTest {
+
+	private static final String NAME = "ExperimentMonitorTest";
+
+	@After
+	public void tearDown() {
+		ExperimentMonitor.remove(NAME);
+		StageTimings.remove(NAME);
+	}
+
+	@Test
+	public void testForExperiment_registersMBean() throws Exception {
+		ExperimentMonitor monitor = ExperimentMonitor.forExperiment(NAME);
+		assertSame(monitor, ExperimentMonitor.forExperiment(NAME));
+
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		ObjectName name = ExperimentMonitor.getObjectName(NAME);
+		assertTrue(server.isRegistered(name));
+		assertEquals("planned", server.getAttribute(name, "State"));
+		assertEquals(-1L, server.getAttribute(name, "EstimatedRemainingSeconds"));
+
+		ExperimentMonitor.remove(NAME);
+		assertFalse(server.isRegistered(name));
+		assertNull(ExperimentMonitor.get(NAME));
+	}
+
+	@Test
+	public void testProgress() throws Exception {
+		ExperimentMonitor monitor = ExperimentMonitor.forExperiment(NAME);
+		monitor.started(4);
+		assertEquals("running", monitor.getState());
+		assertEquals(0.0, monitor.getProgress(), 0.0);
+		assertEquals(-1, monitor.getEstimatedRemainingSeconds());
+
+		monitor.testVersionSkipped();
+		Thread.sleep(10);
+		monitor.testVersionCompleted();
+		assertEquals(1, monitor.getCompletedTestVersions());
+		assertEquals(1, monitor.getSkippedTestVersions());
+		assertEquals(0.5, monitor.getProgress(), 0.0);
+		assertTrue(monitor.getThroughput() > 0.0);
+		assertTrue(monitor.getEstimatedRemainingSeconds() >= 0);
+
+		monitor.finished(false);
+		assertEquals("failed", monitor.getState());
+		assertTrue(monitor.isFinished());
+		assertEquals(1.0, monitor.getProgress(), 0.0);
+		assertEquals(0, monitor.getEstimatedRemainingSeconds());
+
+		// only the first call after the start has an effect
+		monitor.finished(true);
+		assertEquals("failed", monitor.getState());
+	}
+
+	@Test
+	public void testGetRunningStages() {
+		ExperimentMonitor monitor = ExperimentMonitor.forExperiment(NAME);
+		monitor.started(1);
+		StageTimings timings = StageTimings.forExperiment(NAME);
+		StageTimings.Stage stage = timings.start("v1", "trainer", "component");
+		try {
+			assertArrayEquals(new String[]
+				{ "v1: trainer (java.lang.String)" }, monitor.getRunningStages());
+		}
+		finally {
+			stage.close();
+		}
+		assertEquals(0, monitor.getRunningStages().length);
+	}
+}
@@ -0,0 +1,104 @@
+package de.ugoe.cs.cpdp.execution;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.Test;
+
+public class MemoryBudgetTest {
+
+	@Test
+	public void testAdmit_backfill() throws Exception {
+		MemoryBudget budget = new MemoryBudget(100, 4);
+		List<Long> candidates = new LinkedList<>(Arrays.asList(60L, 50L, 30L, 10L));
+
+		assertEquals(60L, budget.admit(candidates, Long::longValue).longValue());
+		// 50 does not fit anymore, the smaller candidates are admitted first
+		assertEquals(30L, budget.admit(candidates, Long::longValue).longValue());
+		assertEquals(10L, budget.admit(candidates, Long::longValue).longValue());
+		assertEquals(Arrays.asList(50L), candidates);
+		assertEquals(100L, budget.getUsed());
+
+		budget.release(60L);
+		assertEquals(50L, budget.admit(candidates, Long::longValue).longValue());
+		assertTrue(candidates.isEmpty());
+		assertEquals(90L, budget.getUsed());
+	}
+
+	@Test
+	public void testAdmit_oversizedRunsAlone() throws Exception {
+		MemoryBudget budget = new MemoryBudget(100, 4);
+		List<Long> candidates = new LinkedList<>(Arrays.asList(500L, 10L));
+
+		assertEquals(500L, budget.admit(candidates, Long::longValue).longValue());
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Future<Long> admitted = executor.submit(() -> budget.admit(candidates, Long::longValue));
+			try {
+				admitted.get(100, TimeUnit.MILLISECONDS);
+				fail("expected the admission to block");
+			}
+			catch (TimeoutException e) {
+				// expected
+			}
+			budget.release(500L);
+			assertEquals(10L, admitted.get(10, TimeUnit.SECONDS).longValue());
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testAdmit_maxConcurrent() throws Exception {
+		MemoryBudget budget = new MemoryBudget(100, 2);
+		List<Long> candidates = new LinkedList<>(Arrays.asList(1L, 1L, 1L));
+
+		budget.admit(candidates, Long::longValue);
+		budget.admit(candidates, Long::longValue);
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Future<Long> admitted = executor.submit(() -> budget.admit(candidates, Long::longValue));
+			try {
+				admitted.get(100, TimeUnit.MILLISECONDS);
+				fail("expected the admission to block");
+			}
+			catch (TimeoutException e) {
+				// expected
+			}
+			budget.release(1L);
+			assertEquals(1L, admitted.get(10, TimeUnit.SECONDS).longValue());
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testTryAdmit_doesNotBlock() {
+		MemoryBudget budget = new MemoryBudget(100, 4);
+		List<Long> candidates = new LinkedList<>(Arrays.asList(80L, 40L));
+
+		assertEquals(80L, budget.tryAdmit(candidates, Long::longValue).longValue());
+		assertNull(budget.tryAdmit(candidates, Long::longValue));
+		assertEquals(Arrays.asList(40L), candidates);
+		assertEquals(80L, budget.getUsed());
+
+		budget.release(80L);
+		assertEquals(40L, budget.tryAdmit(candidates, Long::longValue).longValue());
+		assertNull(budget.tryAdmit(candidates, Long::longValue));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testOfMaxHeap_invalidShare() {
+		MemoryBudget.ofMaxHeap(1.5, 1);
+	}
+}
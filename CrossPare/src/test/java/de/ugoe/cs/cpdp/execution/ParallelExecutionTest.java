@@ -0,0 +1,190 @@
+package de.ugoe.cs.cpdp.execution;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import com.google.common.collect.HashBasedTable;
+import com.google.common.collect.Table;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import de.ugoe.cs.cpdp.ExperimentConfiguration;
+import de.ugoe.cs.cpdp.IParameterizable;
+import de.ugoe.cs.cpdp.eval.ExperimentResult;
+import de.ugoe.cs.cpdp.eval.FileResultStorage;
+import de.ugoe.cs.cpdp.eval.IBufferedResultStorage;
+
+/**
+ * <p>
+ * Runs the execution strategies with and without the parameter parallel on a part of the test
+ * data and checks that both runs create the same results and record the same progress.
+ * </p>
+ */
+public class ParallelExecutionTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private File copyData(String name, String... projects) throws Exception {
+		File dataLocation = new File(this.folder.getRoot(), name);
+		for (String project : projects) {
+			FileUtils.copyDirectory(new File("testdata/JURECZKO/" + project), new File(dataLocation, project));
+		}
+		return dataLocation;
+	}
+
+	private ExperimentConfiguration createConfig(String name, String strategy, String param, File... dataLocations)
+			throws Exception {
+		File resultsPath = new File(this.folder.getRoot(), "results-" + name);
+		StringBuilder xml = new StringBuilder();
+		xml.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+		xml.append("<config xmlns=\"experimentconfig\" xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\" "
+				+ "xsi:schemaLocation=\"experimentconfig experimentconfig.xsd\">\n");
+		for (File dataLocation : dataLocations) {
+			xml.append(" <loader name=\"CSVFolderLoader\" datalocation=\"" + dataLocation.getAbsolutePath()
+					+ "\" relative=\"false\"/>\n");
+		}
+		xml.append(" <resultspath path=\"" + resultsPath.getAbsolutePath() + "\"/>\n");
+		xml.append(" <trainer name=\"WekaTraining\" param=\"NB weka.classifiers.bayes.NaiveBayes\" />\n");
+		xml.append(" <trainer name=\"WekaTraining\" param=\"DT weka.classifiers.trees.J48\" />\n");
+		xml.append(" <eval name=\"NormalWekaEvaluation\" param=\"\" />\n");
+		xml.append(" <storage name=\"FileResultStorage\" param=\"" + resultsPath.getAbsolutePath() + "\" />\n");
+		xml.append(" <executionStrategy name=\"" + strategy + "\" param=\"" + param + "\" />\n");
+		xml.append("</config>\n");
+		File configFile = new File(this.folder.getRoot(), name + ".xml");
+		Files.write(configFile.toPath(), xml.toString().getBytes(StandardCharsets.UTF_8));
+
+		return new ExperimentConfiguration(configFile);
+	}
+
+	private static File run(ExperimentConfiguration config) throws Exception {
+		IExecutionStrategy experiment = (IExecutionStrategy) Class
+				.forName("de.ugoe.cs.cpdp.execution." + config.getExecutionStrategy())
+				.getConstructor(ExperimentConfiguration.class).newInstance(config);
+		((IParameterizable) experiment).setParameter(config.getExecutionStrategyParameters());
+		experiment.run();
+		ExecutionUtils.flushResultStorages(config.getResultStorages());
+		ExecutionUtils.closeResultStorages(config.getResultStorages());
+		return new File(config.getResultsPath());
+	}
+
+	private static void assertSameResults(File expectedPath, String expectedName, File actualPath, String actualName)
+			throws Exception {
+		List<String> expectedLines = Files.readAllLines(new File(expectedPath, expectedName + ".csv").toPath());
+		List<String> actualLines = Files.readAllLines(new File(actualPath, actualName + ".csv").toPath());
+		assertTrue(expectedLines.size() > 1);
+		assertEquals(expectedLines, actualLines);
+
+		List<ExperimentResult> expected = new FileResultStorage(expectedPath.getPath()).getResults(expectedName);
+		List<ExperimentResult> actual = new FileResultStorage(actualPath.getPath()).getResults(actualName);
+		assertFalse(expected.isEmpty());
+		assertEquals(expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(expected.get(i).getProductName(), actual.get(i).getProductName());
+			assertEquals(expected.get(i).getTrainProductName(), actual.get(i).getTrainProductName());
+			assertEquals(expected.get(i).getClassifier(), actual.get(i).getClassifier());
+			assertEquals(expected.get(i).getSizeTrainingData(), actual.get(i).getSizeTrainingData());
+			assertEquals(expected.get(i).getError(), actual.get(i).getError(), 0.0);
+			assertEquals(expected.get(i).getAuc(), actual.get(i).getAuc(), 0.0);
+			assertEquals(expected.get(i).getMcc(), actual.get(i).getMcc(), 0.0);
+			assertEquals(expected.get(i).getAucec(), actual.get(i).getAucec(), 0.0);
+		}
+	}
+
+	private void assertParallelSameAsSerial(String strategy, File... dataLocations) throws Exception {
+		File serial = run(createConfig("serial", strategy, "", dataLocations));
+		File parallel = run(createConfig("parallel", strategy, "parallel=4", dataLocations));
+		assertSameResults(serial, "serial", parallel, "parallel");
+	}
+
+	@Test
+	public void testCrossProjectExperiment() throws Exception {
+		assertParallelSameAsSerial("CrossProjectExperiment", copyData("data", "ivy", "camel"));
+	}
+
+	@Test
+	public void testHeterogeneousExperiment() throws Exception {
+		assertParallelSameAsSerial("HeterogeneousExperiment", copyData("data", "ivy"), copyData("other", "camel"));
+	}
+
+	@Test
+	public void testSingleTrainCrossProjectExperiment() throws Exception {
+		assertParallelSameAsSerial("SingleTrainCrossProjectExperiment", copyData("data", "ivy", "camel"));
+	}
+
+	@Test
+	public void testSclModelCrossProjectExperiment() throws Exception {
+		assertParallelSameAsSerial("SclModelCrossProjectExperiment", copyData("data", "ivy", "camel"));
+	}
+
+	private static class FailingResultStorage implements IBufferedResultStorage {
+
+		@Override
+		public void addResult(ExperimentResult result) {
+			// results are lost
+		}
+
+		@Override
+		public int containsResult(String experimentName, String productName, String classifierName) {
+			return 0;
+		}
+
+		@Override
+		public int containsHeterogeneousResult(String experimentName, String productName, String classifierName,
+				String trainProductName) {
+			return 0;
+		}
+
+		@Override
+		public Table<String, String, Integer> getResultCounts(String experimentName) {
+			return HashBasedTable.create();
+		}
+
+		@Override
+		public Table<String, String, Integer> getHeterogeneousResultCounts(String experimentName,
+				String classifierName) {
+			return HashBasedTable.create();
+		}
+
+		@Override
+		public void flush() {
+			throw new RuntimeException("connection lost");
+		}
+	}
+
+	private void assertNotJournaledIfNotStored(String param) throws Exception {
+		File dataLocation = copyData("data", "ivy", "camel");
+		for (int i = 1; i <= 2; i++) {
+			ExperimentConfiguration config = createConfig("failing", "CrossProjectExperiment", param, dataLocation);
+			config.getResultStorages().add(new FailingResultStorage());
+			try {
+				run(config);
+				fail("failure of the result storage not reported");
+			}
+			catch (RuntimeException e) {
+				// the final flush fails
+			}
+			// no test version is journaled
+			File journalFile = new File(config.getResultsPath(), "failing" + ProgressJournal.FILE_EXTENSION);
+			assertEquals(0, journalFile.length());
+			// the test versions are executed again, because their results are not stored
+			assertEquals(i * 14, new FileResultStorage(config.getResultsPath()).getResults("failing").size());
+		}
+	}
+
+	@Test
+	public void testNotJournaledIfNotStored() throws Exception {
+		assertNotJournaledIfNotStored("");
+	}
+
+	@Test
+	public void testNotJournaledIfNotStored_parallel() throws Exception {
+		assertNotJournaledIfNotStored("parallel=4");
+	}
+}
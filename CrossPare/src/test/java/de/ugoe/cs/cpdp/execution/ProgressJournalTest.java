@@ -0,0 +1,75 @@
+package de.ugoe.cs.cpdp.execution;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ProgressJournalTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testAddCompletedUnit() throws Exception {
+		File journalFile = new File(folder.getRoot(), "exp.progress");
+		try (ProgressJournal journal = new ProgressJournal(journalFile)) {
+			assertEquals(0, journal.getCompletedCount("ant-1.3"));
+			journal.addCompletedUnit("ant-1.3");
+			journal.addCompletedUnit("ant-1.3");
+			journal.addCompletedUnit("ivy-2.0", "ant-1.3");
+			assertEquals(2, journal.getCompletedCount("ant-1.3"));
+			assertEquals(1, journal.getCompletedCount("ivy-2.0", "ant-1.3"));
+			assertEquals(0, journal.getCompletedCount("ivy-2.0"));
+		}
+	}
+
+	@Test
+	public void testReopen() throws Exception {
+		File journalFile = new File(folder.getRoot(), "exp.progress");
+		try (ProgressJournal journal = new ProgressJournal(journalFile)) {
+			journal.addCompletedUnit("ant-1.3");
+			journal.addCompletedUnit("ivy-2.0", "ant-1.3");
+		}
+		try (ProgressJournal journal = new ProgressJournal(journalFile)) {
+			assertEquals(1, journal.getCompletedCount("ant-1.3"));
+			assertEquals(1, journal.getCompletedCount("ivy-2.0", "ant-1.3"));
+			journal.addCompletedUnit("ant-1.3");
+		}
+		try (ProgressJournal journal = new ProgressJournal(journalFile)) {
+			assertEquals(2, journal.getCompletedCount("ant-1.3"));
+		}
+	}
+
+	@Test
+	public void testIncompleteLineIgnored() throws Exception {
+		File journalFile = new File(folder.getRoot(), "exp.progress");
+		try (FileOutputStream out = new FileOutputStream(journalFile)) {
+			out.write("ant-1.3\nivy-2".getBytes(StandardCharsets.UTF_8));
+		}
+		try (ProgressJournal journal = new ProgressJournal(journalFile)) {
+			assertEquals(1, journal.getCompletedCount("ant-1.3"));
+			assertEquals(0, journal.getCompletedCount("ivy-2"));
+			journal.addCompletedUnit("ivy-2.0");
+		}
+		try (ProgressJournal journal = new ProgressJournal(journalFile)) {
+			assertEquals(1, journal.getCompletedCount("ant-1.3"));
+			assertEquals(0, journal.getCompletedCount("ivy-2"));
+			assertEquals(1, journal.getCompletedCount("ivy-2.0"));
+		}
+	}
+
+	@Test
+	public void testOpen() throws Exception {
+		String resultsPath = new File(folder.getRoot(), "results").getPath();
+		try (ProgressJournal journal = ProgressJournal.open(resultsPath, "exp")) {
+			journal.addCompletedUnit("ant-1.3");
+		}
+		assertTrue(new File(resultsPath, "exp" + ProgressJournal.FILE_EXTENSION).exists());
+	}
+}
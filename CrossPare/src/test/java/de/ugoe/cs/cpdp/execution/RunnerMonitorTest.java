@@ -0,0 +1,51 @@
+package de.ugoe.cs.cpdp.execution;
+
+import static org.junit.Assert.*;
+
+import java.lang.management.ManagementFactory;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class RunnerMonitorTest {
+
+	@After
+	public void tearDown() {
+		ExperimentMonitor.remove("RunnerMonitorTest1");
+		ExperimentMonitor.remove("RunnerMonitorTest2");
+	}
+
+	@Test
+	public void testProgress() {
+		RunnerMonitor runnerMonitor = new RunnerMonitor(null);
+		ExperimentMonitor monitor1 = runnerMonitor.addExperiment("RunnerMonitorTest1", 3.0);
+		ExperimentMonitor monitor2 = runnerMonitor.addExperiment("RunnerMonitorTest2", 1.0);
+		assertEquals(2, runnerMonitor.getTotalExperiments());
+		assertEquals(0.0, runnerMonitor.getProgress(), 0.0);
+		assertEquals(-1, runnerMonitor.getEstimatedRemainingSeconds());
+
+		monitor1.started(2);
+		monitor1.testVersionCompleted();
+		monitor2.started(0);
+		assertArrayEquals(new String[]
+			{ "RunnerMonitorTest1", "RunnerMonitorTest2" }, runnerMonitor.getRunningExperiments());
+		assertEquals(1.5 / 4.0, runnerMonitor.getProgress(), 1e-9);
+
+		monitor2.finished(true);
+		assertEquals(1, runnerMonitor.getFinishedExperiments());
+		assertEquals(0, runnerMonitor.getFailedExperiments());
+		assertEquals(2.5 / 4.0, runnerMonitor.getProgress(), 1e-9);
+		assertTrue(runnerMonitor.getEstimatedRemainingSeconds() >= 0);
+	}
+
+	@Test
+	public void testRegister() {
+		RunnerMonitor runnerMonitor = new RunnerMonitor(null);
+		runnerMonitor.register();
+		assertTrue(ManagementFactory.getPlatformMBeanServer()
+			.isRegistered(RunnerMonitor.OBJECT_NAME));
+		runnerMonitor.unregister();
+		assertFalse(ManagementFactory.getPlatformMBeanServer()
+			.isRegistered(RunnerMonitor.OBJECT_NAME));
+	}
+}
@@ -0,0 +1,74 @@
+package de.ugoe.cs.cpdp.execution;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import org.junit.Test;
+
+import weka.core.Attribute;
+import weka.core.DenseInstance;
+import weka.core.Instances;
+
+public class SclModelAbstractCrossProjectExperimentTest {
+
+	private static Instances createData(int numInstances) {
+		ArrayList<Attribute> attributes = new ArrayList<>();
+		attributes.add(new Attribute("id"));
+		ArrayList<String> classValues = new ArrayList<>();
+		classValues.add("0");
+		classValues.add("1");
+		attributes.add(new Attribute("class", classValues));
+
+		Instances data = new Instances("data", attributes, numInstances);
+		data.setClassIndex(1);
+		for (int i = 0; i < numInstances; i++) {
+			data.add(new DenseInstance(1.0, new double[] { i, i % 3 == 0 ? 1.0 : 0.0 }));
+		}
+		return data;
+	}
+
+	private static void assertSameInstances(Instances expected, Instances actual) {
+		assertEquals(expected.numInstances(), actual.numInstances());
+		for (int i = 0; i < expected.numInstances(); i++) {
+			assertArrayEquals(expected.instance(i).toDoubleArray(), actual.instance(i).toDoubleArray(), 0.0);
+		}
+	}
+
+	@Test
+	public void testGetFold_sameAsRandomizedCV() {
+		// sizes with and without remainder of the division by the number of folds
+		Instances[] data = new Instances[] { createData(37), createData(50), createData(10) };
+		Instances[] randomized = new Instances[data.length];
+		int[][] orders = new int[data.length][];
+		for (int i = 0; i < data.length; i++) {
+			randomized[i] = new Instances(data[i]);
+			orders[i] = new int[data[i].numInstances()];
+			for (int j = 0; j < orders[i].length; j++) {
+				orders[i][j] = j;
+			}
+		}
+
+		// consecutive shuffles continue from the previous order and share the generator between the versions
+		for (int time = 0; time < 3; time++) {
+			Random expectedRand = new Random(time + 1);
+			Random actualRand = new Random(time + 1);
+			for (int i = 0; i < data.length; i++) {
+				randomized[i].randomize(expectedRand);
+				SclModelAbstractCrossProjectExperiment.shuffle(orders[i], actualRand);
+				for (int fold = 0; fold < 10; fold++) {
+					assertSameInstances(randomized[i].testCV(10, fold),
+							SclModelAbstractCrossProjectExperiment.getFold(data[i], orders[i], fold, true));
+					assertSameInstances(randomized[i].trainCV(10, fold),
+							SclModelAbstractCrossProjectExperiment.getFold(data[i], orders[i], fold, false));
+				}
+			}
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testGetFold_tooFewInstances() {
+		SclModelAbstractCrossProjectExperiment.getFold(createData(5), new int[] { 0, 1, 2, 3, 4 }, 0, true);
+	}
+}
@@ -0,0 +1,121 @@
+package de.ugoe.cs.cpdp.execution;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.commons.collections4.list.SetUniqueList;
+import org.junit.Test;
+
+import de.ugoe.cs.cpdp.dataprocessing.ISetWiseProcessingStrategy;
+import de.ugoe.cs.cpdp.dataprocessing.ISetWiseTestdataIndependentProcessingStrategy;
+import de.ugoe.cs.cpdp.dataprocessing.ZScoreNormalization;
+import de.ugoe.cs.cpdp.versions.SoftwareVersion;
+import weka.core.Attribute;
+import weka.core.DenseInstance;
+import weka.core.Instances;
+
+public class SetWisePreprocessingCacheTest {
+
+	private static class CountingProcessor implements ISetWiseTestdataIndependentProcessingStrategy {
+
+		private int numTraindataCalls = 0;
+
+		@Override
+		public void setParameter(String parameters) {
+			// not required
+		}
+
+		@Override
+		public void apply(Instances testdata, SetUniqueList<Instances> traindataSet) {
+			fail("the cache must only process training data");
+		}
+
+		@Override
+		public void applyToTestdata(Instances testdata) {
+			fail("the cache must only process training data");
+		}
+
+		@Override
+		public void applyToTraindata(Instances traindata) {
+			numTraindataCalls++;
+		}
+	}
+
+	private static class OtherProcessor implements ISetWiseProcessingStrategy {
+
+		@Override
+		public void setParameter(String parameters) {
+			// not required
+		}
+
+		@Override
+		public void apply(Instances testdata, SetUniqueList<Instances> traindataSet) {
+			// not required
+		}
+	}
+
+	private static SoftwareVersion createVersion(double... values) {
+		ArrayList<Attribute> attributes = new ArrayList<>();
+		attributes.add(new Attribute("x"));
+		attributes.add(new Attribute("bug", Arrays.asList("0", "1")));
+		Instances data = new Instances("test", attributes, values.length);
+		data.setClassIndex(1);
+		for (int i = 0; i < values.length; i++) {
+			data.add(new DenseInstance(1.0, new double[] { values[i], i % 2 }));
+		}
+		return new SoftwareVersion("dataset", "project", "1.0", data, null, null);
+	}
+
+	@Test
+	public void testGetPreprocessors() {
+		CountingProcessor processor1 = new CountingProcessor();
+		CountingProcessor processor2 = new CountingProcessor();
+		SetWisePreprocessingCache cache = new SetWisePreprocessingCache(
+				Arrays.asList(processor1, new OtherProcessor(), processor2));
+
+		assertEquals(Collections.singletonList(processor1), cache.getPreprocessors());
+	}
+
+	@Test
+	public void testGetTraindata_processedOnce() {
+		CountingProcessor processor = new CountingProcessor();
+		SetWisePreprocessingCache cache = new SetWisePreprocessingCache(
+				Collections.singletonList(processor));
+		SoftwareVersion version1 = createVersion(1.0, 2.0, 3.0);
+		SoftwareVersion version2 = createVersion(4.0, 5.0, 6.0);
+
+		Instances result1 = cache.getTraindata(version1);
+		Instances result2 = cache.getTraindata(version1);
+		cache.getTraindata(version2);
+
+		assertEquals(2, processor.numTraindataCalls);
+		assertNotSame(result1, result2);
+		result1.instance(0).setValue(0, 42.0);
+		assertEquals(1.0, result2.instance(0).value(0), 0.0);
+		assertEquals(1.0, cache.getTraindata(version1).instance(0).value(0), 0.0);
+	}
+
+	@Test
+	public void testGetTraindata_sameAsApply() {
+		List<ISetWiseProcessingStrategy> processors =
+				Collections.singletonList(new ZScoreNormalization());
+		SetWisePreprocessingCache cache = new SetWisePreprocessingCache(processors);
+		SoftwareVersion testVersion = createVersion(1.0, 2.0, 6.0, 7.0);
+		SoftwareVersion trainVersion = createVersion(3.0, 5.0, 10.0);
+
+		Instances testdata = testVersion.getInstances();
+		SetUniqueList<Instances> traindataSet = SetUniqueList.setUniqueList(new ArrayList<Instances>());
+		traindataSet.add(trainVersion.getInstances());
+		processors.get(0).apply(testdata, traindataSet);
+		Instances cachedTraindata = cache.getTraindata(trainVersion);
+
+		for (int i = 0; i < cachedTraindata.size(); i++) {
+			assertArrayEquals(traindataSet.get(0).instance(i).toDoubleArray(),
+					cachedTraindata.instance(i).toDoubleArray(), 0.0);
+		}
+	}
+}
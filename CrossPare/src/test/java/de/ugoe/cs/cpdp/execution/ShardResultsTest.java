@@ -0,0 +1,120 @@
+package de.ugoe.cs.cpdp.execution;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import de.ugoe.cs.cpdp.eval.ExperimentResult;
+import de.ugoe.cs.cpdp.eval.FileResultStorage;
+import de.ugoe.cs.cpdp.eval.IResultStorage;
+
+public class ShardResultsTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private static ResultBuffer output(String output) {
+		ResultBuffer buffer = new ResultBuffer();
+		buffer.getOutput().write(output);
+		return buffer;
+	}
+
+	private String read(String fileName) throws Exception {
+		return new String(Files.readAllBytes(new File(folder.getRoot(), fileName).toPath()),
+				StandardCharsets.UTF_8);
+	}
+
+	@Test
+	public void testParse() {
+		Shard shard = Shard.parse("2/3");
+		assertEquals(2, shard.getIndex());
+		assertEquals(3, shard.getCount());
+		assertEquals("2-of-3", shard.getName());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testParse_invalid() {
+		Shard.parse("4/3");
+	}
+
+	@Test
+	public void testIsAssigned_exactlyOneShard() {
+		for (int unit = 0; unit < 20; unit++) {
+			int numAssigned = 0;
+			for (int i = 1; i <= 3; i++) {
+				if (new Shard(i, 3).isAssigned("exp", unit)) {
+					numAssigned++;
+				}
+			}
+			assertEquals(1, numAssigned);
+		}
+	}
+
+	@Test
+	public void testMerge() throws Exception {
+		String resultsPath = folder.getRoot().getAbsolutePath();
+		Shard shard1 = new Shard(1, 2);
+		Shard shard2 = new Shard(2, 2);
+		try (ShardResults results = ShardResults.open(resultsPath, "exp", shard1);
+				ProgressJournal journal = ShardResults.openJournal(resultsPath, "exp", shard1)) {
+			results.addUnit(2, true, output("header\nunit2\n"),
+					Collections.<IResultStorage> emptyList());
+			results.addUnit(4, false, output("unit4\n"), Collections.<IResultStorage> emptyList());
+			journal.addCompletedUnit("version2");
+		}
+		try (ShardResults results = ShardResults.open(resultsPath, "exp", shard2)) {
+			results.addUnit(1, true, output("header\nunit1a\nunit1b\n"),
+					Collections.<IResultStorage> emptyList());
+			results.addUnit(3, false, output("unit3\n"), Collections.<IResultStorage> emptyList());
+		}
+
+		assertTrue(ShardResults.merge(resultsPath, "exp", 2));
+
+		assertEquals("header\nunit1a\nunit1b\nunit2\nunit3\nunit4\n", read("exp.csv"));
+		assertEquals("version2\n", read("exp.progress"));
+		assertFalse(ShardResults.getDirectory(resultsPath, "exp").exists());
+		assertFalse(ShardResults.merge(resultsPath, "exp", 2));
+	}
+
+	@Test
+	public void testMerge_resultStorages() throws Exception {
+		String resultsPath = folder.getRoot().getAbsolutePath();
+		for (int i = 1; i <= 2; i++) {
+			Shard shard = new Shard(i, 2);
+			try (ShardResults results = ShardResults.open(resultsPath, "exp", shard)) {
+				results.addUnit(i, true, output("header\nunit" + i + "\n"),
+						Collections.<IResultStorage> emptyList());
+			}
+			FileResultStorage storage = new FileResultStorage(resultsPath);
+			storage.setShard(shard.getName());
+			storage.addResult(new ExperimentResult("exp", "product" + i, "NB", ""));
+			storage.close();
+		}
+
+		FileResultStorage storage = new FileResultStorage(resultsPath);
+		assertTrue(ShardResults.merge(resultsPath, "exp", 2,
+				Collections.<IResultStorage> singletonList(storage)));
+
+		assertEquals(1, storage.containsResult("exp", "product1", "NB"));
+		assertEquals(1, storage.containsResult("exp", "product2", "NB"));
+		storage.close();
+		assertFalse(new File(resultsPath, "exp.1-of-2" + FileResultStorage.FILE_EXTENSION).exists());
+	}
+
+	@Test(expected = RuntimeException.class)
+	public void testMerge_missingShard() throws Exception {
+		String resultsPath = folder.getRoot().getAbsolutePath();
+		try (ShardResults results = ShardResults.open(resultsPath, "exp", new Shard(1, 2))) {
+			results.addUnit(1, true, output("header\nunit1\n"),
+					Collections.<IResultStorage> emptyList());
+		}
+		ShardResults.merge(resultsPath, "exp", 2);
+	}
+}
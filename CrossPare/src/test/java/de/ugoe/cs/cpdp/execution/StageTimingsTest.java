@@ -0,0 +1,63 @@
+package de.ugoe.cs.cpdp.execution;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class StageTimingsTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testStart() throws Exception {
+		StageTimings timings = new StageTimings();
+		StageTimings.Stage stage = timings.start("v1", "trainer", "component");
+		Thread.sleep(5);
+		stage.close();
+		timings.start("v2", "trainer", "component").close();
+		timings.start("v1", "evaluator", new Object()).close();
+
+		long[] totals = timings.getTotals("trainer", String.class.getName());
+		assertEquals(2, totals[0]);
+		assertTrue(totals[1] >= 5000000L);
+		assertEquals(0, timings.getTotals("trainer", Object.class.getName())[0]);
+
+		Map<List<String>, long[]> allTotals = timings.getTotals();
+		assertEquals(2, allTotals.size());
+		assertEquals(1, allTotals.get(Arrays.asList("evaluator", Object.class.getName()))[0]);
+	}
+
+	@Test
+	public void testWrite() throws Exception {
+		StageTimings timings = new StageTimings();
+		timings.start("v1", "trainer", "component").close();
+		File file = new File(folder.getRoot(), "exp.stages.csv");
+		timings.write(file.getPath());
+
+		List<String> lines = Files.readAllLines(file.toPath());
+		assertEquals(2, lines.size());
+		assertEquals("testVersion,stage,component,invocations,wallTimeMs,cpuTimeMs,allocatedBytes",
+				lines.get(0));
+		assertTrue(lines.get(1).startsWith("v1,trainer,java.lang.String,1,"));
+	}
+
+	@Test
+	public void testForExperiment() {
+		StageTimings timings = StageTimings.forExperiment("StageTimingsTest");
+		assertSame(timings, StageTimings.forExperiment("StageTimingsTest"));
+		assertTrue(StageTimings.getExperimentNames().contains("StageTimingsTest"));
+		StageTimings.remove("StageTimingsTest");
+		assertFalse(StageTimings.getExperimentNames().contains("StageTimingsTest"));
+		assertNotSame(timings, StageTimings.forExperiment("StageTimingsTest"));
+		StageTimings.remove("StageTimingsTest");
+	}
+}
@@ -0,0 +1,92 @@
+package de.ugoe.cs.cpdp.execution;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+
+import com.google.common.collect.HashBasedTable;
+import com.google.common.collect.Table;
+
+import de.ugoe.cs.cpdp.eval.ExperimentResult;
+import de.ugoe.cs.cpdp.eval.IResultStorage;
+
+public class StoredResultCountsTest {
+
+	private static class CountStorage implements IResultStorage {
+
+		private final Table<String, String, Integer> counts = HashBasedTable.create();
+
+		private int numQueries = 0;
+
+		@Override
+		public void addResult(ExperimentResult result) {
+			// not required
+		}
+
+		@Override
+		public int containsResult(String experimentName, String productName, String classifierName) {
+			fail("point lookups are not expected");
+			return 0;
+		}
+
+		@Override
+		public int containsHeterogeneousResult(String experimentName, String productName,
+				String classifierName, String trainProductName) {
+			fail("point lookups are not expected");
+			return 0;
+		}
+
+		@Override
+		public Table<String, String, Integer> getResultCounts(String experimentName) {
+			numQueries++;
+			return counts;
+		}
+
+		@Override
+		public Table<String, String, Integer> getHeterogeneousResultCounts(String experimentName,
+				String classifierName) {
+			numQueries++;
+			return counts;
+		}
+	}
+
+	@Test
+	public void testGetCount() {
+		CountStorage storage1 = new CountStorage();
+		storage1.counts.put("ant-1.3", "NB", 3);
+		storage1.counts.put("ivy-2.0", "NB", 1);
+		CountStorage storage2 = new CountStorage();
+		storage2.counts.put("ant-1.3", "NB", 2);
+
+		StoredResultCounts storedResults = StoredResultCounts
+				.fetchResultCounts(Arrays.<IResultStorage>asList(storage1, storage2), "exp");
+
+		assertEquals(2, storedResults.getCount("ant-1.3", "NB"));
+		assertEquals(0, storedResults.getCount("ivy-2.0", "NB"));
+		assertEquals(0, storedResults.getCount("camel-1.0", "NB"));
+		assertEquals(1, storage1.numQueries);
+		assertEquals(1, storage2.numQueries);
+	}
+
+	@Test
+	public void testGetCount_heterogeneous() {
+		CountStorage storage = new CountStorage();
+		storage.counts.put("ant-1.3", "ivy-2.0", 1);
+
+		StoredResultCounts storedResults = StoredResultCounts
+				.fetchHeterogeneousResultCounts(Arrays.<IResultStorage>asList(storage), "exp", "NB");
+
+		assertEquals(1, storedResults.getCount("ant-1.3", "ivy-2.0"));
+		assertEquals(0, storedResults.getCount("ivy-2.0", "ant-1.3"));
+	}
+
+	@Test
+	public void testGetCount_noStorages() {
+		StoredResultCounts storedResults = StoredResultCounts
+				.fetchResultCounts(Collections.<IResultStorage>emptyList(), "exp");
+		assertEquals(0, storedResults.getCount("ant-1.3", "NB"));
+	}
+}
@@ -0,0 +1,47 @@
+package de.ugoe.cs.cpdp.execution;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TimingHistoryTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testEstimate_noHistory() {
+		TimingHistory history = new TimingHistory(null);
+		assertEquals(1000.0, history.estimate("NB", 1000.0), 0.0);
+	}
+
+	@Test
+	public void testEstimate_withHistory() {
+		TimingHistory history = new TimingHistory(null);
+		history.record("NB", 1000.0, 1.0);
+		history.record("NB", 3000.0, 3.0);
+		history.record("GP", 1000.0, 100.0);
+
+		assertEquals(2.0, history.estimate("NB", 2000.0), 1e-9);
+		assertEquals(200.0, history.estimate("GP", 2000.0), 1e-9);
+		// average time per unit of work of all signatures
+		assertEquals(104.0 / 5000.0 * 2000.0, history.estimate("TCA", 2000.0), 1e-9);
+	}
+
+	@Test
+	public void testSaveAndLoad() {
+		File historyFile = new File(folder.getRoot(), "timings");
+		TimingHistory history = new TimingHistory(historyFile);
+		history.record("NB", 1000.0, 1.0);
+		history.record("GP", 1000.0, 100.0);
+		history.save();
+
+		TimingHistory loadedHistory = new TimingHistory(historyFile);
+		assertEquals(2.0, loadedHistory.estimate("NB", 2000.0), 1e-9);
+		assertEquals(200.0, loadedHistory.estimate("GP", 2000.0), 1e-9);
+	}
+}
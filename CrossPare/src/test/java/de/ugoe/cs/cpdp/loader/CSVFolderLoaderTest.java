@@ -19,5 +19,21 @@ public class CSVFolderLoaderTest {
 		
 		assertEquals(65, versions.size());
 	}
+	
+	@Test
+	public void testLoadVersionsShared() {
+		CSVFolderLoader loader1 = new CSVFolderLoader();
+		loader1.setLocation("testdata/JURECZKO");
+		CSVFolderLoader loader2 = new CSVFolderLoader();
+		loader2.setLocation("testdata/../testdata/JURECZKO");
+		List<SoftwareVersion> versions1 = loader1.load();
+		List<SoftwareVersion> versions2 = loader2.load();
+		
+		assertNotSame(versions1, versions2);
+		assertSame(versions1.get(0), versions2.get(0));
+		versions1.remove(0);
+		assertEquals(64, versions1.size());
+		assertEquals(65, versions2.size());
+	}
 
 }
@@ -0,0 +1,79 @@
+package de.ugoe.cs.cpdp.util;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+
+import weka.core.Attribute;
+import weka.core.DenseInstance;
+import weka.core.Instances;
+
+public class WekaUtilsTest {
+
+	private static Instances createData(double... values) {
+		ArrayList<Attribute> attributes = new ArrayList<>();
+		attributes.add(new Attribute("x"));
+		attributes.add(new Attribute("bug", Arrays.asList("0", "1")));
+		Instances data = new Instances("test", attributes, values.length);
+		data.setClassIndex(1);
+		for (int i = 0; i < values.length; i++) {
+			data.add(new DenseInstance(1.0, new double[] { values[i], i % 2 }));
+		}
+		return data;
+	}
+
+	@Test
+	public void testConcatenate() {
+		Instances data1 = createData(1.0, 2.0);
+		Instances data2 = createData(3.0, 4.0, 5.0);
+
+		Instances result = WekaUtils.concatenate(Arrays.asList(data1, data2));
+
+		assertEquals(5, result.numInstances());
+		assertEquals(1, result.classIndex());
+		for (int i = 0; i < result.numInstances(); i++) {
+			assertEquals(i + 1.0, result.instance(i).value(0), 0.0);
+			assertSame(result, result.instance(i).dataset());
+		}
+		assertNotSame(data1.instance(0), result.instance(0));
+		assertNotSame(data2.instance(0), result.instance(2));
+	}
+
+	@Test
+	public void testMerge() {
+		Instances data1 = createData(1.0, 2.0);
+		Instances data2 = createData(3.0, 4.0, 5.0);
+
+		Instances result = WekaUtils.merge(Arrays.asList(data1, data2));
+
+		assertEquals(5, result.numInstances());
+		assertEquals(1, result.classIndex());
+		for (int i = 0; i < result.numInstances(); i++) {
+			assertEquals(i + 1.0, result.instance(i).value(0), 0.0);
+			assertSame(result, result.instance(i).dataset());
+		}
+		assertSame(data1.instance(0), result.instance(0));
+		assertSame(data2.instance(0), result.instance(2));
+	}
+
+	@Test
+	public void testMerge_sharedInstancesCopied() {
+		Instances data = createData(1.0, 2.0);
+
+		Instances result = WekaUtils.merge(Arrays.asList(data, data));
+
+		assertEquals(4, result.numInstances());
+		assertNotSame(result.instance(0), result.instance(2));
+		assertEquals(result.instance(0).value(0), result.instance(2).value(0), 0.0);
+	}
+
+	@Test
+	public void testEmpty() {
+		assertNull(WekaUtils.concatenate(Collections.<Instances> emptyList()));
+		assertNull(WekaUtils.merge(Collections.<Instances> emptyList()));
+	}
+}
@@ -0,0 +1,47 @@
+package de.ugoe.cs.cpdp.versions;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import weka.core.Attribute;
+import weka.core.DenseInstance;
+import weka.core.Instances;
+
+public class SoftwareVersionTest {
+
+	private static SoftwareVersion createVersion() {
+		ArrayList<Attribute> attributes = new ArrayList<>();
+		attributes.add(new Attribute("x"));
+		attributes.add(new Attribute("bug", Arrays.asList("0", "1")));
+		Instances data = new Instances("test", attributes, 2);
+		data.setClassIndex(1);
+		data.add(new DenseInstance(1.0, new double[] { 1.0, 0.0 }));
+		data.add(new DenseInstance(1.0, new double[] { 2.0, 1.0 }));
+		return new SoftwareVersion("dataset", "project", "1.0", data, null, null);
+	}
+
+	@Test
+	public void testGetInstances_copy() {
+		SoftwareVersion version = createVersion();
+
+		Instances copy = version.getInstances();
+		copy.instance(0).setValue(0, 42.0);
+		copy.delete(1);
+
+		assertNotSame(version.getReadOnlyInstances(), copy);
+		assertEquals(2, version.getReadOnlyInstances().numInstances());
+		assertEquals(1.0, version.getInstances().instance(0).value(0), 0.0);
+	}
+
+	@Test
+	public void testGetReadOnlyInstances_noCopy() {
+		SoftwareVersion version = createVersion();
+
+		assertSame(version.getReadOnlyInstances(), version.getReadOnlyInstances());
+		assertEquals(2, version.getReadOnlyInstances().numInstances());
+	}
+}
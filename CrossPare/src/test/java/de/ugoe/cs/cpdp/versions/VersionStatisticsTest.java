@@ -0,0 +1,77 @@
+package de.ugoe.cs.cpdp.versions;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import weka.core.Attribute;
+import weka.core.DenseInstance;
+import weka.core.Instances;
+import weka.core.Utils;
+
+public class VersionStatisticsTest {
+
+	private static Instances createData(boolean nominalClass, double[] values, double[] classValues) {
+		ArrayList<Attribute> attributes = new ArrayList<>();
+		attributes.add(new Attribute("x"));
+		attributes.add(new Attribute("color", Arrays.asList("red", "blue")));
+		if (nominalClass) {
+			attributes.add(new Attribute("bug", Arrays.asList("0", "1")));
+		}
+		else {
+			attributes.add(new Attribute("bugs"));
+		}
+		Instances data = new Instances("test", attributes, values.length);
+		data.setClassIndex(2);
+		for (int i = 0; i < values.length; i++) {
+			data.add(new DenseInstance(1.0, new double[] { values[i], i % 2, classValues[i] }));
+		}
+		return data;
+	}
+
+	@Test
+	public void testNominalClass() {
+		Instances data = createData(true, new double[] { 4.0, 1.0, 3.0, 2.0, Utils.missingValue() },
+				new double[] { 0, 1, 1, 0, 0 });
+
+		VersionStatistics statistics = new VersionStatistics(data);
+
+		assertEquals(5, statistics.getNumInstances());
+		assertArrayEquals(new int[] { 3, 2 }, statistics.getClassCounts());
+		assertEquals(1.0, statistics.getMin(0), 0.0);
+		assertEquals(4.0, statistics.getMax(0), 0.0);
+		assertEquals(2.5, statistics.getMean(0), 0.0);
+		assertEquals(5.0 / 3.0, statistics.getVariance(0), 1e-12);
+		assertEquals(2.5, statistics.getMedian(0), 0.0);
+		assertTrue(Double.isNaN(statistics.getMean(1)));
+	}
+
+	@Test
+	public void testNumericClass() {
+		Instances data = createData(false, new double[] { 1.0, 5.0, 3.0 },
+				new double[] { 0, 3, 1 });
+
+		VersionStatistics statistics = new VersionStatistics(data);
+
+		assertArrayEquals(new int[] { 1, 2 }, statistics.getClassCounts());
+		assertEquals(3.0, statistics.getMedian(0), 0.0);
+		assertEquals(4.0, statistics.getVariance(0), 0.0);
+		assertEquals(4.0 / 3.0, statistics.getMean(2), 1e-12);
+	}
+
+	@Test
+	public void testGetStatistics_computedOnce() {
+		Instances data = createData(true, new double[] { 1.0 }, new double[] { 1 });
+		SoftwareVersion version = new SoftwareVersion("dataset", "project", "1.0", data, null, null);
+
+		VersionStatistics statistics = version.getStatistics();
+
+		assertSame(statistics, version.getStatistics());
+		assertTrue(Double.isNaN(statistics.getVariance(0)));
+		statistics.getClassCounts()[0] = 42;
+		assertArrayEquals(new int[] { 0, 1 }, statistics.getClassCounts());
+	}
+}